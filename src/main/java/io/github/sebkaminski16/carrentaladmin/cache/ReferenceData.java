@@ -0,0 +1,36 @@
+package io.github.sebkaminski16.carrentaladmin.cache;
+
+import io.github.sebkaminski16.carrentaladmin.dto.BrandDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.CarModelDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.CategoryDtos;
+
+import java.util.Map;
+
+//Immutable snapshot of all brands, models and categories by id, see ReferenceDataCache.
+//A missing id (created after the snapshot was taken) returns null; callers fall back to the entity.
+public record ReferenceData(
+        Map<Long, BrandDtos.BrandDto> brands,
+        Map<Long, CarModelDtos.CarModelDto> models,
+        Map<Long, CategoryDtos.CategoryDto> categories
+) {
+
+    public static final ReferenceData EMPTY = new ReferenceData(Map.of(), Map.of(), Map.of());
+
+    public ReferenceData {
+        brands = Map.copyOf(brands);
+        models = Map.copyOf(models);
+        categories = Map.copyOf(categories);
+    }
+
+    public BrandDtos.BrandDto brand(Long id) {
+        return id == null ? null : brands.get(id);
+    }
+
+    public CarModelDtos.CarModelDto model(Long id) {
+        return id == null ? null : models.get(id);
+    }
+
+    public CategoryDtos.CategoryDto category(Long id) {
+        return id == null ? null : categories.get(id);
+    }
+}
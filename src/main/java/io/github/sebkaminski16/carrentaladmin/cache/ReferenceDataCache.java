@@ -0,0 +1,140 @@
+package io.github.sebkaminski16.carrentaladmin.cache;
+
+import io.github.sebkaminski16.carrentaladmin.dto.BrandDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.CarModelDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.CategoryDtos;
+import io.github.sebkaminski16.carrentaladmin.entity.BaseEntity;
+import io.github.sebkaminski16.carrentaladmin.entity.Brand;
+import io.github.sebkaminski16.carrentaladmin.entity.CarModel;
+import io.github.sebkaminski16.carrentaladmin.entity.Category;
+import io.github.sebkaminski16.carrentaladmin.event.ReferenceDataChangedEvent;
+import io.github.sebkaminski16.carrentaladmin.mapper.BrandMapper;
+import io.github.sebkaminski16.carrentaladmin.mapper.CategoryMapper;
+import io.github.sebkaminski16.carrentaladmin.repository.BrandRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CarModelRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CategoryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//In-process copy of brands, models and categories for the mappers, so mapping a car or rental reads the
+//names from here instead of lazy loading car.model.brand and car.category (a car list is one query, not 1 + 3N).
+//Readers take the current snapshot without locking; every change reloads all three tables (they're small)
+//after commit and swaps the snapshot in. The periodic refresh picks up changes made on other replicas;
+//currentVersion() picks them up right away for responses that are versioned (ETag) against the DB.
+@Component
+public class ReferenceDataCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    public static final List<Class<? extends BaseEntity>> TYPES = List.of(Brand.class, CarModel.class, Category.class);
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CarModelRepository carModelRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile ReferenceData current = ReferenceData.EMPTY;
+    //dbVersion() the snapshot was loaded at
+    private volatile String loadedVersion;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${spring.referenceData.refreshMillis:600000}",
+            fixedDelayString = "${spring.referenceData.refreshMillis:600000}")
+    public synchronized void reload() {
+        //the second-level and query caches are per instance too, and would hand back what this one saw last
+        entityManagerFactory.getCache().evict(Brand.class);
+        entityManagerFactory.getCache().evict(CarModel.class);
+        entityManagerFactory.getCache().evict(Category.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+
+        //one transaction, so models and their brands (and the version) come from the same state of the DB
+        String[] version = new String[1];
+        ReferenceData loaded = transactionTemplate.execute(status -> {
+            version[0] = dbVersion();
+
+            Map<Long, BrandDtos.BrandDto> brands = new HashMap<>();
+            brandRepository.findAll().forEach(b -> brands.put(b.getId(), BrandMapper.toDto(b)));
+
+            Map<Long, CarModelDtos.CarModelDto> models = new HashMap<>();
+            for (CarModel m : carModelRepository.findAll()) {
+                //brand id comes from the proxy, the name from the brands above - no lazy load per model
+                BrandDtos.BrandDto brand = brands.get(m.getBrand().getId());
+                String brandName = brand != null ? brand.name() : m.getBrand().getName();
+                models.put(m.getId(), new CarModelDtos.CarModelDto(m.getId(), m.getName(), m.getBrand().getId(), brandName));
+            }
+
+            Map<Long, CategoryDtos.CategoryDto> categories = new HashMap<>();
+            categoryRepository.findAll().forEach(c -> categories.put(c.getId(), CategoryMapper.toDto(c)));
+
+            return new ReferenceData(brands, models, categories);
+        });
+        current = loaded;
+        loadedVersion = version[0];
+        log.debug("Reference data reloaded: {} brands, {} models, {} categories",
+                loaded.brands().size(), loaded.models().size(), loaded.categories().size());
+    }
+
+    //take it once per request/list and pass it to the mappers
+    public ReferenceData get() {
+        return current;
+    }
+
+    //The DB's version of brands, models and categories. When the snapshot is older (changed on another replica
+    //since the last reload) it's reloaded first, so a response versioned with the returned value is never built
+    //from older data - it may only be newer, and then the next request just gets a new version.
+    public String currentVersion() {
+        String version = transactionTemplate.execute(status -> dbVersion());
+        if (!version.equals(loadedVersion)) {
+            reload();
+        }
+        return version;
+    }
+
+    //max(updatedAt) + count(*) per table; the count catches deletes, which don't move max(updatedAt)
+    private String dbVersion() {
+        StringBuilder version = new StringBuilder();
+        for (Class<? extends BaseEntity> type : TYPES) {
+            String entity = entityManager.getMetamodel().entity(type).getName();
+            Object[] row = entityManager.createQuery("select max(e.updatedAt), count(e) from " + entity + " e", Object[].class)
+                    .getSingleResult();
+            version.append(entity).append(';').append(row[0]).append(';').append(row[1]).append(';');
+        }
+        return version.toString();
+    }
+}
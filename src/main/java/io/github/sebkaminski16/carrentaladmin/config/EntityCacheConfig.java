@@ -0,0 +1,82 @@
+package io.github.sebkaminski16.carrentaladmin.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+//Hibernate second-level cache for the slowly changing reference entities (@Cache(region = ...) on Brand,
+//CarModel and Category) plus the query cache, kept in local Caffeine caches through JCache.
+//Each region is bounded by spring.entityCache.<region>.maxEntries and ttlSeconds. The cache is per instance:
+//changes made on another replica are only seen here once the entry expires, so keep the TTL short.
+@Configuration
+@ConditionalOnProperty(name = "spring.entityCache.enabled", havingValue = "true", matchIfMissing = true)
+public class EntityCacheConfig {
+
+    public static final String BRANDS = "brands";
+    public static final String CAR_MODELS = "carModels";
+    public static final String CATEGORIES = "categories";
+    //config key for the query results region
+    static final String QUERIES = "queries";
+
+    static final List<String> ENTITY_REGIONS = List.of(BRANDS, CAR_MODELS, CATEGORIES);
+
+    @Autowired
+    private Environment environment;
+
+    //own manager per application context (the provider's default one is JVM wide), closed with the context
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("entity-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : ENTITY_REGIONS) {
+            cacheManager.createCache(region, configuration(region));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, configuration(QUERIES));
+        //last change time per table; a query result is only used if newer. Must outlive the query results
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateProperties(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            //every region is created above; a new @Cache region without config should fail the startup
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS,
+                    environment.getProperty("spring.entityCache.statistics", Boolean.class, true));
+        };
+    }
+
+    private CaffeineConfiguration<Object, Object> configuration(String region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(property(region, "maxEntries", 10_000)));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(property(region, "ttlSeconds", 600))));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    private long property(String region, String key, long defaultValue) {
+        return environment.getProperty("spring.entityCache." + region + "." + key, Long.class, defaultValue);
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.sebkaminski16.carrentaladmin.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+//One pooled Apache HttpClient per integration, so a slow ImgBB upload can't starve Mailtrap calls and vice versa.
+//Settings live under spring.http.<integration>.*; every connection manager bean is also reported by MetricsService.
+@Configuration
+public class HttpClientConfig {
+
+    @Autowired
+    private Environment environment;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager imgbbConnectionManager() {
+        return connectionManager("imgbb");
+    }
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager mailtrapConnectionManager() {
+        return connectionManager("mailtrap");
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient imgbbHttpClient() {
+        return httpClient("imgbb", imgbbConnectionManager());
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient mailtrapHttpClient() {
+        return httpClient("mailtrap", mailtrapConnectionManager());
+    }
+
+    @Bean
+    public RestTemplate imgbbRestTemplate(RestTemplateBuilder builder) {
+        return builder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(imgbbHttpClient())).build();
+    }
+
+    @Bean
+    public RestTemplate mailtrapRestTemplate(RestTemplateBuilder builder) {
+        return builder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(mailtrapHttpClient())).build();
+    }
+
+    PoolingHttpClientConnectionManager connectionManager(String name) {
+        int maxConnections = property(name, "maxConnections", 20);
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                //every integration talks to a single host, so one route may use the whole pool
+                .setMaxConnPerRoute(property(name, "maxConnectionsPerRoute", maxConnections))
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                //LIFO keeps the most recently used (still warm) connections busy and lets the rest idle out
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(property(name, "connectTimeoutMillis", 2000)))
+                        .setSocketTimeout(Timeout.ofMilliseconds(property(name, "readTimeoutMillis", 10000)))
+                        .setTimeToLive(TimeValue.ofSeconds(property(name, "connectionTtlSeconds", 300)))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    CloseableHttpClient httpClient(String name, PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                //the manager is a bean of its own and closed by Spring
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        //how long a caller waits for a free pooled connection
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(property(name, "poolTimeoutMillis", 2000)))
+                        .setResponseTimeout(Timeout.ofMilliseconds(property(name, "readTimeoutMillis", 10000)))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(property(name, "idleEvictSeconds", 30)))
+                .disableCookieManagement()
+                .build();
+    }
+
+    private int property(String name, String key, int defaultValue) {
+        return environment.getProperty("spring.http." + name + "." + key, Integer.class, defaultValue);
+    }
+}
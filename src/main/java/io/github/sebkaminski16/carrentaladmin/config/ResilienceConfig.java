@@ -0,0 +1,48 @@
+package io.github.sebkaminski16.carrentaladmin.config;
+
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.Bulkhead;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.CircuitBreaker;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.IntegrationGuard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+//Circuit breaker and bulkhead per integration, configured under spring.resilience.<integration>.*
+//Every guard bean is also reported by MetricsService.
+@Configuration
+public class ResilienceConfig {
+
+    @Autowired
+    private Environment environment;
+
+    @Bean
+    public IntegrationGuard imgbbGuard() {
+        return guard("imgbb");
+    }
+
+    @Bean
+    public IntegrationGuard mailtrapGuard() {
+        return guard("mailtrap");
+    }
+
+    IntegrationGuard guard(String name) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                property(name, "windowSize", 20),
+                property(name, "minimumCalls", 10),
+                property(name, "failureRateThreshold", 50),
+                property(name, "slowCallMillis", 10000),
+                property(name, "openMillis", 30000),
+                property(name, "halfOpenCalls", 3),
+                System::currentTimeMillis);
+        Bulkhead bulkhead = new Bulkhead(
+                property(name, "maxConcurrentCalls", 10),
+                property(name, "maxWaitingCalls", 10),
+                property(name, "maxWaitMillis", 500));
+        return new IntegrationGuard(name, circuitBreaker, bulkhead);
+    }
+
+    private int property(String name, String key, int defaultValue) {
+        return environment.getProperty("spring.resilience." + name + "." + key, Integer.class, defaultValue);
+    }
+}
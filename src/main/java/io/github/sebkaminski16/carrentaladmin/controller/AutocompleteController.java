@@ -0,0 +1,24 @@
+package io.github.sebkaminski16.carrentaladmin.controller;
+
+import io.github.sebkaminski16.carrentaladmin.dto.AutocompleteDtos;
+import io.github.sebkaminski16.carrentaladmin.service.AutocompleteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/autocomplete")
+public class AutocompleteController {
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    //e.g. /api/autocomplete?q=toy&types=brand,model&limit=10
+    @GetMapping
+    public ResponseEntity<List<AutocompleteDtos.Suggestion>> suggest(@RequestParam(required = false) String q,
+                                                                     @RequestParam(required = false) String types,
+                                                                     @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(autocompleteService.suggest(q, types, limit));
+    }
+}
@@ -1,12 +1,16 @@
 package io.github.sebkaminski16.carrentaladmin.controller;
 
 import io.github.sebkaminski16.carrentaladmin.dto.BrandDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.PageDtos;
+import io.github.sebkaminski16.carrentaladmin.entity.Brand;
 import io.github.sebkaminski16.carrentaladmin.service.BrandService;
+import io.github.sebkaminski16.carrentaladmin.service.ResourceVersionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -16,8 +20,14 @@ public class BrandController {
     @Autowired
     private BrandService brandService;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     @GetMapping
-    public ResponseEntity<List<BrandDtos.BrandDto>> list() {
+    public ResponseEntity<List<BrandDtos.BrandDto>> list(WebRequest request) {
+        if (ConditionalGet.notModified(request, resourceVersionService.table(Brand.class))) {
+            return null;
+        }
         return ResponseEntity.ok(brandService.list());
     }
 
@@ -27,7 +37,10 @@ public class BrandController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<BrandDtos.BrandDto> get(@PathVariable Long id) {
+    public ResponseEntity<BrandDtos.BrandDto> get(@PathVariable Long id, WebRequest request) {
+        if (ConditionalGet.notModified(request, resourceVersionService.row(Brand.class, id))) {
+            return null;
+        }
         return ResponseEntity.ok(brandService.get(id));
     }
 
@@ -46,4 +59,12 @@ public class BrandController {
     public ResponseEntity<List<BrandDtos.BrandDto>> search(@RequestParam(required = false) String query) {
         return ResponseEntity.ok(brandService.search(query));
     }
+
+    //e.g. /search/page?query=kow&page=0&size=20; size is capped at 100
+    @GetMapping("/search/page")
+    public ResponseEntity<PageDtos.PageDto<BrandDtos.BrandDto>> searchPage(@RequestParam String query,
+                                                                           @RequestParam(required = false) Integer page,
+                                                                           @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(brandService.searchPage(query, page, size));
+    }
 }
@@ -1,14 +1,17 @@
 package io.github.sebkaminski16.carrentaladmin.controller;
 
 import io.github.sebkaminski16.carrentaladmin.dto.CarDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.PageDtos;
 import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.CarStatus;
 import io.github.sebkaminski16.carrentaladmin.service.CarService;
+import io.github.sebkaminski16.carrentaladmin.service.ResourceVersionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -19,8 +22,15 @@ public class CarController {
     @Autowired
     private CarService carService;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    //conditional GET: If-None-Match/If-Modified-Since answered with 304 from the version query alone
     @GetMapping
-    public ResponseEntity<List<CarDtos.CarDto>> list() {
+    public ResponseEntity<List<CarDtos.CarDto>> list(WebRequest request) {
+        if (ConditionalGet.notModified(request, resourceVersionService.cars())) {
+            return null;
+        }
         return ResponseEntity.ok(carService.list());
     }
 
@@ -30,7 +40,10 @@ public class CarController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CarDtos.CarDto> get(@PathVariable Long id) {
+    public ResponseEntity<CarDtos.CarDto> get(@PathVariable Long id, WebRequest request) {
+        if (ConditionalGet.notModified(request, resourceVersionService.car(id))) {
+            return null;
+        }
         return ResponseEntity.ok(carService.get(id));
     }
 
@@ -50,6 +63,14 @@ public class CarController {
         return ResponseEntity.ok(carService.search(query));
     }
 
+    //e.g. /search/page?query=kow&page=0&size=20; size is capped at 100
+    @GetMapping("/search/page")
+    public ResponseEntity<PageDtos.PageDto<CarDtos.CarDto>> searchPage(@RequestParam String query,
+                                                                       @RequestParam(required = false) Integer page,
+                                                                       @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(carService.searchPage(query, page, size));
+    }
+
     @GetMapping("/available")
     public ResponseEntity<List<CarDtos.CarDto>> available(
             @RequestParam LocalDateTime from,
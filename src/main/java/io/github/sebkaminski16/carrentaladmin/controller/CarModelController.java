@@ -1,6 +1,7 @@
 package io.github.sebkaminski16.carrentaladmin.controller;
 
 import io.github.sebkaminski16.carrentaladmin.dto.CarModelDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.PageDtos;
 import io.github.sebkaminski16.carrentaladmin.service.CarModelService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -47,6 +48,14 @@ public class CarModelController {
         return ResponseEntity.ok(carModelService.search(query));
     }
 
+    //e.g. /search/page?query=kow&page=0&size=20; size is capped at 100
+    @GetMapping("/search/page")
+    public ResponseEntity<PageDtos.PageDto<CarModelDtos.CarModelDto>> searchPage(@RequestParam String query,
+                                                                                 @RequestParam(required = false) Integer page,
+                                                                                 @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(carModelService.searchPage(query, page, size));
+    }
+
     @GetMapping("/by-brand/{brandId}")
     public ResponseEntity<List<CarModelDtos.CarModelDto>> byBrand(@PathVariable Long brandId) {
         return ResponseEntity.ok(carModelService.listByBrand(brandId));
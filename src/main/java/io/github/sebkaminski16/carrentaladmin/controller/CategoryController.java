@@ -1,6 +1,7 @@
 package io.github.sebkaminski16.carrentaladmin.controller;
 
 import io.github.sebkaminski16.carrentaladmin.dto.CategoryDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.PageDtos;
 import io.github.sebkaminski16.carrentaladmin.service.CategoryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -47,4 +48,12 @@ public class CategoryController {
     public ResponseEntity<List<CategoryDtos.CategoryDto>> search(@RequestParam(required = false) String query) {
         return ResponseEntity.ok(categoryService.search(query));
     }
+
+    //e.g. /search/page?query=kow&page=0&size=20; size is capped at 100
+    @GetMapping("/search/page")
+    public ResponseEntity<PageDtos.PageDto<CategoryDtos.CategoryDto>> searchPage(@RequestParam String query,
+                                                                                 @RequestParam(required = false) Integer page,
+                                                                                 @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(categoryService.searchPage(query, page, size));
+    }
 }
@@ -0,0 +1,27 @@
+package io.github.sebkaminski16.carrentaladmin.controller;
+
+import io.github.sebkaminski16.carrentaladmin.service.ResourceVersionService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+//Conditional GETs against a ResourceVersionService.Version.
+final class ConditionalGet {
+
+    private ConditionalGet() {}
+
+    //true = 304 already set on the response, the handler returns without a body.
+    //Otherwise ETag (and Last-Modified, when the version has one) are added to the 200.
+    //A null version (missing row) is never a match.
+    static boolean notModified(WebRequest request, ResourceVersionService.Version version) {
+        if (version == null) {
+            return false;
+        }
+        //cache but always revalidate; with just Last-Modified browsers may reuse a poll response unasked
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return request.checkNotModified(version.etag(), version.lastModified());
+    }
+}
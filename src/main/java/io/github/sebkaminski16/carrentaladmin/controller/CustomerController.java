@@ -1,13 +1,17 @@
 package io.github.sebkaminski16.carrentaladmin.controller;
 
 import io.github.sebkaminski16.carrentaladmin.dto.CustomerDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.PageDtos;
 import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
+import io.github.sebkaminski16.carrentaladmin.entity.Customer;
 import io.github.sebkaminski16.carrentaladmin.service.CustomerService;
+import io.github.sebkaminski16.carrentaladmin.service.ResourceVersionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -17,8 +21,14 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     @GetMapping
-    public ResponseEntity<List<CustomerDtos.CustomerDto>> list() {
+    public ResponseEntity<List<CustomerDtos.CustomerDto>> list(WebRequest request) {
+        if (ConditionalGet.notModified(request, resourceVersionService.table(Customer.class))) {
+            return null;
+        }
         return ResponseEntity.ok(customerService.list());
     }
 
@@ -28,7 +38,10 @@ public class CustomerController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerDtos.CustomerDto> get(@PathVariable Long id) {
+    public ResponseEntity<CustomerDtos.CustomerDto> get(@PathVariable Long id, WebRequest request) {
+        if (ConditionalGet.notModified(request, resourceVersionService.row(Customer.class, id))) {
+            return null;
+        }
         return ResponseEntity.ok(customerService.get(id));
     }
 
@@ -48,6 +61,21 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.search(query));
     }
 
+    //e.g. /search/page?query=kow&page=0&size=20; size is capped at 100
+    @GetMapping("/search/page")
+    public ResponseEntity<PageDtos.PageDto<CustomerDtos.CustomerDto>> searchPage(@RequestParam String query,
+                                                                                 @RequestParam(required = false) Integer page,
+                                                                                 @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(customerService.searchPage(query, page, size));
+    }
+
+    //best matches with their scores; typo tolerant on names, exact on a whole e-mail or phone number
+    @GetMapping("/search/ranked")
+    public ResponseEntity<List<CustomerDtos.CustomerSearchHit>> searchRanked(@RequestParam String query,
+                                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(customerService.searchRanked(query, limit));
+    }
+
     @GetMapping("/{id}/rentals")
     public ResponseEntity<List<RentalDtos.RentalDto>> rentals(@PathVariable Long id) {
         return ResponseEntity.ok(customerService.getRentals(id));
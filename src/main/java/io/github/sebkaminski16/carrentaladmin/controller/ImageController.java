@@ -2,11 +2,19 @@ package io.github.sebkaminski16.carrentaladmin.controller;
 
 import io.github.sebkaminski16.carrentaladmin.dto.ImageDtos;
 import io.github.sebkaminski16.carrentaladmin.service.ImageService;
+import io.github.sebkaminski16.carrentaladmin.service.ImageUploadJobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/images")
@@ -15,8 +23,40 @@ public class ImageController {
     @Autowired
     private ImageService imageService;
 
+    @Autowired
+    private ImageUploadJobService imageUploadJobService;
+
+    //async=true answers 202 right away, the result is polled from the Location (/api/images/jobs/{id})
     @PostMapping("/upload")
-    public ResponseEntity<ImageDtos.ImageUploadResponse> upload(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> upload(@RequestParam("file") MultipartFile file,
+                                    @RequestParam(value = "async", defaultValue = "false") boolean async) {
+        if (async) {
+            ImageDtos.ImageUploadJobResponse job = imageUploadJobService.submit(file);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/images/jobs/" + job.id()))
+                    .body(job);
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(imageService.uploadCarImage(file));
     }
+
+    //Stored files never change (content addressed), so the hash is a strong ETag and clients may cache forever.
+    //Range requests are answered with 206 by Spring's ResourceRegion support.
+    @GetMapping("/{hash:[0-9a-f]{64}}")
+    public ResponseEntity<Resource> image(@PathVariable String hash, WebRequest request) {
+        String etag = "\"" + hash + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Resource image = imageService.loadImage(hash);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .contentType(MediaTypeFactory.getMediaType(image).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .body(image);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ImageDtos.ImageUploadJobResponse> job(@PathVariable String id) {
+        return ResponseEntity.ok(imageUploadJobService.get(id));
+    }
 }
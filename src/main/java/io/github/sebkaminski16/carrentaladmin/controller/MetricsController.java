@@ -0,0 +1,31 @@
+package io.github.sebkaminski16.carrentaladmin.controller;
+
+import io.github.sebkaminski16.carrentaladmin.dto.MetricsDtos;
+import io.github.sebkaminski16.carrentaladmin.service.MetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @GetMapping("/http-pools")
+    public ResponseEntity<List<MetricsDtos.HttpPoolStatsDto>> httpPools() {
+        return ResponseEntity.ok(metricsService.httpPools());
+    }
+
+    @GetMapping("/integrations")
+    public ResponseEntity<List<MetricsDtos.IntegrationStatsDto>> integrations() {
+        return ResponseEntity.ok(metricsService.integrations());
+    }
+
+    @GetMapping("/entity-cache")
+    public ResponseEntity<List<MetricsDtos.EntityCacheStatsDto>> entityCache() {
+        return ResponseEntity.ok(metricsService.entityCache());
+    }
+}
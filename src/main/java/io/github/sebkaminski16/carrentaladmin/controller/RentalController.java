@@ -2,6 +2,7 @@ package io.github.sebkaminski16.carrentaladmin.controller;
 
 import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.RateType;
+import io.github.sebkaminski16.carrentaladmin.service.RentalRepricingService;
 import io.github.sebkaminski16.carrentaladmin.service.RentalService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +19,9 @@ public class RentalController {
     @Autowired
     private RentalService rentalService;
 
+    @Autowired
+    private RentalRepricingService rentalRepricingService;
+
     @GetMapping
     public ResponseEntity<List<RentalDtos.RentalDto>> list() {
         return ResponseEntity.ok(rentalService.list());
@@ -54,6 +58,11 @@ public class RentalController {
         return ResponseEntity.ok(rentalService.listOverdue());
     }
 
+    @GetMapping("/overdue/accrual")
+    public ResponseEntity<RentalDtos.OverdueAccrualReportDto> overdueAccrual() {
+        return ResponseEntity.ok(rentalService.overdueAccrual());
+    }
+
     @GetMapping("/preview")
     public ResponseEntity<RentalDtos.RentalPricePreviewResponse> preview(
             @RequestParam Long carId,
@@ -78,4 +87,12 @@ public class RentalController {
     public ResponseEntity<RentalDtos.RentalDto> cancel(@PathVariable Long id) {
         return ResponseEntity.ok(rentalService.cancel(id));
     }
+
+    @PostMapping("/reprice")
+    public ResponseEntity<RentalDtos.RentalRepriceResponse> reprice(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long carId
+    ) {
+        return ResponseEntity.ok(rentalRepricingService.repriceActive(categoryId, carId));
+    }
 }
@@ -0,0 +1,22 @@
+package io.github.sebkaminski16.carrentaladmin.controller;
+
+import io.github.sebkaminski16.carrentaladmin.dto.SearchDtos;
+import io.github.sebkaminski16.carrentaladmin.service.GlobalSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    @Autowired
+    private GlobalSearchService globalSearchService;
+
+    //e.g. /api/search?q=kowalski&limit=20
+    @GetMapping
+    public ResponseEntity<SearchDtos.SearchResponse> search(@RequestParam(required = false) String q,
+                                                            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(globalSearchService.search(q, limit));
+    }
+}
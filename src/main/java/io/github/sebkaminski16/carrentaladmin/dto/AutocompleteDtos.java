@@ -0,0 +1,12 @@
+package io.github.sebkaminski16.carrentaladmin.dto;
+
+public class AutocompleteDtos {
+
+    //type: brand | model | category; label is what the dropdown shows, e.g. "Toyota Corolla" for a model
+    public record Suggestion(
+            String type,
+            Long id,
+            String name,
+            String label
+    ) {}
+}
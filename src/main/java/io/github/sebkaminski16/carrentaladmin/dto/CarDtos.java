@@ -15,6 +15,7 @@ public class CarDtos {
             @NotNull Long modelId,
             @NotNull Long categoryId,
             @Size(max = 512) String imageUrl,
+            @Size(max = 512) String thumbnailUrl,
             @NotNull @Positive BigDecimal hourlyRate,
             @NotNull @Positive BigDecimal dailyRate,
             @NotNull @Positive BigDecimal weeklyRate,
@@ -29,6 +30,7 @@ public class CarDtos {
             @NotNull Long modelId,
             @NotNull Long categoryId,
             @Size(max = 512) String imageUrl,
+            @Size(max = 512) String thumbnailUrl,
             @NotNull @Positive BigDecimal hourlyRate,
             @NotNull @Positive BigDecimal dailyRate,
             @NotNull @Positive BigDecimal weeklyRate,
@@ -50,6 +52,7 @@ public class CarDtos {
             Long categoryId,
             String categoryName,
             String imageUrl,
+            String thumbnailUrl,
             BigDecimal hourlyRate,
             BigDecimal dailyRate,
             BigDecimal weeklyRate,
@@ -34,4 +34,10 @@ public class CustomerDtos {
             LocalDateTime createdAt,
             LocalDateTime updatedAt
     ) {}
+
+    //score in (0, 1], 1 = exact match on a whole name token, e-mail or phone
+    public record CustomerSearchHit(
+            CustomerDto customer,
+            double score
+    ) {}
 }
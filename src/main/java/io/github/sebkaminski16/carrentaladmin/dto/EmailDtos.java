@@ -15,4 +15,13 @@ public class EmailDtos {
     public record EmailSendResponse(
             boolean success
     ) {}
+
+    public record EmailDispatchReport(
+            int total,
+            int sent,
+            int failed,
+            int retries,
+            long elapsedMillis,
+            double messagesPerSecond
+    ) {}
 }
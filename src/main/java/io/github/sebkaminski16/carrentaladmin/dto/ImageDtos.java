@@ -1,9 +1,24 @@
 package io.github.sebkaminski16.carrentaladmin.dto;
 
+import java.time.LocalDateTime;
+
 public class ImageDtos {
 
     public record ImageUploadResponse(
             String url,
+            String thumbnailUrl,
             String provider
     ) {}
+
+    //url, thumbnailUrl and provider are set once the job SUCCEEDED, error once it FAILED
+    public record ImageUploadJobResponse(
+            String id,
+            String status,
+            String url,
+            String thumbnailUrl,
+            String provider,
+            String error,
+            LocalDateTime createdAt,
+            LocalDateTime finishedAt
+    ) {}
 }
@@ -0,0 +1,36 @@
+package io.github.sebkaminski16.carrentaladmin.dto;
+
+public class MetricsDtos {
+
+    public record HttpPoolStatsDto(
+            String name,
+            int leased,
+            int pending,
+            int available,
+            int max
+    ) {}
+
+    public record IntegrationStatsDto(
+            String name,
+            String circuitState,
+            int failureRate,
+            int bufferedCalls,
+            long successfulCalls,
+            long failedCalls,
+            long notPermittedCalls,
+            int activeCalls,
+            int waitingCalls,
+            long rejectedCalls,
+            int maxConcurrentCalls
+    ) {}
+
+    //entries = -1 when the region isn't a Caffeine cache
+    public record EntityCacheStatsDto(
+            String region,
+            long hits,
+            long misses,
+            long puts,
+            double hitRatio,
+            long entries
+    ) {}
+}
@@ -0,0 +1,21 @@
+package io.github.sebkaminski16.carrentaladmin.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+public class PageDtos {
+
+    //page is 0-based
+    public record PageDto<T>(
+            List<T> content,
+            int page,
+            int size,
+            long totalElements,
+            int totalPages
+    ) {
+        public static <T> PageDto<T> of(Page<T> page) {
+            return new PageDto<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
+        }
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class RentalDtos {
 
@@ -55,4 +56,34 @@ public class RentalDtos {
             BigDecimal totalPrice,
             String notes
     ) {}
+
+    public record RentalRepriceResponse(
+            long scanned,
+            long repriced,
+            BigDecimal totalDelta
+    ) {}
+
+    public record OverdueAccrualDto(
+            Long rentalId,
+            Long carId,
+            String licensePlate,
+            Long customerId,
+            String customerName,
+            LocalDateTime plannedEndAt,
+            long hoursLate,
+            BigDecimal projectedLateFee
+    ) {}
+
+    public record OverdueAccrualReportDto(
+            LocalDateTime asOf,
+            long overdueRentals,
+            BigDecimal totalProjectedLateFee,
+            List<OverdueAccrualDto> rentals
+    ) {}
+
+    //score in (0, 1]: 1 for the rental id itself, otherwise how well its car or customer matched
+    public record RentalSearchHit(
+            RentalDto rental,
+            double score
+    ) {}
 }
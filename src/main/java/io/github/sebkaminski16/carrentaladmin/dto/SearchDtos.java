@@ -0,0 +1,22 @@
+package io.github.sebkaminski16.carrentaladmin.dto;
+
+import java.util.List;
+
+public class SearchDtos {
+
+    //type: car | customer | rental | brand | model; score in (0, 1], comparable across types
+    public record SearchHit(
+            String type,
+            Long id,
+            String label,
+            double score
+    ) {}
+
+    //partial = at least one source missed the deadline or failed; incompleteSources lists which
+    public record SearchResponse(
+            String query,
+            boolean partial,
+            List<String> incompleteSources,
+            List<SearchHit> hits
+    ) {}
+}
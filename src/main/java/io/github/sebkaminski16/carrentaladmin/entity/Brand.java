@@ -1,11 +1,17 @@
 package io.github.sebkaminski16.carrentaladmin.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+//second-level cached, see EntityCacheConfig
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "brands")
 @Table(name = "brands", uniqueConstraints = {
         @UniqueConstraint(name = "uk_brand_name", columnNames = {"name"})
 })
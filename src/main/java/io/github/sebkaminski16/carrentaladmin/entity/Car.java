@@ -7,6 +7,9 @@ import java.math.BigDecimal;
 @Table(name = "cars", uniqueConstraints = {
         @UniqueConstraint(name = "uk_car_vin", columnNames = {"vin"}),
         @UniqueConstraint(name = "uk_car_license_plate", columnNames = {"licensePlate"})
+}, indexes = {
+        //max(updatedAt) for the list ETag, see ResourceVersionService
+        @Index(name = "ix_cars_updated_at", columnList = "updatedAt")
 })
 public class Car extends BaseEntity {
 
@@ -37,6 +40,10 @@ public class Car extends BaseEntity {
     @Column(length = 512)
     private String imageUrl;
 
+    //downscaled variant for lists, see ImageProcessingService
+    @Column(length = 512)
+    private String thumbnailUrl;
+
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal hourlyRate;
 
@@ -60,6 +67,7 @@ public class Car extends BaseEntity {
         this.model = builder.model;
         this.category = builder.category;
         this.imageUrl = builder.imageUrl;
+        this.thumbnailUrl = builder.thumbnailUrl;
         this.hourlyRate = builder.hourlyRate;
         this.dailyRate = builder.dailyRate;
         this.weeklyRate = builder.weeklyRate;
@@ -134,6 +142,14 @@ public class Car extends BaseEntity {
         this.imageUrl = imageUrl;
     }
 
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
     public BigDecimal getHourlyRate() {
         return hourlyRate;
     }
@@ -175,6 +191,7 @@ public class Car extends BaseEntity {
         private CarModel model;
         private Category category;
         private String imageUrl;
+        private String thumbnailUrl;
         private BigDecimal hourlyRate;
         private BigDecimal dailyRate;
         private BigDecimal weeklyRate;
@@ -222,6 +239,11 @@ public class Car extends BaseEntity {
             return this;
         }
 
+        public Builder thumbnailUrl(String val) {
+            this.thumbnailUrl = val;
+            return this;
+        }
+
         public Builder hourlyRate(BigDecimal val) {
             this.hourlyRate = val;
             return this;
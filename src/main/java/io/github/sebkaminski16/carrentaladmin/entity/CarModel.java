@@ -1,8 +1,12 @@
 package io.github.sebkaminski16.carrentaladmin.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "carModels")
 @Table(name = "car_models", uniqueConstraints = {
         @UniqueConstraint(name = "uk_model_brand_name", columnNames = {"brand_id", "name"})
 })
@@ -2,12 +2,15 @@ package io.github.sebkaminski16.carrentaladmin.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
 @Entity
 @Table(name = "customers", uniqueConstraints = {
         @UniqueConstraint(name = "uk_customer_email", columnNames = {"email"})
+}, indexes = {
+        @Index(name = "ix_customers_updated_at", columnList = "updatedAt")
 })
 public class Customer extends BaseEntity {
 
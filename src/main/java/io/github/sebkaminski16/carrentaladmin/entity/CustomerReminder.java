@@ -0,0 +1,89 @@
+package io.github.sebkaminski16.carrentaladmin.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "customer_reminders", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_customer_reminder_type", columnNames = {"customer_id", "type"})
+})
+public class CustomerReminder extends BaseEntity {
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Customer customer;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private ReminderType type;
+
+    @Column(nullable = false)
+    private LocalDateTime lastSentAt;
+
+    protected CustomerReminder() {}
+
+    private CustomerReminder(Builder builder) {
+        this.customer = builder.customer;
+        this.type = builder.type;
+        this.lastSentAt = builder.lastSentAt;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(Customer customer) {
+        this.customer = customer;
+    }
+
+    public ReminderType getType() {
+        return type;
+    }
+
+    public void setType(ReminderType type) {
+        this.type = type;
+    }
+
+    public LocalDateTime getLastSentAt() {
+        return lastSentAt;
+    }
+
+    public void setLastSentAt(LocalDateTime lastSentAt) {
+        this.lastSentAt = lastSentAt;
+    }
+
+    public static final class Builder {
+        private Customer customer;
+        private ReminderType type;
+        private LocalDateTime lastSentAt;
+
+        private Builder() {}
+
+        public Builder customer(Customer val) {
+            this.customer = val;
+            return this;
+        }
+
+        public Builder type(ReminderType val) {
+            this.type = val;
+            return this;
+        }
+
+        public Builder lastSentAt(LocalDateTime val) {
+            this.lastSentAt = val;
+            return this;
+        }
+
+        public CustomerReminder build() {
+            return new CustomerReminder(this);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.sebkaminski16.carrentaladmin.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "ix_email_outbox_status_next_attempt", columnList = "status, nextAttemptAt")
+})
+public class EmailOutboxMessage extends BaseEntity {
+
+    @Column(nullable = false, length = 120)
+    private String toEmail;
+
+    @Column(nullable = false, length = 255)
+    private String subject;
+
+    @Column(nullable = false, length = 5000)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = Integer.valueOf(0);
+
+    //When the message may be (re)claimed. While SENDING it doubles as the claim timeout,
+    //so a row claimed by a node that crashed becomes eligible again on its own.
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 512)
+    private String lastError;
+
+    @Column
+    private LocalDateTime sentAt;
+
+    protected EmailOutboxMessage() {}
+
+    private EmailOutboxMessage(Builder builder) {
+        this.toEmail = builder.toEmail;
+        this.subject = builder.subject;
+        this.body = builder.body;
+        this.status = builder.status != null ? builder.status : EmailOutboxStatus.PENDING;
+        this.attempts = Integer.valueOf(builder.attempts != null ? builder.attempts : 0);
+        this.nextAttemptAt = builder.nextAttemptAt != null ? builder.nextAttemptAt : LocalDateTime.now();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getToEmail() {
+        return toEmail;
+    }
+
+    public void setToEmail(String toEmail) {
+        this.toEmail = toEmail;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public EmailOutboxStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(EmailOutboxStatus status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    public static final class Builder {
+        private String toEmail;
+        private String subject;
+        private String body;
+        private EmailOutboxStatus status;
+        private Integer attempts;
+        private LocalDateTime nextAttemptAt;
+
+        private Builder() {}
+
+        public Builder toEmail(String val) {
+            this.toEmail = val;
+            return this;
+        }
+
+        public Builder subject(String val) {
+            this.subject = val;
+            return this;
+        }
+
+        public Builder body(String val) {
+            this.body = val;
+            return this;
+        }
+
+        public Builder status(EmailOutboxStatus val) {
+            this.status = val;
+            return this;
+        }
+
+        public Builder attempts(Integer val) {
+            this.attempts = val;
+            return this;
+        }
+
+        public Builder nextAttemptAt(LocalDateTime val) {
+            this.nextAttemptAt = val;
+            return this;
+        }
+
+        public EmailOutboxMessage build() {
+            return new EmailOutboxMessage(this);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.sebkaminski16.carrentaladmin.entity;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,120 @@
+package io.github.sebkaminski16.carrentaladmin.entity;
+
+import jakarta.persistence.*;
+
+//SHA-256 of an uploaded image -> where it was uploaded, so the same file is never uploaded twice
+@Entity
+@Table(name = "image_hashes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_image_hash_sha256", columnNames = "sha256")
+})
+public class ImageHash extends BaseEntity {
+
+    //lowercase hex
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false, length = 500)
+    private String url;
+
+    @Column(length = 500)
+    private String thumbnailUrl;
+
+    @Column(nullable = false, length = 30)
+    private String provider;
+
+    @Column(nullable = false)
+    private Long sizeBytes;
+
+    protected ImageHash() {}
+
+    private ImageHash(Builder builder) {
+        this.sha256 = builder.sha256;
+        this.url = builder.url;
+        this.thumbnailUrl = builder.thumbnailUrl;
+        this.provider = builder.provider;
+        this.sizeBytes = builder.sizeBytes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public static final class Builder {
+        private String sha256;
+        private String url;
+        private String thumbnailUrl;
+        private String provider;
+        private Long sizeBytes;
+
+        private Builder() {}
+
+        public Builder sha256(String val) {
+            this.sha256 = val;
+            return this;
+        }
+
+        public Builder url(String val) {
+            this.url = val;
+            return this;
+        }
+
+        public Builder thumbnailUrl(String val) {
+            this.thumbnailUrl = val;
+            return this;
+        }
+
+        public Builder provider(String val) {
+            this.provider = val;
+            return this;
+        }
+
+        public Builder sizeBytes(Long val) {
+            this.sizeBytes = val;
+            return this;
+        }
+
+        public ImageHash build() {
+            return new ImageHash(this);
+        }
+    }
+}
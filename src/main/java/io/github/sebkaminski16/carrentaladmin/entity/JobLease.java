@@ -0,0 +1,103 @@
+package io.github.sebkaminski16.carrentaladmin.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+//one row per scheduled job (or job partition); whoever holds an unexpired lease runs it
+@Entity
+@Table(name = "job_leases", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_job_lease_name", columnNames = "name")
+})
+public class JobLease extends BaseEntity {
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime leaseUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    protected JobLease() {}
+
+    private JobLease(Builder builder) {
+        this.name = builder.name;
+        this.owner = builder.owner;
+        this.leaseUntil = builder.leaseUntil;
+        this.heartbeatAt = builder.heartbeatAt;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(LocalDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public static final class Builder {
+        private String name;
+        private String owner;
+        private LocalDateTime leaseUntil;
+        private LocalDateTime heartbeatAt;
+
+        private Builder() {}
+
+        public Builder name(String val) {
+            this.name = val;
+            return this;
+        }
+
+        public Builder owner(String val) {
+            this.owner = val;
+            return this;
+        }
+
+        public Builder leaseUntil(LocalDateTime val) {
+            this.leaseUntil = val;
+            return this;
+        }
+
+        public Builder heartbeatAt(LocalDateTime val) {
+            this.heartbeatAt = val;
+            return this;
+        }
+
+        public JobLease build() {
+            return new JobLease(this);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package io.github.sebkaminski16.carrentaladmin.entity;
+
+public enum ReminderType {
+    INACTIVE_CUSTOMER
+}
@@ -46,6 +46,13 @@ public class Rental extends BaseEntity {
     @Column(length = 255)
     private String notes;
 
+    //set once the reminder went to the email outbox, so every replica can race for it and only one wins
+    @Column
+    private LocalDateTime pickupReminderSentAt;
+
+    @Column
+    private LocalDateTime returnReminderSentAt;
+
     protected Rental() {}
 
     private Rental(Builder builder) {
@@ -154,6 +161,22 @@ public class Rental extends BaseEntity {
         this.notes = notes;
     }
 
+    public LocalDateTime getPickupReminderSentAt() {
+        return pickupReminderSentAt;
+    }
+
+    public void setPickupReminderSentAt(LocalDateTime pickupReminderSentAt) {
+        this.pickupReminderSentAt = pickupReminderSentAt;
+    }
+
+    public LocalDateTime getReturnReminderSentAt() {
+        return returnReminderSentAt;
+    }
+
+    public void setReturnReminderSentAt(LocalDateTime returnReminderSentAt) {
+        this.returnReminderSentAt = returnReminderSentAt;
+    }
+
     public static final class Builder {
         private Customer customer;
         private Car car;
@@ -0,0 +1,8 @@
+package io.github.sebkaminski16.carrentaladmin.event;
+
+//Published by BrandService, CarModelService and CategoryService after every create/update/delete,
+//so anything derived from reference data (autocomplete, caches) can rebuild once the change is committed.
+public record ReferenceDataChangedEvent(Kind kind, Long id) {
+
+    public enum Kind { BRAND, MODEL, CATEGORY }
+}
@@ -0,0 +1,17 @@
+package io.github.sebkaminski16.carrentaladmin.event;
+
+import io.github.sebkaminski16.carrentaladmin.entity.Rental;
+
+//Published by RentalService after every change of a rental, so RentalReminderScheduler (re)schedules or cancels
+//its reminders once the change is committed. A rolled back change never reaches the timing wheel.
+//saved is the rental as written, null when the row was deleted.
+public record RentalChangedEvent(Long id, Rental saved) {
+
+    public static RentalChangedEvent saved(Rental rental) {
+        return new RentalChangedEvent(rental.getId(), rental);
+    }
+
+    public static RentalChangedEvent deleted(Long id) {
+        return new RentalChangedEvent(id, null);
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.sebkaminski16.carrentaladmin.event;
+
+import io.github.sebkaminski16.carrentaladmin.entity.BaseEntity;
+
+//Published by CarService and CustomerService after every create/update/delete, so the in-memory search
+//indexes apply the change only once it's committed. A rolled back change never reaches them.
+//saved is the entity as written, null when the row was deleted.
+public record SearchIndexChangedEvent(Class<? extends BaseEntity> type, Long id, BaseEntity saved) {
+
+    public static SearchIndexChangedEvent saved(BaseEntity entity) {
+        return new SearchIndexChangedEvent(entity.getClass(), entity.getId(), entity);
+    }
+
+    public static SearchIndexChangedEvent deleted(Class<? extends BaseEntity> type, Long id) {
+        return new SearchIndexChangedEvent(type, id, null);
+    }
+}
@@ -37,6 +37,14 @@ public class GlobalExceptionHandler {
         return pd;
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ProblemDetail handleServiceBusy(ServiceBusyException ex) {
+        ProblemDetail pd = ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        pd.setTitle("Service busy");
+        pd.setDetail(ex.getMessage());
+        return pd;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ProblemDetail handleValidation(MethodArgumentNotValidException ex) {
         ProblemDetail pd = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
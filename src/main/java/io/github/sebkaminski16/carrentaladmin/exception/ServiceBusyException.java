@@ -0,0 +1,7 @@
+package io.github.sebkaminski16.carrentaladmin.exception;
+
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
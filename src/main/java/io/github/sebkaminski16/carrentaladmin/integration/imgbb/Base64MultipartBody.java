@@ -0,0 +1,60 @@
+package io.github.sebkaminski16.carrentaladmin.integration.imgbb;
+
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StreamUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+//multipart/form-data body with a single form field whose value is the base64 of a stream.
+//The image is encoded while it's copied to the connection, so an upload holds one copy buffer
+//plus the encoder's line buffer no matter how large the file is, and the exact Content-Length
+//is known upfront (no chunked transfer).
+class Base64MultipartBody {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final byte[] preamble;
+    private final byte[] epilogue;
+    private final String boundary;
+    private final InputStream source;
+    private final long sourceSize;
+
+    Base64MultipartBody(String fieldName, InputStream source, long sourceSize) {
+        this.boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        this.preamble = ("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + fieldName + "\"\r\n"
+                + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        this.epilogue = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        this.source = source;
+        this.sourceSize = sourceSize;
+    }
+
+    String contentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    long contentLength() {
+        return preamble.length + 4 * ((sourceSize + 2) / 3) + epilogue.length;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(preamble);
+        //closing the encoder writes the padding; the connection stream itself stays open
+        try (OutputStream encoder = Base64.getEncoder().wrap(StreamUtils.nonClosing(out))) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long copied = 0;
+            int read;
+            while ((read = source.read(buffer)) != -1) {
+                encoder.write(buffer, 0, read);
+                copied += read;
+            }
+            if (copied != sourceSize) {
+                throw new IOException("Image stream had " + copied + " bytes, expected " + sourceSize);
+            }
+        }
+        out.write(epilogue);
+    }
+}
@@ -1,44 +1,65 @@
 package io.github.sebkaminski16.carrentaladmin.integration.imgbb;
 
 import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.IntegrationGuard;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import java.io.InputStream;
+import java.util.List;
 
 @Component
 public class ImgbbClient {
 
     @Autowired
+    @Qualifier("imgbbRestTemplate")
     private RestTemplate restTemplate;
 
+    @Autowired
+    @Qualifier("imgbbGuard")
+    private IntegrationGuard guard;
+
+    @Value("${spring.imgbb.baseUrl:https://api.imgbb.com}")
+    private String baseUrl;
+
     @Value("${spring.imgbb.apiKey}")
     private String apiKey;
 
-    public String uploadBase64(String base64Image) {
+    //streams the image base64-encoded into the request body, see Base64MultipartBody
+    public String upload(InputStream image, long size) {
+        return guard.call(() -> send(image, size));
+    }
 
-        String baseUrl = "https://api.imgbb.com/1/upload?key=";
-        String url = baseUrl + apiKey;
+    private String send(InputStream image, long size) {
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        String url = normalizeBaseUrl(baseUrl) + "/1/upload?key=" + apiKey;
 
-        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-        body.add("image", base64Image);
+        Base64MultipartBody body = new Base64MultipartBody("image", image, size);
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().set(HttpHeaders.CONTENT_TYPE, body.contentType());
+            request.getHeaders().setContentLength(body.contentLength());
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+            if (request instanceof StreamingHttpOutputMessage streaming) {
+                streaming.setBody(body::writeTo);
+            } else {
+                body.writeTo(request.getBody());
+            }
+        };
 
         try {
-            ResponseEntity<ImgbbUploadResponse> response = restTemplate.exchange(
+            ResponseEntity<ImgbbUploadResponse> response = restTemplate.execute(
                     url,
                     HttpMethod.POST,
-                    new HttpEntity<>(body, headers),
-                    ImgbbUploadResponse.class
+                    requestCallback,
+                    restTemplate.responseEntityExtractor(ImgbbUploadResponse.class)
             );
 
-            ImgbbUploadResponse resp = response.getBody();
+            ImgbbUploadResponse resp = response == null ? null : response.getBody();
             if (resp == null || resp.data() == null) {
                 throw new ExternalApiException("ImgBB upload failed: empty response body");
             }
@@ -53,4 +74,11 @@ public class ImgbbClient {
             throw new ExternalApiException("ImgBB upload request failed", ex);
         }
     }
+
+    private static String normalizeBaseUrl(String baseUrl) {
+        if (baseUrl.endsWith("/")) {
+            return baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        return baseUrl;
+    }
 }
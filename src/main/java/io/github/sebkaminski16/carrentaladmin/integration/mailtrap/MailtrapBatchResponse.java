@@ -0,0 +1,9 @@
+package io.github.sebkaminski16.carrentaladmin.integration.mailtrap;
+
+import java.util.List;
+
+public record MailtrapBatchResponse(
+        Boolean success,
+        List<MailtrapSendResponse> responses,
+        List<String> errors
+) {}
@@ -1,12 +1,16 @@
 package io.github.sebkaminski16.carrentaladmin.integration.mailtrap;
 
 import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.IntegrationGuard;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -14,23 +18,44 @@ import java.util.Map;
 public class MailtrapClient {
 
     @Autowired
+    @Qualifier("mailtrapRestTemplate")
     private RestTemplate restTemplate;
 
+    @Autowired
+    @Qualifier("mailtrapGuard")
+    private IntegrationGuard guard;
+
+    @Value("${spring.email.baseUrl:https://sandbox.api.mailtrap.io}")
+    private String baseUrl;
+
     @Value("${spring.email.apiToken}")
     private String apiToken;
 
     @Value("${spring.email.inboxId}")
     private Long inboxId;
 
+    //Mailtrap accepts up to 500 messages per batch request
+    @Value("${spring.email.batchSize:100}")
+    private int batchSize;
+
+    //same for every call, so built once instead of per message
+    private volatile HttpHeaders headers;
+
+    //html is optional, Mailtrap sends a multipart email when both bodies are present
+    public record Message(String toEmail, String subject, String text, String html) {
+
+        public Message(String toEmail, String subject, String text) {
+            this(toEmail, subject, text, null);
+        }
+    }
+
     public boolean sendTextEmail(String fromEmail, String toEmail, String subject, String text) {
+        return guard.call(() -> sendText(fromEmail, toEmail, subject, text));
+    }
 
-        String baseUrl = "https://sandbox.api.mailtrap.io";
-        String url = normalizeBaseUrl(baseUrl) + "/api/send/" + inboxId;
+    private boolean sendText(String fromEmail, String toEmail, String subject, String text) {
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(apiToken);
-        headers.add("Api-Token", apiToken);
+        String url = normalizeBaseUrl(baseUrl) + "/api/send/" + inboxId;
 
         Map<String, Object> payload = Map.of(
                 "from", Map.of("email", fromEmail),
@@ -43,7 +68,7 @@ public class MailtrapClient {
             ResponseEntity<MailtrapSendResponse> response = restTemplate.exchange(
                     url,
                     HttpMethod.POST,
-                    new HttpEntity<>(payload, headers),
+                    new HttpEntity<>(payload, headers()),
                     MailtrapSendResponse.class
             );
 
@@ -54,6 +79,79 @@ public class MailtrapClient {
         }
     }
 
+    //Sends messages through the batch endpoint, batchSize messages per HTTP request.
+    //Returns one result per message (same order as the input). A failed HTTP call throws,
+    //so the caller can retry that group - messages the provider rejected are just reported as false.
+    public List<Boolean> sendBatch(String fromEmail, List<Message> messages) {
+
+        List<Boolean> results = new ArrayList<>(messages.size());
+        int size = Math.max(1, batchSize);
+
+        for (int from = 0; from < messages.size(); from += size) {
+            List<Message> chunk = messages.subList(from, Math.min(from + size, messages.size()));
+            results.addAll(guard.call(() -> sendChunk(fromEmail, chunk)));
+        }
+        return results;
+    }
+
+    public int getBatchSize() {
+        return Math.max(1, batchSize);
+    }
+
+    private List<Boolean> sendChunk(String fromEmail, List<Message> chunk) {
+
+        String url = normalizeBaseUrl(baseUrl) + "/api/batch/" + inboxId;
+
+        List<Map<String, Object>> requests = new ArrayList<>(chunk.size());
+        for (Message m : chunk) {
+            Map<String, Object> request = new HashMap<>(8);
+            request.put("to", List.of(Map.of("email", m.toEmail())));
+            request.put("subject", m.subject());
+            request.put("text", m.text());
+            if (m.html() != null) {
+                request.put("html", m.html());
+            }
+            requests.add(request);
+        }
+        Map<String, Object> payload = Map.of(
+                "base", Map.of("from", Map.of("email", fromEmail)),
+                "requests", requests
+        );
+
+        try {
+            ResponseEntity<MailtrapBatchResponse> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(payload, headers()),
+                    MailtrapBatchResponse.class
+            );
+
+            MailtrapBatchResponse body = response.getBody();
+            List<Boolean> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                boolean ok = body != null && body.responses() != null && i < body.responses().size()
+                        && Boolean.TRUE.equals(body.responses().get(i).success());
+                results.add(ok);
+            }
+            return results;
+        } catch (RestClientException ex) {
+            throw new ExternalApiException("Failed to send email batch via Mailtrap Sandbox API", ex);
+        }
+    }
+
+    private HttpHeaders headers() {
+        HttpHeaders h = headers;
+        if (h == null) {
+            HttpHeaders built = new HttpHeaders();
+            built.setContentType(MediaType.APPLICATION_JSON);
+            built.setBearerAuth(apiToken);
+            built.add("Api-Token", apiToken);
+            h = HttpHeaders.readOnlyHttpHeaders(built);
+            headers = h;
+        }
+        return h;
+    }
+
     private static String normalizeBaseUrl(String baseUrl) {
         if (baseUrl.endsWith("/")) {
             return baseUrl.substring(0, baseUrl.length() - 1);
@@ -6,5 +6,6 @@ import java.util.List;
 
 public record MailtrapSendResponse(
         Boolean success,
-        @JsonProperty("message_ids") List<String> messageIds
+        @JsonProperty("message_ids") List<String> messageIds,
+        List<String> errors
 ) {}
@@ -0,0 +1,72 @@
+package io.github.sebkaminski16.carrentaladmin.integration.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Caps the number of threads inside one integration at maxConcurrentCalls. Up to maxWaitingCalls more may wait
+//at most maxWaitMillis for a slot, everything beyond that is rejected right away - request threads never pile up
+//behind a slow provider.
+public class Bulkhead {
+
+    private final int maxConcurrentCalls;
+    private final int maxWaitingCalls;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    public Bulkhead(int maxConcurrentCalls, int maxWaitingCalls, long maxWaitMillis) {
+        if (maxConcurrentCalls <= 0 || maxWaitingCalls < 0 || maxWaitMillis < 0) {
+            throw new IllegalArgumentException("Invalid bulkhead settings");
+        }
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitingCalls = maxWaitingCalls;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    //every successful tryEnter() must be paired with exit()
+    public boolean tryEnter() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (waiting.incrementAndGet() > maxWaitingCalls) {
+            waiting.decrementAndGet();
+            rejectedCalls.incrementAndGet();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting.decrementAndGet();
+        }
+        rejectedCalls.incrementAndGet();
+        return false;
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public int getActiveCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    public int getWaitingCalls() {
+        return waiting.get();
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.get();
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+}
@@ -0,0 +1,154 @@
+package io.github.sebkaminski16.carrentaladmin.integration.resilience;
+
+import java.util.function.LongSupplier;
+
+//Count based circuit breaker. The outcomes of the last windowSize calls are kept in a ring buffer; once at least
+//minimumCalls are recorded and the failure rate reaches failureRateThreshold %, the breaker opens and rejects calls
+//without touching the provider. After openMillis it lets halfOpenCalls probes through: all of them succeeding closes
+//it again, any failing one opens it for another openMillis. Calls slower than slowCallMillis count as failures,
+//so a provider that answers but takes forever trips the breaker too.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallMillis;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    private long successfulCalls;
+    private long failedCalls;
+    private long notPermittedCalls;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold,
+                          long slowCallMillis, long openMillis, int halfOpenCalls, LongSupplier clock) {
+        if (windowSize <= 0 || minimumCalls <= 0 || halfOpenCalls <= 0
+                || failureRateThreshold <= 0 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("Invalid circuit breaker settings");
+        }
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallMillis = slowCallMillis;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+            return true;
+        }
+        notPermittedCalls++;
+        return false;
+    }
+
+    //the permitted call never reached the provider (e.g. the bulkhead was full), so a probe slot is handed back
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenPermits + halfOpenSuccesses < halfOpenCalls) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized void onSuccess(long durationMillis) {
+        if (durationMillis >= slowCallMillis) {
+            onFailure(durationMillis);
+            return;
+        }
+        successfulCalls++;
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure(long durationMillis) {
+        failedCalls++;
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+        }
+        //OPEN: a slow call that started before the breaker opened, nothing left to decide
+    }
+
+    public synchronized State getState() {
+        //reports HALF_OPEN as soon as the wait is over, even if no call asked for a permission yet
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public synchronized int getFailureRate() {
+        return recorded == 0 ? 0 : failures * 100 / recorded;
+    }
+
+    public synchronized int getBufferedCalls() {
+        return recorded;
+    }
+
+    public synchronized long getSuccessfulCalls() {
+        return successfulCalls;
+    }
+
+    public synchronized long getFailedCalls() {
+        return failedCalls;
+    }
+
+    public synchronized long getNotPermittedCalls() {
+        return notPermittedCalls;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) failures--;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) failures++;
+        next = (next + 1) % outcomes.length;
+        //checked after every call, a success can complete a window that is already over the threshold
+        if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        halfOpenPermits = 0;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.sebkaminski16.carrentaladmin.integration.resilience;
+
+import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import org.springframework.web.client.HttpClientErrorException;
+import java.util.function.Supplier;
+
+//Circuit breaker + bulkhead of one integration. The breaker is checked first, so an open circuit doesn't even
+//take a bulkhead slot; rejected calls fail fast with ExternalApiException (502) instead of blocking the caller.
+public class IntegrationGuard {
+
+    private final String name;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public IntegrationGuard(String name, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.name = name;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    public <T> T call(Supplier<T> call) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new ExternalApiException(name + " is temporarily unavailable (circuit open), try again later");
+        }
+        if (!bulkhead.tryEnter()) {
+            circuitBreaker.releasePermission();
+            throw new ExternalApiException(name + " is busy (too many concurrent calls), try again later");
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess(elapsedMillis(start));
+            return result;
+        } catch (RuntimeException ex) {
+            if (isProviderFailure(ex)) {
+                circuitBreaker.onFailure(elapsedMillis(start));
+            } else {
+                circuitBreaker.onSuccess(elapsedMillis(start));
+            }
+            throw ex;
+        } finally {
+            bulkhead.exit();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    //a 4xx means our request was bad while the provider itself answered fine - except for throttling
+    private static boolean isProviderFailure(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof HttpClientErrorException clientError) {
+                return clientError.getStatusCode().value() == 429;
+            }
+        }
+        return true;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -1,11 +1,21 @@
 package io.github.sebkaminski16.carrentaladmin.mapper;
 
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceData;
 import io.github.sebkaminski16.carrentaladmin.dto.CarDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.CarModelDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.CategoryDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.Car;
 
 public class CarMapper {
 
     public static CarDtos.CarDto toDto(Car c) {
+        return toDto(c, ReferenceData.EMPTY);
+    }
+
+    //model, brand and category names come from refs; only ids missing there are read from the entity graph
+    public static CarDtos.CarDto toDto(Car c, ReferenceData refs) {
+        CarModelDtos.CarModelDto model = model(c, refs);
+        CategoryDtos.CategoryDto category = refs.category(c.getCategory().getId());
         return new CarDtos.CarDto(
                 c.getId(),
                 c.getVin(),
@@ -13,13 +23,14 @@ public class CarMapper {
                 c.getProductionYear(),
                 c.getColor(),
                 c.getStatus(),
-                c.getModel().getId(),
-                c.getModel().getName(),
-                c.getModel().getBrand().getId(),
-                c.getModel().getBrand().getName(),
+                model.id(),
+                model.name(),
+                model.brandId(),
+                model.brandName(),
                 c.getCategory().getId(),
-                c.getCategory().getName(),
+                category != null ? category.name() : c.getCategory().getName(),
                 c.getImageUrl(),
+                c.getThumbnailUrl(),
                 c.getHourlyRate(),
                 c.getDailyRate(),
                 c.getWeeklyRate(),
@@ -28,6 +39,17 @@ public class CarMapper {
     }
 
     public static String toLabel(Car c) {
-        return c.getLicensePlate() + " (" + c.getModel().getBrand().getName() + " " + c.getModel().getName() + ")";
+        return toLabel(c, ReferenceData.EMPTY);
+    }
+
+    public static String toLabel(Car c, ReferenceData refs) {
+        CarModelDtos.CarModelDto model = model(c, refs);
+        return c.getLicensePlate() + " (" + model.brandName() + " " + model.name() + ")";
+    }
+
+    //getId() on the lazy proxy doesn't load the model
+    private static CarModelDtos.CarModelDto model(Car c, ReferenceData refs) {
+        CarModelDtos.CarModelDto cached = refs.model(c.getModel().getId());
+        return cached != null ? cached : CarModelMapper.toDto(c.getModel(), refs);
     }
 }
@@ -1,16 +1,24 @@
 package io.github.sebkaminski16.carrentaladmin.mapper;
 
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceData;
+import io.github.sebkaminski16.carrentaladmin.dto.BrandDtos;
 import io.github.sebkaminski16.carrentaladmin.dto.CarModelDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.CarModel;
 
 public class CarModelMapper {
 
     public static CarModelDtos.CarModelDto toDto(CarModel m) {
+        return toDto(m, ReferenceData.EMPTY);
+    }
+
+    //brand name from refs when it's there
+    public static CarModelDtos.CarModelDto toDto(CarModel m, ReferenceData refs) {
+        BrandDtos.BrandDto brand = refs.brand(m.getBrand().getId());
         return new CarModelDtos.CarModelDto(
                 m.getId(),
                 m.getName(),
                 m.getBrand().getId(),
-                m.getBrand().getName()
+                brand != null ? brand.name() : m.getBrand().getName()
         );
     }
 }
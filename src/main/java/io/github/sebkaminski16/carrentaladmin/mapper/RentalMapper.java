@@ -1,17 +1,22 @@
 package io.github.sebkaminski16.carrentaladmin.mapper;
 
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceData;
 import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.Rental;
 
 public class RentalMapper {
 
     public static RentalDtos.RentalDto toDto(Rental r) {
+        return toDto(r, ReferenceData.EMPTY);
+    }
+
+    public static RentalDtos.RentalDto toDto(Rental r, ReferenceData refs) {
         return new RentalDtos.RentalDto(
                 r.getId(),
                 r.getCustomer().getId(),
                 r.getCustomer().getFirstName() + " " + r.getCustomer().getLastName(),
                 r.getCar().getId(),
-                CarMapper.toLabel(r.getCar()),
+                CarMapper.toLabel(r.getCar(), refs),
                 r.getStartAt(),
                 r.getPlannedEndAt(),
                 r.getActualReturnAt(),
@@ -1,15 +1,39 @@
 package io.github.sebkaminski16.carrentaladmin.repository;
 
 import io.github.sebkaminski16.carrentaladmin.entity.Brand;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface BrandRepository extends JpaRepository<Brand, Long> {
 
+    //query cached (EntityCacheConfig); any insert/update/delete on the table invalidates the result
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Override
+    List<Brand> findAll();
+
     List<Brand> findByNameContainingIgnoreCase(String query);
 
+    Page<Brand> findByNameContainingIgnoreCase(String query, Pageable pageable);
+
+    //MySQL only, :query in boolean mode syntax - see FullTextSearch (which also creates the index)
+    @Query(value = """
+        select * from brands
+        where match(name) against (:query in boolean mode)
+        order by match(name) against (:query in boolean mode) desc, id
+        """,
+            countQuery = "select count(*) from brands where match(name) against (:query in boolean mode)",
+            nativeQuery = true)
+    Page<Brand> searchFullText(@Param("query") String query, Pageable pageable);
+
     boolean existsByNameIgnoreCase(String name);
 
     boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
@@ -1,7 +1,14 @@
 package io.github.sebkaminski16.carrentaladmin.repository;
 
 import io.github.sebkaminski16.carrentaladmin.entity.CarModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,13 +16,37 @@ import java.util.List;
 @Repository
 public interface CarModelRepository extends JpaRepository<CarModel, Long> {
 
+    //the model picker after choosing a brand; query cached
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<CarModel> findByBrandId(Long brandId);
 
     boolean existsByBrandId(Long brandId);
 
     List<CarModel> findByNameContainingIgnoreCase(String query);
 
+    Page<CarModel> findByNameContainingIgnoreCase(String query, Pageable pageable);
+
+    //MySQL only, :query in boolean mode syntax - see FullTextSearch (which also creates the index)
+    @Query(value = """
+        select * from car_models
+        where match(name) against (:query in boolean mode)
+        order by match(name) against (:query in boolean mode) desc, id
+        """,
+            countQuery = "select count(*) from car_models where match(name) against (:query in boolean mode)",
+            nativeQuery = true)
+    Page<CarModel> searchFullText(@Param("query") String query, Pageable pageable);
+
     boolean existsByNameIgnoreCase(String name);
 
     boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
+
+    //models with their brand name in one query, for AutocompleteService
+    @Query("select m.id as id, m.name as name, b.name as brandName from CarModel m join m.brand b")
+    List<NameRow> findAllNames();
+
+    interface NameRow {
+        Long getId();
+        String getName();
+        String getBrandName();
+    }
 }
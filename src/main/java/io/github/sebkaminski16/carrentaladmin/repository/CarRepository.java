@@ -3,12 +3,15 @@ package io.github.sebkaminski16.carrentaladmin.repository;
 import io.github.sebkaminski16.carrentaladmin.entity.Car;
 import io.github.sebkaminski16.carrentaladmin.entity.CarStatus;
 import io.github.sebkaminski16.carrentaladmin.entity.RentalStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CarRepository extends JpaRepository<Car, Long> {
 
@@ -20,6 +23,18 @@ public interface CarRepository extends JpaRepository<Car, Long> {
 
     List<Car> findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(String licensePlate, String vin);
 
+    Page<Car> findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(String licensePlate, String vin, Pageable pageable);
+
+    //MySQL only, :query in boolean mode syntax - see FullTextSearch (which also creates the index)
+    @Query(value = """
+        select * from cars
+        where match(license_plate, vin) against (:query in boolean mode)
+        order by match(license_plate, vin) against (:query in boolean mode) desc, id
+        """,
+            countQuery = "select count(*) from cars where match(license_plate, vin) against (:query in boolean mode)",
+            nativeQuery = true)
+    Page<Car> searchFullText(@Param("query") String query, Pageable pageable);
+
     @Query("""
         select c from Car c
         where c.status = io.github.sebkaminski16.carrentaladmin.entity.CarStatus.AVAILABLE
@@ -35,6 +50,10 @@ public interface CarRepository extends JpaRepository<Car, Long> {
             @Param("activeStatus") RentalStatus activeStatus
     );
 
+    //just the searchable columns, for (re)building CarSearchIndex
+    @Query("select c.id as id, c.licensePlate as licensePlate, c.vin as vin from Car c order by c.id")
+    Stream<SearchRow> streamForSearchIndex();
+
     boolean existsByVin(String vin);
 
     boolean existsByLicensePlate(String licensePlate);
@@ -42,4 +61,10 @@ public interface CarRepository extends JpaRepository<Car, Long> {
     boolean existsByVinAndIdNot(String vin, Long id);
 
     boolean existsByLicensePlateAndIdNot(String licensePlate, Long id);
+
+    interface SearchRow {
+        Long getId();
+        String getLicensePlate();
+        String getVin();
+    }
 }
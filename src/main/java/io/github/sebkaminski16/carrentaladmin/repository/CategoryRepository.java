@@ -1,7 +1,14 @@
 package io.github.sebkaminski16.carrentaladmin.repository;
 
 import io.github.sebkaminski16.carrentaladmin.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,8 +16,25 @@ import java.util.List;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+    //query cached, see BrandRepository.findAll
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Override
+    List<Category> findAll();
+
     List<Category> findByNameContainingIgnoreCase(String query);
 
+    Page<Category> findByNameContainingIgnoreCase(String query, Pageable pageable);
+
+    //MySQL only, :query in boolean mode syntax - see FullTextSearch (which also creates the index)
+    @Query(value = """
+        select * from categories
+        where match(name) against (:query in boolean mode)
+        order by match(name) against (:query in boolean mode) desc, id
+        """,
+            countQuery = "select count(*) from categories where match(name) against (:query in boolean mode)",
+            nativeQuery = true)
+    Page<Category> searchFullText(@Param("query") String query, Pageable pageable);
+
     boolean existsByNameIgnoreCase(String name);
 
     boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
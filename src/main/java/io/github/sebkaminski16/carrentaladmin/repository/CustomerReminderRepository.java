@@ -0,0 +1,15 @@
+package io.github.sebkaminski16.carrentaladmin.repository;
+
+import io.github.sebkaminski16.carrentaladmin.entity.CustomerReminder;
+import io.github.sebkaminski16.carrentaladmin.entity.ReminderType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerReminderRepository extends JpaRepository<CustomerReminder, Long> {
+
+    List<CustomerReminder> findByTypeAndCustomerIdIn(ReminderType type, Collection<Long> customerIds);
+}
@@ -1,9 +1,16 @@
 package io.github.sebkaminski16.carrentaladmin.repository;
 
 import io.github.sebkaminski16.carrentaladmin.entity.Customer;
+import io.github.sebkaminski16.carrentaladmin.entity.ReminderType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
@@ -12,6 +19,24 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
             String firstName, String lastName, String email
     );
 
+    Page<Customer> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
+            String firstName, String lastName, String email, Pageable pageable
+    );
+
+    //MySQL only, :query in boolean mode syntax - see FullTextSearch (which also creates the index)
+    @Query(value = """
+        select * from customers
+        where match(first_name, last_name, email) against (:query in boolean mode)
+        order by match(first_name, last_name, email) against (:query in boolean mode) desc, id
+        """,
+            countQuery = "select count(*) from customers where match(first_name, last_name, email) against (:query in boolean mode)",
+            nativeQuery = true)
+    Page<Customer> searchFullText(@Param("query") String query, Pageable pageable);
+
+    //just the searchable columns, for (re)building CustomerSearchIndex
+    @Query("select c.id as id, c.firstName as firstName, c.lastName as lastName, c.email as email, c.phone as phone from Customer c order by c.id")
+    Stream<SearchRow> streamForSearchIndex();
+
     boolean existsByEmail(String email);
 
     boolean existsByPhone(String phone);
@@ -19,4 +44,46 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     boolean existsByPhoneAndIdNot(String phone, Long id);
 
     boolean existsByEmailAndIdNot(String email, Long id);
+
+    @Query("select max(c.id) from Customer c")
+    Long findMaxId();
+
+    //one aggregate instead of count + max per customer; keyset-paged by id so it can be streamed in chunks.
+    //customers reminded after :remindedSince (see CustomerReminder) are skipped in the same query
+    @Query("""
+        select c.id as customerId, c.firstName as firstName, c.email as email
+        from Customer c
+        left join Rental r on r.customer = c
+        where c.id > :afterId and c.id <= :upToId
+          and not exists (
+              select 1 from CustomerReminder cr
+              where cr.customer = c and cr.type = :type and cr.lastSentAt >= :remindedSince
+          )
+        group by c.id, c.firstName, c.email
+        having max(coalesce(r.actualReturnAt, r.plannedEndAt)) is null
+            or max(coalesce(r.actualReturnAt, r.plannedEndAt)) < :threshold
+        order by c.id asc
+        """)
+    List<InactiveCustomerRow> findInactiveCustomersAfter(
+            @Param("afterId") Long afterId,
+            @Param("upToId") Long upToId,
+            @Param("threshold") LocalDateTime threshold,
+            @Param("type") ReminderType type,
+            @Param("remindedSince") LocalDateTime remindedSince,
+            Pageable pageable
+    );
+
+    interface InactiveCustomerRow {
+        Long getCustomerId();
+        String getFirstName();
+        String getEmail();
+    }
+
+    interface SearchRow {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+        String getPhone();
+    }
 }
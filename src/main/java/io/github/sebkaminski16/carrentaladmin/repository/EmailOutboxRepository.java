@@ -0,0 +1,33 @@
+package io.github.sebkaminski16.carrentaladmin.repository;
+
+import io.github.sebkaminski16.carrentaladmin.entity.EmailOutboxMessage;
+import io.github.sebkaminski16.carrentaladmin.entity.EmailOutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    //lock timeout -2 = Hibernate's SKIP_LOCKED, so concurrent dispatchers never wait on each other's rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from EmailOutboxMessage m where m.status in :statuses and m.nextAttemptAt <= :now order by m.nextAttemptAt asc, m.id asc")
+    List<EmailOutboxMessage> findClaimable(
+            @Param("statuses") Collection<EmailOutboxStatus> statuses,
+            @Param("now") LocalDateTime now,
+            Pageable pageable
+    );
+
+    long countByStatus(EmailOutboxStatus status);
+}
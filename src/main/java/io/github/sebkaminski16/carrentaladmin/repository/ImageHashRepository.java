@@ -0,0 +1,12 @@
+package io.github.sebkaminski16.carrentaladmin.repository;
+
+import io.github.sebkaminski16.carrentaladmin.entity.ImageHash;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface ImageHashRepository extends JpaRepository<ImageHash, Long> {
+
+    Optional<ImageHash> findBySha256(String sha256);
+}
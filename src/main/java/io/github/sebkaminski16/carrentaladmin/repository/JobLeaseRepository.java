@@ -0,0 +1,45 @@
+package io.github.sebkaminski16.carrentaladmin.repository;
+
+import io.github.sebkaminski16.carrentaladmin.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, Long> {
+
+    Optional<JobLease> findByName(String name);
+
+    boolean existsByName(String name);
+
+    //single conditional update, so two nodes racing for an expired lease can't both win
+    @Modifying
+    @Query("""
+        update JobLease l
+        set l.owner = :owner, l.leaseUntil = :leaseUntil, l.heartbeatAt = :now, l.updatedAt = :now
+        where l.name = :name and l.leaseUntil < :now
+        """)
+    int tryAcquire(
+            @Param("name") String name,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now,
+            @Param("leaseUntil") LocalDateTime leaseUntil
+    );
+
+    @Modifying
+    @Query("""
+        update JobLease l
+        set l.leaseUntil = :leaseUntil, l.heartbeatAt = :now, l.updatedAt = :now
+        where l.name = :name and l.owner = :owner
+        """)
+    int extend(
+            @Param("name") String name,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now,
+            @Param("leaseUntil") LocalDateTime leaseUntil
+    );
+}
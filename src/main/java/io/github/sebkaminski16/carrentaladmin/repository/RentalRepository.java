@@ -2,13 +2,17 @@ package io.github.sebkaminski16.carrentaladmin.repository;
 
 import io.github.sebkaminski16.carrentaladmin.entity.Rental;
 import io.github.sebkaminski16.carrentaladmin.entity.RentalStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, Long> {
@@ -25,9 +29,66 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
 
     List<Rental> findByCarIdOrderByStartAtDesc(Long carId);
 
+    //global search: latest rentals of the cars / customers that matched the query
+    List<Rental> findByCarIdInOrderByStartAtDesc(Collection<Long> carIds, Pageable pageable);
+
+    List<Rental> findByCustomerIdInOrderByStartAtDesc(Collection<Long> customerIds, Pageable pageable);
+
     @Query("select r from Rental r where r.status = :status and r.plannedEndAt < :now order by r.plannedEndAt asc")
     List<Rental> findOverdue(@Param("status") RentalStatus status, @Param("now") LocalDateTime now);
 
+    @Query("""
+        select r.id as rentalId,
+               c.id as carId,
+               c.licensePlate as licensePlate,
+               cu.id as customerId,
+               cu.firstName as customerFirstName,
+               cu.lastName as customerLastName,
+               r.plannedEndAt as plannedEndAt,
+               c.hourlyRate as hourlyRate
+        from Rental r
+        join r.car c
+        join r.customer cu
+        where r.status = :status and r.plannedEndAt < :now
+        order by r.plannedEndAt asc
+        """)
+    Stream<OverdueRentalRow> streamOverdueForAccrual(@Param("status") RentalStatus status, @Param("now") LocalDateTime now);
+
+    //everything the in-memory reminder wheel still has to fire for
+    @Query("""
+        select r.id as rentalId, r.startAt as startAt, r.plannedEndAt as plannedEndAt,
+               r.pickupReminderSentAt as pickupReminderSentAt, r.returnReminderSentAt as returnReminderSentAt
+        from Rental r
+        where r.status = :status and (r.pickupReminderSentAt is null or r.returnReminderSentAt is null)
+        """)
+    Stream<ReminderScheduleRow> streamForReminderSchedule(@Param("status") RentalStatus status);
+
+    //Claims the reminder: succeeds only for an ACTIVE rental whose time still matches and which wasn't reminded yet.
+    //Every replica fires the same task, the one whose update returns 1 sends it.
+    @Modifying
+    @Query("""
+        update Rental r set r.pickupReminderSentAt = :now
+        where r.id = :id and r.status = :status and r.startAt = :startAt and r.pickupReminderSentAt is null
+        """)
+    int markPickupReminderSent(
+            @Param("id") Long id,
+            @Param("status") RentalStatus status,
+            @Param("startAt") LocalDateTime startAt,
+            @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("""
+        update Rental r set r.returnReminderSentAt = :now
+        where r.id = :id and r.status = :status and r.plannedEndAt = :plannedEndAt and r.returnReminderSentAt is null
+        """)
+    int markReturnReminderSent(
+            @Param("id") Long id,
+            @Param("status") RentalStatus status,
+            @Param("plannedEndAt") LocalDateTime plannedEndAt,
+            @Param("now") LocalDateTime now
+    );
+
     @Query("select count(r) from Rental r where r.status = :status and r.plannedEndAt < :now")
     long countOverdue(@Param("status") RentalStatus status, @Param("now") LocalDateTime now);
 
@@ -40,6 +101,44 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
     @Query("select count(r) from Rental r where r.startAt >= :from and r.startAt < :to")
     long countRentalsStartedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
+    @Query("""
+        select r from Rental r
+        join fetch r.car c
+        join fetch c.category
+        where r.status = :status
+          and r.id > :afterId
+          and (:categoryId is null or c.category.id = :categoryId)
+          and (:carId is null or c.id = :carId)
+        order by r.id asc
+        """)
+    List<Rental> findChunkForRepricing(
+            @Param("status") RentalStatus status,
+            @Param("afterId") Long afterId,
+            @Param("categoryId") Long categoryId,
+            @Param("carId") Long carId,
+            Pageable pageable
+    );
+
     @Query("select sum(r.totalPrice) from Rental r where r.status = io.github.sebkaminski16.carrentaladmin.entity.RentalStatus.RETURNED and r.actualReturnAt >= :from and r.actualReturnAt < :to")
     java.math.BigDecimal sumRevenueBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    //flat row for the late-fee accrual report, so we don't have to load Rental + Car one by one
+    interface OverdueRentalRow {
+        Long getRentalId();
+        Long getCarId();
+        String getLicensePlate();
+        Long getCustomerId();
+        String getCustomerFirstName();
+        String getCustomerLastName();
+        LocalDateTime getPlannedEndAt();
+        java.math.BigDecimal getHourlyRate();
+    }
+
+    interface ReminderScheduleRow {
+        Long getRentalId();
+        LocalDateTime getStartAt();
+        LocalDateTime getPlannedEndAt();
+        LocalDateTime getPickupReminderSentAt();
+        LocalDateTime getReturnReminderSentAt();
+    }
 }
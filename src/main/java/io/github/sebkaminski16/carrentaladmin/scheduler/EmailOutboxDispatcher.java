@@ -0,0 +1,132 @@
+package io.github.sebkaminski16.carrentaladmin.scheduler;
+
+import io.github.sebkaminski16.carrentaladmin.entity.EmailOutboxMessage;
+import io.github.sebkaminski16.carrentaladmin.entity.EmailOutboxStatus;
+import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import io.github.sebkaminski16.carrentaladmin.repository.EmailOutboxRepository;
+import io.github.sebkaminski16.carrentaladmin.service.EmailDispatcher;
+import io.github.sebkaminski16.carrentaladmin.service.EmailService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Drains email_outbox: claim a batch (FOR UPDATE SKIP LOCKED) in a short transaction,
+//send it in parallel outside of any transaction, then record the outcome in another short transaction.
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final List<EmailOutboxStatus> CLAIMABLE = List.of(EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING);
+
+    @Value("${spring.email.outbox.batchSize:50}")
+    private int batchSize;
+
+    @Value("${spring.email.outbox.maxAttempts:5}")
+    private int maxAttempts;
+
+    @Value("${spring.email.outbox.retryDelaySeconds:60}")
+    private long retryDelaySeconds;
+
+    @Value("${spring.email.outbox.claimTimeoutSeconds:300}")
+    private long claimTimeoutSeconds;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${spring.email.outbox.pollMillis:5000}")
+    public void drain() {
+        while (true) {
+            List<ClaimedMessage> batch = transactionTemplate.execute(status -> claimBatch());
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+
+            Set<Long> sent = ConcurrentHashMap.newKeySet();
+            Map<Long, String> errors = new ConcurrentHashMap<>();
+
+            //one attempt per claim; retries are the row's attempts/nextAttemptAt, not the dispatcher's backoff
+            emailDispatcher.dispatch(batch, m -> {
+                try {
+                    boolean ok = emailService.sendEmail(m.toEmail(), m.subject(), m.body());
+                    if (ok) {
+                        sent.add(m.id());
+                    } else {
+                        errors.put(m.id(), "Provider did not accept the message");
+                    }
+                    return ok;
+                } catch (ExternalApiException ex) {
+                    errors.put(m.id(), ex.getMessage());
+                    throw ex;
+                }
+            }, 1);
+
+            transactionTemplate.executeWithoutResult(status -> recordResults(batch, sent, errors));
+
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private List<ClaimedMessage> claimBatch() {
+
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> messages = emailOutboxRepository.findClaimable(CLAIMABLE, now, PageRequest.ofSize(batchSize));
+
+        for (EmailOutboxMessage m : messages) {
+            m.setStatus(EmailOutboxStatus.SENDING);
+            m.setAttempts(m.getAttempts() + 1);
+            m.setNextAttemptAt(now.plusSeconds(claimTimeoutSeconds));
+        }
+        emailOutboxRepository.saveAll(messages);
+
+        return messages.stream()
+                .map(m -> new ClaimedMessage(m.getId(), m.getToEmail(), m.getSubject(), m.getBody()))
+                .toList();
+    }
+
+    private void recordResults(List<ClaimedMessage> batch, Set<Long> sent, Map<Long, String> errors) {
+
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> messages = emailOutboxRepository.findAllById(batch.stream().map(ClaimedMessage::id).toList());
+
+        for (EmailOutboxMessage m : messages) {
+            if (sent.contains(m.getId())) {
+                m.setStatus(EmailOutboxStatus.SENT);
+                m.setSentAt(now);
+                m.setLastError(null);
+            } else if (m.getAttempts() >= maxAttempts) {
+                m.setStatus(EmailOutboxStatus.FAILED);
+                m.setLastError(truncate(errors.get(m.getId())));
+            } else {
+                m.setStatus(EmailOutboxStatus.PENDING);
+                m.setNextAttemptAt(now.plusSeconds(retryDelaySeconds << (m.getAttempts() - 1)));
+                m.setLastError(truncate(errors.get(m.getId())));
+            }
+        }
+        emailOutboxRepository.saveAll(messages);
+    }
+
+    private static String truncate(String error) {
+        if (error == null) return "Unknown error";
+        return error.length() > 512 ? error.substring(0, 512) : error;
+    }
+
+    private record ClaimedMessage(Long id, String toEmail, String subject, String body) {}
+}
@@ -1,46 +1,122 @@
 package io.github.sebkaminski16.carrentaladmin.scheduler;
 
-import io.github.sebkaminski16.carrentaladmin.entity.Customer;
+import io.github.sebkaminski16.carrentaladmin.entity.ReminderType;
+import io.github.sebkaminski16.carrentaladmin.integration.mailtrap.MailtrapClient;
 import io.github.sebkaminski16.carrentaladmin.repository.CustomerRepository;
-import io.github.sebkaminski16.carrentaladmin.repository.RentalRepository;
+import io.github.sebkaminski16.carrentaladmin.service.CustomerReminderService;
+import io.github.sebkaminski16.carrentaladmin.service.EmailDispatcher;
 import io.github.sebkaminski16.carrentaladmin.service.EmailService;
-import jakarta.transaction.Transactional;
+import io.github.sebkaminski16.carrentaladmin.service.JobLeaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 public class ReminderScheduler {
 
+    private static final Logger log = LoggerFactory.getLogger(ReminderScheduler.class);
+
     private static final int INACTIVE_CUSTOMER_DAYS = 30;
+    private static final int PAGE_SIZE = 1000;
+    private static final String JOB_NAME = "inactive-customer-reminders";
 
     @Autowired
     private CustomerRepository customerRepository;
 
     @Autowired
-    private RentalRepository rentalRepository;
+    private EmailService emailService;
 
     @Autowired
-    private EmailService emailService;
+    private EmailDispatcher emailDispatcher;
 
+    @Autowired
+    private CustomerReminderService customerReminderService;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    //customers reminded within this many days are not picked up again
+    @Value("${spring.reminders.inactiveCooldownDays:30}")
+    private int cooldownDays;
+
+    //customers are split into fixed id ranges of this size, each claimed by one node via its own lease.
+    //Fixed sizes keep the boundaries the same on every node, even if they see a different max id.
+    @Value("${spring.reminders.partitionSize:50000}")
+    private long partitionSize;
+
+    //Fires on every replica; the job leases make sure each id range is processed by exactly one of them.
+    //No @Transactional here - every page is a short read, and emails are sent outside any transaction
     @Scheduled(cron = "0 0 8 * * *")
-    @Transactional
     public void remindInactiveCustomers() {
 
-        LocalDateTime threshold = LocalDateTime.now().minusDays(INACTIVE_CUSTOMER_DAYS);
-        List<Customer> customers = customerRepository.findAll();
+        Long maxId = customerRepository.findMaxId();
+        if (maxId == null) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime threshold = now.minusDays(INACTIVE_CUSTOMER_DAYS);
+        LocalDateTime remindedSince = now.minusDays(cooldownDays);
+        long size = Math.max(1, partitionSize);
+        int partitions = (int) ((maxId + size - 1) / size);
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
 
-        for (Customer c : customers) {
-            long count = rentalRepository.countByCustomerId(c.getId());
-            Optional<LocalDateTime> lastEnd = rentalRepository.findLastRentalEndForCustomer(c.getId());
+        int ran = jobLeaseService.runPartitioned(JOB_NAME, partitions, p ->
+                remindRange(p * size, (p + 1) * size, threshold, remindedSince, sent, rejected));
 
-            boolean inactive = (count == 0) || lastEnd.map(d -> d.isBefore(threshold)).orElse(true);
-            if (inactive) {
-                emailService.sendInactiveCustomerReminder(c, INACTIVE_CUSTOMER_DAYS);
+        log.info("Inactive customer reminders: {} of {} partitions ran here, {} sent, {} rejected by provider",
+                ran, partitions, sent.get(), rejected.get());
+    }
+
+    //customers with afterId < id <= upToId
+    private void remindRange(long afterId, long upToId, LocalDateTime threshold, LocalDateTime remindedSince,
+                             AtomicInteger sent, AtomicInteger rejected) {
+
+        while (true) {
+            List<CustomerRepository.InactiveCustomerRow> page = customerRepository.findInactiveCustomersAfter(
+                    afterId, upToId, threshold, ReminderType.INACTIVE_CUSTOMER, remindedSince, PageRequest.ofSize(PAGE_SIZE));
+
+            //one dispatch item = one provider batch request, so retries and the rate limit apply per request
+            emailDispatcher.dispatch(partition(page, emailService.batchSize()), chunk -> {
+                List<MailtrapClient.Message> messages = chunk.stream()
+                        .map(c -> emailService.inactiveCustomerReminder(c.getFirstName(), c.getEmail(), INACTIVE_CUSTOMER_DAYS))
+                        .toList();
+                List<Boolean> results = emailService.sendBatch(messages);
+
+                List<Long> delivered = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (results.get(i)) delivered.add(chunk.get(i).getCustomerId());
+                }
+                //only accepted messages go to the ledger, rejected ones are picked up again by the next run
+                customerReminderService.recordSent(delivered, ReminderType.INACTIVE_CUSTOMER, LocalDateTime.now());
+
+                sent.addAndGet(delivered.size());
+                rejected.addAndGet(chunk.size() - delivered.size());
+                return delivered.size() == chunk.size();
+            });
+
+            if (page.size() < PAGE_SIZE) {
+                return;
             }
+            afterId = page.getLast().getCustomerId();
+        }
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        int step = Math.max(1, size);
+        for (int from = 0; from < items.size(); from += step) {
+            chunks.add(items.subList(from, Math.min(from + step, items.size())));
         }
+        return chunks;
     }
 }
@@ -0,0 +1,215 @@
+package io.github.sebkaminski16.carrentaladmin.scheduler;
+
+import io.github.sebkaminski16.carrentaladmin.entity.Rental;
+import io.github.sebkaminski16.carrentaladmin.entity.RentalStatus;
+import io.github.sebkaminski16.carrentaladmin.event.RentalChangedEvent;
+import io.github.sebkaminski16.carrentaladmin.integration.mailtrap.MailtrapClient;
+import io.github.sebkaminski16.carrentaladmin.repository.RentalRepository;
+import io.github.sebkaminski16.carrentaladmin.service.EmailService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+//Pickup and return reminders, N hours before startAt / plannedEndAt.
+//Instead of polling rentals every minute, every ACTIVE rental gets (at most) two timeouts in an in-memory timing wheel.
+//The wheel is loaded on startup, kept in sync with RentalService's changes after they commit and periodically re-synced from the DB,
+//so rentals created on another replica are picked up too. A fired task is re-checked against the DB before sending.
+@Component
+public class RentalReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RentalReminderScheduler.class);
+
+    //64 slots x 4 levels of 1 minute ticks covers ~31 years
+    private static final int SLOT_BITS = 6;
+    private static final int LEVELS = 4;
+
+    public enum Kind { PICKUP, RETURN }
+
+    //dueAt is the rental time the reminder was scheduled for - startAt for PICKUP, plannedEndAt for RETURN
+    public record ReminderTask(Long rentalId, Kind kind, LocalDateTime dueAt) {}
+
+    @Value("${spring.reminders.rentals.pickupHoursBefore:24}")
+    private long pickupHoursBefore;
+
+    @Value("${spring.reminders.rentals.returnHoursBefore:24}")
+    private long returnHoursBefore;
+
+    @Value("${spring.reminders.rentals.tickMillis:60000}")
+    private long tickMillis;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private TimingWheel<ReminderTask> wheel;
+    private final Map<Long, TimingWheel.Timeout<ReminderTask>> pickups = new ConcurrentHashMap<>();
+    private final Map<Long, TimingWheel.Timeout<ReminderTask>> returns = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        wheel = new TimingWheel<>(tickMillis, SLOT_BITS, LEVELS, toMillis(LocalDateTime.now()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        resync();
+    }
+
+    //after commit - a rolled back change must not move (or drop) the reminders of the rental as it still is in the DB
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (event.saved() == null) {
+            cancel(event.id());
+        } else {
+            schedule(event.saved());
+        }
+    }
+
+    //(re)schedules both reminders of a rental; called after every change of its times
+    public void schedule(Rental rental) {
+        if (rental.getId() == null) {
+            return;
+        }
+        if (rental.getStatus() != RentalStatus.ACTIVE) {
+            cancel(rental.getId());
+            return;
+        }
+        schedule(rental.getId(), rental.getStartAt(), rental.getPlannedEndAt(),
+                rental.getPickupReminderSentAt() != null, rental.getReturnReminderSentAt() != null);
+    }
+
+    public void cancel(Long rentalId) {
+        unschedule(pickups, rentalId);
+        unschedule(returns, rentalId);
+    }
+
+    public int pendingReminders() {
+        return wheel.size();
+    }
+
+    @Scheduled(fixedDelayString = "${spring.reminders.rentals.tickMillis:60000}")
+    public void tick() {
+        advanceTo(LocalDateTime.now());
+    }
+
+    //picks up rentals changed on other replicas; scheduling is idempotent, so the local state is simply overwritten
+    @Scheduled(initialDelayString = "${spring.reminders.rentals.resyncMillis:3600000}",
+            fixedDelayString = "${spring.reminders.rentals.resyncMillis:3600000}")
+    public void resync() {
+        Integer loaded = transactionTemplate.execute(status -> {
+            int count = 0;
+            try (Stream<RentalRepository.ReminderScheduleRow> rows = rentalRepository.streamForReminderSchedule(RentalStatus.ACTIVE)) {
+                Iterator<RentalRepository.ReminderScheduleRow> it = rows.iterator();
+                while (it.hasNext()) {
+                    RentalRepository.ReminderScheduleRow row = it.next();
+                    schedule(row.getRentalId(), row.getStartAt(), row.getPlannedEndAt(),
+                            row.getPickupReminderSentAt() != null, row.getReturnReminderSentAt() != null);
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("Rental reminders synced for {} active rentals, {} pending", loaded, wheel.size());
+    }
+
+    void advanceTo(LocalDateTime now) {
+        List<ReminderTask> due = wheel.advance(toMillis(now));
+        for (ReminderTask task : due) {
+            (task.kind() == Kind.PICKUP ? pickups : returns)
+                    .computeIfPresent(task.rentalId(), (id, timeout) -> timeout.task().equals(task) ? null : timeout);
+            try {
+                transactionTemplate.executeWithoutResult(status -> fire(task, now));
+            } catch (RuntimeException ex) {
+                //the flag on the rental was not set, so the next resync schedules it again
+                log.warn("Failed to fire {} reminder for rental {}", task.kind(), task.rentalId(), ex);
+            }
+        }
+    }
+
+    private void schedule(Long rentalId, LocalDateTime startAt, LocalDateTime plannedEndAt,
+                          boolean pickupSent, boolean returnSent) {
+        LocalDateTime now = LocalDateTime.now();
+
+        //no point in a pickup reminder once the rental started, nor a return reminder once it's overdue
+        if (!pickupSent && startAt.isAfter(now)) {
+            replace(pickups, rentalId, new ReminderTask(rentalId, Kind.PICKUP, startAt), startAt.minusHours(pickupHoursBefore));
+        } else {
+            unschedule(pickups, rentalId);
+        }
+
+        if (!returnSent && plannedEndAt.isAfter(now)) {
+            replace(returns, rentalId, new ReminderTask(rentalId, Kind.RETURN, plannedEndAt), plannedEndAt.minusHours(returnHoursBefore));
+        } else {
+            unschedule(returns, rentalId);
+        }
+    }
+
+    private void replace(Map<Long, TimingWheel.Timeout<ReminderTask>> timeouts, Long rentalId, ReminderTask task, LocalDateTime fireAt) {
+        timeouts.compute(rentalId, (id, existing) -> {
+            if (existing != null) {
+                if (existing.task().equals(task)) {
+                    //already scheduled for the same time - keeps resync cheap
+                    return existing;
+                }
+                existing.cancel();
+            }
+            return wheel.schedule(toMillis(fireAt), task);
+        });
+    }
+
+    private void unschedule(Map<Long, TimingWheel.Timeout<ReminderTask>> timeouts, Long rentalId) {
+        TimingWheel.Timeout<ReminderTask> previous = timeouts.remove(rentalId);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void fire(ReminderTask task, LocalDateTime now) {
+
+        int claimed = task.kind() == Kind.PICKUP
+                ? rentalRepository.markPickupReminderSent(task.rentalId(), RentalStatus.ACTIVE, task.dueAt(), now)
+                : rentalRepository.markReturnReminderSent(task.rentalId(), RentalStatus.ACTIVE, task.dueAt(), now);
+        if (claimed == 0) {
+            //rental changed, ended, or another replica already sent it
+            return;
+        }
+
+        Rental rental = rentalRepository.findById(task.rentalId()).orElse(null);
+        if (rental == null) {
+            return;
+        }
+
+        String firstName = rental.getCustomer().getFirstName();
+        String email = rental.getCustomer().getEmail();
+        String licensePlate = rental.getCar().getLicensePlate();
+        MailtrapClient.Message message = task.kind() == Kind.PICKUP
+                ? emailService.pickupReminder(firstName, email, licensePlate, task.dueAt())
+                : emailService.returnReminder(firstName, email, licensePlate, task.dueAt());
+
+        emailService.enqueue(message.toEmail(), message.subject(), message.text());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
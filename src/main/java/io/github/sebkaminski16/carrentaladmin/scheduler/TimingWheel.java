@@ -0,0 +1,191 @@
+package io.github.sebkaminski16.carrentaladmin.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Hierarchical hashed timing wheel (Varghese & Lauck). Every level has 2^slotBits slots; a slot on level L
+//spans 2^(slotBits*L) ticks. schedule() and Timeout.cancel() are O(1): the entry goes into the bucket
+//of the lowest level that can still hold its deadline, and gets cascaded one level down when that
+//bucket comes around. advance() hands back the due tasks instead of running them, so the caller decides
+//which thread does the work.
+public class TimingWheel<T> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long tickMillis;
+    private final int slotBits;
+    private final int levels;
+    private final long mask;
+    private final long range;
+    private final Bucket<T>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int slotBits, int levels, long startMillis) {
+        if (tickMillis <= 0 || slotBits <= 0 || levels <= 0 || (long) slotBits * levels >= 63) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry");
+        }
+        this.tickMillis = tickMillis;
+        this.slotBits = slotBits;
+        this.levels = levels;
+        this.mask = (1L << slotBits) - 1;
+        this.range = 1L << (slotBits * levels);
+        this.wheels = new Bucket[levels][1 << slotBits];
+        for (Bucket<T>[] wheel : wheels) {
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new Bucket<>();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    //deadlines in the past fire on the next tick
+    public Timeout<T> schedule(long deadlineMillis, T task) {
+        lock.lock();
+        try {
+            Timeout<T> timeout = new Timeout<>(this, task, Math.max(deadlineMillis / tickMillis, currentTick + 1));
+            place(timeout);
+            size++;
+            return timeout;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //moves the wheel up to nowMillis and returns everything that became due, tick by tick
+    public List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            while (currentTick < targetTick) {
+                if (size == 0) {
+                    //nothing to cascade or expire, so whole idle periods cost nothing
+                    currentTick = targetTick;
+                    break;
+                }
+                currentTick++;
+                cascade();
+                Bucket<T> bucket = wheels[0][(int) (currentTick & mask)];
+                for (Timeout<T> t = bucket.head; t != null; t = bucket.head) {
+                    bucket.remove(t);
+                    size--;
+                    expired.add(t.task);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return expired;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Higher levels first: an entry cascaded from level 2 can land in the level 1 bucket that is due at the same tick.
+    private void cascade() {
+        int top = 0;
+        while (top + 1 < levels && (currentTick & ((1L << (slotBits * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            Bucket<T> bucket = wheels[level][(int) ((currentTick >>> (slotBits * level)) & mask)];
+            for (Timeout<T> t = bucket.head; t != null; t = bucket.head) {
+                bucket.remove(t);
+                place(t);
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long deadline = Math.max(timeout.deadlineTick, currentTick);
+        long delta = deadline - currentTick;
+        if (delta >= range) {
+            //beyond the outermost wheel - park it in the last reachable slot, it gets re-placed when cascaded
+            deadline = currentTick + range - 1;
+            delta = range - 1;
+        }
+        int level = 0;
+        while (delta >= (1L << (slotBits * (level + 1)))) {
+            level++;
+        }
+        wheels[level][(int) ((deadline >>> (slotBits * level)) & mask)].add(timeout);
+    }
+
+    public static final class Timeout<T> {
+
+        private final TimingWheel<T> wheel;
+        private final T task;
+        private final long deadlineTick;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(TimingWheel<T> wheel, T task, long deadlineTick) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T task() {
+            return task;
+        }
+
+        //returns false when the task already fired or was canceled before
+        public boolean cancel() {
+            wheel.lock.lock();
+            try {
+                if (bucket == null) {
+                    return false;
+                }
+                bucket.remove(this);
+                wheel.size--;
+                return true;
+            } finally {
+                wheel.lock.unlock();
+            }
+        }
+    }
+
+    //intrusive doubly linked list, so removing a canceled timeout doesn't need a scan
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> t) {
+            t.bucket = this;
+            t.prev = tail;
+            t.next = null;
+            if (tail == null) {
+                head = t;
+            } else {
+                tail.next = t;
+            }
+            tail = t;
+        }
+
+        void remove(Timeout<T> t) {
+            if (t.prev == null) {
+                head = t.next;
+            } else {
+                t.prev.next = t.next;
+            }
+            if (t.next == null) {
+                tail = t.prev;
+            } else {
+                t.next.prev = t.prev;
+            }
+            t.prev = null;
+            t.next = null;
+            t.bucket = null;
+        }
+    }
+}
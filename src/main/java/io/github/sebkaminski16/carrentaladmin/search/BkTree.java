@@ -0,0 +1,111 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Burkhard-Keller tree over Levenshtein distance: finds every term within maxDistance edits of a query
+//while only visiting children whose edge distance is within [d - maxDistance, d + maxDistance] (triangle inequality).
+//Terms can't be removed; the owner skips terms that no longer have documents and rebuilds the tree now and then.
+//Not thread-safe, callers synchronize.
+public class BkTree {
+
+    private Node root;
+    private int size;
+
+    private static final class Node {
+        private final String term;
+        private Map<Integer, Node> children;
+
+        private Node(String term) {
+            this.term = term;
+        }
+    }
+
+    //returns false when the term is already in the tree
+    public boolean add(String term) {
+        if (root == null) {
+            root = new Node(term);
+            size++;
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            int d = distance(term, node.term, Integer.MAX_VALUE);
+            if (d == 0) {
+                return false;
+            }
+            if (node.children == null) {
+                node.children = new HashMap<>(4);
+            }
+            Node child = node.children.get(d);
+            if (child == null) {
+                node.children.put(d, new Node(term));
+                size++;
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    public List<String> search(String query, int maxDistance) {
+        List<String> result = new ArrayList<>();
+        if (root == null) {
+            return result;
+        }
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int d = distance(query, node.term, Integer.MAX_VALUE);
+            if (d <= maxDistance) {
+                result.add(node.term);
+            }
+            if (node.children != null) {
+                for (int edge = Math.max(1, d - maxDistance); edge <= d + maxDistance; edge++) {
+                    Node child = node.children.get(edge);
+                    if (child != null) {
+                        stack.push(child);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //Levenshtein distance with two rolling rows; gives up with max + 1 once every cell of a row exceeds max
+    public static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max == Integer.MAX_VALUE ? Integer.MAX_VALUE : max + 1);
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import io.github.sebkaminski16.carrentaladmin.entity.Car;
+import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+//Substring search over license plates and VINs without LIKE '%q%' full scans, see TrigramIndex.
+//Lifecycle (startup build, after-commit updates, periodic rebuild) in EntitySearchIndex.
+@Component
+public class CarSearchIndex extends EntitySearchIndex<Car, TrigramIndex, CarRepository.SearchRow> {
+
+    @Autowired
+    private CarRepository carRepository;
+
+    public CarSearchIndex() {
+        super(Car.class, TrigramIndex.builder().build());
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${spring.search.cars.resyncMillis:3600000}",
+            fixedDelayString = "${spring.search.cars.resyncMillis:3600000}")
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    //ids of cars whose plate or VIN contains the query (case, spaces and dashes ignored)
+    public List<Long> search(String query, int limit) {
+        return index().search(query, limit);
+    }
+
+    @Override
+    protected Stream<CarRepository.SearchRow> streamRows() {
+        return carRepository.streamForSearchIndex();
+    }
+
+    @Override
+    protected TrigramIndex build(Stream<CarRepository.SearchRow> rows) {
+        TrigramIndex.Builder builder = TrigramIndex.builder();
+        Iterator<CarRepository.SearchRow> it = rows.iterator();
+        while (it.hasNext()) {
+            CarRepository.SearchRow row = it.next();
+            builder.add(row.getId(), row.getLicensePlate(), row.getVin());
+        }
+        return builder.build();
+    }
+
+    @Override
+    protected String[] values(Car car) {
+        return new String[]{car.getLicensePlate(), car.getVin()};
+    }
+
+    @Override
+    protected void put(TrigramIndex index, long id, String[] values) {
+        index.put(id, values);
+    }
+
+    @Override
+    protected void remove(TrigramIndex index, long id) {
+        index.remove(id);
+    }
+
+    @Override
+    protected int size(TrigramIndex index) {
+        return index.size();
+    }
+}
@@ -0,0 +1,248 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//Ranked customer search. Names and e-mails are split into normalized tokens (lower case, no diacritics);
+//each query term matches a token exactly, as a prefix, or - for name tokens only - within a few edits
+//(BK-tree), and a customer has to match every term. A whole e-mail address or phone number is an exact lookup.
+//Scores are in (0, 1]: the average of the best per-term match, weighted by how strong the match is.
+public class CustomerIndex {
+
+    public record Hit(long id, double score) {}
+
+    private static final double EXACT = 1.0;
+    private static final double EMAIL_WEIGHT = 0.8;
+    private static final double FUZZY_ONE_EDIT = 0.5;
+    private static final double FUZZY_TWO_EDITS = 0.35;
+
+    //highest score first, then lowest id
+    private static final Comparator<Hit> BY_SCORE = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparingLong(Hit::id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    //sorted, so a prefix is a subMap range
+    private final NavigableMap<String, Set<Long>> tokens = new TreeMap<>();
+    private final Map<String, Long> byEmail = new HashMap<>();
+    private final Map<String, Long> byPhone = new HashMap<>();
+    private final BkTree nameTerms = new BkTree();
+
+    private record Entry(String[] nameTokens, String[] emailTokens, String email, String phone) {}
+
+    public void put(long id, String firstName, String lastName, String email, String phone) {
+        List<String> names = SearchText.tokenize(firstName);
+        names.addAll(SearchText.tokenize(lastName));
+        Entry entry = new Entry(names.toArray(String[]::new), SearchText.tokenize(email).toArray(String[]::new),
+                normalizeEmail(email), normalizePhone(phone));
+
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(id, entry);
+            if (previous != null) {
+                unlink(id, previous);
+            }
+            for (String token : entry.nameTokens()) {
+                tokens.computeIfAbsent(token, k -> new HashSet<>()).add(id);
+                nameTerms.add(token);
+            }
+            for (String token : entry.emailTokens()) {
+                tokens.computeIfAbsent(token, k -> new HashSet<>()).add(id);
+            }
+            if (!entry.email().isEmpty()) {
+                byEmail.put(entry.email(), id);
+            }
+            if (!entry.phone().isEmpty()) {
+                byPhone.put(entry.phone(), id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(id);
+            if (previous == null) {
+                return false;
+            }
+            unlink(id, previous);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //best limit matches, highest score first (ties by id)
+    public List<Hit> search(String query, int limit) {
+        List<Hit> result = new ArrayList<>();
+        if (query == null || query.isBlank() || limit <= 0) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            Long exact = query.contains("@") ? byEmail.get(normalizeEmail(query)) : byPhone.get(normalizePhone(query));
+            if (exact != null && entries.containsKey(exact)) {
+                result.add(new Hit(exact, EXACT));
+                return result;
+            }
+
+            List<String> terms = SearchText.tokenize(query);
+            if (terms.isEmpty()) {
+                return result;
+            }
+
+            Set<Long> candidates = null;
+            for (String term : terms) {
+                Set<Long> matching = candidates(term);
+                if (candidates == null) {
+                    candidates = matching;
+                } else {
+                    candidates.retainAll(matching);
+                }
+                if (candidates.isEmpty()) {
+                    return result;
+                }
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, BY_SCORE.reversed());
+            for (Long id : candidates) {
+                Entry entry = entries.get(id);
+                double sum = 0;
+                for (String term : terms) {
+                    double score = bestScore(term, entry);
+                    if (score == 0) {
+                        //candidate came in through a fuzzy match on a token that is only in its e-mail
+                        sum = -1;
+                        break;
+                    }
+                    sum += score;
+                }
+                if (sum < 0) {
+                    continue;
+                }
+                top.add(new Hit(id, sum / terms.size()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            result.addAll(top);
+            result.sort(BY_SCORE);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> candidates(String term) {
+        Set<Long> ids = new HashSet<>();
+        for (Set<Long> posting : tokens.subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+            ids.addAll(posting);
+        }
+        int maxEdits = maxEdits(term);
+        if (maxEdits > 0) {
+            for (String similar : nameTerms.search(term, maxEdits)) {
+                Set<Long> posting = tokens.get(similar);
+                if (posting != null) {
+                    ids.addAll(posting);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static double bestScore(String term, Entry entry) {
+        double best = 0;
+        int maxEdits = maxEdits(term);
+        for (String token : entry.nameTokens()) {
+            best = Math.max(best, tokenScore(term, token, maxEdits));
+        }
+        for (String token : entry.emailTokens()) {
+            best = Math.max(best, EMAIL_WEIGHT * tokenScore(term, token, 0));
+        }
+        return best;
+    }
+
+    private static double tokenScore(String term, String token, int maxEdits) {
+        if (token.equals(term)) {
+            return EXACT;
+        }
+        if (token.startsWith(term)) {
+            //"kowal" is a better match for "kowala" than for "kowalewski"
+            return 0.6 + 0.3 * term.length() / token.length();
+        }
+        if (maxEdits > 0) {
+            int d = BkTree.distance(term, token, maxEdits);
+            if (d == 1) return FUZZY_ONE_EDIT;
+            if (d == 2 && maxEdits >= 2) return FUZZY_TWO_EDITS;
+        }
+        return 0;
+    }
+
+    //no edits for short terms, otherwise "eva" would also find every "ewa"
+    private static int maxEdits(String term) {
+        if (term.length() <= 3) return 0;
+        if (term.length() <= 6) return 1;
+        return 2;
+    }
+
+    private void unlink(long id, Entry entry) {
+        for (String token : entry.nameTokens()) {
+            removePosting(token, id);
+        }
+        for (String token : entry.emailTokens()) {
+            removePosting(token, id);
+        }
+        byEmail.remove(entry.email(), id);
+        byPhone.remove(entry.phone(), id);
+    }
+
+    private void removePosting(String token, long id) {
+        Set<Long> posting = tokens.get(token);
+        if (posting != null && posting.remove(id) && posting.isEmpty()) {
+            tokens.remove(token);
+        }
+    }
+
+    private static String normalizeEmail(String email) {
+        return email == null ? "" : email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    //digits only, "+48 600-100-200" and "48600100200" are the same number
+    private static String normalizePhone(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+            } else if (Character.isLetter(c)) {
+                return "";
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import io.github.sebkaminski16.carrentaladmin.entity.Customer;
+import io.github.sebkaminski16.carrentaladmin.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+//Ranked, typo-tolerant customer search, see CustomerIndex. Lifecycle in EntitySearchIndex.
+@Component
+public class CustomerSearchIndex extends EntitySearchIndex<Customer, CustomerIndex, CustomerRepository.SearchRow> {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    public CustomerSearchIndex() {
+        super(Customer.class, new CustomerIndex());
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${spring.search.customers.resyncMillis:3600000}",
+            fixedDelayString = "${spring.search.customers.resyncMillis:3600000}")
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    public List<CustomerIndex.Hit> search(String query, int limit) {
+        return index().search(query, limit);
+    }
+
+    @Override
+    protected Stream<CustomerRepository.SearchRow> streamRows() {
+        return customerRepository.streamForSearchIndex();
+    }
+
+    @Override
+    protected CustomerIndex build(Stream<CustomerRepository.SearchRow> rows) {
+        CustomerIndex fresh = new CustomerIndex();
+        Iterator<CustomerRepository.SearchRow> it = rows.iterator();
+        while (it.hasNext()) {
+            CustomerRepository.SearchRow row = it.next();
+            fresh.put(row.getId(), row.getFirstName(), row.getLastName(), row.getEmail(), row.getPhone());
+        }
+        return fresh;
+    }
+
+    @Override
+    protected String[] values(Customer customer) {
+        return new String[]{customer.getFirstName(), customer.getLastName(), customer.getEmail(), customer.getPhone()};
+    }
+
+    @Override
+    protected void put(CustomerIndex index, long id, String[] values) {
+        index.put(id, values[0], values[1], values[2], values[3]);
+    }
+
+    @Override
+    protected void remove(CustomerIndex index, long id) {
+        index.remove(id);
+    }
+
+    @Override
+    protected int size(CustomerIndex index) {
+        return index.size();
+    }
+}
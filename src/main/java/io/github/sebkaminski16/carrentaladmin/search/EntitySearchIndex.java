@@ -0,0 +1,143 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import io.github.sebkaminski16.carrentaladmin.entity.BaseEntity;
+import io.github.sebkaminski16.carrentaladmin.event.SearchIndexChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+//Lifecycle shared by CarSearchIndex and CustomerSearchIndex: an in-memory index of type I over the searchable
+//columns of entity E, built on startup from rows R streamed out of the DB, kept in sync by SearchIndexChangedEvents
+//(after commit) and periodically rebuilt, so rows changed on another replica are picked up too. Until the first
+//build finishes, isReady() is false and callers fall back to the DB. Not built at all with spring.search.mode=fulltext.
+public abstract class EntitySearchIndex<E extends BaseEntity, I, R> {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TextSearch textSearch;
+
+    private final Class<E> entityType;
+    private volatile I index;
+    private volatile boolean ready;
+
+    //changes made while a rebuild streams the table; replayed onto the new index before it's swapped in.
+    //null value = removed
+    private final Object rebuildLock = new Object();
+    private Map<Long, String[]> pendingChanges;
+
+    protected EntitySearchIndex(Class<E> entityType, I empty) {
+        this.entityType = entityType;
+        this.index = empty;
+    }
+
+    //all rows, read inside the rebuild's transaction
+    protected abstract Stream<R> streamRows();
+
+    protected abstract I build(Stream<R> rows);
+
+    //the searchable columns of a saved entity, in the order put(I, long, String[]) takes them
+    protected abstract String[] values(E entity);
+
+    protected abstract void put(I index, long id, String[] values);
+
+    protected abstract void remove(I index, long id);
+
+    protected abstract int size(I index);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    //subclasses schedule it with their own resync interval
+    public void rebuild() {
+        if (textSearch.replacesInMemoryIndexes()) {
+            //never ready, so searches go to the DB
+            return;
+        }
+        synchronized (rebuildLock) {
+            pendingChanges = new HashMap<>();
+        }
+        try {
+            I rebuilt = transactionTemplate.execute(status -> {
+                try (Stream<R> rows = streamRows()) {
+                    return build(rows);
+                }
+            });
+            synchronized (rebuildLock) {
+                for (Map.Entry<Long, String[]> change : pendingChanges.entrySet()) {
+                    if (change.getValue() == null) {
+                        remove(rebuilt, change.getKey());
+                    } else {
+                        put(rebuilt, change.getKey(), change.getValue());
+                    }
+                }
+                index = rebuilt;
+                ready = true;
+            }
+            log.info("{} built for {} rows", getClass().getSimpleName(), size(rebuilt));
+        } finally {
+            synchronized (rebuildLock) {
+                pendingChanges = null;
+            }
+        }
+    }
+
+    //after commit, so a rolled back change never shows up in (or disappears from) the index
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSearchIndexChanged(SearchIndexChangedEvent event) {
+        if (!entityType.isAssignableFrom(event.type())) {
+            return;
+        }
+        if (event.saved() == null) {
+            remove(event.id());
+        } else {
+            put(entityType.cast(event.saved()));
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(E entity) {
+        if (entity.getId() == null || textSearch.replacesInMemoryIndexes()) {
+            return;
+        }
+        String[] values = values(entity);
+        synchronized (rebuildLock) {
+            put(index, entity.getId(), values);
+            if (pendingChanges != null) {
+                pendingChanges.put(entity.getId(), values);
+            }
+        }
+    }
+
+    public void remove(Long id) {
+        synchronized (rebuildLock) {
+            remove(index, id);
+            if (pendingChanges != null) {
+                pendingChanges.put(id, null);
+            }
+        }
+    }
+
+    public int size() {
+        return size(index);
+    }
+
+    protected I index() {
+        return index;
+    }
+}
@@ -0,0 +1,230 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import io.github.sebkaminski16.carrentaladmin.entity.Brand;
+import io.github.sebkaminski16.carrentaladmin.entity.Car;
+import io.github.sebkaminski16.carrentaladmin.entity.CarModel;
+import io.github.sebkaminski16.carrentaladmin.entity.Category;
+import io.github.sebkaminski16.carrentaladmin.entity.Customer;
+import io.github.sebkaminski16.carrentaladmin.repository.BrandRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CarModelRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CategoryRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CustomerRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiFunction;
+
+//MySQL FULLTEXT search (MATCH ... AGAINST in boolean mode), for catalogs too large for LIKE scans and
+//tenants that don't want the in-memory car/customer indexes. Every word of the query is required and
+//matched as a word prefix ("jan kow" -> "+jan* +kow*"); results come best match first.
+//hibernate ddl-auto doesn't know FULLTEXT, so the indexes are created on startup when missing.
+//On other databases (H2 in tests) the same query runs as one LIKE per word and column, ANDed - it also
+//matches inside words, otherwise it behaves the same.
+@Component
+@ConditionalOnProperty(name = "spring.search.mode", havingValue = "fulltext")
+public class FullTextSearch implements TextSearch {
+
+    private static final Logger log = LoggerFactory.getLogger(FullTextSearch.class);
+
+    //ER_DUP_KEYNAME
+    private static final int MYSQL_DUPLICATE_KEY_NAME = 1061;
+
+    private record FullTextIndex(String table, String name, String columns) {}
+
+    //column lists have to match the MATCH(...) lists in the repositories' searchFullText queries
+    private static final List<FullTextIndex> INDEXES = List.of(
+            new FullTextIndex("customers", "ft_customers_search", "first_name, last_name, email"),
+            new FullTextIndex("cars", "ft_cars_search", "license_plate, vin"),
+            new FullTextIndex("brands", "ft_brands_name", "name"),
+            new FullTextIndex("car_models", "ft_car_models_name", "name"),
+            new FullTextIndex("categories", "ft_categories_name", "name")
+    );
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CarModelRepository carModelRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private boolean mysql;
+
+    @PostConstruct
+    void init() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        mysql = "MySQL".equalsIgnoreCase(product) || "MariaDB".equalsIgnoreCase(product);
+        if (!mysql) {
+            log.info("FULLTEXT search is not available on {}, falling back to per-word LIKE", product);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createMissingIndexes() {
+        if (!mysql) {
+            return;
+        }
+        for (FullTextIndex index : INDEXES) {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "select count(*) from information_schema.statistics where table_schema = database() and table_name = ? and index_name = ?",
+                    Integer.class, index.table(), index.name());
+            if (existing != null && existing > 0) {
+                continue;
+            }
+            //builds the index in place; takes a while on a large table, reads keep working meanwhile
+            log.info("Creating FULLTEXT index {} on {}({})", index.name(), index.table(), index.columns());
+            try {
+                jdbcTemplate.execute("alter table " + index.table() + " add fulltext index " + index.name() + " (" + index.columns() + ")");
+            } catch (DataAccessException ex) {
+                //every replica runs this on startup; when several start together one creates the index
+                //and the others' ALTER fails once it's there - that's what they wanted too
+                if (!isDuplicateKeyName(ex)) {
+                    throw ex;
+                }
+                log.info("FULLTEXT index {} on {} was created concurrently by another node", index.name(), index.table());
+            }
+        }
+    }
+
+    private static boolean isDuplicateKeyName(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && sql.getErrorCode() == MYSQL_DUPLICATE_KEY_NAME) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Page<Customer> customers(String query, Pageable pageable) {
+        return search(query, pageable, customerRepository::searchFullText, Customer.class, "firstName", "lastName", "email");
+    }
+
+    @Override
+    public Page<Car> cars(String query, Pageable pageable) {
+        return search(query, pageable, carRepository::searchFullText, Car.class, "licensePlate", "vin");
+    }
+
+    @Override
+    public Page<Brand> brands(String query, Pageable pageable) {
+        return search(query, pageable, brandRepository::searchFullText, Brand.class, "name");
+    }
+
+    @Override
+    public Page<CarModel> carModels(String query, Pageable pageable) {
+        return search(query, pageable, carModelRepository::searchFullText, CarModel.class, "name");
+    }
+
+    @Override
+    public Page<Category> categories(String query, Pageable pageable) {
+        return search(query, pageable, categoryRepository::searchFullText, Category.class, "name");
+    }
+
+    @Override
+    public boolean replacesInMemoryIndexes() {
+        return true;
+    }
+
+    //words of the query: letters and digits only, which also drops boolean mode operators (+ - < > ( ) ~ * " @)
+    static List<String> terms(String query) {
+        List<String> terms = new ArrayList<>();
+        if (query == null) {
+            return terms;
+        }
+        for (String term : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    static String booleanQuery(List<String> terms) {
+        StringBuilder sb = new StringBuilder();
+        for (String term : terms) {
+            if (!sb.isEmpty()) sb.append(' ');
+            sb.append('+').append(term).append('*');
+        }
+        return sb.toString();
+    }
+
+    private <T> Page<T> search(String query, Pageable pageable, BiFunction<String, Pageable, Page<T>> fullText,
+                               Class<T> type, String... fields) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        if (mysql) {
+            return fullText.apply(booleanQuery(terms), pageable);
+        }
+        return matchAllTerms(type, terms, pageable, fields);
+    }
+
+    private <T> Page<T> matchAllTerms(Class<T> type, List<String> terms, Pageable pageable, String... fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<T> select = cb.createQuery(type);
+        Root<T> root = select.from(type);
+        select.where(matchesAllTerms(cb, root, terms, fields)).orderBy(cb.asc(root.get("id")));
+        TypedQuery<T> query = entityManager.createQuery(select);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<T> countRoot = count.from(type);
+        count.select(cb.count(countRoot)).where(matchesAllTerms(cb, countRoot, terms, fields));
+
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> entityManager.createQuery(count).getSingleResult());
+    }
+
+    //terms are letters and digits only, so nothing to escape
+    private static Predicate matchesAllTerms(CriteriaBuilder cb, Root<?> root, List<String> terms, String... fields) {
+        List<Predicate> perTerm = new ArrayList<>();
+        for (String term : terms) {
+            List<Predicate> anyField = new ArrayList<>();
+            for (String field : fields) {
+                anyField.add(cb.like(cb.lower(root.get(field)), "%" + term + "%"));
+            }
+            perTerm.add(cb.or(anyField.toArray(Predicate[]::new)));
+        }
+        return cb.and(perTerm.toArray(Predicate[]::new));
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import io.github.sebkaminski16.carrentaladmin.entity.Brand;
+import io.github.sebkaminski16.carrentaladmin.entity.Car;
+import io.github.sebkaminski16.carrentaladmin.entity.CarModel;
+import io.github.sebkaminski16.carrentaladmin.entity.Category;
+import io.github.sebkaminski16.carrentaladmin.entity.Customer;
+import io.github.sebkaminski16.carrentaladmin.repository.BrandRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CarModelRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CategoryRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+//The whole query as one case-insensitive substring (LIKE '%q%'). Can't use an index, so every search
+//scans the table - fine for small catalogs, see FullTextSearch for large ones.
+@Component
+@ConditionalOnProperty(name = "spring.search.mode", havingValue = "like", matchIfMissing = true)
+public class LikeTextSearch implements TextSearch {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CarModelRepository carModelRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Override
+    public Page<Customer> customers(String query, Pageable pageable) {
+        return customerRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
+                query, query, query, byId(pageable));
+    }
+
+    @Override
+    public Page<Car> cars(String query, Pageable pageable) {
+        return carRepository.findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(query, query, byId(pageable));
+    }
+
+    @Override
+    public Page<Brand> brands(String query, Pageable pageable) {
+        return brandRepository.findByNameContainingIgnoreCase(query, byId(pageable));
+    }
+
+    @Override
+    public Page<CarModel> carModels(String query, Pageable pageable) {
+        return carModelRepository.findByNameContainingIgnoreCase(query, byId(pageable));
+    }
+
+    @Override
+    public Page<Category> categories(String query, Pageable pageable) {
+        return categoryRepository.findByNameContainingIgnoreCase(query, byId(pageable));
+    }
+
+    //pages need a stable order
+    private static Pageable byId(Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            return pageable;
+        }
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"))
+                : Pageable.unpaged(Sort.by("id"));
+    }
+}
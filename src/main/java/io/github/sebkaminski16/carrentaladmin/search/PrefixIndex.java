@@ -0,0 +1,136 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+//Immutable prefix index for autocomplete: one sorted String[] of keys, binary search for the first key
+//that can start with the query, then a linear walk while keys still do. Every phrase is indexed from
+//each word on ("Toyota Corolla Cross" -> "toyota corolla cross", "corolla cross", "cross"), so a query
+//matches the start of any word and can span several words. Changes mean building a new index.
+public final class PrefixIndex<T> {
+
+    private final String[] keys;
+    //parallel to keys: the value and whether the key is the start of the phrase (ranked first)
+    private final int[] valueIndex;
+    private final boolean[] phraseStart;
+    private final Object[] values;
+
+    private PrefixIndex(String[] keys, int[] valueIndex, boolean[] phraseStart, Object[] values) {
+        this.keys = keys;
+        this.valueIndex = valueIndex;
+        this.phraseStart = phraseStart;
+        this.values = values;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    //Values with a key starting with the query, each once. Matches at the start of a phrase come first,
+    //then matches on a later word; alphabetical by key within each group.
+    @SuppressWarnings("unchecked")
+    public List<T> search(String query, Predicate<T> filter, int limit) {
+        List<T> result = new ArrayList<>();
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return result;
+        }
+        int from = lowerBound(q);
+        //0 = not matched yet, 1 = matched on a later word, 2 = matched at the phrase start (already in result)
+        byte[] state = new byte[values.length];
+        List<Integer> laterWord = new ArrayList<>();
+        for (int i = from; i < keys.length && keys[i].startsWith(q); i++) {
+            int v = valueIndex[i];
+            if (state[v] == 2 || (state[v] == 1 && !phraseStart[i])) continue;
+            T value = (T) values[v];
+            if (state[v] == 0 && !filter.test(value)) {
+                state[v] = 2;
+                continue;
+            }
+            if (phraseStart[i]) {
+                state[v] = 2;
+                result.add(value);
+                if (result.size() == limit) {
+                    return result;
+                }
+            } else {
+                state[v] = 1;
+                laterWord.add(v);
+            }
+        }
+        //values whose phrase start matched further down are already in result (state 2)
+        for (int i = 0; i < laterWord.size() && result.size() < limit; i++) {
+            int v = laterWord.get(i);
+            if (state[v] == 1) {
+                result.add((T) values[v]);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public int keyCount() {
+        return keys.length;
+    }
+
+    private int lowerBound(String q) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(q) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    //folded words joined with single spaces
+    static String normalize(String value) {
+        return String.join(" ", SearchText.tokenize(value));
+    }
+
+    public static final class Builder<T> {
+
+        private record Key(String key, int value, boolean phraseStart) {}
+
+        private final List<Key> keys = new ArrayList<>();
+        private final List<Object> values = new ArrayList<>();
+
+        private Builder() {}
+
+        public Builder<T> add(T value, String... phrases) {
+            int v = values.size();
+            values.add(value);
+            for (String phrase : phrases) {
+                List<String> words = SearchText.tokenize(phrase);
+                for (int w = 0; w < words.size(); w++) {
+                    keys.add(new Key(String.join(" ", words.subList(w, words.size())), v, w == 0));
+                }
+            }
+            return this;
+        }
+
+        public PrefixIndex<T> build() {
+            Key[] sorted = keys.toArray(Key[]::new);
+            Arrays.sort(sorted, Comparator.comparing(Key::key).thenComparing(k -> !k.phraseStart()));
+            String[] k = new String[sorted.length];
+            int[] v = new int[sorted.length];
+            boolean[] p = new boolean[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                k[i] = sorted[i].key();
+                v[i] = sorted[i].value();
+                p[i] = sorted[i].phraseStart();
+            }
+            return new PrefixIndex<>(k, v, p, values.toArray());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+//text normalization shared by the in-memory indexes, so "Škoda", "SKODA" and "skoda" are the same term
+public final class SearchText {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private SearchText() {}
+
+    //lower case without diacritics
+    static String fold(String value) {
+        String decomposed = Normalizer.normalize(value.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        //ł doesn't decompose into l + mark
+        return MARKS.matcher(decomposed).replaceAll("").replace('ł', 'l');
+    }
+
+    //folded, split on anything that isn't a letter or digit
+    static List<String> tokenize(String value) {
+        List<String> result = new ArrayList<>();
+        if (value == null) {
+            return result;
+        }
+        String folded = fold(value);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean letter = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                result.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    //1 = equal, 0.8 = value starts with the query, 0.6 = contains it, 0 = no match;
+    //compared on folded letters and digits only, so "wa 123" equals "WA123"
+    public static double matchScore(String value, String query) {
+        String v = compact(value);
+        String q = compact(query);
+        if (q.isEmpty() || v.isEmpty()) return 0;
+        if (v.equals(q)) return 1.0;
+        if (v.startsWith(q)) return 0.8;
+        if (v.contains(q)) return 0.6;
+        return 0;
+    }
+
+    private static String compact(String value) {
+        return String.join("", tokenize(value));
+    }
+}
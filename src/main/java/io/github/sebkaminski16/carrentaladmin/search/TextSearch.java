@@ -0,0 +1,40 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import io.github.sebkaminski16.carrentaladmin.entity.Brand;
+import io.github.sebkaminski16.carrentaladmin.entity.Car;
+import io.github.sebkaminski16.carrentaladmin.entity.CarModel;
+import io.github.sebkaminski16.carrentaladmin.entity.Category;
+import io.github.sebkaminski16.carrentaladmin.entity.Customer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+//Database-side text search behind the /search endpoints, picked by spring.search.mode:
+//like (LikeTextSearch, default) or fulltext (FullTextSearch).
+public interface TextSearch {
+
+    int DEFAULT_PAGE_SIZE = 20;
+    int MAX_PAGE_SIZE = 100;
+
+    Page<Customer> customers(String query, Pageable pageable);
+
+    Page<Car> cars(String query, Pageable pageable);
+
+    Page<Brand> brands(String query, Pageable pageable);
+
+    Page<CarModel> carModels(String query, Pageable pageable);
+
+    Page<Category> categories(String query, Pageable pageable);
+
+    //true = CarSearchIndex/CustomerSearchIndex are not built and car/customer searches always hit the DB
+    default boolean replacesInMemoryIndexes() {
+        return false;
+    }
+
+    //?page=&size= from a controller; size is capped at MAX_PAGE_SIZE
+    static Pageable pageRequest(Integer page, Integer size) {
+        int p = page == null ? 0 : Math.max(0, page);
+        int s = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return PageRequest.of(p, s);
+    }
+}
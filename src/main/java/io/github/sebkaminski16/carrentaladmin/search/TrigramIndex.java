@@ -0,0 +1,323 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//In-memory trigram inverted index for substring search over a few short fields per key (plates, VINs, ...).
+//Every key gets a dense doc number; each trigram maps to a sorted int[] of the docs containing it.
+//A query is answered by intersecting the posting lists of its trigrams (shortest first) and checking the
+//few remaining candidates with contains(), since the trigrams may come from different fields.
+//Doc numbers are handed out in insertion order and never reused, so results come back in insertion order;
+//the owner rebuilds the index now and then, which also drops the holes left by removed keys.
+public class TrigramIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, int[]> postings = new HashMap<>();
+    private final Map<Long, Integer> docsByKey = new HashMap<>();
+    private long[] keys = new long[64];
+    //normalized fields per doc, null for removed docs
+    private String[][] fields = new String[64][];
+    private int nextDoc;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    //upper case, letters and digits only - "wa 123-45" finds "WA12345"
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toUpperCase(Locale.ROOT);
+    }
+
+    //adds the key or replaces its fields
+    public void put(long key, String... values) {
+        String[] normalized = new String[values.length];
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i < values.length; i++) {
+            normalized[i] = normalize(values[i]);
+            addTrigrams(normalized[i], grams);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = docsByKey.get(key);
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                Set<Long> previous = new HashSet<>();
+                for (String field : fields[doc]) {
+                    addTrigrams(field, previous);
+                }
+                for (Long gram : previous) {
+                    if (!grams.contains(gram)) {
+                        removePosting(gram, doc);
+                    }
+                }
+                for (Long gram : grams) {
+                    if (!previous.contains(gram)) {
+                        addPosting(gram, doc);
+                    }
+                }
+            } else {
+                doc = nextDoc++;
+                if (doc == keys.length) {
+                    keys = Arrays.copyOf(keys, doc * 2);
+                    fields = Arrays.copyOf(fields, doc * 2);
+                }
+                keys[doc] = key;
+                docsByKey.put(key, doc);
+                for (Long gram : grams) {
+                    addPosting(gram, doc);
+                }
+            }
+            fields[doc] = normalized;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long key) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docsByKey.remove(key);
+            if (doc == null) {
+                return false;
+            }
+            Set<Long> grams = new HashSet<>();
+            for (String field : fields[doc]) {
+                addTrigrams(field, grams);
+            }
+            for (Long gram : grams) {
+                removePosting(gram, doc);
+            }
+            fields[doc] = null;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //keys whose normalized fields contain the normalized query, at most limit of them
+    public List<Long> search(String query, int limit) {
+        String q = normalize(query);
+        List<Long> result = new ArrayList<>();
+        if (q.isEmpty() || limit <= 0) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (q.length() < 3) {
+                //no trigram to look up; one or two characters match a large share of the docs anyway,
+                //so the scan stops after limit hits
+                for (int doc = 0; doc < nextDoc && result.size() < limit; doc++) {
+                    if (matches(doc, q)) {
+                        result.add(keys[doc]);
+                    }
+                }
+                return result;
+            }
+
+            Set<Long> grams = new HashSet<>();
+            addTrigrams(q, grams);
+            int[][] lists = new int[grams.size()][];
+            int i = 0;
+            for (Long gram : grams) {
+                int[] list = postings.get(gram);
+                if (list == null) {
+                    return result;
+                }
+                lists[i++] = list;
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+            int[] candidates = lists[0];
+            int count = candidates.length;
+            if (lists.length > 1) {
+                candidates = candidates.clone();
+                for (int l = 1; l < lists.length && count > 0; l++) {
+                    count = retainAll(candidates, count, lists[l]);
+                }
+            }
+
+            for (int c = 0; c < count && result.size() < limit; c++) {
+                int doc = candidates[c];
+                if (matches(doc, q)) {
+                    result.add(keys[doc]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int trigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matches(int doc, String q) {
+        String[] values = fields[doc];
+        if (values == null) {
+            return false;
+        }
+        for (String value : values) {
+            if (value.contains(q)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //keeps the first count candidates that are also in list, compacting them to the front; both are sorted.
+    //Galloping search, so a short candidate list against a long posting list costs O(n log m), not O(m).
+    private static int retainAll(int[] candidates, int count, int[] list) {
+        int kept = 0;
+        int from = 0;
+        for (int c = 0; c < count && from < list.length; c++) {
+            int doc = candidates[c];
+            int bound = 1;
+            while (from + bound < list.length && list[from + bound] < doc) {
+                bound <<= 1;
+            }
+            int pos = Arrays.binarySearch(list, from, Math.min(from + bound + 1, list.length), doc);
+            if (pos >= 0) {
+                candidates[kept++] = doc;
+                from = pos + 1;
+            } else {
+                from = -pos - 1;
+            }
+        }
+        return kept;
+    }
+
+    private void addPosting(Long gram, int doc) {
+        int[] list = postings.get(gram);
+        if (list == null) {
+            postings.put(gram, new int[] {doc});
+            return;
+        }
+        int pos = Arrays.binarySearch(list, doc);
+        if (pos >= 0) {
+            return;
+        }
+        pos = -pos - 1;
+        int[] grown = new int[list.length + 1];
+        System.arraycopy(list, 0, grown, 0, pos);
+        grown[pos] = doc;
+        System.arraycopy(list, pos, grown, pos + 1, list.length - pos);
+        postings.put(gram, grown);
+    }
+
+    private void removePosting(Long gram, int doc) {
+        int[] list = postings.get(gram);
+        if (list == null) {
+            return;
+        }
+        int pos = Arrays.binarySearch(list, doc);
+        if (pos < 0) {
+            return;
+        }
+        if (list.length == 1) {
+            postings.remove(gram);
+            return;
+        }
+        int[] shrunk = new int[list.length - 1];
+        System.arraycopy(list, 0, shrunk, 0, pos);
+        System.arraycopy(list, pos + 1, shrunk, pos, list.length - pos - 1);
+        postings.put(gram, shrunk);
+    }
+
+    //Bulk load for (re)builds: docs arrive in order, so posting lists are appended to instead of
+    //being copied on every insert, and trimmed to size once at the end.
+    public static final class Builder {
+
+        private final TrigramIndex index = new TrigramIndex();
+        private final Map<Long, int[]> lists = new HashMap<>();
+        private final Map<Long, Integer> lengths = new HashMap<>();
+
+        private Builder() {}
+
+        //a key added twice keeps its first fields
+        public Builder add(long key, String... values) {
+            if (index.docsByKey.containsKey(key)) {
+                return this;
+            }
+            String[] normalized = new String[values.length];
+            Set<Long> grams = new HashSet<>();
+            for (int i = 0; i < values.length; i++) {
+                normalized[i] = normalize(values[i]);
+                addTrigrams(normalized[i], grams);
+            }
+
+            int doc = index.nextDoc++;
+            if (doc == index.keys.length) {
+                index.keys = Arrays.copyOf(index.keys, doc * 2);
+                index.fields = Arrays.copyOf(index.fields, doc * 2);
+            }
+            index.keys[doc] = key;
+            index.fields[doc] = normalized;
+            index.docsByKey.put(key, doc);
+
+            for (Long gram : grams) {
+                int[] list = lists.get(gram);
+                int length = list == null ? 0 : lengths.get(gram);
+                if (list == null) {
+                    list = new int[4];
+                    lists.put(gram, list);
+                } else if (length == list.length) {
+                    list = Arrays.copyOf(list, length * 2);
+                    lists.put(gram, list);
+                }
+                list[length] = doc;
+                lengths.put(gram, length + 1);
+            }
+            return this;
+        }
+
+        public TrigramIndex build() {
+            for (Map.Entry<Long, int[]> e : lists.entrySet()) {
+                index.postings.put(e.getKey(), Arrays.copyOf(e.getValue(), lengths.get(e.getKey())));
+            }
+            lists.clear();
+            lengths.clear();
+            return index;
+        }
+    }
+
+    private static void addTrigrams(String value, Set<Long> grams) {
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            grams.add(((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2));
+        }
+    }
+}
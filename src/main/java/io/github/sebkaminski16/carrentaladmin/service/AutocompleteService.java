@@ -0,0 +1,111 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.dto.AutocompleteDtos;
+import io.github.sebkaminski16.carrentaladmin.entity.Brand;
+import io.github.sebkaminski16.carrentaladmin.entity.Category;
+import io.github.sebkaminski16.carrentaladmin.event.ReferenceDataChangedEvent;
+import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
+import io.github.sebkaminski16.carrentaladmin.repository.BrandRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CarModelRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CategoryRepository;
+import io.github.sebkaminski16.carrentaladmin.search.PrefixIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+//Autocomplete over brands, models and categories for the car form, served from an immutable PrefixIndex.
+//Reference data is small and rarely changes, so every change rebuilds the whole index (after commit) and
+//swaps it in; readers never lock. The periodic refresh picks up changes made on other replicas.
+@Service
+public class AutocompleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteService.class);
+
+    public static final String BRAND = "brand";
+    public static final String MODEL = "model";
+    public static final String CATEGORY = "category";
+    private static final Set<String> TYPES = Set.of(BRAND, MODEL, CATEGORY);
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CarModelRepository carModelRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Value("${spring.search.autocomplete.defaultLimit:10}")
+    private int defaultLimit;
+
+    @Value("${spring.search.autocomplete.maxLimit:50}")
+    private int maxLimit;
+
+    private volatile PrefixIndex<AutocompleteDtos.Suggestion> index = PrefixIndex.<AutocompleteDtos.Suggestion>builder().build();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${spring.search.autocomplete.refreshMillis:600000}",
+            fixedDelayString = "${spring.search.autocomplete.refreshMillis:600000}")
+    public synchronized void rebuild() {
+        PrefixIndex.Builder<AutocompleteDtos.Suggestion> builder = PrefixIndex.builder();
+        for (Brand brand : brandRepository.findAll()) {
+            builder.add(new AutocompleteDtos.Suggestion(BRAND, brand.getId(), brand.getName(), brand.getName()), brand.getName());
+        }
+        for (CarModelRepository.NameRow model : carModelRepository.findAllNames()) {
+            String label = model.getBrandName() + " " + model.getName();
+            //"coro" and "toyota co" both find the Corolla
+            builder.add(new AutocompleteDtos.Suggestion(MODEL, model.getId(), model.getName(), label), model.getName(), label);
+        }
+        for (Category category : categoryRepository.findAll()) {
+            builder.add(new AutocompleteDtos.Suggestion(CATEGORY, category.getId(), category.getName(), category.getName()), category.getName());
+        }
+        PrefixIndex<AutocompleteDtos.Suggestion> rebuilt = builder.build();
+        index = rebuilt;
+        log.debug("Autocomplete index rebuilt: {} entries, {} keys", rebuilt.size(), rebuilt.keyCount());
+    }
+
+    //types: comma separated subset of brand,model,category; null or blank = all of them
+    public List<AutocompleteDtos.Suggestion> suggest(String query, String types, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        Set<String> wanted = parseTypes(types);
+        int max = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        return index.search(query, s -> wanted.contains(s.type()), max);
+    }
+
+    private static Set<String> parseTypes(String types) {
+        if (types == null || types.isBlank()) {
+            return TYPES;
+        }
+        Set<String> wanted = new HashSet<>();
+        for (String type : types.split(",")) {
+            String t = type.strip().toLowerCase(Locale.ROOT);
+            if (t.isEmpty()) continue;
+            if (!TYPES.contains(t)) {
+                throw new BadRequestException("Unknown autocomplete type: " + type.strip() + ", expected one of brand, model, category");
+            }
+            wanted.add(t);
+        }
+        return wanted.isEmpty() ? TYPES : wanted;
+    }
+}
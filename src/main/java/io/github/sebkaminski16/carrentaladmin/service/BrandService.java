@@ -1,14 +1,19 @@
 package io.github.sebkaminski16.carrentaladmin.service;
 
 import io.github.sebkaminski16.carrentaladmin.dto.BrandDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.PageDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.Brand;
+import io.github.sebkaminski16.carrentaladmin.event.ReferenceDataChangedEvent;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.mapper.BrandMapper;
 import io.github.sebkaminski16.carrentaladmin.repository.BrandRepository;
 import io.github.sebkaminski16.carrentaladmin.repository.CarModelRepository;
+import io.github.sebkaminski16.carrentaladmin.search.TextSearch;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import java.util.List;
 
@@ -19,6 +24,12 @@ public class BrandService {
     @Autowired
     private BrandRepository brandRepository;
 
+    @Autowired
+    private TextSearch textSearch;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private CarModelRepository carModelRepository;
 
@@ -45,7 +56,9 @@ public class BrandService {
                 .name(req.name())
                 .build();
 
-        return BrandMapper.toDto(brandRepository.save(brand));
+        Brand saved = brandRepository.save(brand);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Kind.BRAND, saved.getId()));
+        return BrandMapper.toDto(saved);
     }
 
     public BrandDtos.BrandDto update(Long id, BrandDtos.BrandUpdateRequest req) {
@@ -56,7 +69,9 @@ public class BrandService {
 
         Brand brand = getEntity(id);
         brand.setName(req.name());
-        return BrandMapper.toDto(brandRepository.save(brand));
+        Brand saved = brandRepository.save(brand);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Kind.BRAND, saved.getId()));
+        return BrandMapper.toDto(saved);
     }
 
     public void delete(Long id) {
@@ -69,11 +84,16 @@ public class BrandService {
             throw new BadRequestException("Cannot delete, because a model of that brand exists!");
 
         brandRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Kind.BRAND, id));
     }
 
     public List<BrandDtos.BrandDto> search(String query) {
-
         if (query == null || query.isBlank()) return list();
-        return brandRepository.findByNameContainingIgnoreCase(query).stream().map(BrandMapper::toDto).toList();
+        return textSearch.brands(query, Pageable.unpaged()).map(BrandMapper::toDto).getContent();
+    }
+
+    public PageDtos.PageDto<BrandDtos.BrandDto> searchPage(String query, Integer page, Integer size) {
+        if (query == null || query.isBlank()) throw new BadRequestException("Query must not be blank");
+        return PageDtos.PageDto.of(textSearch.brands(query, TextSearch.pageRequest(page, size)).map(BrandMapper::toDto));
     }
 }
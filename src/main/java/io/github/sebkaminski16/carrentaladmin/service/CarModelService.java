@@ -1,15 +1,21 @@
 package io.github.sebkaminski16.carrentaladmin.service;
 
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceDataCache;
 import io.github.sebkaminski16.carrentaladmin.dto.CarModelDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.PageDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.Brand;
 import io.github.sebkaminski16.carrentaladmin.entity.CarModel;
+import io.github.sebkaminski16.carrentaladmin.event.ReferenceDataChangedEvent;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.mapper.CarModelMapper;
 import io.github.sebkaminski16.carrentaladmin.repository.CarModelRepository;
 import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
+import io.github.sebkaminski16.carrentaladmin.search.TextSearch;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import java.util.List;
 
@@ -28,11 +34,20 @@ public class CarModelService {
     @Autowired
     private CarModelRepository carModelRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private TextSearch textSearch;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private CarRepository carRepository;
 
     public List<CarModelDtos.CarModelDto> list() {
-        return carModelRepository.findAll().stream().map(CarModelMapper::toDto).toList();
+        return carModelRepository.findAll().stream().map(this::toDto).toList();
     }
 
     public CarModel getEntity(Long id) {
@@ -41,11 +56,11 @@ public class CarModelService {
     }
 
     public CarModelDtos.CarModelDto get(Long id) {
-        return CarModelMapper.toDto(getEntity(id));
+        return toDto(getEntity(id));
     }
 
     public List<CarModelDtos.CarModelDto> listByBrand(Long brandId) {
-        return carModelRepository.findByBrandId(brandId).stream().map(CarModelMapper::toDto).toList();
+        return carModelRepository.findByBrandId(brandId).stream().map(this::toDto).toList();
     }
 
     public CarModelDtos.CarModelDto create(CarModelDtos.CarModelCreateRequest req) {
@@ -61,7 +76,9 @@ public class CarModelService {
                 .brand(brand)
                 .build();
 
-        return CarModelMapper.toDto(carModelRepository.save(model));
+        CarModel saved = carModelRepository.save(model);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Kind.MODEL, saved.getId()));
+        return toDto(saved);
     }
 
     public CarModelDtos.CarModelDto update(Long id, CarModelDtos.CarModelUpdateRequest req) {
@@ -76,7 +93,9 @@ public class CarModelService {
         model.setName(req.name());
         model.setBrand(brand);
 
-        return CarModelMapper.toDto(carModelRepository.save(model));
+        CarModel saved = carModelRepository.save(model);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Kind.MODEL, saved.getId()));
+        return toDto(saved);
     }
 
     public void delete(Long id) {
@@ -90,10 +109,21 @@ public class CarModelService {
         }
 
         carModelRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Kind.MODEL, id));
     }
 
     public List<CarModelDtos.CarModelDto> search(String query) {
         if (query == null || query.isBlank()) return list();
-        return carModelRepository.findByNameContainingIgnoreCase(query).stream().map(CarModelMapper::toDto).toList();
+        return textSearch.carModels(query, Pageable.unpaged()).map(this::toDto).getContent();
+    }
+
+    public PageDtos.PageDto<CarModelDtos.CarModelDto> searchPage(String query, Integer page, Integer size) {
+        if (query == null || query.isBlank()) throw new BadRequestException("Query must not be blank");
+        return PageDtos.PageDto.of(textSearch.carModels(query, TextSearch.pageRequest(page, size)).map(this::toDto));
+    }
+
+    //brand name from the reference data cache
+    private CarModelDtos.CarModelDto toDto(CarModel model) {
+        return CarModelMapper.toDto(model, referenceDataCache.get());
     }
 }
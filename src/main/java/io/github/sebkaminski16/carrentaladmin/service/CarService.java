@@ -1,19 +1,29 @@
 package io.github.sebkaminski16.carrentaladmin.service;
 
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceDataCache;
 import io.github.sebkaminski16.carrentaladmin.dto.CarDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.PageDtos;
 import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.*;
+import io.github.sebkaminski16.carrentaladmin.event.SearchIndexChangedEvent;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.mapper.CarMapper;
 import io.github.sebkaminski16.carrentaladmin.mapper.RentalMapper;
 import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
 import io.github.sebkaminski16.carrentaladmin.repository.RentalRepository;
+import io.github.sebkaminski16.carrentaladmin.search.CarSearchIndex;
+import io.github.sebkaminski16.carrentaladmin.search.TextSearch;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @Transactional
@@ -22,6 +32,9 @@ public class CarService {
     @Autowired
     private CarRepository carRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Autowired
     private RentalRepository rentalRepository;
 
@@ -31,8 +44,17 @@ public class CarService {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CarSearchIndex carSearchIndex;
+
+    @Autowired
+    private TextSearch textSearch;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<CarDtos.CarDto> list() {
-        return carRepository.findAll().stream().map(CarMapper::toDto).toList();
+        return carRepository.findAll().stream().map(this::toDto).toList();
     }
 
     public Car getEntity(Long id) {
@@ -41,7 +63,7 @@ public class CarService {
     }
 
     public CarDtos.CarDto get(Long id) {
-        return CarMapper.toDto(getEntity(id));
+        return toDto(getEntity(id));
     }
 
     public CarDtos.CarDto create(CarDtos.CarCreateRequest req) {
@@ -65,6 +87,7 @@ public class CarService {
                 .model(model)
                 .category(category)
                 .imageUrl(req.imageUrl())
+                .thumbnailUrl(req.thumbnailUrl())
                 .hourlyRate(req.hourlyRate())
                 .dailyRate(req.dailyRate())
                 .weeklyRate(req.weeklyRate())
@@ -72,7 +95,9 @@ public class CarService {
                 .status(CarStatus.AVAILABLE)
                 .build();
 
-        return CarMapper.toDto(carRepository.save(car));
+        Car saved = carRepository.save(car);
+        eventPublisher.publishEvent(SearchIndexChangedEvent.saved(saved));
+        return toDto(saved);
     }
 
     public CarDtos.CarDto update(Long id, CarDtos.CarUpdateRequest req) {
@@ -106,13 +131,16 @@ public class CarService {
         car.setModel(model);
         car.setCategory(category);
         car.setImageUrl(req.imageUrl());
+        car.setThumbnailUrl(req.thumbnailUrl());
         car.setHourlyRate(req.hourlyRate());
         car.setDailyRate(req.dailyRate());
         car.setWeeklyRate(req.weeklyRate());
         car.setMileageKm(req.mileageKm());
         car.setStatus(req.status());
 
-        return CarMapper.toDto(carRepository.save(car));
+        Car saved = carRepository.save(car);
+        eventPublisher.publishEvent(SearchIndexChangedEvent.saved(saved));
+        return toDto(saved);
     }
 
     public void delete(Long id) {
@@ -125,18 +153,46 @@ public class CarService {
         }
 
         carRepository.deleteById(id);
+        eventPublisher.publishEvent(SearchIndexChangedEvent.deleted(Car.class, id));
     }
 
     public List<CarDtos.CarDto> search(String query) {
         if (query == null || query.isBlank()) return list();
-        return carRepository.findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(query, query)
-                .stream()
-                .map(CarMapper::toDto)
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    //at most limit cars whose plate or VIN contains the query, in index order
+    public List<CarDtos.CarDto> search(String query, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) return List.of();
+        if (!carSearchIndex.isReady()) {
+            //still loading, or not built at all (spring.search.mode=fulltext)
+            return textSearch.cars(query, PageRequest.of(0, limit)).map(this::toDto).getContent();
+        }
+        return findAllInOrder(carSearchIndex.search(query, limit));
+    }
+
+    //always answered by the DB (spring.search.mode), so it can page through any number of matches
+    public PageDtos.PageDto<CarDtos.CarDto> searchPage(String query, Integer page, Integer size) {
+        if (query == null || query.isBlank()) throw new BadRequestException("Query must not be blank");
+        return PageDtos.PageDto.of(textSearch.cars(query, TextSearch.pageRequest(page, size)).map(this::toDto));
+    }
+
+    //findAllById doesn't keep the order of the ids; ids deleted in the meantime are skipped
+    private List<CarDtos.CarDto> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Car> byId = new HashMap<>();
+        for (Car car : carRepository.findAllById(ids)) {
+            byId.put(car.getId(), car);
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::toDto)
                 .toList();
     }
 
     public List<CarDtos.CarDto> listByStatus(CarStatus status) {
-        return carRepository.findByStatus(status).stream().map(CarMapper::toDto).toList();
+        return carRepository.findByStatus(status).stream().map(this::toDto).toList();
     }
 
     public List<CarDtos.CarDto> availableBetween(LocalDateTime from, LocalDateTime to) {
@@ -145,7 +201,7 @@ public class CarService {
         }
         return carRepository.findAvailableBetween(from, to, RentalStatus.ACTIVE)
                 .stream()
-                .map(CarMapper::toDto)
+                .map(this::toDto)
                 .toList();
     }
 
@@ -157,7 +213,16 @@ public class CarService {
 
         return rentalRepository.findByCarIdOrderByStartAtDesc(carId)
                 .stream()
-                .map(RentalMapper::toDto)
+                .map(this::toRentalDto)
                 .toList();
     }
+
+    //model, brand and category names from the reference data cache, not lazy loads
+    private CarDtos.CarDto toDto(Car car) {
+        return CarMapper.toDto(car, referenceDataCache.get());
+    }
+
+    private RentalDtos.RentalDto toRentalDto(Rental rental) {
+        return RentalMapper.toDto(rental, referenceDataCache.get());
+    }
 }
@@ -1,14 +1,19 @@
 package io.github.sebkaminski16.carrentaladmin.service;
 
 import io.github.sebkaminski16.carrentaladmin.dto.CategoryDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.PageDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.Category;
+import io.github.sebkaminski16.carrentaladmin.event.ReferenceDataChangedEvent;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.mapper.CategoryMapper;
 import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
 import io.github.sebkaminski16.carrentaladmin.repository.CategoryRepository;
+import io.github.sebkaminski16.carrentaladmin.search.TextSearch;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import java.util.List;
 
@@ -19,6 +24,12 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private TextSearch textSearch;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private CarRepository carRepository;
 
@@ -48,7 +59,9 @@ public class CategoryService {
                 .weeklyDiscountPercent(req.weeklyDiscountPercent())
                 .build();
 
-        return CategoryMapper.toDto(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Kind.CATEGORY, saved.getId()));
+        return CategoryMapper.toDto(saved);
     }
 
     public CategoryDtos.CategoryDto update(Long id, CategoryDtos.CategoryUpdateRequest req) {
@@ -64,7 +77,9 @@ public class CategoryService {
         category.setDailyDiscountPercent(req.dailyDiscountPercent());
         category.setWeeklyDiscountPercent(req.weeklyDiscountPercent());
 
-        return CategoryMapper.toDto(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Kind.CATEGORY, saved.getId()));
+        return CategoryMapper.toDto(saved);
     }
 
     public void delete(Long id) {
@@ -78,10 +93,16 @@ public class CategoryService {
         }
 
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Kind.CATEGORY, id));
     }
 
     public List<CategoryDtos.CategoryDto> search(String query) {
         if (query == null || query.isBlank()) return list();
-        return categoryRepository.findByNameContainingIgnoreCase(query).stream().map(CategoryMapper::toDto).toList();
+        return textSearch.categories(query, Pageable.unpaged()).map(CategoryMapper::toDto).getContent();
+    }
+
+    public PageDtos.PageDto<CategoryDtos.CategoryDto> searchPage(String query, Integer page, Integer size) {
+        if (query == null || query.isBlank()) throw new BadRequestException("Query must not be blank");
+        return PageDtos.PageDto.of(textSearch.categories(query, TextSearch.pageRequest(page, size)).map(CategoryMapper::toDto));
     }
 }
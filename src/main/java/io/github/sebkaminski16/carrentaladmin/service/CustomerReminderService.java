@@ -0,0 +1,54 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.entity.CustomerReminder;
+import io.github.sebkaminski16.carrentaladmin.entity.ReminderType;
+import io.github.sebkaminski16.carrentaladmin.repository.CustomerReminderRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CustomerRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class CustomerReminderService {
+
+    @Autowired
+    private CustomerReminderRepository customerReminderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    //upserts the (customer, type) ledger rows for a whole batch in one go
+    public void recordSent(Collection<Long> customerIds, ReminderType type, LocalDateTime sentAt) {
+
+        if (customerIds.isEmpty()) return;
+
+        Map<Long, CustomerReminder> existing = customerReminderRepository.findByTypeAndCustomerIdIn(type, customerIds)
+                .stream()
+                .collect(Collectors.toMap(r -> r.getCustomer().getId(), Function.identity()));
+
+        List<CustomerReminder> toSave = new ArrayList<>(customerIds.size());
+        for (Long customerId : customerIds) {
+            CustomerReminder reminder = existing.get(customerId);
+            if (reminder == null) {
+                reminder = CustomerReminder.builder()
+                        .customer(customerRepository.getReferenceById(customerId))
+                        .type(type)
+                        .lastSentAt(sentAt)
+                        .build();
+            } else {
+                reminder.setLastSentAt(sentAt);
+            }
+            toSave.add(reminder);
+        }
+
+        customerReminderRepository.saveAll(toSave);
+    }
+}
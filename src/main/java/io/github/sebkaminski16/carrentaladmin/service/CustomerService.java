@@ -1,18 +1,31 @@
 package io.github.sebkaminski16.carrentaladmin.service;
 
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceDataCache;
 import io.github.sebkaminski16.carrentaladmin.dto.CustomerDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.PageDtos;
 import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.Customer;
+import io.github.sebkaminski16.carrentaladmin.entity.Rental;
+import io.github.sebkaminski16.carrentaladmin.event.SearchIndexChangedEvent;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.mapper.CustomerMapper;
 import io.github.sebkaminski16.carrentaladmin.mapper.RentalMapper;
 import io.github.sebkaminski16.carrentaladmin.repository.CustomerRepository;
 import io.github.sebkaminski16.carrentaladmin.repository.RentalRepository;
+import io.github.sebkaminski16.carrentaladmin.search.CustomerIndex;
+import io.github.sebkaminski16.carrentaladmin.search.CustomerSearchIndex;
+import io.github.sebkaminski16.carrentaladmin.search.TextSearch;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -21,9 +34,27 @@ public class CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Autowired
     private RentalRepository rentalRepository;
 
+    @Autowired
+    private CustomerSearchIndex customerSearchIndex;
+
+    @Autowired
+    private TextSearch textSearch;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${spring.search.customers.defaultLimit:50}")
+    private int defaultSearchLimit;
+
+    @Value("${spring.search.customers.maxLimit:500}")
+    private int maxSearchLimit;
+
     public List<CustomerDtos.CustomerDto> list() {
         return customerRepository.findAll()
                 .stream()
@@ -58,7 +89,9 @@ public class CustomerService {
                 .address(req.address())
                 .build();
 
-        return CustomerMapper.toDto(customerRepository.save(customer));
+        Customer saved = customerRepository.save(customer);
+        eventPublisher.publishEvent(SearchIndexChangedEvent.saved(saved));
+        return CustomerMapper.toDto(saved);
     }
 
     public CustomerDtos.CustomerDto update(Long id, CustomerDtos.CustomerUpdateRequest req) {
@@ -78,7 +111,9 @@ public class CustomerService {
         customer.setPhone(req.phone());
         customer.setAddress(req.address());
 
-        return CustomerMapper.toDto(customerRepository.save(customer));
+        Customer saved = customerRepository.save(customer);
+        eventPublisher.publishEvent(SearchIndexChangedEvent.saved(saved));
+        return CustomerMapper.toDto(saved);
     }
 
     public void delete(Long id) {
@@ -90,19 +125,54 @@ public class CustomerService {
         if(rentalRepository.existsByCustomerId(id)) throw new BadRequestException("Cannot delete, because a Rental with that customer exists!");
 
         customerRepository.deleteById(id);
+        eventPublisher.publishEvent(SearchIndexChangedEvent.deleted(Customer.class, id));
     }
 
+    //every customer whose name or e-mail contains the query (spring.search.mode), unranked;
+    //ranked and typo tolerant matches are searchRanked
     public List<CustomerDtos.CustomerDto> search(String query) {
         if (query == null || query.isBlank()) {
             return list();
         }
-        return customerRepository
-                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query, query)
-                .stream()
-                .map(CustomerMapper::toDto)
+        return textSearch.customers(query, Pageable.unpaged()).map(CustomerMapper::toDto).getContent();
+    }
+
+    public List<CustomerDtos.CustomerSearchHit> searchRanked(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Query must not be blank");
+        }
+        int max = limit == null ? defaultSearchLimit : Math.max(1, Math.min(limit, maxSearchLimit));
+
+        if (!customerSearchIndex.isReady()) {
+            //index still loading or not built (spring.search.mode=fulltext) - DB search, every hit gets the same score
+            return textSearch.customers(query, PageRequest.of(0, max))
+                    .map(c -> new CustomerDtos.CustomerSearchHit(CustomerMapper.toDto(c), 0.0))
+                    .getContent();
+        }
+
+        List<CustomerIndex.Hit> hits = customerSearchIndex.search(query, max);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Customer> byId = new HashMap<>();
+        for (Customer customer : customerRepository.findAllById(hits.stream().map(CustomerIndex.Hit::id).toList())) {
+            byId.put(customer.getId(), customer);
+        }
+        //deleted in the meantime -> skipped
+        return hits.stream()
+                .filter(hit -> byId.containsKey(hit.id()))
+                .map(hit -> new CustomerDtos.CustomerSearchHit(CustomerMapper.toDto(byId.get(hit.id())), hit.score()))
                 .toList();
     }
 
+    //always answered by the DB (spring.search.mode), so it can page through any number of matches
+    public PageDtos.PageDto<CustomerDtos.CustomerDto> searchPage(String query, Integer page, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Query must not be blank");
+        }
+        return PageDtos.PageDto.of(textSearch.customers(query, TextSearch.pageRequest(page, size)).map(CustomerMapper::toDto));
+    }
+
     public List<RentalDtos.RentalDto> getRentals(Long customerId) {
 
         if(!customerRepository.existsById(customerId)) {
@@ -111,7 +181,11 @@ public class CustomerService {
 
         return rentalRepository.findByCustomerIdOrderByStartAtDesc(customerId)
                 .stream()
-                .map(RentalMapper::toDto)
+                .map(this::toRentalDto)
                 .toList();
     }
+
+    private RentalDtos.RentalDto toRentalDto(Rental rental) {
+        return RentalMapper.toDto(rental, referenceDataCache.get());
+    }
 }
@@ -0,0 +1,121 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.dto.EmailDtos;
+import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+//Sends a batch of emails concurrently on virtual threads.
+//Concurrency is capped by a semaphore, the provider quota by a token bucket (one token per HTTP call),
+//and ExternalApiException is retried with exponential backoff.
+@Component
+public class EmailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    @Value("${spring.email.dispatch.concurrency:8}")
+    private int concurrency;
+
+    @Value("${spring.email.dispatch.ratePerSecond:5}")
+    private double ratePerSecond;
+
+    @Value("${spring.email.dispatch.maxAttempts:3}")
+    private int maxAttempts;
+
+    @Value("${spring.email.dispatch.backoffMillis:500}")
+    private long backoffMillis;
+
+    private TokenBucketRateLimiter rateLimiter;
+
+    @PostConstruct
+    void init() {
+        this.rateLimiter = new TokenBucketRateLimiter(ratePerSecond, (int) Math.ceil(ratePerSecond));
+    }
+
+    public <T> EmailDtos.EmailDispatchReport dispatch(List<T> items, Predicate<T> sender) {
+        return dispatch(items, sender, maxAttempts);
+    }
+
+    //attempts = 1 for callers that retry on their own schedule (the outbox), so failures aren't retried twice
+    public <T> EmailDtos.EmailDispatchReport dispatch(List<T> items, Predicate<T> sender, int attempts) {
+
+        long started = System.nanoTime();
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger retries = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(Math.max(1, concurrency));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (T item : items) {
+                try {
+                    inFlight.acquire();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                executor.submit(() -> {
+                    try {
+                        if (sendWithRetry(item, sender, attempts, retries)) {
+                            sent.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        int total = sent.get() + failed.get();
+        double perSecond = elapsedMillis > 0 ? total * 1000.0 / elapsedMillis : total;
+
+        EmailDtos.EmailDispatchReport report = new EmailDtos.EmailDispatchReport(
+                total, sent.get(), failed.get(), retries.get(), elapsedMillis, perSecond);
+        log.info("Email dispatch finished: {}", report);
+        return report;
+    }
+
+    private <T> boolean sendWithRetry(T item, Predicate<T> sender, int maxAttempts, AtomicInteger retries) {
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                rateLimiter.acquire();
+                return sender.test(item);
+            } catch (ExternalApiException ex) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Email dispatch gave up after {} attempts: {}", attempt, ex.getMessage());
+                    return false;
+                }
+                retries.incrementAndGet();
+                if (!sleep(backoffMillis << (attempt - 1))) {
+                    return false;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
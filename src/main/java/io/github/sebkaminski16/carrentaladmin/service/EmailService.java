@@ -1,30 +1,95 @@
 package io.github.sebkaminski16.carrentaladmin.service;
 
-import io.github.sebkaminski16.carrentaladmin.entity.Customer;
+import io.github.sebkaminski16.carrentaladmin.entity.EmailOutboxMessage;
+import io.github.sebkaminski16.carrentaladmin.entity.EmailOutboxStatus;
 import io.github.sebkaminski16.carrentaladmin.integration.mailtrap.MailtrapClient;
+import io.github.sebkaminski16.carrentaladmin.repository.EmailOutboxRepository;
+import io.github.sebkaminski16.carrentaladmin.template.EmailTemplateEngine;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 public class EmailService {
 
+    private static final DateTimeFormatter REMINDER_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     @Value("${spring.email.fromEmail}")
     private String fromEmail;;
 
+    //language of the emails sent to customers; a template without this variant falls back to templates.defaultLocale
+    @Value("${spring.email.locale:en}")
+    private Locale locale;
+
     @Autowired
     private MailtrapClient mailtrapClient;
 
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailTemplateEngine emailTemplateEngine;
+
     public boolean sendTestEmail(String toEmail, String subject, String text) {
         return mailtrapClient.sendTextEmail(fromEmail, toEmail, subject, text);
     }
 
-    public boolean sendInactiveCustomerReminder(Customer customer, int inactiveDays) {
-        String subject = "Are you there? You haven't rented anything for long time!";
-        String text = "Hey" + customer.getFirstName() + ",\n\n"
-                + "You haven't rented any car for at least " + inactiveDays + " days. Consider coming back!\n\n"
-                + "Cheers,\nCar Rental Team";
+    public boolean sendEmail(String toEmail, String subject, String text) {
+        return mailtrapClient.sendTextEmail(fromEmail, toEmail, subject, text);
+    }
+
+    //joins the caller's transaction, so the email is stored only if the business change commits;
+    //EmailOutboxDispatcher sends it later in the background
+    @Transactional
+    public void enqueue(String toEmail, String subject, String text) {
+        EmailOutboxMessage message = EmailOutboxMessage.builder()
+                .toEmail(toEmail)
+                .subject(subject)
+                .body(text)
+                .status(EmailOutboxStatus.PENDING)
+                .build();
+        emailOutboxRepository.save(message);
+    }
+
+    public boolean sendInactiveCustomerReminder(String firstName, String email, int inactiveDays) {
+        MailtrapClient.Message message = inactiveCustomerReminder(firstName, email, inactiveDays);
+        return mailtrapClient.sendTextEmail(fromEmail, message.toEmail(), message.subject(), message.text());
+    }
+
+    public MailtrapClient.Message inactiveCustomerReminder(String firstName, String email, int inactiveDays) {
+        return emailTemplateEngine.render("inactive-customer", locale, Map.of(
+                "firstName", firstName,
+                "inactiveDays", inactiveDays
+        )).toMessage(email);
+    }
+
+    public MailtrapClient.Message pickupReminder(String firstName, String email, String licensePlate, LocalDateTime startAt) {
+        return emailTemplateEngine.render("pickup-reminder", locale, Map.of(
+                "firstName", firstName,
+                "licensePlate", licensePlate,
+                "startAt", startAt.format(REMINDER_TIME_FORMAT)
+        )).toMessage(email);
+    }
+
+    public MailtrapClient.Message returnReminder(String firstName, String email, String licensePlate, LocalDateTime plannedEndAt) {
+        return emailTemplateEngine.render("return-reminder", locale, Map.of(
+                "firstName", firstName,
+                "licensePlate", licensePlate,
+                "plannedEndAt", plannedEndAt.format(REMINDER_TIME_FORMAT)
+        )).toMessage(email);
+    }
+
+    public List<Boolean> sendBatch(List<MailtrapClient.Message> messages) {
+        return mailtrapClient.sendBatch(fromEmail, messages);
+    }
 
-        return mailtrapClient.sendTextEmail(fromEmail, customer.getEmail(), subject, text);
+    public int batchSize() {
+        return mailtrapClient.getBatchSize();
     }
 }
@@ -0,0 +1,210 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.dto.AutocompleteDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.CarDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.CustomerDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.SearchDtos;
+import io.github.sebkaminski16.carrentaladmin.search.SearchText;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+//One search box over cars, customers, rentals, brands and models.
+//Every source runs on its own virtual thread; they all share one deadline, and a source that misses it
+//(or fails) is cancelled and reported in incompleteSources, so a slow source never holds up the rest.
+//Car, customer and rental sources each hold a pooled connection while they run; at most maxDbSources of them
+//run at once across all searches, and one that can't get a permit is skipped and reported the same way.
+@Service
+public class GlobalSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(GlobalSearchService.class);
+
+    public static final String CAR = "car";
+    public static final String CUSTOMER = "customer";
+    public static final String RENTAL = "rental";
+    public static final String BRAND = "brand";
+    public static final String MODEL = "model";
+
+    private static final Set<String> DB_SOURCES = Set.of(CAR, CUSTOMER, RENTAL);
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Value("${spring.search.global.deadlineMillis:300}")
+    private long deadlineMillis;
+
+    @Value("${spring.search.global.defaultLimit:20}")
+    private int defaultLimit;
+
+    @Value("${spring.search.global.maxLimit:100}")
+    private int maxLimit;
+
+    @Value("${spring.search.global.maxDbSources:6}")
+    private int maxDbSources;
+
+    private ExecutorService executor;
+    private Semaphore dbPermits;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        dbPermits = new Semaphore(maxDbSources);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public SearchDtos.SearchResponse search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return new SearchDtos.SearchResponse(query, false, List.of(), List.of());
+        }
+        String q = query.strip();
+        int max = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+
+        //each source returns at most max hits, the merge keeps the best max of all of them
+        Map<String, Supplier<List<SearchDtos.SearchHit>>> sources = new LinkedHashMap<>();
+        sources.put(CAR, () -> cars(q, max));
+        sources.put(CUSTOMER, () -> customers(q, max));
+        sources.put(RENTAL, () -> rentals(q, max));
+        sources.put(BRAND, () -> referenceData(q, AutocompleteService.BRAND, BRAND, max));
+        sources.put(MODEL, () -> referenceData(q, AutocompleteService.MODEL, MODEL, max));
+
+        Map<String, Future<List<SearchDtos.SearchHit>>> futures = new LinkedHashMap<>();
+        //per DB source: set by whoever gives its permit back - the task when it runs, or cancel() if it never started
+        Map<String, AtomicBoolean> permitClaims = new HashMap<>();
+        List<String> incomplete = new ArrayList<>();
+        sources.forEach((name, source) -> {
+            if (!DB_SOURCES.contains(name)) {
+                futures.put(name, executor.submit(source::get));
+            } else if (dbPermits.tryAcquire()) {
+                //released when the query really ends, not when a missed deadline cancels the future
+                AtomicBoolean claim = new AtomicBoolean();
+                permitClaims.put(name, claim);
+                futures.put(name, executor.submit(() -> {
+                    if (!claim.compareAndSet(false, true)) {
+                        return List.of();
+                    }
+                    try {
+                        return source.get();
+                    } finally {
+                        dbPermits.release();
+                    }
+                }));
+            } else {
+                incomplete.add(name);
+                log.warn("Global search source {} skipped for '{}': {} DB-bound sources already running", name, q, maxDbSources);
+            }
+        });
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        List<SearchDtos.SearchHit> hits = new ArrayList<>();
+        for (Map.Entry<String, Future<List<SearchDtos.SearchHit>>> entry : futures.entrySet()) {
+            Future<List<SearchDtos.SearchHit>> future = entry.getValue();
+            try {
+                hits.addAll(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException ex) {
+                cancel(future, permitClaims.get(entry.getKey()));
+                incomplete.add(entry.getKey());
+                log.warn("Global search source {} missed the {} ms deadline for '{}'", entry.getKey(), deadlineMillis, q);
+            } catch (ExecutionException ex) {
+                incomplete.add(entry.getKey());
+                log.warn("Global search source {} failed for '{}': {}", entry.getKey(), q, ex.getCause().toString());
+            } catch (InterruptedException ex) {
+                //request is going away; whatever hasn't answered yet is incomplete
+                Thread.currentThread().interrupt();
+                futures.forEach((name, f) -> {
+                    if (cancel(f, permitClaims.get(name))) incomplete.add(name);
+                });
+                break;
+            }
+        }
+
+        //stable sort: equal scores keep the source order above
+        List<SearchDtos.SearchHit> merged = hits.stream()
+                .sorted(Comparator.comparingDouble(SearchDtos.SearchHit::score).reversed())
+                .limit(max)
+                .toList();
+        return new SearchDtos.SearchResponse(q, !incomplete.isEmpty(), incomplete, merged);
+    }
+
+    private boolean cancel(Future<?> future, AtomicBoolean permitClaim) {
+        boolean cancelled = future.cancel(true);
+        //cancelled before it started: the task never runs, so its permit goes back here
+        if (permitClaim != null && permitClaim.compareAndSet(false, true)) {
+            dbPermits.release();
+        }
+        return cancelled;
+    }
+
+    private List<SearchDtos.SearchHit> cars(String q, int max) {
+        List<SearchDtos.SearchHit> hits = new ArrayList<>();
+        for (CarDtos.CarDto car : carService.search(q, max)) {
+            double score = Math.max(SearchText.matchScore(car.licensePlate(), q), SearchText.matchScore(car.vin(), q));
+            String label = car.licensePlate() + " - " + car.brandName() + " " + car.modelName();
+            hits.add(new SearchDtos.SearchHit(CAR, car.id(), label, score));
+        }
+        return hits;
+    }
+
+    private List<SearchDtos.SearchHit> customers(String q, int max) {
+        List<SearchDtos.SearchHit> hits = new ArrayList<>();
+        for (CustomerDtos.CustomerSearchHit hit : customerService.searchRanked(q, max)) {
+            CustomerDtos.CustomerDto c = hit.customer();
+            //the index scores 0 when it is still loading and the DB fallback answered
+            double score = hit.score() > 0 ? hit.score() : 0.5;
+            hits.add(new SearchDtos.SearchHit(CUSTOMER, c.id(), c.firstName() + " " + c.lastName() + " <" + c.email() + ">", score));
+        }
+        return hits;
+    }
+
+    private List<SearchDtos.SearchHit> rentals(String q, int max) {
+        List<SearchDtos.SearchHit> hits = new ArrayList<>();
+        for (RentalDtos.RentalSearchHit hit : rentalService.search(q, max)) {
+            RentalDtos.RentalDto r = hit.rental();
+            String label = "#" + r.id() + " " + r.carLabel() + " - " + r.customerName() + " (" + r.status() + ")";
+            hits.add(new SearchDtos.SearchHit(RENTAL, r.id(), label, hit.score()));
+        }
+        return hits;
+    }
+
+    private List<SearchDtos.SearchHit> referenceData(String q, String autocompleteType, String type, int max) {
+        List<SearchDtos.SearchHit> hits = new ArrayList<>();
+        for (AutocompleteDtos.Suggestion s : autocompleteService.suggest(q, autocompleteType, max)) {
+            double score = Math.max(SearchText.matchScore(s.name(), q), SearchText.matchScore(s.label(), q));
+            hits.add(new SearchDtos.SearchHit(type, s.id(), s.label(), score));
+        }
+        return hits;
+    }
+}
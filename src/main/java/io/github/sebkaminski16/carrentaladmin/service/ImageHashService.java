@@ -0,0 +1,111 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.entity.ImageHash;
+import io.github.sebkaminski16.carrentaladmin.repository.ImageHashRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Content hash -> uploaded URLs. Lookups go to a small LRU map first and to image_hashes on a miss;
+//URLs never change for a hash, so the cache never needs invalidating.
+@Service
+public class ImageHashService {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    @Value("${spring.images.dedup.cacheSize:10000}")
+    private int cacheSize;
+
+    @Autowired
+    private ImageHashRepository imageHashRepository;
+
+    public record StoredImage(String url, String thumbnailUrl) {}
+
+    //access ordered LinkedHashMap = LRU; guarded by itself
+    private final Map<String, StoredImage> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StoredImage> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    //reads the stream once through an 8 KB buffer, the file is never held in memory
+    public String sha256(InputStreamSource source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = source.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    //null when this content was never uploaded; rows from before thumbnails have thumbnailUrl null
+    public StoredImage find(String sha256) {
+        synchronized (cache) {
+            StoredImage image = cache.get(sha256);
+            if (image != null) {
+                return image;
+            }
+        }
+        StoredImage image = imageHashRepository.findBySha256(sha256).map(ImageHashService::toStored).orElse(null);
+        if (image != null) {
+            cache(sha256, image);
+        }
+        return image;
+    }
+
+    //Returns what is stored for the hash - the given image, or the one of a concurrent upload of the same file that won.
+    //A row without a thumbnail is replaced by the given image.
+    public StoredImage remember(String sha256, StoredImage image, String provider, long sizeBytes) {
+        try {
+            imageHashRepository.saveAndFlush(ImageHash.builder()
+                    .sha256(sha256)
+                    .url(image.url())
+                    .thumbnailUrl(image.thumbnailUrl())
+                    .provider(provider)
+                    .sizeBytes(sizeBytes)
+                    .build());
+        } catch (DataIntegrityViolationException ex) {
+            ImageHash existing = imageHashRepository.findBySha256(sha256).orElse(null);
+            if (existing != null && existing.getThumbnailUrl() == null) {
+                //stored before uploads got thumbnails: point the row at the processed upload
+                existing.setUrl(image.url());
+                existing.setThumbnailUrl(image.thumbnailUrl());
+                existing.setProvider(provider);
+                existing.setSizeBytes(sizeBytes);
+                imageHashRepository.save(existing);
+            } else if (existing != null) {
+                image = toStored(existing);
+            }
+        }
+        cache(sha256, image);
+        return image;
+    }
+
+    private void cache(String sha256, StoredImage image) {
+        synchronized (cache) {
+            cache.put(sha256, image);
+        }
+    }
+
+    private static StoredImage toStored(ImageHash hash) {
+        return new StoredImage(hash.getUrl(), hash.getThumbnailUrl());
+    }
+}
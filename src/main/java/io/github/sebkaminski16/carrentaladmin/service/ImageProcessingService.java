@@ -0,0 +1,243 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
+import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import io.github.sebkaminski16.carrentaladmin.exception.ServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Turns an uploaded photo into a web sized image and a thumbnail (JDK ImageIO only).
+//Large photos are decoded with source subsampling, so a 12 MP JPEG never becomes a full size bitmap;
+//decoding still needs a few MB per image, which is why it runs on a small bounded pool.
+//Opaque images are written as JPEG, images with transparency as PNG. Results go to temp files.
+@Service
+public class ImageProcessingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageProcessingService.class);
+
+    @Value("${spring.images.processing.maxDimension:1920}")
+    private int maxDimension;
+
+    @Value("${spring.images.processing.thumbnailDimension:320}")
+    private int thumbnailDimension;
+
+    @Value("${spring.images.processing.jpegQuality:0.85}")
+    private float jpegQuality;
+
+    //decompression bomb guard, checked from the header before anything is decoded
+    @Value("${spring.images.processing.maxPixels:60000000}")
+    private long maxPixels;
+
+    @Value("${spring.images.processing.workers:2}")
+    private int workers;
+
+    @Value("${spring.images.processing.queueCapacity:20}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    //both files are deleted on close()
+    public record ProcessedImage(Path full, Path thumbnail, int width, int height) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            deleteQuietly(full);
+            deleteQuietly(thumbnail);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "image-processing-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    //runs on the processing pool and waits for the result
+    public ProcessedImage process(InputStreamSource source) {
+        Future<ProcessedImage> result;
+        try {
+            result = executor.submit(() -> processNow(source));
+        } catch (RejectedExecutionException ex) {
+            throw new ServiceBusyException("Too many images being processed, try again later");
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ExternalApiException("Image processing was interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new ExternalApiException("Failed to process uploaded image", ex.getCause());
+        }
+    }
+
+    ProcessedImage processNow(InputStreamSource source) throws IOException {
+        BufferedImage full;
+        try (InputStream in = source.getInputStream();
+             ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            full = scaleToFit(decode(iis), maxDimension);
+        }
+        BufferedImage thumbnail = scaleToFit(full, thumbnailDimension);
+
+        Path fullFile = write(full);
+        try {
+            Path thumbnailFile = write(thumbnail);
+            return new ProcessedImage(fullFile, thumbnailFile, full.getWidth(), full.getHeight());
+        } catch (IOException | RuntimeException ex) {
+            deleteQuietly(fullFile);
+            throw ex;
+        }
+    }
+
+    private BufferedImage decode(ImageInputStream iis) throws IOException {
+        Iterator<ImageReader> readers = iis == null ? null : ImageIO.getImageReaders(iis);
+        if (readers == null || !readers.hasNext()) {
+            throw new BadRequestException("Unsupported image format");
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(iis, true, true);
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+            if ((long) width * height > maxPixels) {
+                throw new BadRequestException("Image is too large (" + width + "x" + height + ")");
+            }
+
+            //decode every n-th pixel, but never below maxDimension - the exact size is done by scaleToFit
+            ImageReadParam param = reader.getDefaultReadParam();
+            int subsampling = Math.max(1, Math.max(width, height) / maxDimension);
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            try {
+                return reader.read(0, param);
+            } catch (IOException | RuntimeException ex) {
+                //e.g. CMYK JPEGs or truncated files
+                throw new BadRequestException("Could not decode image: " + ex.getMessage());
+            }
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    //halves the image until one bilinear step is left, which keeps quality close to area averaging
+    static BufferedImage scaleToFit(BufferedImage image, int maxSize) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (width <= maxSize && height <= maxSize) {
+            return image;
+        }
+        double scale = (double) maxSize / Math.max(width, height);
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = image;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = resize(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        boolean alpha = source.getColorModel().hasAlpha();
+        BufferedImage target = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private Path write(BufferedImage image) throws IOException {
+        boolean alpha = image.getColorModel().hasAlpha();
+        Path file = Files.createTempFile("image-", alpha ? ".png" : ".jpg");
+        try {
+            if (alpha) {
+                ImageIO.write(image, "png", file.toFile());
+            } else {
+                writeJpeg(opaque(image), file);
+            }
+            return file;
+        } catch (IOException | RuntimeException ex) {
+            deleteQuietly(file);
+            throw ex;
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    //the JPEG writer only takes RGB/gray rasters; e.g. indexed images (GIFs) are converted first
+    private static BufferedImage opaque(BufferedImage image) {
+        int type = image.getType();
+        if (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_3BYTE_BGR || type == BufferedImage.TYPE_BYTE_GRAY) {
+            return image;
+        }
+        return resize(image, image.getWidth(), image.getHeight());
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete temp file {}", file, ex);
+        }
+    }
+}
@@ -3,30 +3,58 @@ package io.github.sebkaminski16.carrentaladmin.service;
 import io.github.sebkaminski16.carrentaladmin.dto.ImageDtos;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
-import io.github.sebkaminski16.carrentaladmin.integration.imgbb.ImgbbClient;
+import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
+import io.github.sebkaminski16.carrentaladmin.storage.ImageStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
-import java.util.Base64;
 
 @Service
 public class ImageService {
 
     @Autowired
-    private ImgbbClient imgbbClient;
+    private ImageStore imageStore;
+
+    @Autowired
+    private ImageHashService imageHashService;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
 
     public ImageDtos.ImageUploadResponse uploadCarImage(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new BadRequestException("File is required");
         }
+        return upload(file, file.getSize());
+    }
 
+    //Hashes the original content first (one streaming pass) and only processes and uploads what wasn't uploaded before.
+    //What goes to the ImageStore is the downscaled image and its thumbnail, never the original file.
+    public ImageDtos.ImageUploadResponse upload(InputStreamSource image, long size) {
+        String sha256;
         try {
-            String base64 = Base64.getEncoder().encodeToString(file.getBytes());
-            String url = imgbbClient.uploadBase64(base64);
-            return new ImageDtos.ImageUploadResponse(url, "imgbb");
+            sha256 = imageHashService.sha256(image);
         } catch (IOException ex) {
             throw new ExternalApiException("Failed to read uploaded file", ex);
         }
+
+        ImageHashService.StoredImage stored = imageHashService.find(sha256);
+        //no thumbnail = uploaded before thumbnails existed, process it again so it gets one
+        if (stored == null || stored.thumbnailUrl() == null) {
+            try (ImageProcessingService.ProcessedImage processed = imageProcessingService.process(image)) {
+                String url = imageStore.store(processed.full());
+                String thumbnailUrl = imageStore.store(processed.thumbnail());
+                stored = imageHashService.remember(sha256, new ImageHashService.StoredImage(url, thumbnailUrl), imageStore.provider(), size);
+            }
+        }
+        return new ImageDtos.ImageUploadResponse(stored.url(), stored.thumbnailUrl(), imageStore.provider());
+    }
+
+    //images kept by this application (local store), addressed by the sha256 of the stored file
+    public Resource loadImage(String hash) {
+        return imageStore.load(hash).orElseThrow(() -> new NotFoundException("Image not found: " + hash));
     }
 }
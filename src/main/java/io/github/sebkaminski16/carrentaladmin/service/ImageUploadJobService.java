@@ -0,0 +1,217 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.dto.ImageDtos;
+import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
+import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
+import io.github.sebkaminski16.carrentaladmin.exception.ServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.PathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Background image uploads: the request only copies the file to a temp file and gets a job id back,
+//a small worker pool does the ImgBB round trip. Jobs are kept in memory - at most maxJobs of them,
+//finished ones are dropped jobTtlSeconds after completion (or earlier, oldest first, when the store is full).
+@Service
+public class ImageUploadJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageUploadJobService.class);
+
+    public enum Status { PENDING, RUNNING, SUCCEEDED, FAILED }
+
+    @Value("${spring.images.uploads.workers:4}")
+    private int workers;
+
+    //uploads waiting for a worker; beyond that new jobs are rejected with 503
+    @Value("${spring.images.uploads.queueCapacity:50}")
+    private int queueCapacity;
+
+    @Value("${spring.images.uploads.maxJobs:1000}")
+    private int maxJobs;
+
+    @Value("${spring.images.uploads.jobTtlSeconds:3600}")
+    private long jobTtlSeconds;
+
+    @Autowired
+    private ImageService imageService;
+
+    private ThreadPoolExecutor executor;
+
+    //insertion ordered, so the oldest jobs come first when evicting
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    private static final class Job {
+        private final String id;
+        private final LocalDateTime createdAt;
+        private volatile Status status = Status.PENDING;
+        private volatile String url;
+        private volatile String thumbnailUrl;
+        private volatile String provider;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(String id, LocalDateTime createdAt) {
+            this.id = id;
+            this.createdAt = createdAt;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "image-upload-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ImageDtos.ImageUploadJobResponse submit(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("File is required");
+        }
+
+        //the multipart temp file is gone once the request completes, so the upload gets its own copy
+        //a local I/O failure, not ImgBB's - reported as 500
+        Path copy;
+        try {
+            copy = Files.createTempFile("image-upload-", ".tmp");
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create temp file for upload", ex);
+        }
+        try {
+            file.transferTo(copy);
+        } catch (IOException ex) {
+            deleteQuietly(copy);
+            throw new UncheckedIOException("Failed to store uploaded file", ex);
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), LocalDateTime.now());
+        synchronized (jobs) {
+            evict(LocalDateTime.now());
+            jobs.put(job.id, job);
+        }
+        try {
+            executor.execute(() -> run(job, copy));
+        } catch (RejectedExecutionException ex) {
+            synchronized (jobs) {
+                jobs.remove(job.id);
+            }
+            deleteQuietly(copy);
+            throw new ServiceBusyException("Too many image uploads in progress, try again later");
+        }
+        return toResponse(job);
+    }
+
+    public ImageDtos.ImageUploadJobResponse get(String id) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        if (job == null || isExpired(job, LocalDateTime.now())) {
+            throw new NotFoundException("Image upload job not found: " + id);
+        }
+        return toResponse(job);
+    }
+
+    @Scheduled(fixedDelayString = "${spring.images.uploads.evictMillis:60000}")
+    public void evictExpired() {
+        synchronized (jobs) {
+            evict(LocalDateTime.now());
+        }
+    }
+
+    int jobCount() {
+        synchronized (jobs) {
+            return jobs.size();
+        }
+    }
+
+    private void run(Job job, Path file) {
+        job.status = Status.RUNNING;
+        Status result;
+        try {
+            ImageDtos.ImageUploadResponse uploaded = imageService.upload(new PathResource(file), Files.size(file));
+            job.url = uploaded.url();
+            job.thumbnailUrl = uploaded.thumbnailUrl();
+            job.provider = uploaded.provider();
+            result = Status.SUCCEEDED;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Image upload job {} failed", job.id, ex);
+            job.error = ex.getMessage();
+            result = Status.FAILED;
+        } finally {
+            deleteQuietly(file);
+        }
+        job.finishedAt = LocalDateTime.now();
+        //written last, readers that see the final status also see url/error and finishedAt
+        job.status = result;
+    }
+
+    //caller holds the jobs lock
+    private void evict(LocalDateTime now) {
+        jobs.values().removeIf(job -> isExpired(job, now));
+        //still full: drop the oldest finished jobs; pending ones are bounded by workers + queueCapacity
+        Iterator<Job> it = jobs.values().iterator();
+        while (jobs.size() >= maxJobs && it.hasNext()) {
+            if (it.next().finishedAt != null) {
+                it.remove();
+            }
+        }
+    }
+
+    private boolean isExpired(Job job, LocalDateTime now) {
+        LocalDateTime finishedAt = job.finishedAt;
+        return finishedAt != null && !finishedAt.plusSeconds(jobTtlSeconds).isAfter(now);
+    }
+
+    private static ImageDtos.ImageUploadJobResponse toResponse(Job job) {
+        Status status = job.status;
+        return new ImageDtos.ImageUploadJobResponse(
+                job.id,
+                status.name(),
+                status == Status.SUCCEEDED ? job.url : null,
+                status == Status.SUCCEEDED ? job.thumbnailUrl : null,
+                status == Status.SUCCEEDED ? job.provider : null,
+                status == Status.FAILED ? job.error : null,
+                job.createdAt,
+                job.finishedAt
+        );
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete temp file {}", file, ex);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.entity.JobLease;
+import io.github.sebkaminski16.carrentaladmin.repository.JobLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+//DB-backed leases so a @Scheduled job fires on every replica but only runs on one of them.
+//A lease is held for durationSeconds and extended by a heartbeat while the job runs.
+@Service
+public class JobLeaseService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobLeaseService.class);
+
+    @Value("${spring.jobs.lease.durationSeconds:60}")
+    private long durationSeconds;
+
+    @Value("${spring.jobs.lease.heartbeatSeconds:20}")
+    private long heartbeatSeconds;
+
+    //kept after a successful run, so a replica whose cron fires a bit later doesn't run the job again
+    @Value("${spring.jobs.lease.holdAfterCompletionSeconds:3600}")
+    private long holdAfterCompletionSeconds;
+
+    @Value("${spring.jobs.lease.owner:}")
+    private String owner;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService heartbeats;
+
+    @PostConstruct
+    void init() {
+        if (owner == null || owner.isBlank()) {
+            //pid@host plus a random suffix, so two instances on one host never share an owner
+            owner = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "job-lease-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    //runs the job if this node gets the lease; returns false when another node holds it
+    public boolean runExclusively(String name, Runnable job) {
+        if (!tryAcquire(name)) {
+            log.debug("Job lease {} is held by another node, skipping", name);
+            return false;
+        }
+        runHolding(name, job);
+        return true;
+    }
+
+    //Every partition is its own lease (name#0, name#1, ...). Each node walks the partitions from a random
+    //offset and runs whatever it can claim, so several nodes share one large run.
+    //Returns how many partitions ran on this node.
+    public int runPartitioned(String name, int partitions, IntConsumer job) {
+        int start = ThreadLocalRandom.current().nextInt(partitions);
+        int ran = 0;
+        for (int i = 0; i < partitions; i++) {
+            int partition = (start + i) % partitions;
+            if (runExclusively(name + "#" + partition, () -> job.accept(partition))) {
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    boolean tryAcquire(String name) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = transactionTemplate.execute(status ->
+                jobLeaseRepository.tryAcquire(name, owner, now, now.plusSeconds(durationSeconds)));
+        if (updated != null && updated > 0) {
+            return true;
+        }
+
+        //first run of this job - create the row, the unique name decides who wins
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (jobLeaseRepository.existsByName(name)) {
+                    return false;
+                }
+                jobLeaseRepository.saveAndFlush(JobLease.builder()
+                        .name(name)
+                        .owner(owner)
+                        .leaseUntil(now.plusSeconds(durationSeconds))
+                        .heartbeatAt(now)
+                        .build());
+                return true;
+            }));
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+    }
+
+    private void runHolding(String name, Runnable job) {
+
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(
+                () -> heartbeat(name), heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        try {
+            job.run();
+        } catch (RuntimeException ex) {
+            heartbeat.cancel(false);
+            //released right away, so another node can pick it up on its next trigger
+            extend(name, 0);
+            throw ex;
+        }
+        heartbeat.cancel(false);
+        extend(name, holdAfterCompletionSeconds);
+    }
+
+    private void heartbeat(String name) {
+        //an exception would cancel the periodic task, so nothing may escape from here
+        try {
+            if (!extend(name, durationSeconds)) {
+                log.warn("Lost job lease {} - another node may run it concurrently", name);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Job lease heartbeat for {} failed", name, ex);
+        }
+    }
+
+    private boolean extend(String name, long seconds) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = transactionTemplate.execute(status ->
+                jobLeaseRepository.extend(name, owner, now, now.plusSeconds(seconds)));
+        return updated != null && updated > 0;
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.dto.MetricsDtos;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.Bulkhead;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.CircuitBreaker;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.IntegrationGuard;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class MetricsService {
+
+    private static final String POOL_SUFFIX = "ConnectionManager";
+
+    //every connection manager bean, keyed by bean name (imgbbConnectionManager, mailtrapConnectionManager, ...)
+    @Autowired
+    private Map<String, PoolingHttpClientConnectionManager> connectionManagers;
+
+    @Autowired
+    private List<IntegrationGuard> guards;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    //EntityCacheConfig's manager; absent when spring.entityCache.enabled=false
+    @Autowired(required = false)
+    private CacheManager entityCacheManager;
+
+    public List<MetricsDtos.HttpPoolStatsDto> httpPools() {
+        return connectionManagers.entrySet().stream()
+                .map(e -> toDto(poolName(e.getKey()), e.getValue().getTotalStats()))
+                .sorted((a, b) -> a.name().compareTo(b.name()))
+                .toList();
+    }
+
+    public List<MetricsDtos.IntegrationStatsDto> integrations() {
+        return guards.stream()
+                .map(MetricsService::toDto)
+                .sorted((a, b) -> a.name().compareTo(b.name()))
+                .toList();
+    }
+
+    //Hibernate second-level and query cache regions; empty with spring.entityCache.statistics=false
+    public List<MetricsDtos.EntityCacheStatsDto> entityCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return List.of();
+        }
+        List<MetricsDtos.EntityCacheStatsDto> regions = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) continue;
+            long lookups = stats.getHitCount() + stats.getMissCount();
+            regions.add(new MetricsDtos.EntityCacheStatsDto(
+                    region,
+                    stats.getHitCount(),
+                    stats.getMissCount(),
+                    stats.getPutCount(),
+                    lookups == 0 ? 0.0 : (double) stats.getHitCount() / lookups,
+                    entries(region)
+            ));
+        }
+        regions.sort((a, b) -> a.region().compareTo(b.region()));
+        return regions;
+    }
+
+    private long entries(String region) {
+        Cache<Object, Object> cache = entityCacheManager == null ? null : entityCacheManager.getCache(region);
+        return cache == null ? -1 : cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+    }
+
+    private static MetricsDtos.IntegrationStatsDto toDto(IntegrationGuard guard) {
+        CircuitBreaker cb = guard.getCircuitBreaker();
+        Bulkhead bulkhead = guard.getBulkhead();
+        return new MetricsDtos.IntegrationStatsDto(
+                guard.getName(),
+                cb.getState().name(),
+                cb.getFailureRate(),
+                cb.getBufferedCalls(),
+                cb.getSuccessfulCalls(),
+                cb.getFailedCalls(),
+                cb.getNotPermittedCalls(),
+                bulkhead.getActiveCalls(),
+                bulkhead.getWaitingCalls(),
+                bulkhead.getRejectedCalls(),
+                bulkhead.getMaxConcurrentCalls()
+        );
+    }
+
+    private static MetricsDtos.HttpPoolStatsDto toDto(String name, PoolStats stats) {
+        return new MetricsDtos.HttpPoolStatsDto(name, stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax());
+    }
+
+    private static String poolName(String beanName) {
+        return beanName.endsWith(POOL_SUFFIX) ? beanName.substring(0, beanName.length() - POOL_SUFFIX.length()) : beanName;
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
+import io.github.sebkaminski16.carrentaladmin.entity.Car;
+import io.github.sebkaminski16.carrentaladmin.entity.Rental;
+import io.github.sebkaminski16.carrentaladmin.entity.RentalStatus;
+import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
+import io.github.sebkaminski16.carrentaladmin.repository.RentalRepository;
+import io.github.sebkaminski16.carrentaladmin.strategy.PricingResult;
+import io.github.sebkaminski16.carrentaladmin.strategy.PricingStrategyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+//Opt-in job for bringing ACTIVE rentals up to date after a rate/discount change.
+//Not @Transactional on purpose - every chunk gets its own short transaction,
+//so repricing thousands of rentals never holds one giant lock set.
+@Service
+public class RentalRepricingService {
+
+    private static final String UPDATE_PRICE_SQL =
+            "update rentals set base_price = ?, total_price = ?, updated_at = ? where id = ?";
+
+    @Value("${spring.rentals.repriceChunkSize:500}")
+    private int chunkSize;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private PricingStrategyFactory pricingStrategyFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public RentalDtos.RentalRepriceResponse repriceActive(Long categoryId, Long carId) {
+
+        if (chunkSize <= 0) {
+            throw new BadRequestException("Reprice chunk size must be positive");
+        }
+
+        long scanned = 0;
+        long repriced = 0;
+        BigDecimal totalDelta = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        long afterId = 0L;
+
+        while (true) {
+            long lastId = afterId;
+            ChunkResult chunk = transactionTemplate.execute(status -> repriceChunk(lastId, categoryId, carId));
+            if (chunk == null || chunk.scanned() == 0) {
+                break;
+            }
+
+            scanned += chunk.scanned();
+            repriced += chunk.repriced();
+            totalDelta = totalDelta.add(chunk.delta());
+            afterId = chunk.lastId();
+
+            if (chunk.scanned() < chunkSize) {
+                break;
+            }
+        }
+
+        return new RentalDtos.RentalRepriceResponse(scanned, repriced, totalDelta);
+    }
+
+    private ChunkResult repriceChunk(long afterId, Long categoryId, Long carId) {
+
+        List<Rental> rentals = rentalRepository.findChunkForRepricing(
+                RentalStatus.ACTIVE, afterId, categoryId, carId, PageRequest.ofSize(chunkSize));
+
+        if (rentals.isEmpty()) {
+            return new ChunkResult(0, 0, BigDecimal.ZERO, afterId);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>();
+        BigDecimal delta = BigDecimal.ZERO;
+
+        for (Rental r : rentals) {
+            Car car = r.getCar();
+            PricingResult pricing = pricingStrategyFactory.get(r.getRateType())
+                    .calculate(car, car.getCategory(), r.getStartAt(), r.getPlannedEndAt());
+
+            BigDecimal newBase = scale2(pricing.price());
+            BigDecimal oldBase = scale2(r.getBasePrice());
+            if (newBase.compareTo(oldBase) == 0) {
+                continue;
+            }
+
+            BigDecimal lateFee = scale2(r.getLateFee());
+            updates.add(new Object[]{newBase, newBase.add(lateFee), now, r.getId()});
+            delta = delta.add(newBase.subtract(oldBase));
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_PRICE_SQL, updates);
+        }
+
+        return new ChunkResult(rentals.size(), updates.size(), delta, rentals.getLast().getId());
+    }
+
+    private static BigDecimal scale2(BigDecimal v) {
+        if (v == null) return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        return v.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record ChunkResult(int scanned, int repriced, BigDecimal delta, long lastId) {}
+}
@@ -1,22 +1,38 @@
 package io.github.sebkaminski16.carrentaladmin.service;
 
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceDataCache;
 import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.*;
+import io.github.sebkaminski16.carrentaladmin.event.RentalChangedEvent;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.mapper.RentalMapper;
 import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
 import io.github.sebkaminski16.carrentaladmin.repository.RentalRepository;
+import io.github.sebkaminski16.carrentaladmin.search.CarSearchIndex;
+import io.github.sebkaminski16.carrentaladmin.search.CustomerIndex;
+import io.github.sebkaminski16.carrentaladmin.search.CustomerSearchIndex;
+import io.github.sebkaminski16.carrentaladmin.search.SearchText;
+import io.github.sebkaminski16.carrentaladmin.search.TextSearch;
 import io.github.sebkaminski16.carrentaladmin.strategy.PricingResult;
 import io.github.sebkaminski16.carrentaladmin.strategy.PricingStrategyFactory;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -33,18 +49,33 @@ public class RentalService {
     @Autowired
     private RentalRepository rentalRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Autowired
     private CarRepository carRepository;
 
     @Autowired
     private PricingStrategyFactory pricingStrategyFactory;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CarSearchIndex carSearchIndex;
+
+    @Autowired
+    private CustomerSearchIndex customerSearchIndex;
+
+    @Autowired
+    private TextSearch textSearch;
+
     public List<RentalDtos.RentalDto> list() {
-        return rentalRepository.findAll().stream().map(RentalMapper::toDto).toList();
+        return rentalRepository.findAll().stream().map(this::toDto).toList();
     }
 
     public RentalDtos.RentalDto get(Long id) {
-        return RentalMapper.toDto(getEntity(id));
+        return toDto(getEntity(id));
     }
 
     public Rental getEntity(Long id) {
@@ -52,20 +83,106 @@ public class RentalService {
                 .orElseThrow(() -> new NotFoundException("Rental not found: " + id));
     }
 
+    //Rentals by id ("123" or "#123"), by plate/VIN of the car or by customer name/e-mail/phone,
+    //latest first per match, best score first overall. Indexes that are still loading (or not built at all,
+    //spring.search.mode=fulltext) are replaced by a DB search, like in CarService and CustomerService.
+    public List<RentalDtos.RentalSearchHit> search(String query, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        Map<Long, Rental> rentals = new LinkedHashMap<>();
+        Map<Long, Double> scores = new HashMap<>();
+
+        String trimmed = query.strip();
+        String digits = trimmed.startsWith("#") ? trimmed.substring(1) : trimmed;
+        if (!digits.isEmpty() && digits.length() <= 18 && digits.chars().allMatch(Character::isDigit)) {
+            rentalRepository.findById(Long.valueOf(digits)).ifPresent(r -> {
+                rentals.put(r.getId(), r);
+                scores.put(r.getId(), 1.0);
+            });
+        }
+
+        List<Long> carIds = carSearchIndex.isReady()
+                ? carSearchIndex.search(query, limit)
+                : textSearch.cars(query, PageRequest.of(0, limit)).map(Car::getId).getContent();
+        if (!carIds.isEmpty()) {
+            for (Rental r : rentalRepository.findByCarIdInOrderByStartAtDesc(carIds, PageRequest.of(0, limit))) {
+                double score = Math.max(SearchText.matchScore(r.getCar().getLicensePlate(), query),
+                        SearchText.matchScore(r.getCar().getVin(), query));
+                rentals.putIfAbsent(r.getId(), r);
+                scores.merge(r.getId(), score, Math::max);
+            }
+        }
+
+        Map<Long, Double> customerScores = new HashMap<>();
+        if (customerSearchIndex.isReady()) {
+            for (CustomerIndex.Hit hit : customerSearchIndex.search(query, limit)) {
+                customerScores.put(hit.id(), hit.score());
+            }
+        } else {
+            //every DB hit gets the same score, as in CustomerService.searchRanked
+            for (Customer customer : textSearch.customers(query, PageRequest.of(0, limit))) {
+                customerScores.put(customer.getId(), 0.0);
+            }
+        }
+        if (!customerScores.isEmpty()) {
+            for (Rental r : rentalRepository.findByCustomerIdInOrderByStartAtDesc(customerScores.keySet(), PageRequest.of(0, limit))) {
+                rentals.putIfAbsent(r.getId(), r);
+                scores.merge(r.getId(), customerScores.get(r.getCustomer().getId()), Math::max);
+            }
+        }
+
+        //stable sort, so rentals with the same score stay latest first
+        return rentals.values().stream()
+                .map(r -> new RentalDtos.RentalSearchHit(toDto(r), scores.get(r.getId())))
+                .sorted(Comparator.comparingDouble(RentalDtos.RentalSearchHit::score).reversed())
+                .limit(limit)
+                .toList();
+    }
+
     public List<RentalDtos.RentalDto> listActive() {
         return rentalRepository.findByStatusOrderByStartAtDesc(RentalStatus.ACTIVE)
                 .stream()
-                .map(RentalMapper::toDto)
+                .map(this::toDto)
                 .toList();
     }
 
     public List<RentalDtos.RentalDto> listOverdue() {
         return rentalRepository.findOverdue(RentalStatus.ACTIVE, LocalDateTime.now())
                 .stream()
-                .map(RentalMapper::toDto)
+                .map(this::toDto)
                 .toList();
     }
 
+    //late fee every overdue rental would get if the car came back right now
+    public RentalDtos.OverdueAccrualReportDto overdueAccrual() {
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RentalDtos.OverdueAccrualDto> rows = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+
+        try (Stream<RentalRepository.OverdueRentalRow> stream = rentalRepository.streamOverdueForAccrual(RentalStatus.ACTIVE, now)) {
+            Iterator<RentalRepository.OverdueRentalRow> it = stream.iterator();
+            while (it.hasNext()) {
+                RentalRepository.OverdueRentalRow row = it.next();
+                BigDecimal fee = calculateLateFee(row.getHourlyRate(), row.getPlannedEndAt(), now);
+                total = total.add(fee);
+                rows.add(new RentalDtos.OverdueAccrualDto(
+                        row.getRentalId(),
+                        row.getCarId(),
+                        row.getLicensePlate(),
+                        row.getCustomerId(),
+                        row.getCustomerFirstName() + " " + row.getCustomerLastName(),
+                        row.getPlannedEndAt(),
+                        hoursLate(row.getPlannedEndAt(), now),
+                        fee
+                ));
+            }
+        }
+
+        return new RentalDtos.OverdueAccrualReportDto(now, rows.size(), total, rows);
+    }
+
     public RentalDtos.RentalDto create(RentalDtos.RentalCreateRequest req) {
 
         LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
@@ -107,8 +224,9 @@ public class RentalService {
 
         Rental saved = rentalRepository.save(rental);
         carRepository.save(car);
+        eventPublisher.publishEvent(RentalChangedEvent.saved(saved));
 
-        return RentalMapper.toDto(saved);
+        return toDto(saved);
     }
 
     public RentalDtos.RentalDto update(Long id, RentalDtos.RentalUpdateRequest req) {
@@ -122,6 +240,10 @@ public class RentalService {
             throw new BadRequestException("plannedEndAt must be after startAt");
         }
 
+        if (!req.plannedEndAt().equals(rental.getPlannedEndAt())) {
+            //new end time, so the return reminder is due again
+            rental.setReturnReminderSentAt(null);
+        }
         rental.setPlannedEndAt(req.plannedEndAt());
         rental.setRateType(req.rateType());
         rental.setNotes(req.notes());
@@ -133,7 +255,10 @@ public class RentalService {
         rental.setBasePrice(basePrice);
         rental.setTotalPrice(basePrice.add(rental.getLateFee()));
 
-        return RentalMapper.toDto(rentalRepository.save(rental));
+        Rental saved = rentalRepository.save(rental);
+        eventPublisher.publishEvent(RentalChangedEvent.saved(saved));
+
+        return toDto(saved);
     }
 
     public RentalDtos.RentalDto extend(Long id, RentalDtos.RentalExtendRequest req) {
@@ -148,6 +273,7 @@ public class RentalService {
         }
 
         rental.setPlannedEndAt(req.newPlannedEndAt());
+        rental.setReturnReminderSentAt(null);
 
         PricingResult pricing = pricingStrategyFactory.get(rental.getRateType())
                 .calculate(rental.getCar(), rental.getCar().getCategory(), rental.getStartAt(), rental.getPlannedEndAt());
@@ -156,7 +282,10 @@ public class RentalService {
         rental.setBasePrice(basePrice);
         rental.setTotalPrice(basePrice.add(rental.getLateFee()));
 
-        return RentalMapper.toDto(rentalRepository.save(rental));
+        Rental saved = rentalRepository.save(rental);
+        eventPublisher.publishEvent(RentalChangedEvent.saved(saved));
+
+        return toDto(saved);
     }
 
     public RentalDtos.RentalDto cancel(Long id) {
@@ -175,8 +304,9 @@ public class RentalService {
         Car car = rental.getCar();
         car.setStatus(CarStatus.AVAILABLE);
         carRepository.save(car);
+        eventPublisher.publishEvent(RentalChangedEvent.saved(rental));
 
-        return RentalMapper.toDto(rentalRepository.save(rental));
+        return toDto(rentalRepository.save(rental));
     }
 
     public RentalDtos.RentalDto returnRental(Long id, RentalDtos.RentalReturnRequest req) {
@@ -208,8 +338,9 @@ public class RentalService {
 
         carRepository.save(car);
         Rental saved = rentalRepository.save(rental);
+        eventPublisher.publishEvent(RentalChangedEvent.saved(rental));
 
-        return RentalMapper.toDto(saved);
+        return toDto(saved);
     }
 
     public void delete(Long id) {
@@ -223,6 +354,7 @@ public class RentalService {
         }
 
         rentalRepository.deleteById(id);
+        eventPublisher.publishEvent(RentalChangedEvent.deleted(id));
     }
 
     public RentalDtos.RentalPricePreviewResponse previewPrice(Long carId, RateType rateType, LocalDateTime startAt, LocalDateTime plannedEndAt) {
@@ -243,25 +375,42 @@ public class RentalService {
     }
 
     private BigDecimal calculateLateFee(Car car, LocalDateTime plannedEndAt, LocalDateTime actualReturnAt) {
+        return calculateLateFee(car.getHourlyRate(), plannedEndAt, actualReturnAt);
+    }
+
+    private BigDecimal calculateLateFee(BigDecimal hourlyRate, LocalDateTime plannedEndAt, LocalDateTime actualReturnAt) {
 
         if (!actualReturnAt.isAfter(plannedEndAt)) {
             return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
         }
 
-        long minutesLate = Duration.between(plannedEndAt, actualReturnAt).toMinutes();
-        long hoursLate = (long) Math.ceil(minutesLate / 60.0);
-        if (hoursLate <= 0) hoursLate = 1;
-
         BigDecimal rateMultiplier = LATE_FEE_HOURLY_PERCENT.divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_UP);
-        BigDecimal fee = car.getHourlyRate()
-                .multiply(BigDecimal.valueOf(hoursLate))
+        BigDecimal fee = hourlyRate
+                .multiply(BigDecimal.valueOf(hoursLate(plannedEndAt, actualReturnAt)))
                 .multiply(rateMultiplier);
 
         return scale2(fee);
     }
 
+    private static long hoursLate(LocalDateTime plannedEndAt, LocalDateTime actualReturnAt) {
+
+        if (!actualReturnAt.isAfter(plannedEndAt)) {
+            return 0;
+        }
+
+        long minutesLate = Duration.between(plannedEndAt, actualReturnAt).toMinutes();
+        long hoursLate = (long) Math.ceil(minutesLate / 60.0);
+        if (hoursLate <= 0) hoursLate = 1;
+        return hoursLate;
+    }
+
     private static BigDecimal scale2(BigDecimal v) {
         if (v == null) return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
         return v.setScale(2, RoundingMode.HALF_UP);
     }
+
+    //car label (brand + model) from the reference data cache
+    private RentalDtos.RentalDto toDto(Rental rental) {
+        return RentalMapper.toDto(rental, referenceDataCache.get());
+    }
 }
@@ -0,0 +1,135 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceDataCache;
+import io.github.sebkaminski16.carrentaladmin.entity.BaseEntity;
+import io.github.sebkaminski16.carrentaladmin.entity.Car;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+//Version tokens for conditional GETs, computed without loading the entities: max(updatedAt) + count(*) per
+//table for lists (the count catches deletes, which don't move max(updatedAt)), updatedAt of the row for details.
+//Lists get an ETag only - a delete leaves max(updatedAt) where it was, so a Last-Modified check would answer 304
+//for a list that lost a row. Details also get Last-Modified. A car's DTO carries model, brand and category names,
+//so their versions are part of the car's.
+//Brands, models and categories are served from per-instance caches (ReferenceDataCache, Hibernate's second-level
+//and query cache). Their part of a version comes from ReferenceDataCache.currentVersion(), which brings those caches
+//up to the DB first - otherwise a replica that missed a change would send its stale body under the new ETag.
+@Service
+@Transactional
+public class ResourceVersionService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    //ETag (quoted) + Last-Modified in epoch millis, -1 when there's none to send
+    public record Version(String etag, long lastModified) {}
+
+    public Version table(Class<? extends BaseEntity> type) {
+        Token token = new Token();
+        if (ReferenceDataCache.TYPES.contains(type)) {
+            token.append(type.getSimpleName());
+            token.append(referenceDataCache.currentVersion());
+        } else {
+            token.addTable(type);
+        }
+        return token.etagOnly();
+    }
+
+    public Version row(Class<? extends BaseEntity> type, Long id) {
+        if (ReferenceDataCache.TYPES.contains(type)) {
+            referenceDataCache.currentVersion();
+        }
+        Token token = new Token();
+        return token.addRow(type, id) ? token.version() : null;
+    }
+
+    public Version cars() {
+        Token token = new Token();
+        token.addTable(Car.class);
+        token.append(referenceDataCache.currentVersion());
+        return token.etagOnly();
+    }
+
+    public Version car(Long id) {
+        //the names in the body come from ReferenceDataCache
+        referenceDataCache.currentVersion();
+        List<Object[]> rows = entityManager.createQuery("""
+                        select c.updatedAt, m.updatedAt, b.updatedAt, cat.updatedAt
+                        from Car c join c.model m join m.brand b join c.category cat
+                        where c.id = :id
+                        """, Object[].class)
+                .setParameter("id", id)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Token token = new Token();
+        token.append("car:" + id);
+        for (Object updatedAt : rows.getFirst()) {
+            token.add((LocalDateTime) updatedAt, 1);
+        }
+        return token.version();
+    }
+
+    private final class Token {
+
+        private final StringBuilder parts = new StringBuilder();
+        private LocalDateTime latest;
+
+        void addTable(Class<? extends BaseEntity> type) {
+            String entity = entityManager.getMetamodel().entity(type).getName();
+            Object[] row = entityManager.createQuery("select max(e.updatedAt), count(e) from " + entity + " e", Object[].class)
+                    .getSingleResult();
+            append(entity);
+            add((LocalDateTime) row[0], (Long) row[1]);
+        }
+
+        boolean addRow(Class<? extends BaseEntity> type, Long id) {
+            String entity = entityManager.getMetamodel().entity(type).getName();
+            List<LocalDateTime> updatedAt = entityManager.createQuery("select e.updatedAt from " + entity + " e where e.id = :id", LocalDateTime.class)
+                    .setParameter("id", id)
+                    .getResultList();
+            if (updatedAt.isEmpty()) {
+                return false;
+            }
+            append(entity + ":" + id);
+            add(updatedAt.getFirst(), 1);
+            return true;
+        }
+
+        void append(String part) {
+            parts.append(part).append(';');
+        }
+
+        void add(LocalDateTime updatedAt, long count) {
+            parts.append(updatedAt).append(';').append(count).append(';');
+            if (updatedAt != null && (latest == null || updatedAt.isAfter(latest))) {
+                latest = updatedAt;
+            }
+        }
+
+        Version version() {
+            long lastModified = latest == null ? -1 : latest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            return new Version(etag(), lastModified);
+        }
+
+        Version etagOnly() {
+            return new Version(etag(), -1);
+        }
+
+        private String etag() {
+            return "\"" + DigestUtils.md5DigestAsHex(parts.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        }
+    }
+}
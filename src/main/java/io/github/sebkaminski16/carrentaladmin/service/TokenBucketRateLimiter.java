@@ -0,0 +1,52 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Classic token bucket: refills continuously at ratePerSecond, holds at most `burst` tokens.
+//Uses a ReentrantLock instead of synchronized so waiting virtual threads don't pin their carrier.
+public class TokenBucketRateLimiter {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final double capacity;
+    private final double nanosPerToken;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucketRateLimiter(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be positive");
+        }
+        this.capacity = Math.max(1, burst);
+        this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        this.tokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            lock.lock();
+            try {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) * nanosPerToken);
+            } finally {
+                lock.unlock();
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double added = (now - lastRefillNanos) / nanosPerToken;
+        if (added > 0) {
+            tokens = Math.min(capacity, tokens + added);
+            lastRefillNanos = now;
+        }
+    }
+}
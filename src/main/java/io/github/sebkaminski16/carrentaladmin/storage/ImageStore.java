@@ -0,0 +1,18 @@
+package io.github.sebkaminski16.carrentaladmin.storage;
+
+import org.springframework.core.io.Resource;
+import java.nio.file.Path;
+import java.util.Optional;
+
+//Where processed images end up. Exactly one implementation is active, picked by spring.images.store (imgbb | local).
+public interface ImageStore {
+
+    //stored in image_hashes and returned to clients as "provider"
+    String provider();
+
+    //stores the file and returns the URL clients load it from
+    String store(Path file);
+
+    //only stores that serve images themselves (GET /api/images/{hash}) return anything
+    Optional<Resource> load(String hash);
+}
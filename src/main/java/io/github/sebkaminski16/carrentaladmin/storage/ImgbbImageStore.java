@@ -0,0 +1,41 @@
+package io.github.sebkaminski16.carrentaladmin.storage;
+
+import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import io.github.sebkaminski16.carrentaladmin.integration.imgbb.ImgbbClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "spring.images.store", havingValue = "imgbb", matchIfMissing = true)
+public class ImgbbImageStore implements ImageStore {
+
+    @Autowired
+    private ImgbbClient imgbbClient;
+
+    @Override
+    public String provider() {
+        return "imgbb";
+    }
+
+    @Override
+    public String store(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return imgbbClient.upload(in, Files.size(file));
+        } catch (IOException ex) {
+            throw new ExternalApiException("Failed to read processed image", ex);
+        }
+    }
+
+    //ImgBB serves its own URLs
+    @Override
+    public Optional<Resource> load(String hash) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.sebkaminski16.carrentaladmin.storage;
+
+import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+//On-prem alternative to ImgBB. Files are content addressed: <directory>/<first 2 hex chars>/<sha256>.<jpg|png>,
+//so storing the same bytes twice is a no-op and a stored file never changes (which is what makes the
+//immutable caching in ImageController safe). Files are written to a temp file and moved into place atomically.
+@Component
+@ConditionalOnProperty(name = "spring.images.store", havingValue = "local")
+public class LocalImageStore implements ImageStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final List<String> EXTENSIONS = List.of(".jpg", ".png");
+
+    @Value("${spring.images.local.directory:./data/images}")
+    private Path directory;
+
+    //prefix of the returned URLs, the hash is appended
+    @Value("${spring.images.local.baseUrl:/api/images}")
+    private String baseUrl;
+
+    @Override
+    public String provider() {
+        return "local";
+    }
+
+    @Override
+    public String store(Path file) {
+        String extension = extension(file);
+        try {
+            Files.createDirectories(directory);
+            //hash while copying, so the file is read only once
+            Path temp = Files.createTempFile(directory, "upload-", ".tmp");
+            try {
+                MessageDigest digest = sha256();
+                try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                String hash = HexFormat.of().formatHex(digest.digest());
+
+                Path target = path(hash, extension);
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    moveIntoPlace(temp, target);
+                }
+                return normalizeBaseUrl(baseUrl) + "/" + hash;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            throw new ExternalApiException("Failed to store image in " + directory, ex);
+        }
+    }
+
+    @Override
+    public Optional<Resource> load(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        for (String extension : EXTENSIONS) {
+            Path file = path(hash, extension);
+            if (Files.isRegularFile(file)) {
+                return Optional.of(new FileSystemResource(file));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Path path(String hash, String extension) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash + extension);
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException ex) {
+            //same content stored concurrently
+        } catch (AtomicMoveNotSupportedException ex) {
+            try {
+                Files.move(temp, target);
+            } catch (FileAlreadyExistsException alreadyStored) {
+                //same content stored concurrently
+            }
+        }
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".png") ? ".png" : ".jpg";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static String normalizeBaseUrl(String baseUrl) {
+        if (baseUrl.endsWith("/")) {
+            return baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        return baseUrl;
+    }
+}
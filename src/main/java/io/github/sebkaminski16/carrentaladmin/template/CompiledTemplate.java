@@ -0,0 +1,96 @@
+package io.github.sebkaminski16.carrentaladmin.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+//A template parsed once into alternating literal / placeholder segments:
+//literals[0] key[0] literals[1] key[1] ... literals[n]. Rendering is a plain loop of appends, no parsing or regex.
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final String[] literals;
+    private final String[] keys;
+    private final boolean escapeHtml;
+    private final int literalLength;
+
+    private CompiledTemplate(String name, String[] literals, String[] keys, boolean escapeHtml) {
+        this.name = name;
+        this.literals = literals;
+        this.keys = keys;
+        this.escapeHtml = escapeHtml;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static CompiledTemplate compile(String name, String source, boolean escapeHtml) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, pos);
+            if (open < 0) {
+                literals.add(source.substring(pos));
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalStateException("Unterminated placeholder in email template " + name + " at " + open);
+            }
+            String key = source.substring(open + OPEN.length(), close).trim();
+            if (key.isEmpty()) {
+                throw new IllegalStateException("Empty placeholder in email template " + name + " at " + open);
+            }
+            literals.add(source.substring(pos, open));
+            keys.add(key);
+            pos = close + CLOSE.length();
+        }
+        return new CompiledTemplate(name, literals.toArray(String[]::new), keys.toArray(String[]::new), escapeHtml);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    //rough size of the output, used to pre-size buffers
+    public int estimatedLength() {
+        return literalLength + keys.length * 16;
+    }
+
+    public void renderTo(StringBuilder out, Map<String, ?> model) {
+        out.ensureCapacity(out.length() + estimatedLength());
+        for (int i = 0; i < keys.length; i++) {
+            out.append(literals[i]);
+            Object value = model.get(keys[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing value for '" + keys[i] + "' in email template " + name);
+            }
+            if (escapeHtml) {
+                appendEscaped(out, String.valueOf(value));
+            } else {
+                out.append(value);
+            }
+        }
+        out.append(literals[keys.length]);
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.sebkaminski16.carrentaladmin.template;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Loads every template under spring.email.templates.location once at startup and precompiles it.
+//File names: <name>[_<locale>].subject.txt, <name>[_<locale>].txt and optionally <name>[_<locale>].html,
+//e.g. inactive-customer_pl.txt. The whole email comes from the first variant that exists: pl_PL -> pl -> default locale
+//-> no locale. Parts are never mixed across locales, so a variant without html is sent as text only.
+@Component
+public class EmailTemplateEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailTemplateEngine.class);
+
+    private static final String SUBJECT = ".subject.txt";
+    private static final String TEXT = ".txt";
+    private static final String HTML = ".html";
+
+    //buffers above this size are dropped instead of kept per thread
+    private static final int MAX_CACHED_BUFFER = 16 * 1024;
+
+    @Value("${spring.email.templates.location:classpath*:email-templates/*}")
+    private String location;
+
+    @Value("${spring.email.templates.defaultLocale:en}")
+    private String defaultLocale;
+
+    //key: template file name without extension, e.g. "inactive-customer" or "inactive-customer_pl"
+    private Map<String, CompiledTemplate> subjects = Map.of();
+    private Map<String, CompiledTemplate> texts = Map.of();
+    private Map<String, CompiledTemplate> htmls = Map.of();
+
+    private Locale fallbackLocale = Locale.ENGLISH;
+
+    //name -> locale -> resolved parts; two lookups without building a key string per render
+    private final Map<String, Map<Locale, Variant>> resolved = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private record Variant(CompiledTemplate subject, CompiledTemplate text, CompiledTemplate html) {}
+
+    @PostConstruct
+    void load() throws IOException {
+
+        Map<String, CompiledTemplate> loadedSubjects = new HashMap<>();
+        Map<String, CompiledTemplate> loadedTexts = new HashMap<>();
+        Map<String, CompiledTemplate> loadedHtmls = new HashMap<>();
+
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location)) {
+            String file = resource.getFilename();
+            if (file == null || !resource.isReadable()) continue;
+
+            String source;
+            try (InputStream in = resource.getInputStream()) {
+                source = stripTrailingNewline(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            if (file.endsWith(SUBJECT)) {
+                String key = file.substring(0, file.length() - SUBJECT.length());
+                loadedSubjects.put(key, CompiledTemplate.compile(file, source.strip(), false));
+            } else if (file.endsWith(TEXT)) {
+                String key = file.substring(0, file.length() - TEXT.length());
+                loadedTexts.put(key, CompiledTemplate.compile(file, source, false));
+            } else if (file.endsWith(HTML)) {
+                String key = file.substring(0, file.length() - HTML.length());
+                loadedHtmls.put(key, CompiledTemplate.compile(file, source, true));
+            }
+        }
+
+        //every template needs at least a subject and a text body without a locale suffix, and so does every variant
+        List<String> keys = new ArrayList<>(loadedSubjects.keySet());
+        keys.addAll(loadedTexts.keySet());
+        keys.addAll(loadedHtmls.keySet());
+        for (String key : keys) {
+            for (String required : List.of(baseName(key), key)) {
+                if (!loadedSubjects.containsKey(required) || !loadedTexts.containsKey(required)) {
+                    throw new IllegalStateException("Email template " + required + " needs both "
+                            + required + SUBJECT + " and " + required + TEXT);
+                }
+            }
+        }
+
+        this.subjects = Map.copyOf(loadedSubjects);
+        this.texts = Map.copyOf(loadedTexts);
+        this.htmls = Map.copyOf(loadedHtmls);
+        this.fallbackLocale = Locale.forLanguageTag(defaultLocale);
+        this.resolved.clear();
+        log.info("Loaded {} email templates ({} html variants)", loadedTexts.size(), loadedHtmls.size());
+    }
+
+    public RenderedEmail render(String name, Map<String, ?> model) {
+        return render(name, fallbackLocale, model);
+    }
+
+    public RenderedEmail render(String name, Locale locale, Map<String, ?> model) {
+        StringBuilder buffer = buffers.get();
+        try {
+            return render(name, locale, model, buffer);
+        } finally {
+            if (buffer.capacity() > MAX_CACHED_BUFFER) {
+                buffers.remove();
+            }
+        }
+    }
+
+    //renders every part into the given buffer (cleared first) and copies it out once per part
+    public RenderedEmail render(String name, Locale locale, Map<String, ?> model, StringBuilder buffer) {
+        Variant variant = resolve(name, locale);
+
+        buffer.setLength(0);
+        variant.subject().renderTo(buffer, model);
+        String subject = buffer.toString();
+
+        buffer.setLength(0);
+        variant.text().renderTo(buffer, model);
+        String text = buffer.toString();
+
+        String html = null;
+        if (variant.html() != null) {
+            buffer.setLength(0);
+            variant.html().renderTo(buffer, model);
+            html = buffer.toString();
+        }
+        return new RenderedEmail(subject, text, html);
+    }
+
+    public boolean hasTemplate(String name) {
+        return texts.containsKey(name);
+    }
+
+    private Variant resolve(String name, Locale locale) {
+        Map<Locale, Variant> byLocale = resolved.computeIfAbsent(name, k -> new ConcurrentHashMap<>());
+        return byLocale.computeIfAbsent(locale, k -> {
+            //load() guarantees a variant with a text also has a subject
+            for (String candidate : candidates(name, locale)) {
+                if (texts.containsKey(candidate)) {
+                    return new Variant(subjects.get(candidate), texts.get(candidate), htmls.get(candidate));
+                }
+            }
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        });
+    }
+
+    private List<String> candidates(String name, Locale locale) {
+        List<String> candidates = new ArrayList<>(4);
+        if (!locale.getCountry().isEmpty()) {
+            candidates.add(name + "_" + locale.getLanguage() + "_" + locale.getCountry());
+        }
+        if (!locale.getLanguage().isEmpty()) {
+            candidates.add(name + "_" + locale.getLanguage());
+        }
+        if (!fallbackLocale.getLanguage().isEmpty() && !fallbackLocale.getLanguage().equals(locale.getLanguage())) {
+            candidates.add(name + "_" + fallbackLocale.getLanguage());
+        }
+        candidates.add(name);
+        return candidates;
+    }
+
+    private static String baseName(String key) {
+        int underscore = key.indexOf('_');
+        return underscore < 0 ? key : key.substring(0, underscore);
+    }
+
+    private static String stripTrailingNewline(String source) {
+        if (source.endsWith("\r\n")) return source.substring(0, source.length() - 2);
+        if (source.endsWith("\n")) return source.substring(0, source.length() - 1);
+        return source;
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.sebkaminski16.carrentaladmin.template;
+
+import io.github.sebkaminski16.carrentaladmin.integration.mailtrap.MailtrapClient;
+
+//html is null when the template has no HTML variant
+public record RenderedEmail(String subject, String text, String html) {
+
+    public MailtrapClient.Message toMessage(String toEmail) {
+        return new MailtrapClient.Message(toEmail, subject, text, html);
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.sebkaminski16.carrentaladmin.cache;
+
+import io.github.sebkaminski16.carrentaladmin.dto.CarDtos;
+import io.github.sebkaminski16.carrentaladmin.entity.Brand;
+import io.github.sebkaminski16.carrentaladmin.entity.Car;
+import io.github.sebkaminski16.carrentaladmin.entity.CarModel;
+import io.github.sebkaminski16.carrentaladmin.entity.Category;
+import io.github.sebkaminski16.carrentaladmin.mapper.CarMapper;
+import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
+import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import java.math.BigDecimal;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(ReferenceDataCache.class)
+class ReferenceDataCacheTests {
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Brand toyota;
+    private CarModel corolla;
+    private Category economy;
+
+    @BeforeEach
+    void setUp() {
+        toyota = em.persist(TestDataFactory.brand("Toyota"));
+        corolla = em.persist(TestDataFactory.model("Corolla", toyota));
+        economy = em.persist(TestDataFactory.category("Economy", BigDecimal.valueOf(5.0), BigDecimal.valueOf(15.0)));
+        em.persist(TestDataFactory.car("JTDBR32E720012345", "WX 12345", corolla, economy,
+                BigDecimal.valueOf(10.0), BigDecimal.valueOf(50.0), BigDecimal.valueOf(300.0)));
+        em.flush();
+    }
+
+    @Test
+    void testReloadTakesSnapshotOfAllThreeTablesWithBrandNamesOnModels() {
+        //when
+        referenceDataCache.reload();
+        ReferenceData refs = referenceDataCache.get();
+        //then
+        assertThat(refs.brand(toyota.getId()).name()).isEqualTo("Toyota");
+        assertThat(refs.model(corolla.getId()).brandName()).isEqualTo("Toyota");
+        assertThat(refs.model(corolla.getId()).brandId()).isEqualTo(toyota.getId());
+        assertThat(refs.category(economy.getId()).name()).isEqualTo("Economy");
+        assertThat(refs.model(null)).isNull();
+    }
+
+    @Test
+    void testMappingCarsWithSnapshotDoesNotLoadModelOrCategory() {
+        //given
+        referenceDataCache.reload();
+        em.clear();
+        //when
+        List<Car> cars = carRepository.findAll();
+        List<CarDtos.CarDto> dtos = cars.stream().map(c -> CarMapper.toDto(c, referenceDataCache.get())).toList();
+        //then
+        assertThat(dtos).singleElement().satisfies(dto -> {
+            assertThat(dto.modelName()).isEqualTo("Corolla");
+            assertThat(dto.brandName()).isEqualTo("Toyota");
+            assertThat(dto.categoryName()).isEqualTo("Economy");
+        });
+        assertThat(Hibernate.isInitialized(cars.getFirst().getModel())).isFalse();
+        assertThat(Hibernate.isInitialized(cars.getFirst().getCategory())).isFalse();
+    }
+
+    @Test
+    void testIdsMissingFromSnapshotFallBackToEntity() {
+        //given
+        em.clear();
+        Car car = carRepository.findAll().getFirst();
+        //when
+        CarDtos.CarDto dto = CarMapper.toDto(car, ReferenceData.EMPTY);
+        //then
+        assertThat(dto.brandName()).isEqualTo("Toyota");
+        assertThat(dto.categoryName()).isEqualTo("Economy");
+    }
+
+    @Test
+    void testCurrentVersionReloadsOnlyWhenTheDbMovedOn() {
+        //given
+        referenceDataCache.reload();
+        ReferenceData loaded = referenceDataCache.get();
+        String version = referenceDataCache.currentVersion();
+        //when
+        String unchanged = referenceDataCache.currentVersion();
+        ReferenceData stillLoaded = referenceDataCache.get();
+        economy.setName("Budget");
+        em.flush();
+        String changed = referenceDataCache.currentVersion();
+        //then
+        assertThat(unchanged).isEqualTo(version);
+        assertThat(stillLoaded).isSameAs(loaded);
+        assertThat(changed).isNotEqualTo(version);
+        assertThat(referenceDataCache.get().category(economy.getId()).name()).isEqualTo("Budget");
+    }
+}
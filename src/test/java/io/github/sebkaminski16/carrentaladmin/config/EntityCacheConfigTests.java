@@ -0,0 +1,114 @@
+package io.github.sebkaminski16.carrentaladmin.config;
+
+import io.github.sebkaminski16.carrentaladmin.entity.Brand;
+import io.github.sebkaminski16.carrentaladmin.entity.CarModel;
+import io.github.sebkaminski16.carrentaladmin.entity.Category;
+import io.github.sebkaminski16.carrentaladmin.repository.BrandRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CarModelRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CategoryRepository;
+import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import javax.cache.CacheManager;
+import java.math.BigDecimal;
+import static org.assertj.core.api.Assertions.assertThat;
+
+//not in a test transaction: a READ_WRITE entry put during a transaction is only readable by later ones,
+//so every repository call runs (and commits) in its own
+@DataJpaTest
+@Import(EntityCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityCacheConfigTests {
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CarModelRepository carModelRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager entityCacheManager;
+
+    private Statistics statistics;
+    private Brand toyota;
+    private Category economy;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        toyota = brandRepository.save(TestDataFactory.brand("Toyota"));
+        carModelRepository.save(TestDataFactory.model("Corolla", toyota));
+        economy = categoryRepository.save(TestDataFactory.category("Economy", BigDecimal.valueOf(5.0), BigDecimal.valueOf(15.0)));
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        carModelRepository.deleteAll();
+        brandRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void testFindByIdIsServedFromSecondLevelCacheAfterFirstLoad() {
+        //when
+        brandRepository.findById(toyota.getId());
+        categoryRepository.findById(economy.getId());
+        Brand cached = brandRepository.findById(toyota.getId()).orElseThrow();
+        Category cachedCategory = categoryRepository.findById(economy.getId()).orElseThrow();
+        //then
+        assertThat(cached.getName()).isEqualTo("Toyota");
+        assertThat(cachedCategory.getName()).isEqualTo("Economy");
+        assertThat(statistics.getCacheRegionStatistics(EntityCacheConfig.BRANDS).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getCacheRegionStatistics(EntityCacheConfig.CATEGORIES).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testUpdatedEntityIsNotServedStale() {
+        //given
+        brandRepository.findById(toyota.getId());
+        Brand brand = brandRepository.findById(toyota.getId()).orElseThrow();
+        //when
+        brand.setName("Toyota Motor");
+        brandRepository.save(brand);
+        //then
+        assertThat(brandRepository.findById(toyota.getId()).orElseThrow().getName()).isEqualTo("Toyota Motor");
+    }
+
+    @Test
+    void testCacheableQueryIsAnsweredFromQueryCache() {
+        //when
+        carModelRepository.findByBrandId(toyota.getId());
+        var models = carModelRepository.findByBrandId(toyota.getId());
+        //then
+        assertThat(models).extracting(CarModel::getName).containsExactly("Corolla");
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testRegionsAreCreatedInTheContextsOwnCacheManager() {
+        //when / then
+        for (String region : EntityCacheConfig.ENTITY_REGIONS) {
+            assertThat(entityCacheManager.getCache(region)).isNotNull();
+        }
+        assertThat(entityCacheManager.getURI().getScheme()).isEqualTo("entity-cache");
+    }
+}
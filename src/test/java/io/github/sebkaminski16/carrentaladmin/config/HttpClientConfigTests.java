@@ -0,0 +1,120 @@
+package io.github.sebkaminski16.carrentaladmin.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.sebkaminski16.carrentaladmin.dto.MetricsDtos;
+import io.github.sebkaminski16.carrentaladmin.service.MetricsService;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//real pooled client against a local stub HTTP server
+class HttpClientConfigTests {
+
+    private HttpServer server;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/ok", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            respond(exchange, "ok");
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "late");
+        });
+        server.start();
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.http.test.maxConnections", "3")
+                .withProperty("spring.http.test.readTimeoutMillis", "200");
+        HttpClientConfig config = new HttpClientConfig();
+        ReflectionTestUtils.setField(config, "environment", environment);
+
+        connectionManager = config.connectionManager("test");
+        httpClient = config.httpClient("test", connectionManager);
+        restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        connectionManager.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testSequentialCallsReuseOnePooledConnection() {
+        //when
+        for (int i = 0; i < 10; i++) {
+            assertEquals("ok", restTemplate.getForObject(url("/ok"), String.class));
+        }
+        //then
+        assertEquals(1, clientPorts.size(), "expected keep-alive reuse, got ports " + clientPorts);
+        assertEquals(1, connectionManager.getTotalStats().getAvailable());
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+    }
+
+    @Test
+    void testReadTimeoutFailsInsteadOfHanging() {
+        //when / then
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url("/slow"), String.class));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 900, "read timeout did not apply");
+    }
+
+    @Test
+    void testPoolLimitsComeFromProperties() {
+        //when
+        MetricsService metricsService = new MetricsService();
+        ReflectionTestUtils.setField(metricsService, "connectionManagers", Map.of("testConnectionManager", connectionManager));
+        List<MetricsDtos.HttpPoolStatsDto> pools = metricsService.httpPools();
+        //then
+        assertEquals(3, connectionManager.getMaxTotal());
+        assertEquals(3, connectionManager.getDefaultMaxPerRoute());
+        assertEquals(1, pools.size());
+        assertEquals("test", pools.getFirst().name());
+        assertEquals(3, pools.getFirst().max());
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+}
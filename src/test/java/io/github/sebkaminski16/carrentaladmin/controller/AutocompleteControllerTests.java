@@ -0,0 +1,57 @@
+package io.github.sebkaminski16.carrentaladmin.controller;
+
+import io.github.sebkaminski16.carrentaladmin.dto.AutocompleteDtos;
+import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
+import io.github.sebkaminski16.carrentaladmin.service.AutocompleteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.List;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AutocompleteController.class)
+public class AutocompleteControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AutocompleteService autocompleteService;
+
+    @Test
+    public void testSuggestReturnsSuggestions() throws Exception {
+        //given
+        when(autocompleteService.suggest("toy", "brand,model", 5)).thenReturn(List.of(
+                new AutocompleteDtos.Suggestion("brand", 1L, "Toyota", "Toyota"),
+                new AutocompleteDtos.Suggestion("model", 2L, "Corolla", "Toyota Corolla")
+        ));
+        //when&then
+        mockMvc.perform(get("/api/autocomplete")
+                        .param("q", "toy")
+                        .param("types", "brand,model")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].type", is("brand")))
+                .andExpect(jsonPath("$[1].label", is("Toyota Corolla")));
+
+        verify(autocompleteService, times(1)).suggest("toy", "brand,model", 5);
+    }
+
+    @Test
+    public void testSuggestWithUnknownTypeReturnsBadRequest() throws Exception {
+        //given
+        when(autocompleteService.suggest("toy", "car", null)).thenThrow(new BadRequestException("Unknown autocomplete type: car"));
+        //when&then
+        mockMvc.perform(get("/api/autocomplete")
+                        .param("q", "toy")
+                        .param("types", "car"))
+                .andExpect(status().isBadRequest());
+    }
+}
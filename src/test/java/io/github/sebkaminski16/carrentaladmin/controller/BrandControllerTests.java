@@ -1,13 +1,17 @@
 package io.github.sebkaminski16.carrentaladmin.controller;
 
 import io.github.sebkaminski16.carrentaladmin.dto.BrandDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.PageDtos;
+import io.github.sebkaminski16.carrentaladmin.entity.Brand;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.service.BrandService;
+import io.github.sebkaminski16.carrentaladmin.service.ResourceVersionService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import java.util.Arrays;
@@ -30,6 +34,9 @@ public class BrandControllerTests {
     @MockBean
     private BrandService brandService;
 
+    @MockBean
+    private ResourceVersionService resourceVersionService;
+
     @Test
     public void testListReturnsAllBrands() throws Exception {
         List<BrandDtos.BrandDto> brands = Arrays.asList(new BrandDtos.BrandDto(1L, "Toyota"), new BrandDtos.BrandDto(2L, "Honda"));
@@ -231,6 +238,23 @@ public class BrandControllerTests {
         verify(brandService, times(1)).search("ota");
     }
 
+    @Test
+    public void testSearchPageReturnsPageOfBrands() throws Exception {
+        PageDtos.PageDto<BrandDtos.BrandDto> page = new PageDtos.PageDto<>(List.of(new BrandDtos.BrandDto(3L, "Toyota")), 1, 2, 3, 2);
+        when(brandService.searchPage("t", 1, 2)).thenReturn(page);
+        mockMvc.perform(get("/api/brands/search/page")
+                        .param("query", "t")
+                        .param("page", "1")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name", is("Toyota")))
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.totalPages", is(2)));
+
+        verify(brandService, times(1)).searchPage("t", 1, 2);
+    }
+
     @Test
     public void testSearchBrandsWithNullQueryReturnsAllBrands() throws Exception {
         List<BrandDtos.BrandDto> brands = Arrays.asList(new BrandDtos.BrandDto(1L, "Toyota"), new BrandDtos.BrandDto(2L, "Honda"));
@@ -264,4 +288,43 @@ public class BrandControllerTests {
 
         verify(brandService, times(1)).search("xyz");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testListAnswers304WithoutLoadingBrandsWhenETagMatches() throws Exception {
+        when(resourceVersionService.table(Brand.class)).thenReturn(new ResourceVersionService.Version("\"v1\"", -1));
+        mockMvc.perform(get("/api/brands").header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(brandService, never()).list();
+    }
+
+    @Test
+    public void testListReturnsOnlyETagWhenChanged() throws Exception {
+        when(resourceVersionService.table(Brand.class)).thenReturn(new ResourceVersionService.Version("\"v1\"", -1));
+        when(brandService.list()).thenReturn(List.of(new BrandDtos.BrandDto(1L, "Toyota")));
+        mockMvc.perform(get("/api/brands").header(HttpHeaders.IF_NONE_MATCH, "\"v0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(brandService, times(1)).list();
+    }
+
+    @Test
+    public void testGetReturnsLastModifiedAndAnswers304ForIfModifiedSince() throws Exception {
+        when(resourceVersionService.row(Brand.class, 1L)).thenReturn(new ResourceVersionService.Version("\"v1\"", 1_718_000_000_000L));
+        when(brandService.get(1L)).thenReturn(new BrandDtos.BrandDto(1L, "Toyota"));
+        String lastModified = mockMvc.perform(get("/api/brands/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get("/api/brands/1").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        verify(brandService, times(1)).get(1L);
+    }
+}
@@ -8,10 +8,12 @@ import io.github.sebkaminski16.carrentaladmin.entity.RentalStatus;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.service.CarService;
+import io.github.sebkaminski16.carrentaladmin.service.ResourceVersionService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
@@ -36,10 +38,13 @@ public class CarControllerTests {
     @MockBean
     private CarService carService;
 
+    @MockBean
+    private ResourceVersionService resourceVersionService;
+
     private final CarDtos.CarDto CAR_TOYOTA_COROLLA = new CarDtos.CarDto(
             1L, "VIN123", "ABC123", 2020, "black", CarStatus.AVAILABLE,
             1L, "Corolla", 1L, "Toyota", 1L, "Economy",
-            null, new BigDecimal("10.00"), new BigDecimal("50.00"), new BigDecimal("300.00"), 10000
+            null, null, new BigDecimal("10.00"), new BigDecimal("50.00"), new BigDecimal("300.00"), 10000
     );
 
     @Test
@@ -48,7 +53,7 @@ public class CarControllerTests {
         List<CarDtos.CarDto> cars = Arrays.asList(CAR_TOYOTA_COROLLA, new CarDtos.CarDto(
                 2L, "VIN456", "XYZ789", 2021, "white", CarStatus.RENTED,
                 2L, "Civic", 2L, "Honda", 1L, "Economy",
-                null, new BigDecimal("12.00"), new BigDecimal("60.00"), new BigDecimal("350.00"), 5000
+                null, null, new BigDecimal("12.00"), new BigDecimal("60.00"), new BigDecimal("350.00"), 5000
         ));
         when(carService.list()).thenReturn(cars);
         //when&then
@@ -238,7 +243,7 @@ public class CarControllerTests {
                 .thenReturn(new CarDtos.CarDto(
                         1L, "VIN123", "ABC123", 2021, "red", CarStatus.MAINTENANCE,
                         1L, "Corolla", 1L, "Toyota", 1L, "Economy",
-                        null, new BigDecimal("12.00"), new BigDecimal("60.00"), new BigDecimal("350.00"), 15000
+                        null, null, new BigDecimal("12.00"), new BigDecimal("60.00"), new BigDecimal("350.00"), 15000
                 ));
         String requestBody = "{\"vin\":\"VIN123\",\"licensePlate\":\"ABC123\",\"productionYear\":2021,\"color\":\"red\",\"modelId\":1,\"categoryId\":1,\"imageUrl\":null,\"hourlyRate\":12.00,\"dailyRate\":60.00,\"weeklyRate\":350.00,\"mileageKm\":15000,\"status\":\"MAINTENANCE\"}";
         //when&then
@@ -477,4 +482,22 @@ public class CarControllerTests {
 
         verify(carService, times(1)).getRentals(999L);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAnswers304WhenCarUnchangedSinceIfModifiedSince() throws Exception {
+        when(resourceVersionService.car(1L)).thenReturn(new ResourceVersionService.Version("\"v1\"", 1_718_000_000_000L));
+        mockMvc.perform(get("/api/cars/1").header(HttpHeaders.IF_MODIFIED_SINCE, "Mon, 10 Jun 2024 06:13:20 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(carService, never()).get(anyLong());
+    }
+
+    @Test
+    public void testGetMissingCarSkipsVersionCheckAndReturns404() throws Exception {
+        when(resourceVersionService.car(99L)).thenReturn(null);
+        when(carService.get(99L)).thenThrow(new NotFoundException("Car not found: 99"));
+        mockMvc.perform(get("/api/cars/99").header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+}
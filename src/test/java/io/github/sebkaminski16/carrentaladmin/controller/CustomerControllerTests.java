@@ -2,15 +2,18 @@ package io.github.sebkaminski16.carrentaladmin.controller;
 
 import io.github.sebkaminski16.carrentaladmin.dto.CustomerDtos;
 import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
+import io.github.sebkaminski16.carrentaladmin.entity.Customer;
 import io.github.sebkaminski16.carrentaladmin.entity.RateType;
 import io.github.sebkaminski16.carrentaladmin.entity.RentalStatus;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.service.CustomerService;
+import io.github.sebkaminski16.carrentaladmin.service.ResourceVersionService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
@@ -35,6 +38,9 @@ public class CustomerControllerTests {
     @MockBean
     private CustomerService customerService;
 
+    @MockBean
+    private ResourceVersionService resourceVersionService;
+
     @Test
     public void testListReturnsAllCustomers() throws Exception {
         //given
@@ -398,6 +404,27 @@ public class CustomerControllerTests {
         verify(customerService, times(1)).search("kowal");
     }
 
+    @Test
+    public void testSearchRankedReturnsHitsWithScores() throws Exception {
+        //given
+        CustomerDtos.CustomerDto customer = new CustomerDtos.CustomerDto(
+                1L, "Jan", "Kowalski", "jan@example.com", "123456789", "Test 1",
+                LocalDateTime.now(), LocalDateTime.now()
+        );
+        when(customerService.searchRanked("kowalsky", 5))
+                .thenReturn(List.of(new CustomerDtos.CustomerSearchHit(customer, 0.5)));
+        //when&then
+        mockMvc.perform(get("/api/customers/search/ranked")
+                        .param("query", "kowalsky")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].customer.lastName", is("Kowalski")))
+                .andExpect(jsonPath("$[0].score", is(0.5)));
+
+        verify(customerService, times(1)).searchRanked("kowalsky", 5);
+    }
+
     @Test
     public void testSearchCustomersWithNullQueryReturnsAllCustomers() throws Exception {
         //given
@@ -499,4 +526,14 @@ public class CustomerControllerTests {
 
         verify(customerService, times(1)).getRentals(999L);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAnswers304WhenCustomerETagMatches() throws Exception {
+        when(resourceVersionService.row(Customer.class, 1L)).thenReturn(new ResourceVersionService.Version("\"v1\"", 1_718_000_000_000L));
+        mockMvc.perform(get("/api/customers/1").header(HttpHeaders.IF_NONE_MATCH, "\"v0\", \"v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""));
+
+        verify(customerService, never()).get(anyLong());
+    }
+}
@@ -3,16 +3,27 @@ package io.github.sebkaminski16.carrentaladmin.controller;
 import io.github.sebkaminski16.carrentaladmin.dto.ImageDtos;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
+import io.github.sebkaminski16.carrentaladmin.exception.ServiceBusyException;
 import io.github.sebkaminski16.carrentaladmin.service.ImageService;
+import io.github.sebkaminski16.carrentaladmin.service.ImageUploadJobService;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -22,9 +33,17 @@ public class ImageControllerTests {
     @Autowired
     private MockMvc mockMvc;
 
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @TempDir
+    private Path tempDir;
+
     @MockBean
     private ImageService imageService;
 
+    @MockBean
+    private ImageUploadJobService imageUploadJobService;
+
     @Test
     public void testUploadImageSuccessfully() throws Exception {
         //given
@@ -36,6 +55,7 @@ public class ImageControllerTests {
         );
         ImageDtos.ImageUploadResponse response = new ImageDtos.ImageUploadResponse(
                 "https://example.com/image.jpg",
+                "https://example.com/image-thumb.jpg",
                 "imgbb"
         );
         when(imageService.uploadCarImage(any())).thenReturn(response);
@@ -43,6 +63,7 @@ public class ImageControllerTests {
         mockMvc.perform(multipart("/api/images/upload").file(file))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.url", is("https://example.com/image.jpg")))
+                .andExpect(jsonPath("$.thumbnailUrl", is("https://example.com/image-thumb.jpg")))
                 .andExpect(jsonPath("$.provider", is("imgbb")));
 
         verify(imageService, times(1)).uploadCarImage(any());
@@ -95,6 +116,7 @@ public class ImageControllerTests {
         );
         ImageDtos.ImageUploadResponse response = new ImageDtos.ImageUploadResponse(
                 "https://example.com/image.png",
+                "https://example.com/image-thumb.png",
                 "imgbb"
         );
         when(imageService.uploadCarImage(any())).thenReturn(response);
@@ -119,6 +141,7 @@ public class ImageControllerTests {
         );
         ImageDtos.ImageUploadResponse response = new ImageDtos.ImageUploadResponse(
                 "https://example.com/large.jpg",
+                "https://example.com/large-thumb.jpg",
                 "imgbb"
         );
         when(imageService.uploadCarImage(any())).thenReturn(response);
@@ -129,4 +152,119 @@ public class ImageControllerTests {
 
         verify(imageService, times(1)).uploadCarImage(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetImageReturnsFileWithStrongEtagAndImmutableCaching() throws Exception {
+        //given
+        when(imageService.loadImage(HASH)).thenReturn(image("0123456789"));
+        //when&then
+        mockMvc.perform(get("/api/images/" + HASH))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + HASH + "\""))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    public void testGetImageWithMatchingEtagReturnsNotModified() throws Exception {
+        //when&then
+        mockMvc.perform(get("/api/images/" + HASH).header("If-None-Match", "\"" + HASH + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(imageService, never()).loadImage(any());
+    }
+
+    @Test
+    public void testGetImageWithRangeReturnsPartialContent() throws Exception {
+        //given
+        when(imageService.loadImage(HASH)).thenReturn(image("0123456789"));
+        //when&then
+        mockMvc.perform(get("/api/images/" + HASH).header("Range", "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    public void testGetImageWhenMissingReturnsNotFound() throws Exception {
+        //given
+        when(imageService.loadImage(HASH)).thenThrow(new NotFoundException("Image not found: " + HASH));
+        //when&then
+        mockMvc.perform(get("/api/images/" + HASH))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testUploadImageAsyncReturnsAcceptedWithJobLocation() throws Exception {
+        //given
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "test.jpg",
+                "image/jpeg",
+                "test image content".getBytes()
+        );
+        ImageDtos.ImageUploadJobResponse job = new ImageDtos.ImageUploadJobResponse(
+                "job-1", "PENDING", null, null, null, null, LocalDateTime.of(2026, 1, 1, 10, 0), null
+        );
+        when(imageUploadJobService.submit(any())).thenReturn(job);
+        //when&then
+        mockMvc.perform(multipart("/api/images/upload").file(file).param("async", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/images/jobs/job-1"))
+                .andExpect(jsonPath("$.id", is("job-1")))
+                .andExpect(jsonPath("$.status", is("PENDING")));
+
+        verify(imageUploadJobService, times(1)).submit(any());
+        verifyNoInteractions(imageService);
+    }
+
+    @Test
+    public void testUploadImageAsyncWhenQueueIsFullReturnsServiceUnavailable() throws Exception {
+        //given
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "test.jpg",
+                "image/jpeg",
+                "test image content".getBytes()
+        );
+        when(imageUploadJobService.submit(any()))
+                .thenThrow(new ServiceBusyException("Too many image uploads in progress, try again later"));
+        //when&then
+        mockMvc.perform(multipart("/api/images/upload").file(file).param("async", "true"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    public void testGetUploadJobReturnsStatusAndUrl() throws Exception {
+        //given
+        ImageDtos.ImageUploadJobResponse job = new ImageDtos.ImageUploadJobResponse(
+                "job-1", "SUCCEEDED", "https://example.com/image.jpg", "https://example.com/image-thumb.jpg", "imgbb", null,
+                LocalDateTime.of(2026, 1, 1, 10, 0), LocalDateTime.of(2026, 1, 1, 10, 1)
+        );
+        when(imageUploadJobService.get("job-1")).thenReturn(job);
+        //when&then
+        mockMvc.perform(get("/api/images/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("SUCCEEDED")))
+                .andExpect(jsonPath("$.url", is("https://example.com/image.jpg")))
+                .andExpect(jsonPath("$.provider", is("imgbb")));
+
+        verify(imageUploadJobService, times(1)).get("job-1");
+    }
+
+    @Test
+    public void testGetUploadJobWhenUnknownReturnsNotFound() throws Exception {
+        //given
+        when(imageUploadJobService.get("missing")).thenThrow(new NotFoundException("Image upload job not found: missing"));
+        //when&then
+        mockMvc.perform(get("/api/images/jobs/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Resource image(String content) throws IOException {
+        return new FileSystemResource(Files.writeString(tempDir.resolve(HASH + ".jpg"), content));
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.sebkaminski16.carrentaladmin.controller;
+
+import io.github.sebkaminski16.carrentaladmin.dto.MetricsDtos;
+import io.github.sebkaminski16.carrentaladmin.service.MetricsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.List;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(MetricsController.class)
+public class MetricsControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MetricsService metricsService;
+
+    @Test
+    public void testHttpPoolsReturnsStatsPerIntegration() throws Exception {
+        //given
+        when(metricsService.httpPools()).thenReturn(List.of(
+                new MetricsDtos.HttpPoolStatsDto("imgbb", 1, 0, 2, 10),
+                new MetricsDtos.HttpPoolStatsDto("mailtrap", 4, 3, 0, 20)
+        ));
+        //when&then
+        mockMvc.perform(get("/api/metrics/http-pools"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name", is("imgbb")))
+                .andExpect(jsonPath("$[1].leased", is(4)))
+                .andExpect(jsonPath("$[1].pending", is(3)))
+                .andExpect(jsonPath("$[1].max", is(20)));
+
+        verify(metricsService, times(1)).httpPools();
+    }
+
+    @Test
+    public void testIntegrationsReturnsCircuitAndBulkheadStats() throws Exception {
+        //given
+        when(metricsService.integrations()).thenReturn(List.of(
+                new MetricsDtos.IntegrationStatsDto("imgbb", "OPEN", 75, 20, 5, 15, 42, 0, 0, 3, 8)
+        ));
+        //when&then
+        mockMvc.perform(get("/api/metrics/integrations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("imgbb")))
+                .andExpect(jsonPath("$[0].circuitState", is("OPEN")))
+                .andExpect(jsonPath("$[0].failureRate", is(75)))
+                .andExpect(jsonPath("$[0].notPermittedCalls", is(42)))
+                .andExpect(jsonPath("$[0].rejectedCalls", is(3)));
+
+        verify(metricsService, times(1)).integrations();
+    }
+
+    @Test
+    public void testEntityCacheReturnsStatsPerRegion() throws Exception {
+        //given
+        when(metricsService.entityCache()).thenReturn(List.of(
+                new MetricsDtos.EntityCacheStatsDto("brands", 90, 10, 10, 0.9, 10),
+                new MetricsDtos.EntityCacheStatsDto("default-query-results-region", 5, 5, 5, 0.5, 3)
+        ));
+        //when&then
+        mockMvc.perform(get("/api/metrics/entity-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].region", is("brands")))
+                .andExpect(jsonPath("$[0].hits", is(90)))
+                .andExpect(jsonPath("$[0].hitRatio", is(0.9)))
+                .andExpect(jsonPath("$[1].entries", is(3)));
+
+        verify(metricsService, times(1)).entityCache();
+    }
+}
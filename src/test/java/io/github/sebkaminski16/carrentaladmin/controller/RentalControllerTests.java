@@ -5,6 +5,7 @@ import io.github.sebkaminski16.carrentaladmin.entity.RateType;
 import io.github.sebkaminski16.carrentaladmin.entity.RentalStatus;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
+import io.github.sebkaminski16.carrentaladmin.service.RentalRepricingService;
 import io.github.sebkaminski16.carrentaladmin.service.RentalService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +35,9 @@ public class RentalControllerTests {
     @MockBean
     private RentalService rentalService;
 
+    @MockBean
+    private RentalRepricingService rentalRepricingService;
+
     @Test
     public void testListReturnsAllRentals() throws Exception {
         //given
@@ -356,6 +360,28 @@ public class RentalControllerTests {
         verify(rentalService, times(1)).listOverdue();
     }
 
+    @Test
+    public void testOverdueAccrualReturnsReport() throws Exception {
+        //given
+        LocalDateTime plannedEndAt = LocalDateTime.now().minusHours(2);
+        RentalDtos.OverdueAccrualReportDto report = new RentalDtos.OverdueAccrualReportDto(
+                LocalDateTime.now(), 1, new BigDecimal("10.00"),
+                List.of(new RentalDtos.OverdueAccrualDto(1L, 2L, "ABC123", 3L, "John Doe",
+                        plannedEndAt, 2, new BigDecimal("10.00")))
+        );
+        when(rentalService.overdueAccrual()).thenReturn(report);
+        //when&then
+        mockMvc.perform(get("/api/rentals/overdue/accrual"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.overdueRentals", is(1)))
+                .andExpect(jsonPath("$.totalProjectedLateFee", is(10.00)))
+                .andExpect(jsonPath("$.rentals", hasSize(1)))
+                .andExpect(jsonPath("$.rentals[0].licensePlate", is("ABC123")))
+                .andExpect(jsonPath("$.rentals[0].hoursLate", is(2)));
+
+        verify(rentalService, times(1)).overdueAccrual();
+    }
+
     @Test
     public void testPreviewReturnsPricePreview() throws Exception {
         //given
@@ -556,4 +582,21 @@ public class RentalControllerTests {
 
         verify(rentalService, times(1)).cancel(999L);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRepriceReturnsSummary() throws Exception {
+        //given
+        RentalDtos.RentalRepriceResponse response = new RentalDtos.RentalRepriceResponse(
+                10, 3, new BigDecimal("-45.00")
+        );
+        when(rentalRepricingService.repriceActive(2L, null)).thenReturn(response);
+        //when&then
+        mockMvc.perform(post("/api/rentals/reprice").param("categoryId", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scanned", is(10)))
+                .andExpect(jsonPath("$.repriced", is(3)))
+                .andExpect(jsonPath("$.totalDelta", is(-45.00)));
+
+        verify(rentalRepricingService, times(1)).repriceActive(2L, null);
+    }
+}
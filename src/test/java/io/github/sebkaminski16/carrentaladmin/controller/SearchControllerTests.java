@@ -0,0 +1,45 @@
+package io.github.sebkaminski16.carrentaladmin.controller;
+
+import io.github.sebkaminski16.carrentaladmin.dto.SearchDtos;
+import io.github.sebkaminski16.carrentaladmin.service.GlobalSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.List;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SearchController.class)
+public class SearchControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private GlobalSearchService globalSearchService;
+
+    @Test
+    public void testSearchReturnsMergedHitsAndPartialFlag() throws Exception {
+        //given
+        when(globalSearchService.search("kow", 5)).thenReturn(new SearchDtos.SearchResponse("kow", true, List.of("rental"), List.of(
+                new SearchDtos.SearchHit("customer", 1L, "Jan Kowalski <jan@example.com>", 0.8),
+                new SearchDtos.SearchHit("car", 2L, "KOW1234 - Toyota Corolla", 0.6)
+        )));
+        //when&then
+        mockMvc.perform(get("/api/search")
+                        .param("q", "kow")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.partial", is(true)))
+                .andExpect(jsonPath("$.incompleteSources[0]", is("rental")))
+                .andExpect(jsonPath("$.hits", hasSize(2)))
+                .andExpect(jsonPath("$.hits[0].type", is("customer")));
+
+        verify(globalSearchService, times(1)).search("kow", 5);
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.sebkaminski16.carrentaladmin.integration.imgbb;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class Base64MultipartBodyTests {
+
+    @Test
+    void testWritesBase64OfTheStreamBetweenBoundaries() throws IOException {
+        //given
+        byte[] image = "not really a png".getBytes(StandardCharsets.UTF_8);
+        Base64MultipartBody body = new Base64MultipartBody("image", new ByteArrayInputStream(image), image.length);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        //when
+        body.writeTo(out);
+        //then
+        String boundary = body.contentType().substring("multipart/form-data; boundary=".length());
+        String expected = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"image\"\r\n\r\n"
+                + Base64.getEncoder().encodeToString(image)
+                + "\r\n--" + boundary + "--\r\n";
+        assertEquals(expected, out.toString(StandardCharsets.US_ASCII));
+        assertEquals(out.size(), body.contentLength());
+    }
+
+    @Test
+    void testContentLengthMatchesForEveryPaddingCase() throws IOException {
+        for (int size = 0; size < 10; size++) {
+            //given
+            Base64MultipartBody body = new Base64MultipartBody("image", new GeneratedInputStream(size), size);
+            CountingOutputStream out = new CountingOutputStream();
+            //when
+            body.writeTo(out);
+            //then
+            assertEquals(out.count, body.contentLength(), "size " + size);
+        }
+    }
+
+    @Test
+    void testHeapAllocationDoesNotGrowWithFileSize() throws IOException {
+        //given
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        //warm up so class loading and JIT don't end up in the measurement
+        for (int i = 0; i < 3; i++) {
+            allocatedBy(allocations, 1 << 20);
+        }
+        //when
+        long small = allocatedBy(allocations, 1 << 20);
+        long large = allocatedBy(allocations, 32 << 20);
+        //then - a full-buffer implementation would allocate > 100 MB for the 32 MB file
+        assertTrue(small < 64 * 1024, "1 MB upload allocated " + small + " bytes");
+        assertTrue(large < 64 * 1024, "32 MB upload allocated " + large + " bytes");
+        assertTrue(Math.abs(large - small) < 16 * 1024, "allocation grew from " + small + " to " + large + " bytes");
+    }
+
+    private static long allocatedBy(com.sun.management.ThreadMXBean allocations, int size) throws IOException {
+        GeneratedInputStream in = new GeneratedInputStream(size);
+        CountingOutputStream out = new CountingOutputStream();
+        long threadId = Thread.currentThread().threadId();
+
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        Base64MultipartBody body = new Base64MultipartBody("image", in, size);
+        body.writeTo(out);
+        long after = allocations.getThreadAllocatedBytes(threadId);
+
+        assertEquals(body.contentLength(), out.count);
+        return after - before;
+    }
+
+    //produces size pseudo-random bytes without allocating
+    private static final class GeneratedInputStream extends InputStream {
+
+        private long remaining;
+        private int state = 12345;
+
+        GeneratedInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining == 0) return -1;
+            remaining--;
+            state = state * 1103515245 + 12345;
+            return (state >>> 16) & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining == 0) return -1;
+            int n = (int) Math.min(len, remaining);
+            for (int i = 0; i < n; i++) {
+                state = state * 1103515245 + 12345;
+                b[off + i] = (byte) (state >>> 16);
+            }
+            remaining -= n;
+            return n;
+        }
+    }
+
+    //stands in for the socket: counts and discards
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package io.github.sebkaminski16.carrentaladmin.integration.imgbb;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.Bulkhead;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.CircuitBreaker;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.IntegrationGuard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//real client, guard and RestTemplate against a local ImgBB stub that can be made slow or broken
+class ImgbbClientTests {
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile long latencyMillis;
+    private volatile int status = 200;
+    private volatile String lastContentType;
+    private volatile long lastContentLength;
+    private volatile String lastTransferEncoding;
+    private volatile byte[] lastBody;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private ImgbbClient client;
+    private IntegrationGuard guard;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverThreads = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 50);
+        server.setExecutor(serverThreads);
+        server.createContext("/1/upload", this::handleUpload);
+        server.start();
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setReadTimeout(300);
+
+        //window 4, opens at 50% failures, slow above 250ms, open for 10s, 1 probe; 2 concurrent calls, nobody waits
+        guard = new IntegrationGuard("imgbb",
+                new CircuitBreaker(4, 4, 50, 250, 10_000, 1, clock::get),
+                new Bulkhead(2, 0, 0));
+
+        client = new ImgbbClient();
+        ReflectionTestUtils.setField(client, "restTemplate", new RestTemplate(requestFactory));
+        ReflectionTestUtils.setField(client, "guard", guard);
+        ReflectionTestUtils.setField(client, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        ReflectionTestUtils.setField(client, "apiKey", "key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void testUploadReturnsDisplayUrl() {
+        //when
+        String url = upload("hello");
+        //then
+        assertEquals("https://i.ibb.co/abc/car.png", url);
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void testTimeoutsOpenTheCircuitAndLaterCallsFailFastWithoutHittingTheProvider() {
+        //given
+        latencyMillis = 1000;
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ExternalApiException.class, () -> upload("hello"));
+        }
+        int hitsWhenOpened = hits.get();
+        //when
+        long start = System.nanoTime();
+        ExternalApiException ex = assertThrows(ExternalApiException.class, () -> upload("hello"));
+        long tookMillis = (System.nanoTime() - start) / 1_000_000;
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker().getState());
+        assertTrue(ex.getMessage().contains("circuit open"));
+        assertTrue(tookMillis < 100, "open circuit should fail fast, took " + tookMillis + "ms");
+        assertEquals(hitsWhenOpened, hits.get());
+        assertEquals(1, guard.getCircuitBreaker().getNotPermittedCalls());
+    }
+
+    @Test
+    void testHalfOpenProbeClosesTheCircuitOnceTheProviderRecovers() {
+        //given
+        status = 500;
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ExternalApiException.class, () -> upload("hello"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker().getState());
+        status = 200;
+        clock.addAndGet(10_000);
+        //when
+        String url = upload("hello");
+        //then
+        assertEquals("https://i.ibb.co/abc/car.png", url);
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+        assertEquals(5, hits.get());
+    }
+
+    @Test
+    void testClientErrorsDoNotOpenTheCircuit() {
+        //given
+        status = 400;
+        //when
+        for (int i = 0; i < 6; i++) {
+            assertThrows(ExternalApiException.class, () -> upload("not-an-image"));
+        }
+        //then
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+        assertEquals(0, guard.getCircuitBreaker().getFailedCalls());
+    }
+
+    @Test
+    void testBulkheadRejectsCallsBeyondTheConcurrencyLimit() throws Exception {
+        //given
+        latencyMillis = 200;
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        //when
+        for (int i = 0; i < 6; i++) {
+            results.add(callers.submit(() -> {
+                start.await();
+                long begin = System.nanoTime();
+                try {
+                    upload("hello");
+                    return -1L;
+                } catch (ExternalApiException ex) {
+                    return (System.nanoTime() - begin) / 1_000_000;
+                }
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<Long> result : results) {
+            long rejectedAfterMillis = result.get(5, TimeUnit.SECONDS);
+            if (rejectedAfterMillis < 0) {
+                succeeded++;
+            } else {
+                rejected++;
+                assertTrue(rejectedAfterMillis < 150, "rejection should not wait for the provider");
+            }
+        }
+        callers.shutdown();
+        //then
+        assertEquals(2, succeeded);
+        assertEquals(4, rejected);
+        assertEquals(2, hits.get());
+        assertEquals(4, guard.getBulkhead().getRejectedCalls());
+        assertEquals(0, guard.getBulkhead().getActiveCalls());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void testUploadStreamsBase64FormFieldWithFixedContentLength() {
+        //given
+        byte[] image = new byte[100_001];
+        new Random(7).nextBytes(image);
+        //when
+        client.upload(new ByteArrayInputStream(image), image.length);
+        //then
+        String contentType = lastContentType;
+        assertTrue(contentType.startsWith("multipart/form-data; boundary="));
+        String boundary = contentType.substring(contentType.indexOf('=') + 1);
+        String body = new String(lastBody, StandardCharsets.US_ASCII);
+        assertEquals(lastBody.length, lastContentLength);
+        assertNull(lastTransferEncoding);
+
+        String prefix = "--" + boundary + "\r\nContent-Disposition: form-data; name=\"image\"\r\n\r\n";
+        String suffix = "\r\n--" + boundary + "--\r\n";
+        assertTrue(body.startsWith(prefix));
+        assertTrue(body.endsWith(suffix));
+        String base64 = body.substring(prefix.length(), body.length() - suffix.length());
+        assertArrayEquals(image, Base64.getDecoder().decode(base64));
+    }
+
+    @Test
+    void testUploadFailsWhenStreamIsShorterThanDeclared() {
+        //when / then
+        assertThrows(ExternalApiException.class, () -> client.upload(new ByteArrayInputStream(new byte[10]), 20));
+    }
+
+    private String upload(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return client.upload(new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    private void handleUpload(HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        lastContentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        lastContentLength = contentLength == null ? -1 : Long.parseLong(contentLength);
+        lastTransferEncoding = exchange.getRequestHeaders().getFirst("Transfer-Encoding");
+        lastBody = exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        int code = status;
+        String body = code == 200
+                ? "{\"data\":{\"url\":\"https://i.ibb.co/abc/car-full.png\",\"display_url\":\"https://i.ibb.co/abc/car.png\"},\"success\":true,\"status\":200}"
+                : "{\"success\":false,\"status\":" + code + "}";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        try {
+            exchange.sendResponseHeaders(code, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        } catch (IOException ignored) {
+            //the client already gave up on this request
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.sebkaminski16.carrentaladmin.integration.mailtrap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.Bulkhead;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.CircuitBreaker;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.IntegrationGuard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//exercises the real client against a local stub of the Mailtrap batch endpoint
+class MailtrapClientTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private HttpServer server;
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger singleSends = new AtomicInteger();
+    private volatile boolean failNextBatchRequest;
+
+    private MailtrapClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/batch/7", this::handleBatch);
+        server.createContext("/api/send/7", exchange -> {
+            singleSends.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, 200, "{\"success\":true,\"message_ids\":[\"m1\"]}");
+        });
+        server.start();
+
+        client = new MailtrapClient();
+        ReflectionTestUtils.setField(client, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(client, "guard", new IntegrationGuard("mailtrap",
+                new CircuitBreaker(20, 10, 50, 10_000, 30_000, 3, System::currentTimeMillis),
+                new Bulkhead(10, 10, 500)));
+        ReflectionTestUtils.setField(client, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        ReflectionTestUtils.setField(client, "apiToken", "token");
+        ReflectionTestUtils.setField(client, "inboxId", 7L);
+        ReflectionTestUtils.setField(client, "batchSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testSendBatchSplitsMessagesIntoProviderBatches() {
+        //given
+        List<MailtrapClient.Message> messages = messages(5);
+        //when
+        List<Boolean> results = client.sendBatch("admin@carrental.com", messages);
+        //then
+        assertEquals(List.of(true, true, true, true, true), results);
+        assertEquals(List.of(2, 2, 1), batchSizes);
+        assertEquals(0, singleSends.get());
+    }
+
+    @Test
+    void testSendBatchReportsPerMessageFailures() {
+        //given
+        List<MailtrapClient.Message> messages = List.of(
+                new MailtrapClient.Message("ok1@example.com", "Hi", "Text"),
+                new MailtrapClient.Message("fail@example.com", "Hi", "Text"),
+                new MailtrapClient.Message("ok2@example.com", "Hi", "Text")
+        );
+        //when
+        List<Boolean> results = client.sendBatch("admin@carrental.com", messages);
+        //then
+        assertEquals(List.of(true, false, true), results);
+    }
+
+    @Test
+    void testSendBatchWhenRequestFailsThrowsExternalApiException() {
+        //given
+        failNextBatchRequest = true;
+        //when&then
+        assertThrows(ExternalApiException.class, () -> client.sendBatch("admin@carrental.com", messages(2)));
+    }
+
+    @Test
+    void testSendBatchNeedsFarFewerRequestsThanMessages() {
+        //given
+        ReflectionTestUtils.setField(client, "batchSize", 100);
+        List<MailtrapClient.Message> messages = messages(1000);
+        //when
+        List<Boolean> results = client.sendBatch("admin@carrental.com", messages);
+        //then
+        assertEquals(1000, results.size());
+        assertTrue(results.stream().allMatch(Boolean::booleanValue));
+        assertEquals(10, batchSizes.size());
+    }
+
+    @Test
+    void testSendTextEmailStillUsesSingleSendEndpoint() {
+        //when
+        boolean ok = client.sendTextEmail("admin@carrental.com", "john@example.com", "Hi", "Text");
+        //then
+        assertTrue(ok);
+        assertEquals(1, singleSends.get());
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        JsonNode body = MAPPER.readTree(exchange.getRequestBody());
+        if (failNextBatchRequest) {
+            failNextBatchRequest = false;
+            respond(exchange, 500, "{\"success\":false,\"errors\":[\"boom\"]}");
+            return;
+        }
+
+        JsonNode requests = body.get("requests");
+        batchSizes.add(requests.size());
+        assertEquals("admin@carrental.com", body.get("base").get("from").get("email").asText());
+
+        StringBuilder json = new StringBuilder("{\"success\":true,\"responses\":[");
+        for (int i = 0; i < requests.size(); i++) {
+            String to = requests.get(i).get("to").get(0).get("email").asText();
+            if (i > 0) json.append(',');
+            json.append(to.startsWith("fail")
+                    ? "{\"success\":false,\"errors\":[\"invalid recipient\"]}"
+                    : "{\"success\":true,\"message_ids\":[\"m" + i + "\"]}");
+        }
+        json.append("]}");
+        respond(exchange, 200, json.toString());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static List<MailtrapClient.Message> messages(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new MailtrapClient.Message("user" + i + "@example.com", "Hi", "Text " + i))
+                .toList();
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.sebkaminski16.carrentaladmin.integration.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTests {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        //window 10, at least 4 calls, opens at 50% failures, slow above 1s, open for 5s, 2 probes
+        circuitBreaker = new CircuitBreaker(10, 4, 50, 1000, 5000, 2, clock::get);
+    }
+
+    @Test
+    void testStaysClosedBelowMinimumCalls() {
+        //when
+        call(false);
+        call(false);
+        call(false);
+        //then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void testOpensWhenFailureRateReachesThresholdAndFailsFast() {
+        //when
+        call(true);
+        call(true);
+        call(false);
+        call(false);
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertEquals(2, circuitBreaker.getNotPermittedCalls());
+    }
+
+    @Test
+    void testSlowCallsCountAsFailures() {
+        //when
+        for (int i = 0; i < 4; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onSuccess(1500);
+        }
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(4, circuitBreaker.getFailedCalls());
+    }
+
+    @Test
+    void testOldOutcomesLeaveTheSlidingWindow() {
+        //given
+        for (int i = 0; i < 4; i++) call(true);
+        clock.addAndGet(5000);
+        for (int i = 0; i < 2; i++) call(false);
+        //when - 10 successes push every failure out of the window
+        for (int i = 0; i < 10; i++) call(false);
+        //then
+        assertEquals(0, circuitBreaker.getFailureRate());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testHalfOpenAllowsLimitedProbesAndClosesWhenTheySucceed() {
+        //given
+        openCircuit();
+        clock.addAndGet(5000);
+        //when
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        boolean third = circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onSuccess(10);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onSuccess(10);
+        //then
+        assertFalse(third);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getBufferedCalls());
+    }
+
+    @Test
+    void testFailedProbeOpensAgain() {
+        //given
+        openCircuit();
+        clock.addAndGet(5000);
+        //when
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onFailure(10);
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        clock.addAndGet(4999);
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        clock.addAndGet(1);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void testReleasedPermissionGivesTheProbeBack() {
+        //given
+        openCircuit();
+        clock.addAndGet(5000);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        //when
+        circuitBreaker.releasePermission();
+        //then
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) call(true);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void call(boolean fail) {
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        if (fail) {
+            circuitBreaker.onFailure(10);
+        } else {
+            circuitBreaker.onSuccess(10);
+        }
+    }
+}
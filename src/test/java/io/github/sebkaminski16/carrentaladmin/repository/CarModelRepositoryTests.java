@@ -306,4 +306,18 @@ class CarModelRepositoryTests {
         //then
         assertThat(exists).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindAllNamesReturnsModelWithBrandName() {
+        //given
+        Brand savedBrand = brandRepository.save(TestDataFactory.brand("Skoda"));
+        CarModel saved = carModelRepository.save(TestDataFactory.model("Octavia", savedBrand));
+        //when
+        List<CarModelRepository.NameRow> rows = carModelRepository.findAllNames();
+        //then
+        assertThat(rows).hasSize(1);
+        assertThat(rows.getFirst().getId()).isEqualTo(saved.getId());
+        assertThat(rows.getFirst().getName()).isEqualTo("Octavia");
+        assertThat(rows.getFirst().getBrandName()).isEqualTo("Skoda");
+    }
+}
@@ -645,4 +645,25 @@ class CarRepositoryTests {
         //then
         assertThat(exists).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testStreamForSearchIndexReturnsIdPlateAndVinInIdOrder() {
+        //given
+        Brand savedBrand = brandRepository.save(TestDataFactory.brand("Skoda"));
+        CarModel savedModel = carModelRepository.save(TestDataFactory.model("Octavia", savedBrand));
+        Category savedCategory = categoryRepository.save(TestDataFactory.category("Estate", BigDecimal.ZERO, BigDecimal.ZERO));
+        Car first = carRepository.save(TestDataFactory.car("VINSEARCH1", "WA 12345", savedModel, savedCategory,
+                BigDecimal.valueOf(10), BigDecimal.valueOf(50), BigDecimal.valueOf(300)));
+        Car second = carRepository.save(TestDataFactory.car("VINSEARCH2", "KR 67890", savedModel, savedCategory,
+                BigDecimal.valueOf(10), BigDecimal.valueOf(50), BigDecimal.valueOf(300)));
+        //when
+        List<CarRepository.SearchRow> rows;
+        try (var stream = carRepository.streamForSearchIndex()) {
+            rows = stream.toList();
+        }
+        //then
+        assertThat(rows).extracting(CarRepository.SearchRow::getId).containsExactly(first.getId(), second.getId());
+        assertThat(rows).extracting(CarRepository.SearchRow::getLicensePlate).containsExactly("WA 12345", "KR 67890");
+        assertThat(rows).extracting(CarRepository.SearchRow::getVin).containsExactly("VINSEARCH1", "VINSEARCH2");
+    }
+}
@@ -1,10 +1,15 @@
 package io.github.sebkaminski16.carrentaladmin.repository;
 
-import io.github.sebkaminski16.carrentaladmin.entity.Customer;
+import io.github.sebkaminski16.carrentaladmin.entity.*;
 import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -15,6 +20,24 @@ class CustomerRepositoryTests {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CarModelRepository carModelRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerReminderRepository customerReminderRepository;
+
     @Test
     void testSaveCustomer() {
         //given
@@ -147,6 +170,23 @@ class CustomerRepositoryTests {
                 .containsExactlyInAnyOrder("Michael", "Michelle");
     }
 
+    @Test
+    void testFindByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCasePaged() {
+        //given
+        for (int i = 0; i < 5; i++) {
+            customerRepository.save(TestDataFactory.customer("paged" + i + "@example.com"));
+        }
+        customerRepository.save(TestDataFactory.customer("other@example.com"));
+        //when
+        Page<Customer> page = customerRepository
+                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
+                        "PAGED", "PAGED", "PAGED", PageRequest.of(1, 2, Sort.by("id")));
+        //then
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).extracting(Customer::getEmail)
+                .containsExactly("paged2@example.com", "paged3@example.com");
+    }
+
     @Test
     void testFindByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCaseByLastName() {
         // given
@@ -413,4 +453,81 @@ class CustomerRepositoryTests {
         //then
         assertThat(exists).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindInactiveCustomersAfter() {
+        //given
+        LocalDateTime threshold = LocalDateTime.of(2026, 3, 1, 0, 0);
+        Customer noRentals = customerRepository.save(TestDataFactory.customer("norentals@example.com"));
+        Customer oldRental = customerRepository.save(TestDataFactory.customer("old@example.com"));
+        Customer recentRental = customerRepository.save(TestDataFactory.customer("recent@example.com"));
+        Customer returnedLate = customerRepository.save(TestDataFactory.customer("returnedlate@example.com"));
+
+        Car car = createAndSaveCar();
+        rentalRepository.save(TestDataFactory.rental(oldRental, car, threshold.minusDays(10), threshold.minusDays(5),
+                RateType.DAILY, RentalStatus.RETURNED));
+        rentalRepository.save(TestDataFactory.rental(recentRental, car, threshold.minusDays(10), threshold.minusDays(5),
+                RateType.DAILY, RentalStatus.RETURNED));
+        rentalRepository.save(TestDataFactory.rental(recentRental, car, threshold.plusDays(1), threshold.plusDays(3),
+                RateType.DAILY, RentalStatus.ACTIVE));
+        Rental late = TestDataFactory.rental(returnedLate, car, threshold.minusDays(10), threshold.minusDays(5),
+                RateType.DAILY, RentalStatus.RETURNED);
+        late.setActualReturnAt(threshold.plusDays(2));
+        rentalRepository.save(late);
+        //when
+        List<CustomerRepository.InactiveCustomerRow> all = customerRepository.findInactiveCustomersAfter(
+                0L, Long.MAX_VALUE, threshold, ReminderType.INACTIVE_CUSTOMER, threshold, PageRequest.ofSize(10));
+        List<CustomerRepository.InactiveCustomerRow> secondPage = customerRepository.findInactiveCustomersAfter(
+                noRentals.getId(), Long.MAX_VALUE, threshold, ReminderType.INACTIVE_CUSTOMER, threshold, PageRequest.ofSize(1));
+        //then
+        assertThat(all).extracting(CustomerRepository.InactiveCustomerRow::getCustomerId)
+                .containsExactly(noRentals.getId(), oldRental.getId());
+        assertThat(all.getFirst().getEmail()).isEqualTo("norentals@example.com");
+        assertThat(all.getFirst().getFirstName()).isEqualTo("John");
+        assertThat(secondPage).extracting(CustomerRepository.InactiveCustomerRow::getCustomerId)
+                .containsExactly(oldRental.getId());
+        assertThat(customerRepository.findInactiveCustomersAfter(0L, noRentals.getId(), threshold,
+                ReminderType.INACTIVE_CUSTOMER, threshold, PageRequest.ofSize(10)))
+                .extracting(CustomerRepository.InactiveCustomerRow::getCustomerId)
+                .containsExactly(noRentals.getId());
+    }
+
+    @Test
+    void testFindMaxId() {
+        //given
+        customerRepository.save(TestDataFactory.customer("first@example.com"));
+        Customer last = customerRepository.save(TestDataFactory.customer("last@example.com"));
+        //when
+        Long maxId = customerRepository.findMaxId();
+        //then
+        assertThat(maxId).isEqualTo(last.getId());
+    }
+
+    @Test
+    void testFindInactiveCustomersAfterSkipsCustomersInCooldown() {
+        //given
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 0, 0);
+        LocalDateTime remindedSince = now.minusDays(30);
+        Customer neverReminded = customerRepository.save(TestDataFactory.customer("never@example.com"));
+        Customer remindedRecently = customerRepository.save(TestDataFactory.customer("recently@example.com"));
+        Customer remindedLongAgo = customerRepository.save(TestDataFactory.customer("longago@example.com"));
+        customerReminderRepository.save(CustomerReminder.builder()
+                .customer(remindedRecently).type(ReminderType.INACTIVE_CUSTOMER).lastSentAt(now.minusDays(1)).build());
+        customerReminderRepository.save(CustomerReminder.builder()
+                .customer(remindedLongAgo).type(ReminderType.INACTIVE_CUSTOMER).lastSentAt(now.minusDays(45)).build());
+        //when
+        List<CustomerRepository.InactiveCustomerRow> result = customerRepository.findInactiveCustomersAfter(
+                0L, Long.MAX_VALUE, now.minusDays(30), ReminderType.INACTIVE_CUSTOMER, remindedSince, PageRequest.ofSize(10));
+        //then
+        assertThat(result).extracting(CustomerRepository.InactiveCustomerRow::getCustomerId)
+                .containsExactly(neverReminded.getId(), remindedLongAgo.getId());
+    }
+
+    private Car createAndSaveCar() {
+        Brand brand = brandRepository.save(TestDataFactory.brand("Toyota"));
+        CarModel model = carModelRepository.save(TestDataFactory.model("Corolla", brand));
+        Category category = categoryRepository.save(TestDataFactory.category("Economy", BigDecimal.valueOf(5), BigDecimal.valueOf(10)));
+        return carRepository.save(TestDataFactory.car("VIN-INACTIVE", "INACTIVE1", model, category,
+                BigDecimal.valueOf(10), BigDecimal.valueOf(50), BigDecimal.valueOf(300)));
+    }
+}
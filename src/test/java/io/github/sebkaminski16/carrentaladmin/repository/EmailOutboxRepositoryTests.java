@@ -0,0 +1,76 @@
+package io.github.sebkaminski16.carrentaladmin.repository;
+
+import io.github.sebkaminski16.carrentaladmin.entity.EmailOutboxMessage;
+import io.github.sebkaminski16.carrentaladmin.entity.EmailOutboxStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class EmailOutboxRepositoryTests {
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Test
+    void testSaveMessageDefaultsToPending() {
+        //given
+        EmailOutboxMessage message = message("a@example.com", null, LocalDateTime.now());
+        //when
+        EmailOutboxMessage saved = emailOutboxRepository.save(message);
+        //then
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(saved.getAttempts()).isZero();
+        assertThat(saved.getNextAttemptAt()).isNotNull();
+    }
+
+    @Test
+    void testFindClaimableReturnsDueMessagesOldestFirst() {
+        //given
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 12, 0);
+        EmailOutboxMessage due2 = emailOutboxRepository.save(message("due2@example.com", EmailOutboxStatus.PENDING, now.minusMinutes(1)));
+        EmailOutboxMessage due1 = emailOutboxRepository.save(message("due1@example.com", EmailOutboxStatus.PENDING, now.minusMinutes(5)));
+        EmailOutboxMessage expiredClaim = emailOutboxRepository.save(message("stale@example.com", EmailOutboxStatus.SENDING, now.minusMinutes(3)));
+        emailOutboxRepository.save(message("future@example.com", EmailOutboxStatus.PENDING, now.plusMinutes(5)));
+        emailOutboxRepository.save(message("sent@example.com", EmailOutboxStatus.SENT, now.minusMinutes(10)));
+        emailOutboxRepository.save(message("failed@example.com", EmailOutboxStatus.FAILED, now.minusMinutes(10)));
+        //when
+        List<EmailOutboxMessage> claimable = emailOutboxRepository.findClaimable(
+                List.of(EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING), now, PageRequest.ofSize(10));
+        List<EmailOutboxMessage> limited = emailOutboxRepository.findClaimable(
+                List.of(EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING), now, PageRequest.ofSize(1));
+        //then
+        assertThat(claimable).extracting(EmailOutboxMessage::getId)
+                .containsExactly(due1.getId(), expiredClaim.getId(), due2.getId());
+        assertThat(limited).extracting(EmailOutboxMessage::getId).containsExactly(due1.getId());
+    }
+
+    @Test
+    void testCountByStatus() {
+        //given
+        emailOutboxRepository.save(message("p1@example.com", EmailOutboxStatus.PENDING, LocalDateTime.now()));
+        emailOutboxRepository.save(message("p2@example.com", EmailOutboxStatus.PENDING, LocalDateTime.now()));
+        emailOutboxRepository.save(message("s1@example.com", EmailOutboxStatus.SENT, LocalDateTime.now()));
+        //when
+        long pending = emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING);
+        //then
+        assertThat(pending).isEqualTo(2);
+    }
+
+    private static EmailOutboxMessage message(String to, EmailOutboxStatus status, LocalDateTime nextAttemptAt) {
+        return EmailOutboxMessage.builder()
+                .toEmail(to)
+                .subject("Subject")
+                .body("Body")
+                .status(status)
+                .nextAttemptAt(nextAttemptAt)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.sebkaminski16.carrentaladmin.repository;
+
+import io.github.sebkaminski16.carrentaladmin.entity.ImageHash;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class ImageHashRepositoryTests {
+
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Autowired
+    private ImageHashRepository imageHashRepository;
+
+    @Test
+    void testFindBySha256() {
+        //given
+        imageHashRepository.saveAndFlush(imageHash(HASH, "https://i.ibb.co/abc/car.png"));
+        //when & then
+        assertThat(imageHashRepository.findBySha256(HASH)).get()
+                .extracting(ImageHash::getUrl).isEqualTo("https://i.ibb.co/abc/car.png");
+        assertThat(imageHashRepository.findBySha256(HASH.replace('9', '8'))).isEmpty();
+    }
+
+    @Test
+    void testSha256IsUnique() {
+        //given
+        imageHashRepository.saveAndFlush(imageHash(HASH, "https://i.ibb.co/abc/car.png"));
+        //when & then
+        assertThatThrownBy(() -> imageHashRepository.saveAndFlush(imageHash(HASH, "https://i.ibb.co/def/car.png")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private static ImageHash imageHash(String sha256, String url) {
+        return ImageHash.builder()
+                .sha256(sha256)
+                .url(url)
+                .provider("imgbb")
+                .sizeBytes(1234L)
+                .build();
+    }
+}
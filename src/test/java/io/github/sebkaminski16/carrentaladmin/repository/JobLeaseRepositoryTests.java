@@ -0,0 +1,81 @@
+package io.github.sebkaminski16.carrentaladmin.repository;
+
+import io.github.sebkaminski16.carrentaladmin.entity.JobLease;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class JobLeaseRepositoryTests {
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testTryAcquireTakesOverOnlyExpiredLease() {
+        //given
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 8, 0);
+        jobLeaseRepository.save(lease("held", "node-a", now.plusSeconds(30)));
+        jobLeaseRepository.save(lease("expired", "node-a", now.minusSeconds(1)));
+        entityManager.flush();
+        //when
+        int held = jobLeaseRepository.tryAcquire("held", "node-b", now, now.plusSeconds(60));
+        int expired = jobLeaseRepository.tryAcquire("expired", "node-b", now, now.plusSeconds(60));
+        int missing = jobLeaseRepository.tryAcquire("missing", "node-b", now, now.plusSeconds(60));
+        entityManager.clear();
+        //then
+        assertThat(held).isZero();
+        assertThat(expired).isEqualTo(1);
+        assertThat(missing).isZero();
+        assertThat(jobLeaseRepository.findByName("held")).get().extracting(JobLease::getOwner).isEqualTo("node-a");
+        JobLease takenOver = jobLeaseRepository.findByName("expired").orElseThrow();
+        assertThat(takenOver.getOwner()).isEqualTo("node-b");
+        assertThat(takenOver.getLeaseUntil()).isEqualTo(now.plusSeconds(60));
+    }
+
+    @Test
+    void testExtendOnlyWorksForOwner() {
+        //given
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 8, 0);
+        jobLeaseRepository.save(lease("job", "node-a", now.plusSeconds(10)));
+        entityManager.flush();
+        //when
+        int byOther = jobLeaseRepository.extend("job", "node-b", now, now.plusSeconds(60));
+        int byOwner = jobLeaseRepository.extend("job", "node-a", now, now.plusSeconds(60));
+        entityManager.clear();
+        //then
+        assertThat(byOther).isZero();
+        assertThat(byOwner).isEqualTo(1);
+        JobLease lease = jobLeaseRepository.findByName("job").orElseThrow();
+        assertThat(lease.getLeaseUntil()).isEqualTo(now.plusSeconds(60));
+        assertThat(lease.getHeartbeatAt()).isEqualTo(now);
+    }
+
+    @Test
+    void testLeaseNameIsUnique() {
+        //given
+        jobLeaseRepository.saveAndFlush(lease("job", "node-a", LocalDateTime.now()));
+        //when / then
+        assertThatThrownBy(() -> jobLeaseRepository.saveAndFlush(lease("job", "node-b", LocalDateTime.now())))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private static JobLease lease(String name, String owner, LocalDateTime leaseUntil) {
+        return JobLease.builder()
+                .name(name)
+                .owner(owner)
+                .leaseUntil(leaseUntil)
+                .heartbeatAt(leaseUntil.minusSeconds(60))
+                .build();
+    }
+}
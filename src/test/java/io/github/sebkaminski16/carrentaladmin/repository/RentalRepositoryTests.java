@@ -5,6 +5,7 @@ import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -383,6 +384,77 @@ class RentalRepositoryTests {
         assertThat(overdueRentals.get(0).getPlannedEndAt()).isBefore(overdueRentals.get(1).getPlannedEndAt());
     }
 
+    @Test
+    void testStreamOverdueForAccrual() {
+        //given
+        Customer customer = customerRepository.save(TestDataFactory.customer("accrual@example.com"));
+        Car car1 = createAndSaveCar("VIN4040", "NNN4040");
+        Car car2 = createAndSaveCar("VIN4141", "OOO4141");
+        LocalDateTime now = LocalDateTime.of(2026, 3, 20, 12, 0);
+
+        rentalRepository.save(TestDataFactory.rental(customer, car1, now.minusDays(5), now.minusHours(5),
+                RateType.DAILY, RentalStatus.ACTIVE));
+        rentalRepository.save(TestDataFactory.rental(customer, car2, now.minusDays(5), now.plusDays(1),
+                RateType.DAILY, RentalStatus.ACTIVE));
+        //when
+        List<RentalRepository.OverdueRentalRow> rows;
+        try (var stream = rentalRepository.streamOverdueForAccrual(RentalStatus.ACTIVE, now)) {
+            rows = stream.toList();
+        }
+        //then
+        assertThat(rows).hasSize(1);
+        assertThat(rows.getFirst().getLicensePlate()).isEqualTo("NNN4040");
+        assertThat(rows.getFirst().getHourlyRate()).isEqualByComparingTo(BigDecimal.valueOf(10));
+        assertThat(rows.getFirst().getCustomerLastName()).isEqualTo("Doe");
+        assertThat(rows.getFirst().getPlannedEndAt()).isEqualTo(now.minusHours(5));
+    }
+
+    @Test
+    void testStreamForReminderScheduleSkipsFullyRemindedAndInactiveRentals() {
+        //given
+        Customer customer = customerRepository.save(TestDataFactory.customer("schedule@example.com"));
+        Car car = createAndSaveCar("VIN4242", "PPP4242");
+        LocalDateTime now = LocalDateTime.of(2026, 3, 20, 12, 0);
+        Rental pending = rentalRepository.save(TestDataFactory.rental(customer, car, now.plusDays(1), now.plusDays(3),
+                RateType.DAILY, RentalStatus.ACTIVE));
+        Rental reminded = TestDataFactory.rental(customer, car, now.plusDays(1), now.plusDays(3),
+                RateType.DAILY, RentalStatus.ACTIVE);
+        reminded.setPickupReminderSentAt(now);
+        reminded.setReturnReminderSentAt(now);
+        rentalRepository.save(reminded);
+        rentalRepository.save(TestDataFactory.rental(customer, car, now.plusDays(1), now.plusDays(3),
+                RateType.DAILY, RentalStatus.CANCELED));
+        //when
+        List<RentalRepository.ReminderScheduleRow> rows;
+        try (var stream = rentalRepository.streamForReminderSchedule(RentalStatus.ACTIVE)) {
+            rows = stream.toList();
+        }
+        //then
+        assertThat(rows).extracting(RentalRepository.ReminderScheduleRow::getRentalId).containsExactly(pending.getId());
+        assertThat(rows.getFirst().getStartAt()).isEqualTo(now.plusDays(1));
+        assertThat(rows.getFirst().getPickupReminderSentAt()).isNull();
+    }
+
+    @Test
+    void testMarkReminderSentClaimsOnlyOnceAndOnlyForCurrentTimes() {
+        //given
+        Customer customer = customerRepository.save(TestDataFactory.customer("claim@example.com"));
+        Car car = createAndSaveCar("VIN4343", "RRR4343");
+        LocalDateTime now = LocalDateTime.of(2026, 3, 20, 12, 0);
+        Rental rental = rentalRepository.saveAndFlush(TestDataFactory.rental(customer, car, now.plusDays(1), now.plusDays(3),
+                RateType.DAILY, RentalStatus.ACTIVE));
+        //when
+        int stale = rentalRepository.markReturnReminderSent(rental.getId(), RentalStatus.ACTIVE, now.plusDays(2), now);
+        int first = rentalRepository.markReturnReminderSent(rental.getId(), RentalStatus.ACTIVE, now.plusDays(3), now);
+        int second = rentalRepository.markReturnReminderSent(rental.getId(), RentalStatus.ACTIVE, now.plusDays(3), now);
+        int pickup = rentalRepository.markPickupReminderSent(rental.getId(), RentalStatus.ACTIVE, now.plusDays(1), now);
+        //then
+        assertThat(stale).isZero();
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(pickup).isEqualTo(1);
+    }
+
     @Test
     void testCountOverdue() {
         //given
@@ -581,6 +653,38 @@ class RentalRepositoryTests {
         assertThat(revenue).isNull();
     }
 
+    @Test
+    void testFindChunkForRepricingPagesActiveRentalsById() {
+        //given
+        Customer customer = customerRepository.save(TestDataFactory.customer("reprice@example.com"));
+        Car car1 = createAndSaveCar("VIN3737", "KKK3737");
+        Car car2 = createAndSaveCar("VIN3838", "LLL3838");
+        Car car3 = createAndSaveCar("VIN3939", "MMM3939");
+
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+        Rental rental1 = rentalRepository.save(TestDataFactory.rental(customer, car1, start, start.plusDays(2),
+                RateType.DAILY, RentalStatus.ACTIVE));
+        Rental rental2 = rentalRepository.save(TestDataFactory.rental(customer, car2, start, start.plusDays(2),
+                RateType.DAILY, RentalStatus.ACTIVE));
+        rentalRepository.save(TestDataFactory.rental(customer, car3, start, start.plusDays(2),
+                RateType.DAILY, RentalStatus.RETURNED));
+        //when
+        List<Rental> firstChunk = rentalRepository.findChunkForRepricing(
+                RentalStatus.ACTIVE, 0L, null, null, PageRequest.ofSize(1));
+        List<Rental> secondChunk = rentalRepository.findChunkForRepricing(
+                RentalStatus.ACTIVE, firstChunk.getFirst().getId(), null, null, PageRequest.ofSize(1));
+        List<Rental> byCar = rentalRepository.findChunkForRepricing(
+                RentalStatus.ACTIVE, 0L, null, car2.getId(), PageRequest.ofSize(10));
+        List<Rental> byCategory = rentalRepository.findChunkForRepricing(
+                RentalStatus.ACTIVE, 0L, car1.getCategory().getId(), null, PageRequest.ofSize(10));
+        //then
+        assertThat(firstChunk).extracting(Rental::getId).containsExactly(rental1.getId());
+        assertThat(secondChunk).extracting(Rental::getId).containsExactly(rental2.getId());
+        assertThat(byCar).extracting(Rental::getId).containsExactly(rental2.getId());
+        assertThat(byCategory).extracting(Rental::getId).containsExactly(rental1.getId());
+    }
+
     private Car createAndSaveCar(String vin, String plate) {
         Brand brand = TestDataFactory.brand("Brand-" + vin);
         Brand savedBrand = brandRepository.save(brand);
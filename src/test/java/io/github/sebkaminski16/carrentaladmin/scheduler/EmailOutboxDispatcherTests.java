@@ -0,0 +1,135 @@
+package io.github.sebkaminski16.carrentaladmin.scheduler;
+
+import io.github.sebkaminski16.carrentaladmin.entity.EmailOutboxMessage;
+import io.github.sebkaminski16.carrentaladmin.entity.EmailOutboxStatus;
+import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import io.github.sebkaminski16.carrentaladmin.repository.EmailOutboxRepository;
+import io.github.sebkaminski16.carrentaladmin.service.EmailDispatcher;
+import io.github.sebkaminski16.carrentaladmin.service.EmailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTests {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private EmailDispatcher emailDispatcher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(emailOutboxDispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(emailOutboxDispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(emailOutboxDispatcher, "retryDelaySeconds", 60L);
+        ReflectionTestUtils.setField(emailOutboxDispatcher, "claimTimeoutSeconds", 300L);
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+        lenient().doAnswer(inv -> {
+            ((Consumer<Object>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(emailDispatcher.dispatch(anyList(), any(), eq(1))).thenAnswer(inv -> {
+            List<Object> items = inv.getArgument(0);
+            Predicate<Object> sender = inv.getArgument(1);
+            for (Object item : items) {
+                try {
+                    sender.test(item);
+                } catch (ExternalApiException ignored) {
+                    //single attempt, the real dispatcher counts it as failed
+                }
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void testDrainClaimsSendsAndRecordsStatus() {
+        //given
+        EmailOutboxMessage ok = message(1L, "ok@example.com", 0);
+        EmailOutboxMessage flaky = message(2L, "flaky@example.com", 0);
+        EmailOutboxMessage exhausted = message(3L, "exhausted@example.com", 2);
+        when(emailOutboxRepository.findClaimable(anyList(), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(ok, flaky, exhausted));
+        when(emailOutboxRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(ok, flaky, exhausted));
+        when(emailService.sendEmail("ok@example.com", "Subject", "Body")).thenReturn(true);
+        when(emailService.sendEmail("flaky@example.com", "Subject", "Body"))
+                .thenThrow(new ExternalApiException("Mailtrap down"));
+        when(emailService.sendEmail("exhausted@example.com", "Subject", "Body")).thenReturn(false);
+        //when
+        LocalDateTime before = LocalDateTime.now();
+        emailOutboxDispatcher.drain();
+        //then
+        assertEquals(EmailOutboxStatus.SENT, ok.getStatus());
+        assertEquals(1, ok.getAttempts());
+        assertNotNull(ok.getSentAt());
+
+        assertEquals(EmailOutboxStatus.PENDING, flaky.getStatus());
+        assertEquals(1, flaky.getAttempts());
+        assertEquals("Mailtrap down", flaky.getLastError());
+        assertTrue(flaky.getNextAttemptAt().isAfter(before.plusSeconds(59)));
+
+        assertEquals(EmailOutboxStatus.FAILED, exhausted.getStatus());
+        assertEquals(3, exhausted.getAttempts());
+        assertEquals("Provider did not accept the message", exhausted.getLastError());
+
+        verify(emailOutboxRepository, times(2)).saveAll(anyList());
+        verify(emailOutboxRepository, times(1)).findClaimable(anyList(), any(), any());
+        verify(emailService, times(1)).sendEmail("flaky@example.com", "Subject", "Body");
+    }
+
+    @Test
+    void testDrainWithEmptyOutboxDoesNothing() {
+        //given
+        when(emailOutboxRepository.findClaimable(anyList(), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        //when
+        emailOutboxDispatcher.drain();
+        //then
+        verifyNoInteractions(emailDispatcher, emailService);
+        verify(emailOutboxRepository, never()).findAllById(any());
+    }
+
+    private static EmailOutboxMessage message(Long id, String to, int attempts) {
+        EmailOutboxMessage m = EmailOutboxMessage.builder()
+                .toEmail(to)
+                .subject("Subject")
+                .body("Body")
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+        m.setId(id);
+        return m;
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.sebkaminski16.carrentaladmin.scheduler;
+
+import io.github.sebkaminski16.carrentaladmin.entity.ReminderType;
+import io.github.sebkaminski16.carrentaladmin.integration.mailtrap.MailtrapClient;
+import io.github.sebkaminski16.carrentaladmin.repository.CustomerRepository;
+import io.github.sebkaminski16.carrentaladmin.service.CustomerReminderService;
+import io.github.sebkaminski16.carrentaladmin.service.EmailDispatcher;
+import io.github.sebkaminski16.carrentaladmin.service.EmailService;
+import io.github.sebkaminski16.carrentaladmin.service.JobLeaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderSchedulerTests {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private EmailDispatcher emailDispatcher;
+
+    @Mock
+    private CustomerReminderService customerReminderService;
+
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    @InjectMocks
+    private ReminderScheduler reminderScheduler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(reminderScheduler, "cooldownDays", 30);
+        ReflectionTestUtils.setField(reminderScheduler, "partitionSize", 50000L);
+        //this node wins every partition lease
+        lenient().when(jobLeaseService.runPartitioned(any(), anyInt(), any())).thenAnswer(inv -> {
+            int partitions = inv.getArgument(1);
+            IntConsumer job = inv.getArgument(2);
+            for (int p = 0; p < partitions; p++) job.accept(p);
+            return partitions;
+        });
+        lenient().when(customerRepository.findMaxId()).thenReturn(3L);
+        lenient().when(emailDispatcher.dispatch(anyList(), any())).thenAnswer(inv -> {
+            List<Object> items = inv.getArgument(0);
+            Predicate<Object> sender = inv.getArgument(1);
+            items.forEach(sender::test);
+            return null;
+        });
+        lenient().when(emailService.inactiveCustomerReminder(any(), any(), eq(30)))
+                .thenAnswer(inv -> new MailtrapClient.Message(inv.getArgument(1), "Subject", "Hey " + inv.getArgument(0)));
+        lenient().when(emailService.sendBatch(anyList()))
+                .thenAnswer(inv -> Collections.nCopies(((List<?>) inv.getArgument(0)).size(), true));
+    }
+
+    @Test
+    void testRemindInactiveCustomersSendsInProviderBatches() {
+        //given
+        when(emailService.batchSize()).thenReturn(2);
+        CustomerRepository.InactiveCustomerRow row1 = row(1L, "John", "john@example.com");
+        CustomerRepository.InactiveCustomerRow row2 = row(2L, "Jane", "jane@example.com");
+        CustomerRepository.InactiveCustomerRow row3 = row(3L, "Jack", "jack@example.com");
+        when(customerRepository.findInactiveCustomersAfter(eq(0L), eq(50000L), any(LocalDateTime.class), eq(ReminderType.INACTIVE_CUSTOMER),
+                any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(row1, row2, row3));
+        //when
+        reminderScheduler.remindInactiveCustomers();
+        //then
+        verify(emailService, times(1)).sendBatch(List.of(
+                new MailtrapClient.Message("john@example.com", "Subject", "Hey John"),
+                new MailtrapClient.Message("jane@example.com", "Subject", "Hey Jane")));
+        verify(emailService, times(1)).sendBatch(List.of(
+                new MailtrapClient.Message("jack@example.com", "Subject", "Hey Jack")));
+        verify(customerRepository, times(1)).findInactiveCustomersAfter(anyLong(), anyLong(), any(), any(), any(), any());
+        verify(customerReminderService).recordSent(eq(List.of(1L, 2L)), eq(ReminderType.INACTIVE_CUSTOMER), any(LocalDateTime.class));
+        verify(customerReminderService).recordSent(eq(List.of(3L)), eq(ReminderType.INACTIVE_CUSTOMER), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testRemindInactiveCustomersWhenNobodyInactiveSendsNothing() {
+        //given
+        when(customerRepository.findInactiveCustomersAfter(eq(0L), eq(50000L), any(LocalDateTime.class), eq(ReminderType.INACTIVE_CUSTOMER),
+                any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        //when
+        reminderScheduler.remindInactiveCustomers();
+        //then
+        verify(emailService, never()).sendBatch(anyList());
+        verifyNoInteractions(customerReminderService);
+    }
+
+    @Test
+    void testRemindInactiveCustomersSplitsCustomersIntoLeasedIdRanges() {
+        //given
+        ReflectionTestUtils.setField(reminderScheduler, "partitionSize", 2L);
+        when(customerRepository.findMaxId()).thenReturn(5L);
+        when(customerRepository.findInactiveCustomersAfter(anyLong(), anyLong(), any(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        //when
+        reminderScheduler.remindInactiveCustomers();
+        //then
+        verify(jobLeaseService).runPartitioned(eq("inactive-customer-reminders"), eq(3), any());
+        verify(customerRepository).findInactiveCustomersAfter(eq(0L), eq(2L), any(), any(), any(), any());
+        verify(customerRepository).findInactiveCustomersAfter(eq(2L), eq(4L), any(), any(), any(), any());
+        verify(customerRepository).findInactiveCustomersAfter(eq(4L), eq(6L), any(), any(), any(), any());
+    }
+
+    @Test
+    void testRemindInactiveCustomersWithNoCustomersSkipsLeasing() {
+        //given
+        when(customerRepository.findMaxId()).thenReturn(null);
+        //when
+        reminderScheduler.remindInactiveCustomers();
+        //then
+        verifyNoInteractions(jobLeaseService, emailDispatcher);
+    }
+
+    @Test
+    void testRemindInactiveCustomersRecordsOnlyAcceptedMessages() {
+        //given
+        when(emailService.batchSize()).thenReturn(10);
+        CustomerRepository.InactiveCustomerRow row1 = row(1L, "John", "john@example.com");
+        CustomerRepository.InactiveCustomerRow row2 = row(2L, "Jane", "jane@example.com");
+        when(customerRepository.findInactiveCustomersAfter(eq(0L), eq(50000L), any(LocalDateTime.class), eq(ReminderType.INACTIVE_CUSTOMER),
+                any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(row1, row2));
+        when(emailService.sendBatch(anyList())).thenReturn(List.of(false, true));
+        //when
+        reminderScheduler.remindInactiveCustomers();
+        //then
+        verify(customerReminderService).recordSent(eq(List.of(2L)), eq(ReminderType.INACTIVE_CUSTOMER), any(LocalDateTime.class));
+    }
+
+    private static CustomerRepository.InactiveCustomerRow row(Long id, String firstName, String email) {
+        CustomerRepository.InactiveCustomerRow row = mock(CustomerRepository.InactiveCustomerRow.class);
+        lenient().when(row.getCustomerId()).thenReturn(id);
+        lenient().when(row.getFirstName()).thenReturn(firstName);
+        lenient().when(row.getEmail()).thenReturn(email);
+        return row;
+    }
+}
@@ -0,0 +1,189 @@
+package io.github.sebkaminski16.carrentaladmin.scheduler;
+
+import io.github.sebkaminski16.carrentaladmin.entity.*;
+import io.github.sebkaminski16.carrentaladmin.event.RentalChangedEvent;
+import io.github.sebkaminski16.carrentaladmin.integration.mailtrap.MailtrapClient;
+import io.github.sebkaminski16.carrentaladmin.repository.RentalRepository;
+import io.github.sebkaminski16.carrentaladmin.service.EmailService;
+import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RentalReminderSchedulerTests {
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private RentalReminderScheduler rentalReminderScheduler;
+
+    private final LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(rentalReminderScheduler, "pickupHoursBefore", 24L);
+        ReflectionTestUtils.setField(rentalReminderScheduler, "returnHoursBefore", 12L);
+        ReflectionTestUtils.setField(rentalReminderScheduler, "tickMillis", 60_000L);
+        rentalReminderScheduler.init();
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+        lenient().doAnswer(inv -> {
+            ((Consumer<Object>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(emailService.pickupReminder(any(), any(), any(), any()))
+                .thenAnswer(inv -> new MailtrapClient.Message(inv.getArgument(1), "Pickup", "Pickup text"));
+        lenient().when(emailService.returnReminder(any(), any(), any(), any()))
+                .thenAnswer(inv -> new MailtrapClient.Message(inv.getArgument(1), "Return", "Return text"));
+    }
+
+    @Test
+    void testScheduleFiresPickupAndReturnRemindersAtTheirLeadTime() {
+        //given
+        Rental rental = rental(1L, now.plusDays(2), now.plusDays(5));
+        when(rentalRepository.markPickupReminderSent(eq(1L), eq(RentalStatus.ACTIVE), eq(rental.getStartAt()), any())).thenReturn(1);
+        when(rentalRepository.markReturnReminderSent(eq(1L), eq(RentalStatus.ACTIVE), eq(rental.getPlannedEndAt()), any())).thenReturn(1);
+        when(rentalRepository.findById(1L)).thenReturn(Optional.of(rental));
+        //when
+        rentalReminderScheduler.schedule(rental);
+        rentalReminderScheduler.advanceTo(now.plusDays(1).minusMinutes(1));
+        verifyNoInteractions(emailService);
+        rentalReminderScheduler.advanceTo(now.plusDays(1));
+        //then
+        verify(emailService).enqueue("john@example.com", "Pickup", "Pickup text");
+        verify(emailService, never()).enqueue(any(), eq("Return"), any());
+
+        rentalReminderScheduler.advanceTo(now.plusDays(5).minusHours(12));
+        verify(emailService).enqueue("john@example.com", "Return", "Return text");
+        assertEquals(0, rentalReminderScheduler.pendingReminders());
+    }
+
+    @Test
+    void testCancelRemovesBothReminders() {
+        //given
+        rentalReminderScheduler.schedule(rental(1L, now.plusDays(2), now.plusDays(5)));
+        //when
+        rentalReminderScheduler.cancel(1L);
+        rentalReminderScheduler.advanceTo(now.plusDays(10));
+        //then
+        assertEquals(0, rentalReminderScheduler.pendingReminders());
+        verifyNoInteractions(emailService);
+        verify(rentalRepository, never()).markPickupReminderSent(any(), any(), any(), any());
+    }
+
+    @Test
+    void testRentalChangesAreAppliedFromTheirEvents() {
+        //given
+        Rental kept = rental(1L, now.plusDays(2), now.plusDays(5));
+        Rental deleted = rental(2L, now.plusDays(2), now.plusDays(5));
+        //when
+        rentalReminderScheduler.onRentalChanged(RentalChangedEvent.saved(kept));
+        rentalReminderScheduler.onRentalChanged(RentalChangedEvent.saved(deleted));
+        rentalReminderScheduler.onRentalChanged(RentalChangedEvent.deleted(2L));
+        //then
+        assertEquals(2, rentalReminderScheduler.pendingReminders());
+    }
+
+    @Test
+    void testRescheduleReplacesReturnReminder() {
+        //given
+        Rental rental = rental(1L, now.minusDays(1), now.plusDays(2));
+        rentalReminderScheduler.schedule(rental);
+        //when
+        rental.setPlannedEndAt(now.plusDays(4));
+        rentalReminderScheduler.schedule(rental);
+        rentalReminderScheduler.schedule(rental);
+        rentalReminderScheduler.advanceTo(now.plusDays(3));
+        //then
+        //started already - only the new return reminder is pending, the old one never fires
+        assertEquals(1, rentalReminderScheduler.pendingReminders());
+        verify(rentalRepository, never()).markReturnReminderSent(any(), any(), any(), any());
+    }
+
+    @Test
+    void testFiredReminderIsSkippedWhenAnotherReplicaClaimedIt() {
+        //given
+        Rental rental = rental(1L, now.minusDays(1), now.plusHours(2));
+        when(rentalRepository.markReturnReminderSent(eq(1L), eq(RentalStatus.ACTIVE), eq(rental.getPlannedEndAt()), any())).thenReturn(0);
+        rentalReminderScheduler.schedule(rental);
+        //when - lead time already passed, so it fires on the next tick
+        rentalReminderScheduler.advanceTo(now.plusMinutes(2));
+        //then
+        verify(rentalRepository).markReturnReminderSent(eq(1L), any(), any(), any());
+        verify(rentalRepository, never()).findById(any());
+        verify(emailService, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    void testResyncLoadsActiveRentalsAndSkipsSentReminders() {
+        //given
+        RentalRepository.ReminderScheduleRow notSent = row(1L, now.plusDays(2), now.plusDays(4), null);
+        RentalRepository.ReminderScheduleRow pickupSent = row(2L, now.plusHours(3), now.plusDays(4), now.minusHours(1));
+        when(rentalRepository.streamForReminderSchedule(RentalStatus.ACTIVE)).thenAnswer(inv -> Stream.of(notSent, pickupSent));
+        //when
+        rentalReminderScheduler.resync();
+        rentalReminderScheduler.resync();
+        //then
+        assertEquals(3, rentalReminderScheduler.pendingReminders());
+    }
+
+    @Test
+    void testScheduleIgnoresRentalsThatAreNotActive() {
+        //given
+        Rental rental = rental(1L, now.plusDays(2), now.plusDays(5));
+        rentalReminderScheduler.schedule(rental);
+        rental.setStatus(RentalStatus.CANCELED);
+        //when
+        rentalReminderScheduler.schedule(rental);
+        //then
+        assertEquals(0, rentalReminderScheduler.pendingReminders());
+    }
+
+    private RentalRepository.ReminderScheduleRow row(Long id, LocalDateTime startAt, LocalDateTime plannedEndAt, LocalDateTime pickupSentAt) {
+        RentalRepository.ReminderScheduleRow row = mock(RentalRepository.ReminderScheduleRow.class);
+        lenient().when(row.getRentalId()).thenReturn(id);
+        lenient().when(row.getStartAt()).thenReturn(startAt);
+        lenient().when(row.getPlannedEndAt()).thenReturn(plannedEndAt);
+        lenient().when(row.getPickupReminderSentAt()).thenReturn(pickupSentAt);
+        return row;
+    }
+
+    private static Rental rental(Long id, LocalDateTime startAt, LocalDateTime plannedEndAt) {
+        Customer customer = TestDataFactory.customer("john@example.com");
+        Brand brand = TestDataFactory.brand("Toyota");
+        CarModel model = TestDataFactory.model("Corolla", brand);
+        Category category = TestDataFactory.category("Economy", BigDecimal.valueOf(5), BigDecimal.valueOf(10));
+        Car car = TestDataFactory.car("VIN123", "ABC123", model, category,
+                BigDecimal.valueOf(10), BigDecimal.valueOf(50), BigDecimal.valueOf(300));
+        Rental rental = TestDataFactory.rental(customer, car, startAt, plannedEndAt, RateType.DAILY, RentalStatus.ACTIVE);
+        rental.setId(id);
+        return rental;
+    }
+}
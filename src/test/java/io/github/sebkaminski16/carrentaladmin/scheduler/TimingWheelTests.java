@@ -0,0 +1,113 @@
+package io.github.sebkaminski16.carrentaladmin.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTests {
+
+    //4 slots per level, 3 levels -> 64 ticks of range, small enough to exercise every cascade
+    private final TimingWheel<String> wheel = new TimingWheel<>(10, 2, 3, 0);
+
+    @Test
+    void testAdvanceReturnsTasksOnceTheirTickIsReached() {
+        //given
+        wheel.schedule(30, "a");
+        wheel.schedule(35, "b");
+        wheel.schedule(50, "c");
+        //when
+        List<String> first = wheel.advance(29);
+        List<String> second = wheel.advance(39);
+        List<String> third = wheel.advance(1000);
+        //then
+        assertTrue(first.isEmpty());
+        assertEquals(List.of("a", "b"), second);
+        assertEquals(List.of("c"), third);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testTasksOnHigherLevelsAreCascadedDownAndFireInOrder() {
+        //given
+        wheel.schedule(170, "level1");
+        wheel.schedule(600, "level2");
+        wheel.schedule(410, "level2-early");
+        //when
+        List<String> fired = new ArrayList<>();
+        for (long now = 0; now <= 700; now += 10) {
+            for (String task : wheel.advance(now)) {
+                fired.add(task + "@" + now);
+            }
+        }
+        //then
+        assertEquals(List.of("level1@170", "level2-early@410", "level2@600"), fired);
+    }
+
+    @Test
+    void testDeadlineInThePastFiresOnNextTick() {
+        //given
+        wheel.advance(100);
+        wheel.schedule(20, "late");
+        //when
+        List<String> sameTick = wheel.advance(105);
+        List<String> nextTick = wheel.advance(110);
+        //then
+        assertTrue(sameTick.isEmpty());
+        assertEquals(List.of("late"), nextTick);
+    }
+
+    @Test
+    void testCanceledTaskNeverFires() {
+        //given
+        TimingWheel.Timeout<String> canceled = wheel.schedule(300, "canceled");
+        wheel.schedule(300, "kept");
+        //when
+        boolean first = canceled.cancel();
+        boolean second = canceled.cancel();
+        List<String> fired = wheel.advance(1000);
+        //then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(List.of("kept"), fired);
+    }
+
+    @Test
+    void testDeadlineBeyondRangeIsParkedAndStillFiresOnTime() {
+        //given - range is 64 ticks = 640 ms
+        wheel.schedule(2000, "far");
+        //when
+        List<String> early = wheel.advance(1990);
+        List<String> due = wheel.advance(2000);
+        //then
+        assertTrue(early.isEmpty());
+        assertEquals(List.of("far"), due);
+    }
+
+    @Test
+    void testRandomDeadlinesFireExactlyAtTheirTick() {
+        //given
+        TimingWheel<Long> big = new TimingWheel<>(1, 6, 4, 0);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            long deadline = 1 + random.nextInt(300_000);
+            deadlines.add(deadline);
+            big.schedule(deadline, deadline);
+        }
+        //when
+        int fired = 0;
+        for (long now = 0; now < 300_000 + 97; now += 97) {
+            for (Long deadline : big.advance(now)) {
+                assertTrue(deadline <= now && deadline > now - 97, "deadline " + deadline + " fired at " + now);
+                fired++;
+            }
+        }
+        //then
+        assertEquals(deadlines.size(), fired);
+        assertEquals(0, big.size());
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BkTreeTests {
+
+    @Test
+    void testDistanceCountsInsertionsDeletionsAndSubstitutions() {
+        //when / then
+        assertEquals(0, BkTree.distance("kowalski", "kowalski", 2));
+        assertEquals(1, BkTree.distance("kowalski", "kowalsky", 2));
+        assertEquals(1, BkTree.distance("nowak", "nowack", 2));
+        assertEquals(1, BkTree.distance("anna", "ana", 5));
+        assertEquals(3, BkTree.distance("kitten", "sitting", Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testDistanceStopsAboveMax() {
+        //when / then
+        assertEquals(2, BkTree.distance("kowalski", "nowak", 1));
+        assertEquals(2, BkTree.distance("abcdef", "uvwxyz", 1));
+    }
+
+    @Test
+    void testSearchAgreesWithBruteForce() {
+        //given
+        Random random = new Random(11);
+        BkTree tree = new BkTree();
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String term = randomWord(random);
+            if (tree.add(term)) {
+                terms.add(term);
+            }
+        }
+        //when / then
+        assertEquals(terms.size(), tree.size());
+        for (int q = 0; q < 100; q++) {
+            String query = randomWord(random);
+            List<String> expected = terms.stream().filter(t -> BkTree.distance(query, t, 2) <= 2).sorted().toList();
+            assertEquals(expected, tree.search(query, 2).stream().sorted().toList(), "query " + query);
+        }
+    }
+
+    @Test
+    void testAddReturnsFalseForDuplicates() {
+        //given
+        BkTree tree = new BkTree();
+        //when / then
+        assertTrue(tree.add("nowak"));
+        assertFalse(tree.add("nowak"));
+        assertEquals(1, tree.size());
+        assertEquals(List.of("nowak"), tree.search("nowa", 1));
+    }
+
+    private static String randomWord(Random random) {
+        int length = 3 + random.nextInt(5);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(6)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import io.github.sebkaminski16.carrentaladmin.entity.*;
+import io.github.sebkaminski16.carrentaladmin.event.SearchIndexChangedEvent;
+import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
+import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CarSearchIndexTests {
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TextSearch textSearch;
+
+    @InjectMocks
+    private CarSearchIndex carSearchIndex;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void testRebuildLoadsAllCarsAndMarksIndexReady() {
+        //given
+        when(carRepository.streamForSearchIndex()).thenReturn(Stream.of(row(1L, "WA 12345", "VIN0001"), row(2L, "KR 999", "VIN0002")));
+        assertFalse(carSearchIndex.isReady());
+        //when
+        carSearchIndex.rebuild();
+        //then
+        assertTrue(carSearchIndex.isReady());
+        assertEquals(2, carSearchIndex.size());
+        assertEquals(List.of(1L), carSearchIndex.search("wa123", 10));
+        assertEquals(List.of(1L, 2L), carSearchIndex.search("VIN000", 10));
+    }
+
+    @Test
+    void testPutAndRemoveKeepIndexInSync() {
+        //given
+        when(carRepository.streamForSearchIndex()).thenReturn(Stream.of(row(1L, "WA 12345", "VIN0001")));
+        carSearchIndex.rebuild();
+        //when
+        carSearchIndex.put(car(2L, "GD 777", "VIN0002"));
+        carSearchIndex.put(car(1L, "WA 54321", "VIN0001"));
+        carSearchIndex.remove(2L);
+        //then
+        assertTrue(carSearchIndex.search("12345", 10).isEmpty());
+        assertEquals(List.of(1L), carSearchIndex.search("54321", 10));
+        assertTrue(carSearchIndex.search("GD7", 10).isEmpty());
+    }
+
+    @Test
+    void testChangesMadeDuringRebuildWinOverStreamedRows() {
+        //given - the stream still returns the old plate of car 1 and car 2 that is deleted meanwhile
+        when(carRepository.streamForSearchIndex()).thenAnswer(inv -> {
+            carSearchIndex.put(car(1L, "NEW 111", "VIN0001"));
+            carSearchIndex.remove(2L);
+            return Stream.of(row(1L, "OLD 111", "VIN0001"), row(2L, "GONE 22", "VIN0002"));
+        });
+        //when
+        carSearchIndex.rebuild();
+        //then
+        assertEquals(List.of(1L), carSearchIndex.search("NEW", 10));
+        assertTrue(carSearchIndex.search("OLD", 10).isEmpty());
+        assertTrue(carSearchIndex.search("GONE", 10).isEmpty());
+        assertEquals(1, carSearchIndex.size());
+    }
+
+    @Test
+    void testCommittedCarChangesAreAppliedToIndex() {
+        //given
+        when(carRepository.streamForSearchIndex()).thenReturn(Stream.of(row(1L, "WA 12345", "VIN0001"), row(2L, "KR 999", "VIN0002")));
+        carSearchIndex.rebuild();
+        //when
+        carSearchIndex.onSearchIndexChanged(SearchIndexChangedEvent.saved(car(1L, "PO 5555", "VIN0001")));
+        carSearchIndex.onSearchIndexChanged(SearchIndexChangedEvent.deleted(Car.class, 2L));
+        //then
+        assertEquals(List.of(1L), carSearchIndex.search("PO555", 10));
+        assertTrue(carSearchIndex.search("WA123", 10).isEmpty());
+        assertTrue(carSearchIndex.search("KR999", 10).isEmpty());
+    }
+
+    @Test
+    void testChangesOfOtherEntitiesAreIgnored() {
+        //given
+        when(carRepository.streamForSearchIndex()).thenReturn(Stream.of(row(1L, "WA 12345", "VIN0001")));
+        carSearchIndex.rebuild();
+        //when
+        carSearchIndex.onSearchIndexChanged(SearchIndexChangedEvent.deleted(Customer.class, 1L));
+        //then
+        assertEquals(List.of(1L), carSearchIndex.search("WA123", 10));
+    }
+
+    @Test
+    void testPutIgnoresUnsavedCar() {
+        //when
+        carSearchIndex.put(car(null, "WA 1", "VIN1"));
+        //then
+        assertEquals(0, carSearchIndex.size());
+    }
+
+    private static Car car(Long id, String plate, String vin) {
+        Brand brand = TestDataFactory.brand("Toyota");
+        CarModel model = TestDataFactory.model("Corolla", brand);
+        Category category = TestDataFactory.category("Economy", BigDecimal.ONE, BigDecimal.ONE);
+        Car car = TestDataFactory.car(vin, plate, model, category, BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN);
+        car.setId(id);
+        return car;
+    }
+
+    private static CarRepository.SearchRow row(Long id, String plate, String vin) {
+        return new CarRepository.SearchRow() {
+            public Long getId() { return id; }
+            public String getLicensePlate() { return plate; }
+            public String getVin() { return vin; }
+        };
+    }
+}
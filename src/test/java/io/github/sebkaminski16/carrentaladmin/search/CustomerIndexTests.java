@@ -0,0 +1,107 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerIndexTests {
+
+    private final CustomerIndex index = new CustomerIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.put(1L, "Jan", "Kowalski", "jan.kowalski@example.com", "+48 600-100-200");
+        index.put(2L, "Anna", "Kowalska", "anna.k@example.com", "600 100 201");
+        index.put(3L, "Łukasz", "Nowak", "lukasz@example.com", "600100202");
+        index.put(4L, "Piotr", "Kowalewski", "pk@example.com", "600100203");
+    }
+
+    @Test
+    void testExactTokenRanksAbovePrefixAndPrefixAboveLongerPrefix() {
+        //when
+        List<CustomerIndex.Hit> hits = index.search("kowalski", 10);
+        List<CustomerIndex.Hit> prefix = index.search("kowal", 10);
+        //then
+        assertEquals(1L, hits.getFirst().id());
+        assertEquals(1.0, hits.getFirst().score());
+        assertEquals(List.of(1L, 2L, 4L), prefix.stream().map(CustomerIndex.Hit::id).toList());
+        assertTrue(prefix.get(0).score() > prefix.get(2).score());
+    }
+
+    @Test
+    void testTyposInNamesStillMatch() {
+        //when
+        List<CustomerIndex.Hit> oneEdit = index.search("kowalsky", 10);
+        List<CustomerIndex.Hit> twoEdits = index.search("kowalewsky", 10);
+        //then
+        assertEquals(List.of(1L, 2L), oneEdit.stream().map(CustomerIndex.Hit::id).toList());
+        assertEquals(4L, twoEdits.getFirst().id());
+        assertTrue(oneEdit.getFirst().score() < 1.0);
+    }
+
+    @Test
+    void testEveryTermHasToMatchAndDiacriticsAreIgnored() {
+        //when
+        List<CustomerIndex.Hit> both = index.search("jan kowalski", 10);
+        List<CustomerIndex.Hit> folded = index.search("lukasz nowak", 10);
+        List<CustomerIndex.Hit> none = index.search("jan nowak", 10);
+        //then
+        assertEquals(List.of(1L), both.stream().map(CustomerIndex.Hit::id).toList());
+        assertEquals(1.0, both.getFirst().score());
+        assertEquals(List.of(3L), folded.stream().map(CustomerIndex.Hit::id).toList());
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    void testWholeEmailAndPhoneAreExactLookups() {
+        //when
+        List<CustomerIndex.Hit> byEmail = index.search("Anna.K@Example.com", 10);
+        List<CustomerIndex.Hit> byPhone = index.search("48600100200", 10);
+        List<CustomerIndex.Hit> byFormattedPhone = index.search("600-100-201", 10);
+        //then
+        assertEquals(List.of(new CustomerIndex.Hit(2L, 1.0)), byEmail);
+        assertEquals(List.of(new CustomerIndex.Hit(1L, 1.0)), byPhone);
+        assertEquals(List.of(new CustomerIndex.Hit(2L, 1.0)), byFormattedPhone);
+    }
+
+    @Test
+    void testEmailTokensMatchByPrefixWithLowerWeight() {
+        //when
+        List<CustomerIndex.Hit> hits = index.search("example", 10);
+        //then
+        assertEquals(4, hits.size());
+        assertTrue(hits.stream().allMatch(h -> h.score() <= 0.8));
+    }
+
+    @Test
+    void testSearchReturnsTopKOnly() {
+        //when
+        List<CustomerIndex.Hit> hits = index.search("kowal", 2);
+        //then
+        assertEquals(List.of(1L, 2L), hits.stream().map(CustomerIndex.Hit::id).toList());
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDropsCustomer() {
+        //when
+        index.put(1L, "Jan", "Zielinski", "jan.z@example.com", "700");
+        index.remove(2L);
+        //then
+        assertEquals(List.of(4L), index.search("kowal", 10).stream().map(CustomerIndex.Hit::id).toList());
+        assertEquals(1L, index.search("zielinski", 10).getFirst().id());
+        assertTrue(index.search("jan.kowalski@example.com", 10).stream().noneMatch(h -> h.score() == 1.0));
+        assertTrue(index.search("600 100 201", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testBlankQueryMatchesNothing() {
+        //when / then
+        assertTrue(index.search(" ", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+        assertTrue(index.search("kowal", 0).isEmpty());
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import io.github.sebkaminski16.carrentaladmin.entity.Customer;
+import io.github.sebkaminski16.carrentaladmin.event.SearchIndexChangedEvent;
+import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+import static org.assertj.core.api.Assertions.assertThat;
+
+//changes are published inside the test transaction and reach the index only if it commits.
+//The customers are never persisted, so committing leaves nothing behind in the DB.
+@DataJpaTest
+@Import({CustomerSearchIndex.class, LikeTextSearch.class})
+class CustomerSearchIndexTests {
+
+    @Autowired
+    private CustomerSearchIndex customerSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        customerSearchIndex.rebuild();
+    }
+
+    @Test
+    void testChangeIsAppliedOnlyAfterCommit() {
+        //when
+        eventPublisher.publishEvent(SearchIndexChangedEvent.saved(customer(901L, "kowalski@example.com")));
+        assertThat(customerSearchIndex.search("kowalski@example.com", 10)).isEmpty();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        //then
+        assertThat(customerSearchIndex.search("kowalski@example.com", 10)).extracting(CustomerIndex.Hit::id).containsExactly(901L);
+    }
+
+    @Test
+    void testRolledBackChangeNeverReachesTheIndex() {
+        //when
+        eventPublisher.publishEvent(SearchIndexChangedEvent.saved(customer(902L, "nowak@example.com")));
+        TestTransaction.flagForRollback();
+        TestTransaction.end();
+        //then
+        assertThat(customerSearchIndex.search("nowak@example.com", 10)).isEmpty();
+        assertThat(customerSearchIndex.isReady()).isTrue();
+    }
+
+    private static Customer customer(Long id, String email) {
+        Customer customer = TestDataFactory.customer(email);
+        customer.setId(id);
+        return customer;
+    }
+}
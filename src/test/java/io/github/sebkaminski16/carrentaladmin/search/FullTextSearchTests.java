@@ -0,0 +1,163 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import io.github.sebkaminski16.carrentaladmin.entity.*;
+import io.github.sebkaminski16.carrentaladmin.repository.BrandRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CarModelRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CategoryRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CustomerRepository;
+import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+//H2 has no MATCH ... AGAINST, so this covers the per-word fallback; the MySQL queries need a MySQL server
+@DataJpaTest(properties = "spring.search.mode=fulltext")
+@Import(FullTextSearch.class)
+class FullTextSearchTests {
+
+    @Autowired
+    private FullTextSearch fullTextSearch;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CarModelRepository carModelRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.save(customer("Jan", "Kowalski", "jan.kowalski@example.com"));
+        customerRepository.save(customer("Anna", "Kowalska", "anna@example.com"));
+        customerRepository.save(customer("Jan", "Nowak", "jnowak@example.com"));
+        customerRepository.save(customer("Piotr", "Kowalewski", "piotr@example.com"));
+    }
+
+    @Test
+    void testTermsDropBooleanOperatorsAndBooleanQueryRequiresEveryWordAsPrefix() {
+        //when / then
+        assertThat(FullTextSearch.terms("  Jan +KOW* -\"x\" jan.k@ex.com ")).containsExactly("jan", "kow", "x", "jan", "k", "ex", "com");
+        assertThat(FullTextSearch.booleanQuery(List.of("jan", "kow"))).isEqualTo("+jan* +kow*");
+        assertThat(FullTextSearch.terms("+-*()")).isEmpty();
+    }
+
+    @Test
+    void testEveryWordHasToMatchSomeColumn() {
+        //when
+        Page<Customer> both = fullTextSearch.customers("jan kowal", Pageable.unpaged());
+        Page<Customer> byEmail = fullTextSearch.customers("example jnowak", Pageable.unpaged());
+        //then
+        assertThat(both.getContent()).extracting(Customer::getLastName).containsExactly("Kowalski");
+        assertThat(byEmail.getContent()).extracting(Customer::getLastName).containsExactly("Nowak");
+    }
+
+    @Test
+    void testResultsArePagedInIdOrderWithTotal() {
+        //when
+        Page<Customer> first = fullTextSearch.customers("kowal", PageRequest.of(0, 2));
+        Page<Customer> second = fullTextSearch.customers("kowal", PageRequest.of(1, 2));
+        //then
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(first.getTotalPages()).isEqualTo(2);
+        assertThat(first.getContent()).extracting(Customer::getLastName).containsExactly("Kowalski", "Kowalska");
+        assertThat(second.getContent()).extracting(Customer::getLastName).containsExactly("Kowalewski");
+    }
+
+    @Test
+    void testQueryWithoutWordsMatchesNothing() {
+        //when
+        Page<Customer> page = fullTextSearch.customers(" *** ", PageRequest.of(0, 10));
+        //then
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getTotalElements()).isZero();
+    }
+
+    @Test
+    void testSearchesCarsAndReferenceData() {
+        //given
+        Brand toyota = brandRepository.save(TestDataFactory.brand("Toyota"));
+        CarModel corolla = carModelRepository.save(TestDataFactory.model("Corolla Cross", toyota));
+        Category economy = categoryRepository.save(TestDataFactory.category("Economy", BigDecimal.valueOf(5.0), BigDecimal.valueOf(15.0)));
+        carRepository.save(TestDataFactory.car("JTDBR32E720012345", "WX 12345", corolla, economy,
+                BigDecimal.valueOf(10.0), BigDecimal.valueOf(50.0), BigDecimal.valueOf(300.0)));
+        //when / then
+        assertThat(fullTextSearch.cars("wx 123", Pageable.unpaged()).getContent()).hasSize(1);
+        assertThat(fullTextSearch.cars("jtdbr", Pageable.unpaged()).getContent()).hasSize(1);
+        assertThat(fullTextSearch.brands("toy", Pageable.unpaged()).getContent()).extracting(Brand::getName).containsExactly("Toyota");
+        assertThat(fullTextSearch.carModels("cross corolla", Pageable.unpaged()).getContent()).hasSize(1);
+        assertThat(fullTextSearch.categories("econ", Pageable.unpaged()).getContent()).hasSize(1);
+        assertThat(fullTextSearch.replacesInMemoryIndexes()).isTrue();
+    }
+
+    @Test
+    void testIndexCreatedConcurrentlyByAnotherNodeIsNotAnError() {
+        //given - another replica added the index between the lookup and this node's ALTER
+        JdbcTemplate jdbcTemplate = mysqlWithoutIndexes();
+        doThrow(new BadSqlGrammarException("alter", "alter table customers add fulltext index ft_customers_search",
+                new SQLException("Duplicate key name 'ft_customers_search'", "42000", 1061)))
+                .when(jdbcTemplate).execute(startsWith("alter table customers"));
+        FullTextSearch search = new FullTextSearch();
+        ReflectionTestUtils.setField(search, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(search, "mysql", true);
+        //when
+        search.createMissingIndexes();
+        //then - and the remaining indexes are still created
+        verify(jdbcTemplate).execute(startsWith("alter table categories"));
+    }
+
+    @Test
+    void testOtherIndexCreationErrorsFailStartup() {
+        //given
+        JdbcTemplate jdbcTemplate = mysqlWithoutIndexes();
+        doThrow(new BadSqlGrammarException("alter", "alter table customers add fulltext index ft_customers_search",
+                new SQLException("Table 'customers' doesn't exist", "42S02", 1146)))
+                .when(jdbcTemplate).execute(startsWith("alter table customers"));
+        FullTextSearch search = new FullTextSearch();
+        ReflectionTestUtils.setField(search, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(search, "mysql", true);
+        //when / then
+        assertThatThrownBy(search::createMissingIndexes).isInstanceOf(BadSqlGrammarException.class);
+    }
+
+    private static JdbcTemplate mysqlWithoutIndexes() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(Object[].class))).thenReturn(0);
+        return jdbcTemplate;
+    }
+
+    private static Customer customer(String firstName, String lastName, String email) {
+        return Customer.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .phone("600100200")
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTests {
+
+    private final PrefixIndex<String> index = PrefixIndex.<String>builder()
+            .add("toyota", "Toyota")
+            .add("corolla", "Corolla", "Toyota Corolla")
+            .add("corolla-cross", "Corolla Cross", "Toyota Corolla Cross")
+            .add("octavia", "Octavia", "Škoda Octavia")
+            .add("skoda", "Škoda")
+            .add("compact", "Compact")
+            .build();
+
+    @Test
+    void testMatchesStartOfAnyWordPhraseStartsFirst() {
+        //when
+        List<String> co = index.search("co", v -> true, 10);
+        List<String> cross = index.search("cro", v -> true, 10);
+        //then
+        assertEquals(List.of("compact", "corolla", "corolla-cross"), co);
+        assertEquals(List.of("corolla-cross"), cross);
+    }
+
+    @Test
+    void testQueryCanSpanWordsAndIgnoresCaseAndDiacritics() {
+        //when
+        List<String> spanning = index.search("TOYOTA  cor", v -> true, 10);
+        List<String> folded = index.search("skoda oc", v -> true, 10);
+        List<String> brand = index.search("Šk", v -> true, 10);
+        //then
+        assertEquals(List.of("corolla", "corolla-cross"), spanning);
+        assertEquals(List.of("octavia"), folded);
+        assertEquals(List.of("skoda", "octavia"), brand);
+    }
+
+    @Test
+    void testFilterAndLimitApply() {
+        //when
+        List<String> filtered = index.search("co", v -> v.startsWith("corolla"), 10);
+        List<String> limited = index.search("to", v -> true, 2);
+        //then
+        assertEquals(List.of("corolla", "corolla-cross"), filtered);
+        assertEquals(List.of("toyota", "corolla"), limited);
+    }
+
+    @Test
+    void testNoMatchOrBlankQueryReturnsEmpty() {
+        //when / then
+        assertTrue(index.search("xyz", v -> true, 10).isEmpty());
+        assertTrue(index.search("  ", v -> true, 10).isEmpty());
+        assertTrue(index.search(null, v -> true, 10).isEmpty());
+        assertTrue(PrefixIndex.<String>builder().build().search("co", v -> true, 10).isEmpty());
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//LIKE '%q%' (LikeTextSearch) vs FULLTEXT boolean mode (FullTextSearch) on 1M customers: one page of 20
+//plus the total count, the same SQL the repositories run.
+//Needs a MySQL server - not part of the test suite. Run main() after `mvn test-compile`, e.g. from the IDE,
+//with -Dbench.jdbcUrl=... -Dbench.user=... -Dbench.password=... (defaults: local car_rental_bench, root/root).
+//The first run loads the table, which takes a few minutes; later runs reuse it.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextSearchBenchmark {
+
+    static final int ROWS = 1_000_000;
+
+    private static final String[] FIRST_NAMES = {"Jan", "Anna", "Piotr", "Katarzyna", "Tomasz", "Magdalena", "Pawel", "Agnieszka",
+            "Michal", "Ewa", "Krzysztof", "Joanna", "Andrzej", "Barbara", "Marcin", "Monika"};
+    private static final String[] LAST_NAMES = {"Nowak", "Kowalski", "Wisniewski", "Wojcik", "Kowalczyk", "Kaminski", "Lewandowski",
+            "Zielinski", "Szymanski", "Wozniak", "Dabrowski", "Kozlowski", "Jankowski", "Mazur", "Kwiatkowski", "Krawczyk"};
+
+    //a common word, a rare one and two words
+    @Param({"kowal", "customer123456", "jan mazur"})
+    public String query;
+
+    private Connection connection;
+    private PreparedStatement likePage;
+    private PreparedStatement likeCount;
+    private PreparedStatement fullTextPage;
+    private PreparedStatement fullTextCount;
+    private String booleanQuery;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbcUrl", "jdbc:mysql://localhost:3306/car_rental_bench?createDatabaseIfNotExist=true&useSSL=false&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true"),
+                System.getProperty("bench.user", "root"),
+                System.getProperty("bench.password", "root"));
+        loadIfEmpty();
+
+        likePage = connection.prepareStatement("select * from bench_customers where first_name like ? or last_name like ? or email like ? order by id limit 20");
+        likeCount = connection.prepareStatement("select count(*) from bench_customers where first_name like ? or last_name like ? or email like ?");
+        fullTextPage = connection.prepareStatement("select * from bench_customers where match(first_name, last_name, email) against (? in boolean mode)"
+                + " order by match(first_name, last_name, email) against (? in boolean mode) desc, id limit 20");
+        fullTextCount = connection.prepareStatement("select count(*) from bench_customers where match(first_name, last_name, email) against (? in boolean mode)");
+        booleanQuery = FullTextSearch.booleanQuery(FullTextSearch.terms(query));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void like(Blackhole bh) throws SQLException {
+        String pattern = "%" + query + "%";
+        for (PreparedStatement statement : List.of(likePage, likeCount)) {
+            statement.setString(1, pattern);
+            statement.setString(2, pattern);
+            statement.setString(3, pattern);
+            consume(statement, bh);
+        }
+    }
+
+    @Benchmark
+    public void fullText(Blackhole bh) throws SQLException {
+        fullTextPage.setString(1, booleanQuery);
+        fullTextPage.setString(2, booleanQuery);
+        consume(fullTextPage, bh);
+        fullTextCount.setString(1, booleanQuery);
+        consume(fullTextCount, bh);
+    }
+
+    private static void consume(PreparedStatement statement, Blackhole bh) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getLong(1));
+            }
+        }
+    }
+
+    private void loadIfEmpty() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("create table if not exists bench_customers (id bigint primary key)");
+            try (ResultSet rs = st.executeQuery("select count(*) from bench_customers")) {
+                rs.next();
+                if (rs.getLong(1) >= ROWS) {
+                    return;
+                }
+            }
+            //half loaded or left over - start from scratch
+            st.execute("drop table bench_customers");
+            st.execute("""
+                    create table bench_customers (
+                        id bigint primary key,
+                        first_name varchar(80) not null,
+                        last_name varchar(80) not null,
+                        email varchar(120) not null
+                    )""");
+        }
+        Random random = new Random(7);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("insert into bench_customers values (?, ?, ?, ?)")) {
+            for (int i = 1; i <= ROWS; i++) {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                insert.setLong(1, i);
+                insert.setString(2, first);
+                insert.setString(3, last);
+                insert.setString(4, "customer" + i + "@example.com");
+                insert.addBatch();
+                if (i % 10_000 == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        connection.setAutoCommit(true);
+        //built after the load, like FullTextSearch does on an existing table
+        try (Statement st = connection.createStatement()) {
+            st.execute("alter table bench_customers add fulltext index ft_bench_customers (first_name, last_name, email)");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TextSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//One car search (plate or VIN substring, first 50 ids) over 100k cars - the target is well under 1 ms.
+//Not part of the test suite. Run main() after `mvn test-compile`, e.g. from the IDE.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrigramIndexBenchmark {
+
+    static final int CARS = 100_000;
+
+    private static final String ALPHABET = "ABCDEFGHJKLMNPRSTUVWXYZ0123456789";
+
+    //3 to 6 characters, like what's typed into the search box
+    @Param({"3", "4", "6"})
+    public int queryLength;
+
+    private TrigramIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        TrigramIndex.Builder builder = TrigramIndex.builder();
+        for (int id = 0; id < CARS; id++) {
+            builder.add(id, randomCode(random, 7), randomCode(random, 17));
+        }
+        index = builder.build();
+        queries = new String[1_024];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = randomCode(random, queryLength);
+        }
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        String query = queries[next++ & (queries.length - 1)];
+        return index.search(query, 50);
+    }
+
+    private static String randomCode(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TrigramIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.sebkaminski16.carrentaladmin.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTests {
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Test
+    void testSearchFindsSubstringsOfAnyFieldIgnoringCaseSpacesAndDashes() {
+        //given
+        index.put(1L, "WA 12345", "WVWZZZ1JZXW000001");
+        index.put(2L, "KR-6789A", "VF1AB000123456789");
+        index.put(3L, "GD 4512", "TMBJJ7NE0L0123456");
+        //when
+        List<Long> byPlate = index.search("a 123", 10);
+        List<Long> byVin = index.search("zzz1jz", 10);
+        List<Long> shared = index.search("45", 10);
+        List<Long> none = index.search("QQQ", 10);
+        //then
+        assertEquals(List.of(1L), byPlate);
+        assertEquals(List.of(1L), byVin);
+        assertEquals(List.of(1L, 2L, 3L), shared);
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    void testTrigramsFromDifferentFieldsDoNotProduceFalseMatches() {
+        //given - "ABC" only in the plate, "BCD" only in the VIN, "ABCD" in neither
+        index.put(1L, "ABCX", "XBCD");
+        //when
+        List<Long> result = index.search("ABCD", 10);
+        //then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void testPutReplacesFieldsOfExistingKeyAndRemoveDropsIt() {
+        //given
+        index.put(1L, "OLD111", "VIN0001");
+        index.put(2L, "OTHER22", "VIN0002");
+        //when
+        index.put(1L, "NEW111", "VIN0001");
+        //then
+        assertTrue(index.search("OLD", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("NEW1", 10));
+        assertEquals(List.of(1L, 2L), index.search("VIN000", 10));
+
+        assertTrue(index.remove(1L));
+        assertFalse(index.remove(1L));
+        assertEquals(List.of(2L), index.search("VIN000", 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testSearchStopsAtLimit() {
+        //given
+        for (long id = 1; id <= 50; id++) {
+            index.put(id, "PLATE" + id, "VIN" + id);
+        }
+        //when
+        List<Long> trigramQuery = index.search("PLATE", 5);
+        List<Long> shortQuery = index.search("P", 3);
+        //then
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), trigramQuery);
+        assertEquals(List.of(1L, 2L, 3L), shortQuery);
+    }
+
+    @Test
+    void testBlankOrPunctuationOnlyQueryMatchesNothing() {
+        //given
+        index.put(1L, "ABC123", "VIN1");
+        //when / then
+        assertTrue(index.search("", 10).isEmpty());
+        assertTrue(index.search(" - ", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+    }
+
+    @Test
+    void testBuilderAndIncrementalUpdatesAgreeWithBruteForceOnRandomData() {
+        //given
+        Random random = new Random(42);
+        TrigramIndex.Builder builder = TrigramIndex.builder();
+        List<String[]> cars = new ArrayList<>();
+        for (int id = 0; id < 5_000; id++) {
+            String[] fields = {randomCode(random, 7), randomCode(random, 17)};
+            cars.add(fields);
+            builder.add(id, fields);
+        }
+        TrigramIndex built = builder.build();
+        for (int id = 0; id < 5_000; id += 7) {
+            String[] fields = {randomCode(random, 7), randomCode(random, 17)};
+            cars.set(id, fields);
+            built.put(id, fields);
+        }
+        for (int id = 3; id < 5_000; id += 11) {
+            cars.set(id, null);
+            built.remove(id);
+        }
+        //when / then
+        for (int q = 0; q < 300; q++) {
+            String[] source = cars.get(random.nextInt(cars.size()));
+            String query = source == null ? randomCode(random, 3) : source[random.nextInt(2)].substring(1, 2 + random.nextInt(5));
+            List<Long> expected = new ArrayList<>();
+            for (int id = 0; id < cars.size(); id++) {
+                String[] fields = cars.get(id);
+                if (fields != null && (fields[0].contains(query) || fields[1].contains(query))) {
+                    expected.add((long) id);
+                }
+            }
+            assertEquals(expected, built.search(query, Integer.MAX_VALUE), "query " + query);
+        }
+    }
+
+    private static String randomCode(Random random, int length) {
+        String alphabet = "ABCDEFGHJKLMNPRSTUVWXYZ0123456789";
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.dto.AutocompleteDtos;
+import io.github.sebkaminski16.carrentaladmin.entity.Brand;
+import io.github.sebkaminski16.carrentaladmin.entity.Category;
+import io.github.sebkaminski16.carrentaladmin.event.ReferenceDataChangedEvent;
+import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
+import io.github.sebkaminski16.carrentaladmin.repository.BrandRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CarModelRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CategoryRepository;
+import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.math.BigDecimal;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AutocompleteServiceTests {
+
+    @Mock
+    private BrandRepository brandRepository;
+
+    @Mock
+    private CarModelRepository carModelRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private AutocompleteService autocompleteService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(autocompleteService, "defaultLimit", 10);
+        ReflectionTestUtils.setField(autocompleteService, "maxLimit", 50);
+
+        Brand toyota = TestDataFactory.brand("Toyota");
+        toyota.setId(1L);
+        Category compact = TestDataFactory.category("Compact", BigDecimal.ZERO, BigDecimal.ZERO);
+        compact.setId(3L);
+        when(brandRepository.findAll()).thenReturn(List.of(toyota));
+        when(carModelRepository.findAllNames()).thenReturn(List.of(model(2L, "Corolla", "Toyota")));
+        when(categoryRepository.findAll()).thenReturn(List.of(compact));
+        autocompleteService.rebuild();
+    }
+
+    @Test
+    void testSuggestReturnsAllTypesByDefault() {
+        //when
+        List<AutocompleteDtos.Suggestion> result = autocompleteService.suggest("co", null, null);
+        //then
+        assertEquals(List.of(
+                new AutocompleteDtos.Suggestion("category", 3L, "Compact", "Compact"),
+                new AutocompleteDtos.Suggestion("model", 2L, "Corolla", "Toyota Corolla")
+        ), result);
+    }
+
+    @Test
+    void testSuggestFiltersByTypesAndMatchesModelByBrand() {
+        //when
+        List<AutocompleteDtos.Suggestion> result = autocompleteService.suggest("toy", "model", null);
+        List<AutocompleteDtos.Suggestion> both = autocompleteService.suggest("toy", " Brand , model", 1);
+        //then
+        assertEquals(List.of(new AutocompleteDtos.Suggestion("model", 2L, "Corolla", "Toyota Corolla")), result);
+        assertEquals(List.of(new AutocompleteDtos.Suggestion("brand", 1L, "Toyota", "Toyota")), both);
+    }
+
+    @Test
+    void testSuggestRejectsUnknownType() {
+        //when / then
+        assertThrows(BadRequestException.class, () -> autocompleteService.suggest("co", "car", null));
+    }
+
+    @Test
+    void testBlankQueryReturnsNothing() {
+        //when / then
+        assertTrue(autocompleteService.suggest(" ", null, null).isEmpty());
+    }
+
+    @Test
+    void testReferenceDataChangeRebuildsIndex() {
+        //given
+        Brand skoda = TestDataFactory.brand("Skoda");
+        skoda.setId(4L);
+        when(brandRepository.findAll()).thenReturn(List.of(skoda));
+        //when
+        autocompleteService.onReferenceDataChanged(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Kind.BRAND, 4L));
+        //then
+        assertEquals(List.of(new AutocompleteDtos.Suggestion("brand", 4L, "Skoda", "Skoda")),
+                autocompleteService.suggest("sk", "brand", null));
+        assertTrue(autocompleteService.suggest("toy", "brand", null).isEmpty());
+        verify(brandRepository, times(2)).findAll();
+    }
+
+    private static CarModelRepository.NameRow model(Long id, String name, String brandName) {
+        return new CarModelRepository.NameRow() {
+            public Long getId() { return id; }
+            public String getName() { return name; }
+            public String getBrandName() { return brandName; }
+        };
+    }
+}
@@ -1,17 +1,24 @@
 package io.github.sebkaminski16.carrentaladmin.service;
 
 import io.github.sebkaminski16.carrentaladmin.dto.BrandDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.PageDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.Brand;
+import io.github.sebkaminski16.carrentaladmin.event.ReferenceDataChangedEvent;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.repository.BrandRepository;
 import io.github.sebkaminski16.carrentaladmin.repository.CarModelRepository;
+import io.github.sebkaminski16.carrentaladmin.search.TextSearch;
 import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -26,9 +33,15 @@ class BrandServiceTests {
     @Mock
     private BrandRepository brandRepository;
 
+    @Mock
+    private TextSearch textSearch;
+
     @Mock
     private CarModelRepository carModelRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BrandService brandService;
 
@@ -140,6 +153,7 @@ class BrandServiceTests {
         assertEquals("Toyota", result.name());
         verify(brandRepository, times(1)).existsByNameIgnoreCase("Toyota");
         verify(brandRepository, times(1)).save(any(Brand.class));
+        verify(eventPublisher, times(1)).publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Kind.BRAND, 1L));
     }
 
     @Test
@@ -285,8 +299,8 @@ class BrandServiceTests {
         Brand brand2 = TestDataFactory.brand("NotToyota");
         brand2.setId(2L);
 
-        when(brandRepository.findByNameContainingIgnoreCase(query))
-                .thenReturn(Arrays.asList(brand1, brand2));
+        when(textSearch.brands(query, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(Arrays.asList(brand1, brand2)));
         //when
         List<BrandDtos.BrandDto> result = brandService.search(query);
         //then
@@ -294,22 +308,46 @@ class BrandServiceTests {
         assertEquals(2, result.size());
         assertEquals("Toyota", result.get(0).name());
         assertEquals("NotToyota", result.get(1).name());
-        verify(brandRepository, times(1)).findByNameContainingIgnoreCase(query);
+        verify(textSearch, times(1)).brands(query, Pageable.unpaged());
         verify(brandRepository, never()).findAll();
     }
 
+    @Test
+    void testSearchPageCapsPageSizeAndMapsPage() {
+        //given
+        Brand brand = TestDataFactory.brand("Toyota");
+        brand.setId(1L);
+        when(textSearch.brands("toy", PageRequest.of(2, TextSearch.MAX_PAGE_SIZE)))
+                .thenReturn(new PageImpl<>(List.of(brand), PageRequest.of(2, TextSearch.MAX_PAGE_SIZE), 201));
+        //when
+        PageDtos.PageDto<BrandDtos.BrandDto> result = brandService.searchPage("toy", 2, 10_000);
+        //then
+        assertEquals(List.of(new BrandDtos.BrandDto(1L, "Toyota")), result.content());
+        assertEquals(2, result.page());
+        assertEquals(TextSearch.MAX_PAGE_SIZE, result.size());
+        assertEquals(201, result.totalElements());
+        assertEquals(3, result.totalPages());
+    }
+
+    @Test
+    void testSearchPageWithBlankQueryThrowsBadRequest() {
+        //when / then
+        assertThrows(BadRequestException.class, () -> brandService.searchPage(" ", null, null));
+        verifyNoInteractions(textSearch);
+    }
+
     @Test
     void testSearchReturnsEmptyListWhenNoMatches() {
         //given
         String query = "xyz";
-        when(brandRepository.findByNameContainingIgnoreCase(query))
-                .thenReturn(Collections.emptyList());
+        when(textSearch.brands(query, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(Collections.emptyList()));
         //when
         List<BrandDtos.BrandDto> result = brandService.search(query);
         //then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(brandRepository, times(1)).findByNameContainingIgnoreCase(query);
+        verify(textSearch, times(1)).brands(query, Pageable.unpaged());
         verify(brandRepository, never()).findAll();
     }
 
@@ -328,7 +366,7 @@ class BrandServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(brandRepository, times(1)).findAll();
-        verify(brandRepository, never()).findByNameContainingIgnoreCase(any());
+        verify(textSearch, never()).brands(any(), any());
     }
 
     @Test
@@ -345,7 +383,7 @@ class BrandServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(brandRepository, times(1)).findAll();
-        verify(brandRepository, never()).findByNameContainingIgnoreCase(any());
+        verify(textSearch, never()).brands(any(), any());
     }
 
     @Test
@@ -362,6 +400,6 @@ class BrandServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(brandRepository, times(1)).findAll();
-        verify(brandRepository, never()).findByNameContainingIgnoreCase(any());
+        verify(textSearch, never()).brands(any(), any());
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package io.github.sebkaminski16.carrentaladmin.service;
 
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceData;
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceDataCache;
 import io.github.sebkaminski16.carrentaladmin.dto.CarModelDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.Brand;
 import io.github.sebkaminski16.carrentaladmin.entity.CarModel;
@@ -7,12 +9,17 @@ import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.repository.CarModelRepository;
 import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
+import io.github.sebkaminski16.carrentaladmin.search.TextSearch;
 import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -30,12 +37,26 @@ class CarModelServiceTests {
     @Mock
     private CarModelRepository carModelRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Mock
+    private TextSearch textSearch;
+
     @Mock
     private CarRepository carRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CarModelService carModelService;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(referenceDataCache.get()).thenReturn(ReferenceData.EMPTY);
+    }
+
     @Test
     void testListReturnsAllCarModels() {
         //given
@@ -423,8 +444,8 @@ class CarModelServiceTests {
         CarModel model2 = TestDataFactory.model("Accord", honda);
         model2.setId(2L);
 
-        when(carModelRepository.findByNameContainingIgnoreCase(query))
-                .thenReturn(Arrays.asList(model1, model2));
+        when(textSearch.carModels(query, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(Arrays.asList(model1, model2)));
         //when
         List<CarModelDtos.CarModelDto> result = carModelService.search(query);
         //then
@@ -432,7 +453,7 @@ class CarModelServiceTests {
         assertEquals(2, result.size());
         assertEquals("Corolla", result.get(0).name());
         assertEquals("Accord", result.get(1).name());
-        verify(carModelRepository, times(1)).findByNameContainingIgnoreCase(query);
+        verify(textSearch, times(1)).carModels(query, Pageable.unpaged());
         verify(carModelRepository, never()).findAll();
     }
 
@@ -440,14 +461,14 @@ class CarModelServiceTests {
     void testSearchReturnsEmptyListWhenNoMatches() {
         //given
         String query = "xyz";
-        when(carModelRepository.findByNameContainingIgnoreCase(query))
-                .thenReturn(Collections.emptyList());
+        when(textSearch.carModels(query, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(Collections.emptyList()));
         //when
         List<CarModelDtos.CarModelDto> result = carModelService.search(query);
         //then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(carModelRepository, times(1)).findByNameContainingIgnoreCase(query);
+        verify(textSearch, times(1)).carModels(query, Pageable.unpaged());
         verify(carModelRepository, never()).findAll();
     }
 
@@ -471,7 +492,7 @@ class CarModelServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(carModelRepository, times(1)).findAll();
-        verify(carModelRepository, never()).findByNameContainingIgnoreCase(any());
+        verify(textSearch, never()).carModels(any(), any());
     }
 
     @Test
@@ -494,7 +515,7 @@ class CarModelServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(carModelRepository, times(1)).findAll();
-        verify(carModelRepository, never()).findByNameContainingIgnoreCase(any());
+        verify(textSearch, never()).carModels(any(), any());
     }
 
     @Test
@@ -517,6 +538,6 @@ class CarModelServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(carModelRepository, times(1)).findAll();
-        verify(carModelRepository, never()).findByNameContainingIgnoreCase(any());
+        verify(textSearch, never()).carModels(any(), any());
     }
 }
\ No newline at end of file
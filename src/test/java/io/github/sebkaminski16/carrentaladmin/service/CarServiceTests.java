@@ -1,18 +1,27 @@
 package io.github.sebkaminski16.carrentaladmin.service;
 
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceData;
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceDataCache;
 import io.github.sebkaminski16.carrentaladmin.dto.CarDtos;
 import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.*;
+import io.github.sebkaminski16.carrentaladmin.event.SearchIndexChangedEvent;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
 import io.github.sebkaminski16.carrentaladmin.repository.RentalRepository;
+import io.github.sebkaminski16.carrentaladmin.search.CarSearchIndex;
+import io.github.sebkaminski16.carrentaladmin.search.TextSearch;
 import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -29,6 +38,9 @@ class CarServiceTests {
     @Mock
     private CarRepository carRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @Mock
     private RentalRepository rentalRepository;
 
@@ -38,9 +50,23 @@ class CarServiceTests {
     @Mock
     private CategoryService categoryService;
 
+    @Mock
+    private CarSearchIndex carSearchIndex;
+
+    @Mock
+    private TextSearch textSearch;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CarService carService;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(referenceDataCache.get()).thenReturn(ReferenceData.EMPTY);
+    }
+
     @Test
     void testListReturnsAllCars() {
         //given
@@ -172,6 +198,7 @@ class CarServiceTests {
                 modelId,
                 categoryId,
                 "http://example.com/image.jpg",
+                "http://example.com/image-thumb.jpg",
                 BigDecimal.valueOf(10.0),
                 BigDecimal.valueOf(50.0),
                 BigDecimal.valueOf(300.0),
@@ -206,7 +233,9 @@ class CarServiceTests {
         verify(carRepository, times(1)).existsByLicensePlate("ABC123");
         verify(carModelService, times(1)).getEntity(modelId);
         verify(categoryService, times(1)).getEntity(categoryId);
-        verify(carRepository, times(1)).save(any(Car.class));
+        verify(carRepository, times(1)).save(argThat(c -> "http://example.com/image-thumb.jpg".equals(c.getThumbnailUrl())));
+        verify(eventPublisher, times(1)).publishEvent(SearchIndexChangedEvent.saved(savedCar));
+        verify(carSearchIndex, never()).put(any(Car.class));
     }
 
     @Test
@@ -220,6 +249,7 @@ class CarServiceTests {
                 1L,
                 1L,
                 "http://example.com/image.jpg",
+                "http://example.com/image-thumb.jpg",
                 BigDecimal.valueOf(10.0),
                 BigDecimal.valueOf(50.0),
                 BigDecimal.valueOf(300.0),
@@ -251,6 +281,7 @@ class CarServiceTests {
                 1L,
                 1L,
                 "http://example.com/image.jpg",
+                "http://example.com/image-thumb.jpg",
                 BigDecimal.valueOf(10.0),
                 BigDecimal.valueOf(50.0),
                 BigDecimal.valueOf(300.0),
@@ -285,6 +316,7 @@ class CarServiceTests {
                 modelId,
                 categoryId,
                 "http://example.com/image.jpg",
+                "http://example.com/image-thumb.jpg",
                 BigDecimal.valueOf(10.0),
                 BigDecimal.valueOf(50.0),
                 BigDecimal.valueOf(300.0),
@@ -320,6 +352,7 @@ class CarServiceTests {
                 modelId,
                 categoryId,
                 "http://example.com/image.jpg",
+                "http://example.com/image-thumb.jpg",
                 BigDecimal.valueOf(10.0),
                 BigDecimal.valueOf(50.0),
                 BigDecimal.valueOf(300.0),
@@ -362,6 +395,7 @@ class CarServiceTests {
                 modelId,
                 categoryId,
                 "http://example.com/new-image.jpg",
+                "http://example.com/new-image-thumb.jpg",
                 BigDecimal.valueOf(12.0),
                 BigDecimal.valueOf(60.0),
                 BigDecimal.valueOf(350.0),
@@ -403,6 +437,7 @@ class CarServiceTests {
         verify(carModelService, times(1)).getEntity(modelId);
         verify(categoryService, times(1)).getEntity(categoryId);
         verify(carRepository, times(1)).save(any(Car.class));
+        verify(eventPublisher, times(1)).publishEvent(SearchIndexChangedEvent.saved(updatedCar));
     }
 
     @Test
@@ -418,6 +453,7 @@ class CarServiceTests {
                 1L,
                 1L,
                 "http://example.com/new-image.jpg",
+                "http://example.com/new-image-thumb.jpg",
                 BigDecimal.valueOf(12.0),
                 BigDecimal.valueOf(60.0),
                 BigDecimal.valueOf(350.0),
@@ -454,6 +490,7 @@ class CarServiceTests {
                 1L,
                 1L,
                 "http://example.com/new-image.jpg",
+                "http://example.com/new-image-thumb.jpg",
                 BigDecimal.valueOf(12.0),
                 BigDecimal.valueOf(60.0),
                 BigDecimal.valueOf(350.0),
@@ -488,6 +525,7 @@ class CarServiceTests {
                 1L,
                 1L,
                 "http://example.com/new-image.jpg",
+                "http://example.com/new-image-thumb.jpg",
                 BigDecimal.valueOf(12.0),
                 BigDecimal.valueOf(60.0),
                 BigDecimal.valueOf(350.0),
@@ -525,6 +563,7 @@ class CarServiceTests {
                 modelId,
                 categoryId,
                 "http://example.com/image.jpg",
+                "http://example.com/image-thumb.jpg",
                 BigDecimal.valueOf(10.0),
                 BigDecimal.valueOf(50.0),
                 BigDecimal.valueOf(300.0),
@@ -585,6 +624,7 @@ class CarServiceTests {
                 modelId,
                 categoryId,
                 "http://example.com/image.jpg",
+                "http://example.com/image-thumb.jpg",
                 BigDecimal.valueOf(10.0),
                 BigDecimal.valueOf(50.0),
                 BigDecimal.valueOf(300.0),
@@ -652,6 +692,7 @@ class CarServiceTests {
         verify(carRepository, times(1)).existsById(carId);
         verify(rentalRepository, times(1)).existsByCarId(carId);
         verify(carRepository, times(1)).deleteById(carId);
+        verify(eventPublisher, times(1)).publishEvent(SearchIndexChangedEvent.deleted(Car.class, carId));
     }
 
     @Test
@@ -701,15 +742,15 @@ class CarServiceTests {
                 BigDecimal.valueOf(10.0), BigDecimal.valueOf(50.0), BigDecimal.valueOf(300.0));
         car1.setId(1L);
 
-        when(carRepository.findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(query, query))
-                .thenReturn(Collections.singletonList(car1));
+        when(textSearch.cars(query, PageRequest.of(0, Integer.MAX_VALUE)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(car1)));
         //when
         List<CarDtos.CarDto> result = carService.search(query);
         //then
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("ABC123", result.getFirst().licensePlate());
-        verify(carRepository, times(1)).findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(query, query);
+        verify(textSearch, times(1)).cars(query, PageRequest.of(0, Integer.MAX_VALUE));
         verify(carRepository, never()).findAll();
     }
 
@@ -731,8 +772,8 @@ class CarServiceTests {
                 BigDecimal.valueOf(12.0), BigDecimal.valueOf(60.0), BigDecimal.valueOf(350.0));
         car2.setId(2L);
 
-        when(carRepository.findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(query, query))
-                .thenReturn(Arrays.asList(car1, car2));
+        when(textSearch.cars(query, PageRequest.of(0, Integer.MAX_VALUE)))
+                .thenReturn(new PageImpl<>(Arrays.asList(car1, car2)));
         //when
         List<CarDtos.CarDto> result = carService.search(query);
         //then
@@ -740,7 +781,7 @@ class CarServiceTests {
         assertEquals(2, result.size());
         assertEquals("VIN123", result.get(0).vin());
         assertEquals("VIN456", result.get(1).vin());
-        verify(carRepository, times(1)).findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(query, query);
+        verify(textSearch, times(1)).cars(query, PageRequest.of(0, Integer.MAX_VALUE));
         verify(carRepository, never()).findAll();
     }
 
@@ -748,14 +789,14 @@ class CarServiceTests {
     void testSearchReturnsEmptyListWhenNoMatches() {
         //given
         String query = "xyz";
-        when(carRepository.findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(query, query))
-                .thenReturn(Collections.emptyList());
+        when(textSearch.cars(query, PageRequest.of(0, Integer.MAX_VALUE)))
+                .thenReturn(new PageImpl<>(Collections.emptyList()));
         //when
         List<CarDtos.CarDto> result = carService.search(query);
         //then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(carRepository, times(1)).findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(query, query);
+        verify(textSearch, times(1)).cars(query, PageRequest.of(0, Integer.MAX_VALUE));
         verify(carRepository, never()).findAll();
     }
 
@@ -783,7 +824,7 @@ class CarServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(carRepository, times(1)).findAll();
-        verify(carRepository, never()).findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(any(), any());
+        verify(textSearch, never()).cars(any(), any());
     }
 
     @Test
@@ -810,7 +851,7 @@ class CarServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(carRepository, times(1)).findAll();
-        verify(carRepository, never()).findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(any(), any());
+        verify(textSearch, never()).cars(any(), any());
     }
 
     @Test
@@ -837,7 +878,46 @@ class CarServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(carRepository, times(1)).findAll();
-        verify(carRepository, never()).findByLicensePlateContainingIgnoreCaseOrVinContainingIgnoreCase(any(), any());
+        verify(textSearch, never()).cars(any(), any());
+    }
+
+    @Test
+    void testSearchUsesIndexAndKeepsItsOrderWhenReady() {
+        //given
+        Brand toyota = TestDataFactory.brand("Toyota");
+        toyota.setId(1L);
+        CarModel corolla = TestDataFactory.model("Corolla", toyota);
+        corolla.setId(1L);
+        Category economy = TestDataFactory.category("Economy", BigDecimal.valueOf(5.0), BigDecimal.valueOf(15.0));
+        economy.setId(1L);
+
+        Car car1 = TestDataFactory.car("VIN123", "ABC123", corolla, economy,
+                BigDecimal.valueOf(10.0), BigDecimal.valueOf(50.0), BigDecimal.valueOf(300.0));
+        car1.setId(1L);
+        Car car2 = TestDataFactory.car("VIN456", "ABC456", corolla, economy,
+                BigDecimal.valueOf(12.0), BigDecimal.valueOf(60.0), BigDecimal.valueOf(350.0));
+        car2.setId(2L);
+
+        when(carSearchIndex.isReady()).thenReturn(true);
+        when(carSearchIndex.search("abc", Integer.MAX_VALUE)).thenReturn(List.of(2L, 1L, 3L));
+        when(carRepository.findAllById(List.of(2L, 1L, 3L))).thenReturn(Arrays.asList(car1, car2));
+        //when
+        List<CarDtos.CarDto> result = carService.search("abc");
+        //then
+        assertEquals(List.of("ABC456", "ABC123"), result.stream().map(CarDtos.CarDto::licensePlate).toList());
+        verify(textSearch, never()).cars(any(), any());
+    }
+
+    @Test
+    void testSearchDoesNotQueryRepositoryWhenIndexFindsNothing() {
+        //given
+        when(carSearchIndex.isReady()).thenReturn(true);
+        when(carSearchIndex.search("zzz", Integer.MAX_VALUE)).thenReturn(List.of());
+        //when
+        List<CarDtos.CarDto> result = carService.search("zzz");
+        //then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(carRepository);
     }
 
     @Test
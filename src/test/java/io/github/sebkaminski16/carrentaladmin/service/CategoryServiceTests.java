@@ -6,12 +6,16 @@ import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
 import io.github.sebkaminski16.carrentaladmin.repository.CategoryRepository;
+import io.github.sebkaminski16.carrentaladmin.search.TextSearch;
 import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -29,9 +33,15 @@ class CategoryServiceTests {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private TextSearch textSearch;
+
     @Mock
     private CarRepository carRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -378,8 +388,8 @@ class CategoryServiceTests {
         Category category2 = TestDataFactory.category("Eco-friendly", BigDecimal.valueOf(3.0), BigDecimal.valueOf(10.0));
         category2.setId(2L);
 
-        when(categoryRepository.findByNameContainingIgnoreCase(query))
-                .thenReturn(Arrays.asList(category1, category2));
+        when(textSearch.categories(query, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(Arrays.asList(category1, category2)));
         //when
         List<CategoryDtos.CategoryDto> result = categoryService.search(query);
         //then
@@ -387,7 +397,7 @@ class CategoryServiceTests {
         assertEquals(2, result.size());
         assertEquals("Economy", result.get(0).name());
         assertEquals("Eco-friendly", result.get(1).name());
-        verify(categoryRepository, times(1)).findByNameContainingIgnoreCase(query);
+        verify(textSearch, times(1)).categories(query, Pageable.unpaged());
         verify(categoryRepository, never()).findAll();
     }
 
@@ -395,14 +405,14 @@ class CategoryServiceTests {
     void testSearchReturnsEmptyListWhenNoMatches() {
         //given
         String query = "xyz";
-        when(categoryRepository.findByNameContainingIgnoreCase(query))
-                .thenReturn(Collections.emptyList());
+        when(textSearch.categories(query, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(Collections.emptyList()));
         //when
         List<CategoryDtos.CategoryDto> result = categoryService.search(query);
         //then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(categoryRepository, times(1)).findByNameContainingIgnoreCase(query);
+        verify(textSearch, times(1)).categories(query, Pageable.unpaged());
         verify(categoryRepository, never()).findAll();
     }
 
@@ -421,7 +431,7 @@ class CategoryServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(categoryRepository, times(1)).findAll();
-        verify(categoryRepository, never()).findByNameContainingIgnoreCase(any());
+        verify(textSearch, never()).categories(any(), any());
     }
 
     @Test
@@ -439,7 +449,7 @@ class CategoryServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(categoryRepository, times(1)).findAll();
-        verify(categoryRepository, never()).findByNameContainingIgnoreCase(any());
+        verify(textSearch, never()).categories(any(), any());
     }
 
     @Test
@@ -457,6 +467,6 @@ class CategoryServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(categoryRepository, times(1)).findAll();
-        verify(categoryRepository, never()).findByNameContainingIgnoreCase(any());
+        verify(textSearch, never()).categories(any(), any());
     }
 }
\ No newline at end of file
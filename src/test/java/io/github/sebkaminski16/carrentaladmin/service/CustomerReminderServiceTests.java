@@ -0,0 +1,74 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.entity.Customer;
+import io.github.sebkaminski16.carrentaladmin.entity.CustomerReminder;
+import io.github.sebkaminski16.carrentaladmin.entity.ReminderType;
+import io.github.sebkaminski16.carrentaladmin.repository.CustomerReminderRepository;
+import io.github.sebkaminski16.carrentaladmin.repository.CustomerRepository;
+import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerReminderServiceTests {
+
+    @Mock
+    private CustomerReminderRepository customerReminderRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @InjectMocks
+    private CustomerReminderService customerReminderService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecordSentUpdatesExistingAndInsertsMissing() {
+        //given
+        LocalDateTime sentAt = LocalDateTime.of(2026, 3, 1, 8, 0);
+        Customer existingCustomer = TestDataFactory.customer("old@example.com");
+        existingCustomer.setId(1L);
+        Customer newCustomer = TestDataFactory.customer("new@example.com");
+        newCustomer.setId(2L);
+        CustomerReminder existing = CustomerReminder.builder()
+                .customer(existingCustomer)
+                .type(ReminderType.INACTIVE_CUSTOMER)
+                .lastSentAt(sentAt.minusDays(40))
+                .build();
+        when(customerReminderRepository.findByTypeAndCustomerIdIn(ReminderType.INACTIVE_CUSTOMER, List.of(1L, 2L)))
+                .thenReturn(List.of(existing));
+        when(customerRepository.getReferenceById(2L)).thenReturn(newCustomer);
+        //when
+        customerReminderService.recordSent(List.of(1L, 2L), ReminderType.INACTIVE_CUSTOMER, sentAt);
+        //then
+        ArgumentCaptor<List<CustomerReminder>> captor = ArgumentCaptor.forClass(List.class);
+        verify(customerReminderRepository).saveAll(captor.capture());
+        List<CustomerReminder> saved = captor.getValue();
+        assertEquals(2, saved.size());
+        assertSame(existing, saved.get(0));
+        assertEquals(sentAt, existing.getLastSentAt());
+        assertSame(newCustomer, saved.get(1).getCustomer());
+        assertEquals(ReminderType.INACTIVE_CUSTOMER, saved.get(1).getType());
+        assertEquals(sentAt, saved.get(1).getLastSentAt());
+        verify(customerRepository, never()).getReferenceById(1L);
+    }
+
+    @Test
+    void testRecordSentWithNoCustomersDoesNothing() {
+        //when
+        customerReminderService.recordSent(Collections.emptyList(), ReminderType.INACTIVE_CUSTOMER, LocalDateTime.now());
+        //then
+        verifyNoInteractions(customerReminderRepository, customerRepository);
+        verify(customerReminderRepository, never()).saveAll(any());
+    }
+}
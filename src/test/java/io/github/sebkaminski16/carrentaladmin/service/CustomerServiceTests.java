@@ -1,18 +1,29 @@
 package io.github.sebkaminski16.carrentaladmin.service;
 
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceData;
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceDataCache;
 import io.github.sebkaminski16.carrentaladmin.dto.CustomerDtos;
 import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.*;
+import io.github.sebkaminski16.carrentaladmin.event.SearchIndexChangedEvent;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.repository.CustomerRepository;
 import io.github.sebkaminski16.carrentaladmin.repository.RentalRepository;
+import io.github.sebkaminski16.carrentaladmin.search.CustomerIndex;
+import io.github.sebkaminski16.carrentaladmin.search.CustomerSearchIndex;
+import io.github.sebkaminski16.carrentaladmin.search.TextSearch;
 import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -29,12 +40,31 @@ class CustomerServiceTests {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @Mock
     private RentalRepository rentalRepository;
 
+    @Mock
+    private CustomerSearchIndex customerSearchIndex;
+
+    @Mock
+    private TextSearch textSearch;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CustomerService customerService;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(referenceDataCache.get()).thenReturn(ReferenceData.EMPTY);
+        ReflectionTestUtils.setField(customerService, "defaultSearchLimit", 50);
+        ReflectionTestUtils.setField(customerService, "maxSearchLimit", 500);
+    }
+
     @Test
     void testListReturnsAllCustomers() {
         //given
@@ -385,16 +415,14 @@ class CustomerServiceTests {
         customer1.setId(1L);
         customer1.setFirstName("John");
 
-        when(customerRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-                query, query, query)).thenReturn(Collections.singletonList(customer1));
+        when(textSearch.customers(query, Pageable.unpaged())).thenReturn(new PageImpl<>(Collections.singletonList(customer1)));
         //when
         List<CustomerDtos.CustomerDto> result = customerService.search(query);
         //then
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("John", result.getFirst().firstName());
-        verify(customerRepository, times(1))
-                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query, query);
+        verify(textSearch, times(1)).customers(query, Pageable.unpaged());
         verify(customerRepository, never()).findAll();
     }
 
@@ -405,16 +433,14 @@ class CustomerServiceTests {
         Customer customer1 = TestDataFactory.customer("john@example.com");
         customer1.setId(1L);
 
-        when(customerRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-                query, query, query)).thenReturn(Collections.singletonList(customer1));
+        when(textSearch.customers(query, Pageable.unpaged())).thenReturn(new PageImpl<>(Collections.singletonList(customer1)));
         //when
         List<CustomerDtos.CustomerDto> result = customerService.search(query);
         //then
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Doe", result.getFirst().lastName());
-        verify(customerRepository, times(1))
-                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query, query);
+        verify(textSearch, times(1)).customers(query, Pageable.unpaged());
         verify(customerRepository, never()).findAll();
     }
 
@@ -427,8 +453,7 @@ class CustomerServiceTests {
         Customer customer2 = TestDataFactory.customer("jane@example.com");
         customer2.setId(2L);
 
-        when(customerRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-                query, query, query)).thenReturn(Arrays.asList(customer1, customer2));
+        when(textSearch.customers(query, Pageable.unpaged())).thenReturn(new PageImpl<>(Arrays.asList(customer1, customer2)));
         //when
         List<CustomerDtos.CustomerDto> result = customerService.search(query);
         //then
@@ -436,8 +461,7 @@ class CustomerServiceTests {
         assertEquals(2, result.size());
         assertEquals("john@example.com", result.getFirst().email());
         assertEquals("jane@example.com", result.get(1).email());
-        verify(customerRepository, times(1))
-                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query, query);
+        verify(textSearch, times(1)).customers(query, Pageable.unpaged());
         verify(customerRepository, never()).findAll();
     }
 
@@ -445,15 +469,13 @@ class CustomerServiceTests {
     void testSearchReturnsEmptyListWhenNoMatches() {
         //given
         String query = "xyz";
-        when(customerRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-                query, query, query)).thenReturn(Collections.emptyList());
+        when(textSearch.customers(query, Pageable.unpaged())).thenReturn(new PageImpl<>(Collections.emptyList()));
         //when
         List<CustomerDtos.CustomerDto> result = customerService.search(query);
         //then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(customerRepository, times(1))
-                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query, query);
+        verify(textSearch, times(1)).customers(query, Pageable.unpaged());
         verify(customerRepository, never()).findAll();
     }
 
@@ -472,8 +494,7 @@ class CustomerServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(customerRepository, times(1)).findAll();
-        verify(customerRepository, never())
-                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(any(), any(), any());
+        verify(textSearch, never()).customers(any(), any());
     }
 
     @Test
@@ -491,8 +512,7 @@ class CustomerServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(customerRepository, times(1)).findAll();
-        verify(customerRepository, never())
-                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(any(), any(), any());
+        verify(textSearch, never()).customers(any(), any());
     }
 
     @Test
@@ -510,8 +530,67 @@ class CustomerServiceTests {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(customerRepository, times(1)).findAll();
-        verify(customerRepository, never())
-                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(any(), any(), any());
+        verify(textSearch, never()).customers(any(), any());
+    }
+
+    @Test
+    void testSearchRankedUsesIndexOrderAndScoresWhenReady() {
+        //given
+        Customer customer1 = TestDataFactory.customer("jan.kowalski@example.com");
+        customer1.setId(1L);
+        Customer customer2 = TestDataFactory.customer("anna.kowalska@example.com");
+        customer2.setId(2L);
+
+        when(customerSearchIndex.isReady()).thenReturn(true);
+        when(customerSearchIndex.search("kowal", 10)).thenReturn(List.of(
+                new CustomerIndex.Hit(2L, 0.9), new CustomerIndex.Hit(1L, 0.7), new CustomerIndex.Hit(3L, 0.5)));
+        when(customerRepository.findAllById(List.of(2L, 1L, 3L))).thenReturn(Arrays.asList(customer1, customer2));
+        //when
+        List<CustomerDtos.CustomerSearchHit> result = customerService.searchRanked("kowal", 10);
+        //then
+        assertEquals(2, result.size());
+        assertEquals("anna.kowalska@example.com", result.get(0).customer().email());
+        assertEquals(0.9, result.get(0).score());
+        assertEquals("jan.kowalski@example.com", result.get(1).customer().email());
+        verify(textSearch, never()).customers(any(), any());
+    }
+
+    @Test
+    void testSearchRankedCapsLimit() {
+        //given
+        when(customerSearchIndex.isReady()).thenReturn(true);
+        when(customerSearchIndex.search("kowal", 500)).thenReturn(List.of());
+        //when
+        List<CustomerDtos.CustomerSearchHit> result = customerService.searchRanked("kowal", 10_000);
+        //then
+        assertTrue(result.isEmpty());
+        verify(customerSearchIndex).search("kowal", 500);
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void testSearchRankedThrowsBadRequestForBlankQuery() {
+        //when&then
+        assertThrows(BadRequestException.class, () -> customerService.searchRanked(" ", 10));
+    }
+
+    @Test
+    void testCreateAndDeletePublishSearchIndexChangesForAfterCommit() {
+        //given
+        CustomerDtos.CustomerCreateRequest request = new CustomerDtos.CustomerCreateRequest(
+                "John", "Doe", "john@example.com", "123456789", "Street 1");
+        Customer saved = TestDataFactory.customer("john@example.com");
+        saved.setId(5L);
+        when(customerRepository.save(any(Customer.class))).thenReturn(saved);
+        when(customerRepository.existsById(5L)).thenReturn(true);
+        //when
+        customerService.create(request);
+        customerService.delete(5L);
+        //then
+        verify(eventPublisher).publishEvent(SearchIndexChangedEvent.saved(saved));
+        verify(eventPublisher).publishEvent(SearchIndexChangedEvent.deleted(Customer.class, 5L));
+        verify(customerSearchIndex, never()).put(any(Customer.class));
+        verify(customerSearchIndex, never()).remove(any());
     }
 
     @Test
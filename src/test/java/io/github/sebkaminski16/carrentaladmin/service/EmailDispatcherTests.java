@@ -0,0 +1,170 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.sebkaminski16.carrentaladmin.dto.EmailDtos;
+import io.github.sebkaminski16.carrentaladmin.integration.mailtrap.MailtrapClient;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.Bulkhead;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.CircuitBreaker;
+import io.github.sebkaminski16.carrentaladmin.integration.resilience.IntegrationGuard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//runs the real MailtrapClient against a local stub HTTP server
+class EmailDispatcherTests {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger failuresToInject = new AtomicInteger();
+
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/send/1", exchange -> {
+            requests.incrementAndGet();
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(20);
+                exchange.getRequestBody().readAllBytes();
+                boolean fail = failuresToInject.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0;
+                byte[] body = (fail ? "{\"success\":false}" : "{\"success\":true,\"message_ids\":[\"1\"]}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(fail ? 503 : 200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.start();
+
+        MailtrapClient mailtrapClient = new MailtrapClient();
+        ReflectionTestUtils.setField(mailtrapClient, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(mailtrapClient, "guard", new IntegrationGuard("mailtrap",
+                new CircuitBreaker(20, 10, 50, 10_000, 30_000, 3, System::currentTimeMillis),
+                new Bulkhead(10, 10, 500)));
+        ReflectionTestUtils.setField(mailtrapClient, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(mailtrapClient, "apiToken", "token");
+        ReflectionTestUtils.setField(mailtrapClient, "inboxId", 1L);
+
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "mailtrapClient", mailtrapClient);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "admin@carrental.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testDispatchSendsAllMessagesWithinConcurrencyLimit() {
+        //given
+        EmailDispatcher dispatcher = dispatcher(4, 1000, 3);
+        List<String> recipients = recipients(40);
+        //when
+        EmailDtos.EmailDispatchReport report = dispatcher.dispatch(recipients,
+                email -> emailService.sendTestEmail(email, "Hello", "Text"));
+        //then
+        assertEquals(40, report.total());
+        assertEquals(40, report.sent());
+        assertEquals(0, report.failed());
+        assertEquals(40, requests.get());
+        assertTrue(maxInFlight.get() <= 4, "max in flight was " + maxInFlight.get());
+        assertTrue(maxInFlight.get() > 1, "expected some parallelism");
+        assertTrue(report.messagesPerSecond() > 0);
+    }
+
+    @Test
+    void testDispatchRetriesOnExternalApiException() {
+        //given
+        failuresToInject.set(2);
+        EmailDispatcher dispatcher = dispatcher(1, 1000, 3);
+        //when
+        EmailDtos.EmailDispatchReport report = dispatcher.dispatch(recipients(3),
+                email -> emailService.sendTestEmail(email, "Hello", "Text"));
+        //then
+        assertEquals(3, report.sent());
+        assertEquals(2, report.retries());
+        assertEquals(5, requests.get());
+    }
+
+    @Test
+    void testDispatchGivesUpAfterMaxAttempts() {
+        //given
+        failuresToInject.set(100);
+        EmailDispatcher dispatcher = dispatcher(2, 1000, 2);
+        //when
+        EmailDtos.EmailDispatchReport report = dispatcher.dispatch(recipients(2),
+                email -> emailService.sendTestEmail(email, "Hello", "Text"));
+        //then
+        assertEquals(0, report.sent());
+        assertEquals(2, report.failed());
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    void testDispatchWithSingleAttemptDoesNotRetry() {
+        //given
+        failuresToInject.set(1);
+        EmailDispatcher dispatcher = dispatcher(1, 1000, 3);
+        //when
+        EmailDtos.EmailDispatchReport report = dispatcher.dispatch(recipients(2),
+                email -> emailService.sendTestEmail(email, "Hello", "Text"), 1);
+        //then
+        assertEquals(1, report.sent());
+        assertEquals(1, report.failed());
+        assertEquals(0, report.retries());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void testDispatchRespectsRateLimit() {
+        //given
+        EmailDispatcher dispatcher = dispatcher(8, 20, 1);
+        //when
+        EmailDtos.EmailDispatchReport report = dispatcher.dispatch(recipients(30),
+                email -> emailService.sendTestEmail(email, "Hello", "Text"));
+        //then
+        //20 tokens of burst, the remaining 10 need ~500 ms at 20/s
+        assertEquals(30, report.sent());
+        assertTrue(report.elapsedMillis() >= 400, "elapsed " + report.elapsedMillis());
+    }
+
+    private static EmailDispatcher dispatcher(int concurrency, double ratePerSecond, int maxAttempts) {
+        EmailDispatcher dispatcher = new EmailDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "concurrency", concurrency);
+        ReflectionTestUtils.setField(dispatcher, "ratePerSecond", ratePerSecond);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(dispatcher, "backoffMillis", 5L);
+        dispatcher.init();
+        return dispatcher;
+    }
+
+    private static List<String> recipients(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "user" + i + "@example.com").toList();
+    }
+}
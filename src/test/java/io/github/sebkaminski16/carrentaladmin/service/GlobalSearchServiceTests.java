@@ -0,0 +1,198 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.dto.AutocompleteDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.CarDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.CustomerDtos;
+import io.github.sebkaminski16.carrentaladmin.dto.SearchDtos;
+import io.github.sebkaminski16.carrentaladmin.entity.CarStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GlobalSearchServiceTests {
+
+    @Mock
+    private CarService carService;
+
+    @Mock
+    private CustomerService customerService;
+
+    @Mock
+    private RentalService rentalService;
+
+    @Mock
+    private AutocompleteService autocompleteService;
+
+    @InjectMocks
+    private GlobalSearchService globalSearchService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(globalSearchService, "deadlineMillis", 300L);
+        ReflectionTestUtils.setField(globalSearchService, "defaultLimit", 20);
+        ReflectionTestUtils.setField(globalSearchService, "maxLimit", 100);
+        ReflectionTestUtils.setField(globalSearchService, "maxDbSources", 4);
+        globalSearchService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        globalSearchService.shutdown();
+    }
+
+    @Test
+    void testSearchMergesAllSourcesByScore() {
+        //given
+        when(carService.search("toyota", 20)).thenReturn(List.of(car(1L, "WX12345", "VIN1")));
+        when(customerService.searchRanked("toyota", 20)).thenReturn(List.of(
+                new CustomerDtos.CustomerSearchHit(customer(5L, "Toyota", "Fan"), 0.9)));
+        when(rentalService.search("toyota", 20)).thenReturn(List.of());
+        when(autocompleteService.suggest("toyota", AutocompleteService.BRAND, 20)).thenReturn(List.of(
+                new AutocompleteDtos.Suggestion("brand", 2L, "Toyota", "Toyota")));
+        when(autocompleteService.suggest("toyota", AutocompleteService.MODEL, 20)).thenReturn(List.of(
+                new AutocompleteDtos.Suggestion("model", 3L, "Corolla", "Toyota Corolla")));
+        //when
+        SearchDtos.SearchResponse response = globalSearchService.search(" toyota ", null);
+        //then
+        assertFalse(response.partial());
+        assertEquals("toyota", response.query());
+        //brand equal (1.0), customer (0.9), model label starts with it (0.8), car plate/VIN don't match (0)
+        assertEquals(List.of("brand", "customer", "model", "car"),
+                response.hits().stream().map(SearchDtos.SearchHit::type).toList());
+        assertEquals("Toyota Corolla", response.hits().get(2).label());
+    }
+
+    @Test
+    void testSlowSourceIsCancelledAndReportedAsIncomplete() throws Exception {
+        //given
+        CountDownLatch interrupted = new CountDownLatch(1);
+        stubEmptySources();
+        when(rentalService.search(anyString(), anyInt())).thenAnswer(inv -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+            }
+            return List.of();
+        });
+        when(carService.search("wx1", 20)).thenReturn(List.of(car(1L, "WX12345", "VIN1")));
+        //when
+        long started = System.nanoTime();
+        SearchDtos.SearchResponse response = globalSearchService.search("wx1", null);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        //then
+        assertTrue(response.partial());
+        assertEquals(List.of("rental"), response.incompleteSources());
+        assertEquals(1, response.hits().size());
+        assertEquals(1L, response.hits().getFirst().id());
+        assertTrue(elapsedMillis < 2_000, "took " + elapsedMillis + " ms");
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFailingSourceIsReportedAsIncomplete() {
+        //given
+        stubEmptySources();
+        when(customerService.searchRanked(anyString(), anyInt())).thenThrow(new IllegalStateException("db down"));
+        //when
+        SearchDtos.SearchResponse response = globalSearchService.search("abc", 5);
+        //then
+        assertTrue(response.partial());
+        assertEquals(List.of("customer"), response.incompleteSources());
+        assertTrue(response.hits().isEmpty());
+    }
+
+    @Test
+    void testDbSourcesOverTheCapAreSkippedUntilPermitsAreReleased() throws Exception {
+        //given - car, customer and rental queries hang, so the first search keeps 3 of the 4 permits
+        CountDownLatch release = new CountDownLatch(1);
+        stubEmptySources();
+        when(carService.search(anyString(), anyInt())).thenAnswer(inv -> awaitUninterruptibly(release));
+        when(customerService.searchRanked("slow", 20)).thenAnswer(inv -> awaitUninterruptibly(release));
+        when(rentalService.search("slow", 20)).thenAnswer(inv -> awaitUninterruptibly(release));
+        SearchDtos.SearchResponse first = globalSearchService.search("slow", null);
+        //when - the second one's car query takes the last permit
+        SearchDtos.SearchResponse second = globalSearchService.search("next", null);
+        release.countDown();
+        //then
+        assertEquals(List.of("car", "customer", "rental"), first.incompleteSources());
+        assertEquals(List.of("customer", "rental", "car"), second.incompleteSources());
+        verify(customerService, never()).searchRanked(eq("next"), anyInt());
+        verify(rentalService, never()).search(eq("next"), anyInt());
+        verify(autocompleteService).suggest("next", AutocompleteService.BRAND, 20);
+        verify(autocompleteService).suggest("next", AutocompleteService.MODEL, 20);
+        //the cancelled queries give their permits back once they really end
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        SearchDtos.SearchResponse third;
+        do {
+            third = globalSearchService.search("again", null);
+        } while (third.partial() && System.nanoTime() < until);
+        assertFalse(third.partial());
+    }
+
+    @Test
+    void testLimitIsCappedAndBlankQueryReturnsNothing() {
+        //given
+        stubEmptySources();
+        //when
+        SearchDtos.SearchResponse blank = globalSearchService.search(" ", 10);
+        globalSearchService.search("abc", 1_000);
+        //then
+        assertTrue(blank.hits().isEmpty());
+        assertFalse(blank.partial());
+        verify(carService).search("abc", 100);
+        verify(carService, never()).search(eq(" "), anyInt());
+    }
+
+    //ignores the interrupt of a missed deadline, like a JDBC call that's already on the wire
+    private static List<?> awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return List.of();
+    }
+
+    private void stubEmptySources() {
+        lenient().when(carService.search(anyString(), anyInt())).thenReturn(List.of());
+        lenient().when(customerService.searchRanked(anyString(), anyInt())).thenReturn(List.of());
+        lenient().when(rentalService.search(anyString(), anyInt())).thenReturn(List.of());
+        lenient().when(autocompleteService.suggest(anyString(), anyString(), anyInt())).thenReturn(List.of());
+    }
+
+    private static CarDtos.CarDto car(Long id, String plate, String vin) {
+        return new CarDtos.CarDto(id, vin, plate, 2020, "red", CarStatus.AVAILABLE, 1L, "Corolla", 1L, "Toyota",
+                1L, "Economy", null, null, BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN, 1000);
+    }
+
+    private static CustomerDtos.CustomerDto customer(Long id, String firstName, String lastName) {
+        return new CustomerDtos.CustomerDto(id, firstName, lastName, "x@example.com", "600", null,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+}
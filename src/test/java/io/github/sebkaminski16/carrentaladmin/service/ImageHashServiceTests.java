@@ -0,0 +1,137 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.entity.ImageHash;
+import io.github.sebkaminski16.carrentaladmin.repository.ImageHashRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageHashServiceTests {
+
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Mock
+    private ImageHashRepository imageHashRepository;
+
+    @InjectMocks
+    private ImageHashService imageHashService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(imageHashService, "cacheSize", 2);
+    }
+
+    @Test
+    void testSha256OfStream() throws Exception {
+        //when
+        String hash = imageHashService.sha256(new ByteArrayResource("test".getBytes(StandardCharsets.UTF_8)));
+        //then
+        assertEquals(HASH, hash);
+    }
+
+    @Test
+    void testFindHitsDatabaseOnceThenCache() {
+        //given
+        ImageHash stored = imageHash(HASH, "https://i.ibb.co/abc/car.png");
+        when(imageHashRepository.findBySha256(HASH)).thenReturn(Optional.of(stored));
+        //when
+        ImageHashService.StoredImage first = imageHashService.find(HASH);
+        ImageHashService.StoredImage second = imageHashService.find(HASH);
+        //then
+        assertEquals(new ImageHashService.StoredImage("https://i.ibb.co/abc/car.png", "https://i.ibb.co/abc/car.png-thumb"), first);
+        assertEquals(first, second);
+        verify(imageHashRepository, times(1)).findBySha256(HASH);
+    }
+
+    @Test
+    void testFindWhenUnknownReturnsNullAndIsNotCached() {
+        //given
+        when(imageHashRepository.findBySha256("unknown")).thenReturn(Optional.empty());
+        //when
+        assertNull(imageHashService.find("unknown"));
+        assertNull(imageHashService.find("unknown"));
+        //then
+        verify(imageHashRepository, times(2)).findBySha256("unknown");
+    }
+
+    @Test
+    void testRememberStoresAndCaches() {
+        //given
+        ImageHashService.StoredImage image = stored("https://i.ibb.co/abc/car.png");
+        //when
+        ImageHashService.StoredImage result = imageHashService.remember(HASH, image, "imgbb", 4);
+        //then
+        assertEquals(image, result);
+        assertEquals(image, imageHashService.find(HASH));
+        verify(imageHashRepository).saveAndFlush(argThat(h -> h.getThumbnailUrl().equals("https://i.ibb.co/abc/car.png-thumb")));
+        verify(imageHashRepository, never()).findBySha256(any());
+    }
+
+    @Test
+    void testRememberWhenConcurrentUploadWonReturnsItsUrls() {
+        //given
+        ImageHash winner = imageHash(HASH, "https://i.ibb.co/first/car.png");
+        when(imageHashRepository.saveAndFlush(any(ImageHash.class))).thenThrow(new DataIntegrityViolationException("uk_image_hash_sha256"));
+        when(imageHashRepository.findBySha256(HASH)).thenReturn(Optional.of(winner));
+        //when
+        ImageHashService.StoredImage result = imageHashService.remember(HASH, stored("https://i.ibb.co/second/car.png"), "imgbb", 4);
+        //then
+        assertEquals(stored("https://i.ibb.co/first/car.png"), result);
+    }
+
+    @Test
+    void testRememberReplacesRowStoredWithoutThumbnail() {
+        //given
+        ImageHash legacy = imageHash(HASH, "https://i.ibb.co/old/car.png");
+        legacy.setThumbnailUrl(null);
+        when(imageHashRepository.saveAndFlush(any(ImageHash.class))).thenThrow(new DataIntegrityViolationException("uk_image_hash_sha256"));
+        when(imageHashRepository.findBySha256(HASH)).thenReturn(Optional.of(legacy));
+        //when
+        ImageHashService.StoredImage result = imageHashService.remember(HASH, stored("https://i.ibb.co/new/car.png"), "imgbb", 4);
+        //then
+        assertEquals(stored("https://i.ibb.co/new/car.png"), result);
+        assertEquals("https://i.ibb.co/new/car.png-thumb", legacy.getThumbnailUrl());
+        assertEquals("https://i.ibb.co/new/car.png", legacy.getUrl());
+        verify(imageHashRepository, times(1)).save(legacy);
+        assertEquals(result, imageHashService.find(HASH));
+    }
+
+    @Test
+    void testCacheEvictsLeastRecentlyUsed() {
+        //given
+        imageHashService.remember("a", stored("url-a"), "imgbb", 1);
+        imageHashService.remember("b", stored("url-b"), "imgbb", 1);
+        imageHashService.find("a");
+        //when
+        imageHashService.remember("c", stored("url-c"), "imgbb", 1);
+        when(imageHashRepository.findBySha256("b")).thenReturn(Optional.empty());
+        //then
+        assertEquals(stored("url-a"), imageHashService.find("a"));
+        assertEquals(stored("url-c"), imageHashService.find("c"));
+        assertNull(imageHashService.find("b"));
+        verify(imageHashRepository, times(1)).findBySha256("b");
+        verify(imageHashRepository, never()).findBySha256("a");
+    }
+
+    private static ImageHashService.StoredImage stored(String url) {
+        return new ImageHashService.StoredImage(url, url + "-thumb");
+    }
+
+    private static ImageHash imageHash(String sha256, String url) {
+        return ImageHash.builder().sha256(sha256).url(url).thumbnailUrl(url + "-thumb").provider("imgbb").sizeBytes(4L).build();
+    }
+}
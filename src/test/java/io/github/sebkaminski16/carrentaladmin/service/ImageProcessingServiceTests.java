@@ -0,0 +1,179 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
+import io.github.sebkaminski16.carrentaladmin.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageProcessingServiceTests {
+
+    private ImageProcessingService imageProcessingService;
+
+    @BeforeEach
+    void setUp() {
+        imageProcessingService = new ImageProcessingService();
+        ReflectionTestUtils.setField(imageProcessingService, "maxDimension", 1920);
+        ReflectionTestUtils.setField(imageProcessingService, "thumbnailDimension", 320);
+        ReflectionTestUtils.setField(imageProcessingService, "jpegQuality", 0.85f);
+        ReflectionTestUtils.setField(imageProcessingService, "maxPixels", 60_000_000L);
+        ReflectionTestUtils.setField(imageProcessingService, "workers", 1);
+        ReflectionTestUtils.setField(imageProcessingService, "queueCapacity", 1);
+        imageProcessingService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageProcessingService.shutdown();
+    }
+
+    @Test
+    void testLargeJpegIsDownscaledAndGetsThumbnail() throws IOException {
+        //given
+        byte[] original = encode(image(4000, 3000, false), "jpg");
+        //when
+        try (ImageProcessingService.ProcessedImage processed = imageProcessingService.process(new ByteArrayResource(original))) {
+            //then
+            BufferedImage full = ImageIO.read(processed.full().toFile());
+            BufferedImage thumbnail = ImageIO.read(processed.thumbnail().toFile());
+            assertEquals(1920, full.getWidth());
+            assertEquals(1440, full.getHeight());
+            assertEquals(320, thumbnail.getWidth());
+            assertEquals(240, thumbnail.getHeight());
+            assertEquals(1920, processed.width());
+            assertTrue(processed.full().toString().endsWith(".jpg"));
+            assertTrue(Files.size(processed.full()) < original.length);
+            assertTrue(Files.size(processed.thumbnail()) < 64 * 1024, "thumbnail is " + Files.size(processed.thumbnail()) + " bytes");
+        }
+    }
+
+    @Test
+    void testPortraitImageIsBoundedByItsHeight() throws IOException {
+        //given
+        byte[] original = encode(image(1000, 4000, false), "png");
+        //when
+        try (ImageProcessingService.ProcessedImage processed = imageProcessingService.process(new ByteArrayResource(original))) {
+            //then
+            BufferedImage full = ImageIO.read(processed.full().toFile());
+            assertEquals(480, full.getWidth());
+            assertEquals(1920, full.getHeight());
+            BufferedImage thumbnail = ImageIO.read(processed.thumbnail().toFile());
+            assertEquals(80, thumbnail.getWidth());
+            assertEquals(320, thumbnail.getHeight());
+        }
+    }
+
+    @Test
+    void testSmallTransparentPngKeepsSizeAndAlpha() throws IOException {
+        //given
+        byte[] original = encode(image(800, 600, true), "png");
+        //when
+        try (ImageProcessingService.ProcessedImage processed = imageProcessingService.process(new ByteArrayResource(original))) {
+            //then
+            BufferedImage full = ImageIO.read(processed.full().toFile());
+            assertEquals(800, full.getWidth());
+            assertEquals(600, full.getHeight());
+            assertTrue(full.getColorModel().hasAlpha());
+            assertTrue(processed.full().toString().endsWith(".png"));
+            assertEquals(320, ImageIO.read(processed.thumbnail().toFile()).getWidth());
+        }
+    }
+
+    @Test
+    void testCloseDeletesTempFiles() throws IOException {
+        //given
+        ImageProcessingService.ProcessedImage processed = imageProcessingService.process(new ByteArrayResource(encode(image(100, 100, false), "jpg")));
+        //when
+        processed.close();
+        //then
+        assertFalse(Files.exists(processed.full()));
+        assertFalse(Files.exists(processed.thumbnail()));
+    }
+
+    @Test
+    void testNonImageThrowsBadRequest() {
+        //when / then
+        assertThrows(BadRequestException.class,
+                () -> imageProcessingService.process(new ByteArrayResource("definitely not an image".getBytes())));
+    }
+
+    @Test
+    void testTooManyPixelsIsRejectedBeforeDecoding() throws IOException {
+        //given
+        ReflectionTestUtils.setField(imageProcessingService, "maxPixels", 1_000_000L);
+        byte[] original = encode(image(2000, 1000, false), "png");
+        //when / then
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> imageProcessingService.process(new ByteArrayResource(original)));
+        assertTrue(ex.getMessage().contains("2000x1000"));
+    }
+
+    @Test
+    void testWhenPoolIsFullThrowsServiceBusy() throws Exception {
+        //given - one image being processed, one queued
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        byte[] small = encode(image(10, 10, false), "png");
+        InputStreamSource blocking = () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return new ByteArrayInputStream(small);
+        };
+        CompletableFuture<ImageProcessingService.ProcessedImage> first = CompletableFuture.supplyAsync(() -> imageProcessingService.process(blocking));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ImageProcessingService.ProcessedImage> second = CompletableFuture.supplyAsync(() -> imageProcessingService.process(new ByteArrayResource(small)));
+        waitForQueuedTask();
+        //when / then
+        assertThrows(ServiceBusyException.class, () -> imageProcessingService.process(new ByteArrayResource(small)));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS).close();
+        second.get(5, TimeUnit.SECONDS).close();
+    }
+
+    private void waitForQueuedTask() throws InterruptedException {
+        ThreadPoolExecutor executor =
+                (ThreadPoolExecutor) ReflectionTestUtils.getField(imageProcessingService, "executor");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getQueue().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static BufferedImage image(int width, int height, boolean alpha) {
+        BufferedImage image = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(20, 60, 200, alpha ? 128 : 255), width, height, new Color(240, 200, 40, 255)));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
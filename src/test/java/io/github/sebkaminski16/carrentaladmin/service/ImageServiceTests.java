@@ -0,0 +1,135 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.dto.ImageDtos;
+import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
+import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
+import io.github.sebkaminski16.carrentaladmin.storage.ImageStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageServiceTests {
+
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Mock
+    private ImageStore imageStore;
+
+    @Mock
+    private ImageHashService imageHashService;
+
+    @Mock
+    private ImageProcessingService imageProcessingService;
+
+    @InjectMocks
+    private ImageService imageService;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testUploadCarImageWhenContentKnownSkipsProcessingAndImgbb() throws Exception {
+        //given
+        MockMultipartFile file = new MockMultipartFile("file", "car.jpg", "image/jpeg", "test".getBytes());
+        when(imageHashService.sha256(file)).thenReturn(HASH);
+        when(imageHashService.find(HASH)).thenReturn(new ImageHashService.StoredImage("https://i.ibb.co/abc/car.jpg", "https://i.ibb.co/abc/thumb.jpg"));
+        when(imageStore.provider()).thenReturn("imgbb");
+        //when
+        ImageDtos.ImageUploadResponse response = imageService.uploadCarImage(file);
+        //then
+        assertEquals("https://i.ibb.co/abc/car.jpg", response.url());
+        assertEquals("https://i.ibb.co/abc/thumb.jpg", response.thumbnailUrl());
+        assertEquals("imgbb", response.provider());
+        verifyNoInteractions(imageProcessingService);
+        verify(imageStore, never()).store(any());
+        verify(imageHashService, never()).remember(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void testUploadCarImageWhenContentNewUploadsOnlyProcessedVariants() throws Exception {
+        //given
+        MockMultipartFile file = new MockMultipartFile("file", "car.jpg", "image/jpeg", "original-12MB".getBytes());
+        Path full = Files.write(tempDir.resolve("full.jpg"), "full".getBytes());
+        Path thumbnail = Files.write(tempDir.resolve("thumb.jpg"), "th".getBytes());
+        ImageHashService.StoredImage stored = new ImageHashService.StoredImage("https://i.ibb.co/new/car.jpg", "https://i.ibb.co/new/thumb.jpg");
+        when(imageHashService.sha256(file)).thenReturn(HASH);
+        when(imageHashService.find(HASH)).thenReturn(null);
+        when(imageProcessingService.process(file)).thenReturn(new ImageProcessingService.ProcessedImage(full, thumbnail, 1920, 1080));
+        when(imageStore.store(full)).thenReturn("https://i.ibb.co/new/car.jpg");
+        when(imageStore.store(thumbnail)).thenReturn("https://i.ibb.co/new/thumb.jpg");
+        when(imageStore.provider()).thenReturn("imgbb");
+        when(imageHashService.remember(HASH, stored, "imgbb", 13L)).thenReturn(stored);
+        //when
+        ImageDtos.ImageUploadResponse response = imageService.uploadCarImage(file);
+        //then
+        assertEquals("https://i.ibb.co/new/car.jpg", response.url());
+        assertEquals("https://i.ibb.co/new/thumb.jpg", response.thumbnailUrl());
+        verify(imageStore, times(2)).store(any());
+        verify(imageHashService, times(1)).remember(HASH, stored, "imgbb", 13L);
+        //processed temp files are cleaned up
+        assertFalse(Files.exists(full));
+        assertFalse(Files.exists(thumbnail));
+    }
+
+    @Test
+    void testUploadCarImageWhenKnownContentHasNoThumbnailProcessesItAgain() throws Exception {
+        //given
+        MockMultipartFile file = new MockMultipartFile("file", "car.jpg", "image/jpeg", "original".getBytes());
+        Path full = Files.write(tempDir.resolve("full.jpg"), "full".getBytes());
+        Path thumbnail = Files.write(tempDir.resolve("thumb.jpg"), "th".getBytes());
+        ImageHashService.StoredImage upgraded = new ImageHashService.StoredImage("https://i.ibb.co/new/car.jpg", "https://i.ibb.co/new/thumb.jpg");
+        when(imageHashService.sha256(file)).thenReturn(HASH);
+        when(imageHashService.find(HASH)).thenReturn(new ImageHashService.StoredImage("https://i.ibb.co/old/car.jpg", null));
+        when(imageProcessingService.process(file)).thenReturn(new ImageProcessingService.ProcessedImage(full, thumbnail, 1920, 1080));
+        when(imageStore.store(full)).thenReturn("https://i.ibb.co/new/car.jpg");
+        when(imageStore.store(thumbnail)).thenReturn("https://i.ibb.co/new/thumb.jpg");
+        when(imageStore.provider()).thenReturn("imgbb");
+        when(imageHashService.remember(HASH, upgraded, "imgbb", 8L)).thenReturn(upgraded);
+        //when
+        ImageDtos.ImageUploadResponse response = imageService.uploadCarImage(file);
+        //then
+        assertEquals("https://i.ibb.co/new/thumb.jpg", response.thumbnailUrl());
+        verify(imageHashService, times(1)).remember(HASH, upgraded, "imgbb", 8L);
+    }
+
+    @Test
+    void testUploadCarImageWhenEmptyThrowsBadRequest() {
+        //given
+        MockMultipartFile file = new MockMultipartFile("file", "car.jpg", "image/jpeg", new byte[0]);
+        //when / then
+        assertThrows(BadRequestException.class, () -> imageService.uploadCarImage(file));
+        verifyNoInteractions(imageStore, imageHashService, imageProcessingService);
+    }
+
+    @Test
+    void testLoadImageReturnsStoredFile() {
+        //given
+        ByteArrayResource resource = new ByteArrayResource("jpeg".getBytes());
+        when(imageStore.load(HASH)).thenReturn(Optional.of(resource));
+        //when & then
+        assertSame(resource, imageService.loadImage(HASH));
+    }
+
+    @Test
+    void testLoadImageWhenMissingThrowsNotFound() {
+        //given
+        when(imageStore.load(HASH)).thenReturn(Optional.empty());
+        //when & then
+        assertThrows(NotFoundException.class, () -> imageService.loadImage(HASH));
+    }
+}
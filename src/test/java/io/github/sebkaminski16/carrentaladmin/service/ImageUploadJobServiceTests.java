@@ -0,0 +1,215 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.dto.ImageDtos;
+import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
+import io.github.sebkaminski16.carrentaladmin.exception.ExternalApiException;
+import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
+import io.github.sebkaminski16.carrentaladmin.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageUploadJobServiceTests {
+
+    @Mock
+    private ImageService imageService;
+
+    @InjectMocks
+    private ImageUploadJobService imageUploadJobService;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(imageUploadJobService, "workers", 1);
+        ReflectionTestUtils.setField(imageUploadJobService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(imageUploadJobService, "maxJobs", 10);
+        ReflectionTestUtils.setField(imageUploadJobService, "jobTtlSeconds", 3600L);
+        imageUploadJobService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        imageUploadJobService.shutdown();
+    }
+
+    @Test
+    void testSubmitReturnsPendingJobAndUploadsInTheBackground() throws Exception {
+        //given
+        when(imageService.upload(any(InputStreamSource.class), eq(4L))).thenAnswer(inv -> {
+            InputStreamSource source = inv.getArgument(0);
+            try (InputStream in = source.getInputStream()) {
+                assertArrayEquals("jpeg".getBytes(), in.readAllBytes());
+            }
+            release.await(5, TimeUnit.SECONDS);
+            return uploaded();
+        });
+        //when
+        ImageDtos.ImageUploadJobResponse submitted = imageUploadJobService.submit(file("jpeg"));
+        //then
+        assertNotNull(submitted.id());
+        assertNull(submitted.url());
+        assertNotEquals("SUCCEEDED", imageUploadJobService.get(submitted.id()).status());
+
+        release.countDown();
+        ImageDtos.ImageUploadJobResponse done = awaitFinished(submitted.id());
+        assertEquals("SUCCEEDED", done.status());
+        assertEquals("https://i.ibb.co/abc/car.png", done.url());
+        assertEquals("https://i.ibb.co/abc/car-thumb.png", done.thumbnailUrl());
+        assertEquals("imgbb", done.provider());
+        assertNull(done.error());
+        assertNotNull(done.finishedAt());
+    }
+
+    @Test
+    void testFailedUploadIsReportedOnTheJob() throws Exception {
+        //given
+        when(imageService.upload(any(InputStreamSource.class), anyLong())).thenThrow(new ExternalApiException("imgbb is temporarily unavailable"));
+        //when
+        ImageDtos.ImageUploadJobResponse submitted = imageUploadJobService.submit(file("jpeg"));
+        ImageDtos.ImageUploadJobResponse done = awaitFinished(submitted.id());
+        //then
+        assertEquals("FAILED", done.status());
+        assertEquals("imgbb is temporarily unavailable", done.error());
+        assertNull(done.url());
+    }
+
+    @Test
+    void testSubmitWhenQueueIsFullThrowsServiceBusy() throws Exception {
+        //given - one upload running, one queued
+        CountDownLatch started = new CountDownLatch(1);
+        when(imageService.upload(any(InputStreamSource.class), anyLong())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return uploaded();
+        });
+        imageUploadJobService.submit(file("one"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        imageUploadJobService.submit(file("two"));
+        //when / then
+        assertThrows(ServiceBusyException.class, () -> imageUploadJobService.submit(file("three")));
+        assertEquals(2, imageUploadJobService.jobCount());
+    }
+
+    @Test
+    void testSubmitWithEmptyFileThrowsBadRequest() {
+        //when / then
+        assertThrows(BadRequestException.class, () -> imageUploadJobService.submit(file("")));
+        verifyNoInteractions(imageService);
+    }
+
+    @Test
+    void testSubmitDeletesTempCopyWhenFileCannotBeStored() throws Exception {
+        //given
+        MultipartFile file = mock(MultipartFile.class);
+        AtomicReference<Path> copy = new AtomicReference<>();
+        doAnswer(inv -> {
+            copy.set(inv.getArgument(0));
+            throw new IOException("Disk full");
+        }).when(file).transferTo(any(Path.class));
+        //when
+        assertThrows(UncheckedIOException.class, () -> imageUploadJobService.submit(file));
+        //then
+        assertNotNull(copy.get());
+        assertFalse(Files.exists(copy.get()));
+        assertEquals(0, imageUploadJobService.jobCount());
+        verifyNoInteractions(imageService);
+    }
+
+    @Test
+    void testGetUnknownJobThrowsNotFound() {
+        //when / then
+        assertThrows(NotFoundException.class, () -> imageUploadJobService.get("missing"));
+    }
+
+    @Test
+    void testFinishedJobsExpireAfterTtl() throws Exception {
+        //given
+        ReflectionTestUtils.setField(imageUploadJobService, "jobTtlSeconds", 0L);
+        when(imageService.upload(any(InputStreamSource.class), anyLong())).thenReturn(uploaded());
+        ImageDtos.ImageUploadJobResponse submitted = imageUploadJobService.submit(file("jpeg"));
+        awaitStored(submitted.id());
+        //when
+        imageUploadJobService.evictExpired();
+        //then
+        assertEquals(0, imageUploadJobService.jobCount());
+        assertThrows(NotFoundException.class, () -> imageUploadJobService.get(submitted.id()));
+    }
+
+    @Test
+    void testStoreIsBoundedByDroppingOldestFinishedJobs() throws Exception {
+        //given
+        ReflectionTestUtils.setField(imageUploadJobService, "maxJobs", 2);
+        when(imageService.upload(any(InputStreamSource.class), anyLong())).thenReturn(uploaded());
+        String first = imageUploadJobService.submit(file("1")).id();
+        awaitFinished(first);
+        String second = imageUploadJobService.submit(file("2")).id();
+        awaitFinished(second);
+        //when
+        String third = imageUploadJobService.submit(file("3")).id();
+        //then
+        assertEquals(2, imageUploadJobService.jobCount());
+        assertThrows(NotFoundException.class, () -> imageUploadJobService.get(first));
+        assertEquals("SUCCEEDED", imageUploadJobService.get(second).status());
+        assertNotNull(imageUploadJobService.get(third));
+    }
+
+    private static ImageDtos.ImageUploadResponse uploaded() {
+        return new ImageDtos.ImageUploadResponse("https://i.ibb.co/abc/car.png", "https://i.ibb.co/abc/car-thumb.png", "imgbb");
+    }
+
+    private static MockMultipartFile file(String content) {
+        return new MockMultipartFile("file", "car.jpg", "image/jpeg", content.getBytes());
+    }
+
+    private ImageDtos.ImageUploadJobResponse awaitFinished(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            ImageDtos.ImageUploadJobResponse job = imageUploadJobService.get(id);
+            if (job.finishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("job " + id + " did not finish");
+    }
+
+    //with a zero TTL get() already treats the finished job as gone, so only wait for the worker
+    private void awaitStored(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                imageUploadJobService.get(id);
+            } catch (NotFoundException ex) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("job " + id + " did not finish");
+    }
+}
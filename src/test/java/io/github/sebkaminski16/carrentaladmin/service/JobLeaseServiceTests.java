@@ -0,0 +1,158 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.entity.JobLease;
+import io.github.sebkaminski16.carrentaladmin.repository.JobLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobLeaseServiceTests {
+
+    @Mock
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private JobLeaseService jobLeaseService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(jobLeaseService, "durationSeconds", 60L);
+        ReflectionTestUtils.setField(jobLeaseService, "heartbeatSeconds", 20L);
+        ReflectionTestUtils.setField(jobLeaseService, "holdAfterCompletionSeconds", 3600L);
+        ReflectionTestUtils.setField(jobLeaseService, "owner", "node-a");
+        jobLeaseService.init();
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobLeaseService.shutdown();
+    }
+
+    @Test
+    void testRunExclusivelyRunsAndHoldsLeaseAfterCompletion() {
+        //given
+        when(jobLeaseRepository.tryAcquire(eq("job"), eq("node-a"), any(), any())).thenReturn(1);
+        AtomicBoolean ran = new AtomicBoolean();
+        //when
+        LocalDateTime before = LocalDateTime.now();
+        boolean result = jobLeaseService.runExclusively("job", () -> ran.set(true));
+        //then
+        assertTrue(result);
+        assertTrue(ran.get());
+        verify(jobLeaseRepository).extend(eq("job"), eq("node-a"), any(),
+                argThat((LocalDateTime until) -> until.isAfter(before.plusSeconds(3500))));
+    }
+
+    @Test
+    void testRunExclusivelySkipsWhenLeaseHeldElsewhere() {
+        //given
+        when(jobLeaseRepository.tryAcquire(eq("job"), eq("node-a"), any(), any())).thenReturn(0);
+        when(jobLeaseRepository.existsByName("job")).thenReturn(true);
+        AtomicBoolean ran = new AtomicBoolean();
+        //when
+        boolean result = jobLeaseService.runExclusively("job", () -> ran.set(true));
+        //then
+        assertFalse(result);
+        assertFalse(ran.get());
+        verify(jobLeaseRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testRunExclusivelyCreatesLeaseOnFirstRun() {
+        //given
+        when(jobLeaseRepository.tryAcquire(eq("job"), eq("node-a"), any(), any())).thenReturn(0);
+        when(jobLeaseRepository.existsByName("job")).thenReturn(false);
+        AtomicBoolean ran = new AtomicBoolean();
+        //when
+        boolean result = jobLeaseService.runExclusively("job", () -> ran.set(true));
+        //then
+        assertTrue(result);
+        assertTrue(ran.get());
+        verify(jobLeaseRepository).saveAndFlush(argThat((JobLease l) -> l.getName().equals("job") && l.getOwner().equals("node-a")));
+    }
+
+    @Test
+    void testRunExclusivelyLosesInsertRace() {
+        //given
+        when(jobLeaseRepository.tryAcquire(eq("job"), eq("node-a"), any(), any())).thenReturn(0);
+        when(jobLeaseRepository.existsByName("job")).thenReturn(false);
+        when(jobLeaseRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        //when
+        boolean result = jobLeaseService.runExclusively("job", () -> fail("must not run"));
+        //then
+        assertFalse(result);
+    }
+
+    @Test
+    void testRunExclusivelyReleasesLeaseWhenJobFails() {
+        //given
+        when(jobLeaseRepository.tryAcquire(eq("job"), eq("node-a"), any(), any())).thenReturn(1);
+        //when
+        LocalDateTime before = LocalDateTime.now();
+        assertThrows(IllegalStateException.class,
+                () -> jobLeaseService.runExclusively("job", () -> { throw new IllegalStateException("boom"); }));
+        //then
+        verify(jobLeaseRepository).extend(eq("job"), eq("node-a"), any(),
+                argThat((LocalDateTime until) -> until.isBefore(before.plusSeconds(5))));
+    }
+
+    @Test
+    void testRunPartitionedRunsOnlyClaimedPartitions() {
+        //given
+        when(jobLeaseRepository.tryAcquire(any(), eq("node-a"), any(), any()))
+                .thenAnswer(inv -> inv.getArgument(0).equals("job#1") ? 0 : 1);
+        when(jobLeaseRepository.existsByName("job#1")).thenReturn(true);
+        List<Integer> ran = new ArrayList<>();
+        //when
+        int count = jobLeaseService.runPartitioned("job", 3, ran::add);
+        //then
+        assertEquals(2, count);
+        assertEquals(2, ran.size());
+        assertTrue(ran.containsAll(List.of(0, 2)));
+    }
+
+    @Test
+    void testHeartbeatExtendsLeaseWhileJobRuns() throws Exception {
+        //given
+        ReflectionTestUtils.setField(jobLeaseService, "heartbeatSeconds", 1L);
+        when(jobLeaseRepository.tryAcquire(eq("job"), eq("node-a"), any(), any())).thenReturn(1);
+        lenient().when(jobLeaseRepository.extend(any(), any(), any(), any())).thenReturn(1);
+        //when
+        jobLeaseService.runExclusively("job", () -> {
+            try {
+                Thread.sleep(1500);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        //then
+        //one heartbeat plus the final hold
+        verify(jobLeaseRepository, atLeast(2)).extend(eq("job"), eq("node-a"), any(), any());
+    }
+}
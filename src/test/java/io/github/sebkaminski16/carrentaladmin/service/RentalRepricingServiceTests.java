@@ -0,0 +1,134 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
+import io.github.sebkaminski16.carrentaladmin.entity.*;
+import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
+import io.github.sebkaminski16.carrentaladmin.repository.RentalRepository;
+import io.github.sebkaminski16.carrentaladmin.strategy.PricingResult;
+import io.github.sebkaminski16.carrentaladmin.strategy.PricingStrategy;
+import io.github.sebkaminski16.carrentaladmin.strategy.PricingStrategyFactory;
+import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RentalRepricingServiceTests {
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private PricingStrategyFactory pricingStrategyFactory;
+
+    @Mock
+    private PricingStrategy pricingStrategy;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private RentalRepricingService rentalRepricingService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rentalRepricingService, "chunkSize", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRepriceActivePagesThroughChunksAndBatchUpdatesChangedRentals() {
+        //given
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+
+        Rental rental1 = rental(1L, new BigDecimal("100.00"));
+        Rental rental2 = rental(2L, new BigDecimal("150.00"));
+        Rental rental3 = rental(3L, new BigDecimal("200.00"));
+
+        when(rentalRepository.findChunkForRepricing(eq(RentalStatus.ACTIVE), eq(0L), eq(null), eq(null), any(Pageable.class)))
+                .thenReturn(List.of(rental1, rental2));
+        when(rentalRepository.findChunkForRepricing(eq(RentalStatus.ACTIVE), eq(2L), eq(null), eq(null), any(Pageable.class)))
+                .thenReturn(List.of(rental3));
+        when(pricingStrategyFactory.get(RateType.DAILY)).thenReturn(pricingStrategy);
+        when(pricingStrategy.calculate(any(), any(), any(), any()))
+                .thenReturn(new PricingResult(new BigDecimal("150.00"), BigDecimal.ZERO));
+        //when
+        RentalDtos.RentalRepriceResponse result = rentalRepricingService.repriceActive(null, null);
+        //then
+        assertEquals(3, result.scanned());
+        assertEquals(2, result.repriced());
+        assertEquals(0, new BigDecimal("0.00").compareTo(result.totalDelta()));
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), captor.capture());
+        List<Object[]> firstBatch = captor.getAllValues().getFirst();
+        assertEquals(1, firstBatch.size());
+        assertEquals(new BigDecimal("150.00"), firstBatch.getFirst()[0]);
+        assertEquals(1L, firstBatch.getFirst()[3]);
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRepriceActiveWhenNothingChangedSkipsBatchUpdate() {
+        //given
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+        when(rentalRepository.findChunkForRepricing(eq(RentalStatus.ACTIVE), eq(0L), eq(5L), eq(null), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        //when
+        RentalDtos.RentalRepriceResponse result = rentalRepricingService.repriceActive(5L, null);
+        //then
+        assertEquals(0, result.scanned());
+        assertEquals(0, result.repriced());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void testRepriceActiveWithInvalidChunkSizeThrowsBadRequest() {
+        //given
+        ReflectionTestUtils.setField(rentalRepricingService, "chunkSize", 0);
+        //when&then
+        assertThrows(BadRequestException.class, () -> rentalRepricingService.repriceActive(null, null));
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    private Rental rental(Long id, BigDecimal basePrice) {
+        Brand brand = TestDataFactory.brand("Toyota");
+        CarModel model = TestDataFactory.model("Corolla", brand);
+        Category category = TestDataFactory.category("Economy", BigDecimal.valueOf(5.0), BigDecimal.valueOf(15.0));
+        Car car = TestDataFactory.car("VIN" + id, "PLATE" + id, model, category,
+                BigDecimal.valueOf(10.0), BigDecimal.valueOf(50.0), BigDecimal.valueOf(300.0));
+        car.setId(id);
+        Rental rental = TestDataFactory.rental(TestDataFactory.customer("c" + id + "@example.com"), car,
+                LocalDateTime.of(2026, 1, 1, 10, 0), LocalDateTime.of(2026, 1, 4, 10, 0),
+                RateType.DAILY, RentalStatus.ACTIVE);
+        rental.setId(id);
+        rental.setBasePrice(basePrice);
+        return rental;
+    }
+}
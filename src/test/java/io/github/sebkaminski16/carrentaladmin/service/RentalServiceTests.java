@@ -1,11 +1,18 @@
 package io.github.sebkaminski16.carrentaladmin.service;
 
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceData;
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceDataCache;
 import io.github.sebkaminski16.carrentaladmin.dto.RentalDtos;
 import io.github.sebkaminski16.carrentaladmin.entity.*;
+import io.github.sebkaminski16.carrentaladmin.event.RentalChangedEvent;
 import io.github.sebkaminski16.carrentaladmin.exception.BadRequestException;
 import io.github.sebkaminski16.carrentaladmin.exception.NotFoundException;
 import io.github.sebkaminski16.carrentaladmin.repository.CarRepository;
 import io.github.sebkaminski16.carrentaladmin.repository.RentalRepository;
+import io.github.sebkaminski16.carrentaladmin.search.CarSearchIndex;
+import io.github.sebkaminski16.carrentaladmin.search.CustomerIndex;
+import io.github.sebkaminski16.carrentaladmin.search.CustomerSearchIndex;
+import io.github.sebkaminski16.carrentaladmin.search.TextSearch;
 import io.github.sebkaminski16.carrentaladmin.strategy.PricingResult;
 import io.github.sebkaminski16.carrentaladmin.strategy.PricingStrategy;
 import io.github.sebkaminski16.carrentaladmin.strategy.PricingStrategyFactory;
@@ -16,6 +23,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
@@ -24,6 +35,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -42,6 +54,9 @@ class RentalServiceTests {
     @Mock
     private RentalRepository rentalRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @Mock
     private CarRepository carRepository;
 
@@ -51,11 +66,24 @@ class RentalServiceTests {
     @Mock
     private PricingStrategy pricingStrategy;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CarSearchIndex carSearchIndex;
+
+    @Mock
+    private CustomerSearchIndex customerSearchIndex;
+
+    @Mock
+    private TextSearch textSearch;
+
     @InjectMocks
     private RentalService rentalService;
 
     @BeforeEach
     void setUp() {
+        lenient().when(referenceDataCache.get()).thenReturn(ReferenceData.EMPTY);
         ReflectionTestUtils.setField(rentalService, "LATE_FEE_HOURLY_PERCENT", new BigDecimal("50"));
     }
 
@@ -94,6 +122,98 @@ class RentalServiceTests {
         verify(rentalRepository, times(1)).findAll();
     }
 
+    @Test
+    void testSearchMergesIdCarAndCustomerMatchesByScore() {
+        //given
+        Customer kowalski = TestDataFactory.customer("jan@example.com");
+        kowalski.setId(7L);
+        Brand toyota = TestDataFactory.brand("Toyota");
+        CarModel corolla = TestDataFactory.model("Corolla", toyota);
+        Category economy = TestDataFactory.category("Economy", BigDecimal.valueOf(5.0), BigDecimal.valueOf(15.0));
+        Car car = TestDataFactory.car("VIN123", "WX12345", corolla, economy,
+                BigDecimal.valueOf(10.0), BigDecimal.valueOf(50.0), BigDecimal.valueOf(300.0));
+        car.setId(3L);
+        Rental byCar = TestDataFactory.rental(kowalski, car, LocalDateTime.of(2026, 1, 1, 10, 0),
+                LocalDateTime.of(2026, 1, 5, 10, 0), RateType.DAILY, RentalStatus.RETURNED);
+        byCar.setId(1L);
+        Rental byCustomer = TestDataFactory.rental(kowalski, car, LocalDateTime.of(2026, 2, 1, 10, 0),
+                LocalDateTime.of(2026, 2, 5, 10, 0), RateType.DAILY, RentalStatus.ACTIVE);
+        byCustomer.setId(2L);
+
+        when(rentalRepository.findById(12345L)).thenReturn(Optional.empty());
+        when(carSearchIndex.isReady()).thenReturn(true);
+        when(carSearchIndex.search("12345", 10)).thenReturn(List.of(3L));
+        when(rentalRepository.findByCarIdInOrderByStartAtDesc(List.of(3L), PageRequest.of(0, 10)))
+                .thenReturn(List.of(byCustomer, byCar));
+        when(customerSearchIndex.isReady()).thenReturn(true);
+        when(customerSearchIndex.search("12345", 10)).thenReturn(List.of(new CustomerIndex.Hit(7L, 0.9)));
+        when(rentalRepository.findByCustomerIdInOrderByStartAtDesc(any(), eq(PageRequest.of(0, 10))))
+                .thenReturn(List.of(byCustomer));
+        //when
+        List<RentalDtos.RentalSearchHit> result = rentalService.search("12345", 10);
+        //then
+        //rental 2 matched both the plate (contains, 0.6) and the customer (0.9), rental 1 only the plate
+        assertEquals(List.of(2L, 1L), result.stream().map(h -> h.rental().id()).toList());
+        assertEquals(0.9, result.getFirst().score());
+        assertEquals(0.6, result.get(1).score());
+    }
+
+    @Test
+    void testSearchFallsBackToTextSearchWhenIndexesAreNotReady() {
+        //given
+        Customer kowalski = TestDataFactory.customer("jan.kowalski@example.com");
+        kowalski.setId(7L);
+        Brand toyota = TestDataFactory.brand("Toyota");
+        CarModel corolla = TestDataFactory.model("Corolla", toyota);
+        Category economy = TestDataFactory.category("Economy", BigDecimal.valueOf(5.0), BigDecimal.valueOf(15.0));
+        Car car = TestDataFactory.car("VIN123", "WX12345", corolla, economy,
+                BigDecimal.valueOf(10.0), BigDecimal.valueOf(50.0), BigDecimal.valueOf(300.0));
+        car.setId(3L);
+        Rental byCar = TestDataFactory.rental(kowalski, car, LocalDateTime.of(2026, 1, 1, 10, 0),
+                LocalDateTime.of(2026, 1, 5, 10, 0), RateType.DAILY, RentalStatus.RETURNED);
+        byCar.setId(1L);
+        Rental byCustomer = TestDataFactory.rental(kowalski, car, LocalDateTime.of(2026, 2, 1, 10, 0),
+                LocalDateTime.of(2026, 2, 5, 10, 0), RateType.DAILY, RentalStatus.ACTIVE);
+        byCustomer.setId(2L);
+
+        when(textSearch.cars("WX1", PageRequest.of(0, 10))).thenReturn(new PageImpl<>(List.of(car)));
+        when(rentalRepository.findByCarIdInOrderByStartAtDesc(List.of(3L), PageRequest.of(0, 10))).thenReturn(List.of(byCar));
+        when(textSearch.customers("WX1", PageRequest.of(0, 10))).thenReturn(new PageImpl<>(List.of(kowalski)));
+        when(rentalRepository.findByCustomerIdInOrderByStartAtDesc(any(), eq(PageRequest.of(0, 10))))
+                .thenReturn(List.of(byCustomer));
+        //when
+        List<RentalDtos.RentalSearchHit> result = rentalService.search("WX1", 10);
+        //then
+        assertEquals(List.of(1L, 2L), result.stream().map(h -> h.rental().id()).toList());
+        verify(carSearchIndex, never()).search(any(), anyInt());
+        verify(customerSearchIndex, never()).search(any(), anyInt());
+    }
+
+    @Test
+    void testSearchByRentalIdSkipsIndexesThatAreNotReady() {
+        //given
+        Customer customer = TestDataFactory.customer("john@example.com");
+        Brand toyota = TestDataFactory.brand("Toyota");
+        CarModel corolla = TestDataFactory.model("Corolla", toyota);
+        Category economy = TestDataFactory.category("Economy", BigDecimal.valueOf(5.0), BigDecimal.valueOf(15.0));
+        Car car = TestDataFactory.car("VIN123", "ABC123", corolla, economy,
+                BigDecimal.valueOf(10.0), BigDecimal.valueOf(50.0), BigDecimal.valueOf(300.0));
+        Rental rental = TestDataFactory.rental(customer, car, LocalDateTime.of(2026, 1, 1, 10, 0),
+                LocalDateTime.of(2026, 1, 5, 10, 0), RateType.DAILY, RentalStatus.ACTIVE);
+        rental.setId(42L);
+        when(rentalRepository.findById(42L)).thenReturn(Optional.of(rental));
+        when(textSearch.cars("#42", PageRequest.of(0, 10))).thenReturn(Page.empty());
+        when(textSearch.customers("#42", PageRequest.of(0, 10))).thenReturn(Page.empty());
+        //when
+        List<RentalDtos.RentalSearchHit> result = rentalService.search("#42", 10);
+        //then
+        assertEquals(1, result.size());
+        assertEquals(42L, result.getFirst().rental().id());
+        assertEquals(1.0, result.getFirst().score());
+        verify(carSearchIndex, never()).search(any(), anyInt());
+        verify(customerSearchIndex, never()).search(any(), anyInt());
+    }
+
     @Test
     void testListReturnsEmptyListWhenNoRentals() {
         //given
@@ -341,6 +461,7 @@ class RentalServiceTests {
         verify(pricingStrategy, times(1)).calculate(eq(car), eq(economy), eq(startAt), eq(plannedEndAt));
         verify(rentalRepository, times(1)).save(any(Rental.class));
         verify(carRepository, times(1)).save(any(Car.class));
+        verify(eventPublisher, times(1)).publishEvent(RentalChangedEvent.saved(savedRental));
     }
 
     @Test
@@ -591,6 +712,7 @@ class RentalServiceTests {
         Rental existingRental = TestDataFactory.rental(customer, car, LocalDateTime.of(2026, 1, 1, 10, 0),
                 LocalDateTime.of(2026, 1, 5, 10, 0), RateType.DAILY, RentalStatus.ACTIVE);
         existingRental.setId(rentalId);
+        existingRental.setReturnReminderSentAt(LocalDateTime.of(2026, 1, 4, 10, 0));
 
         PricingResult pricingResult = new PricingResult(BigDecimal.valueOf(450.0), BigDecimal.valueOf(5.0));
 
@@ -611,9 +733,11 @@ class RentalServiceTests {
         assertNotNull(result);
         assertEquals(rentalId, result.id());
         assertEquals(BigDecimal.valueOf(450.0), result.basePrice());
+        assertNull(existingRental.getReturnReminderSentAt());
         verify(rentalRepository, times(1)).findById(rentalId);
         verify(pricingStrategyFactory, times(1)).get(RateType.DAILY);
         verify(rentalRepository, times(1)).save(any(Rental.class));
+        verify(eventPublisher, times(1)).publishEvent(RentalChangedEvent.saved(extendedRental));
     }
 
     @Test
@@ -731,6 +855,7 @@ class RentalServiceTests {
         verify(rentalRepository, times(1)).findById(rentalId);
         verify(carRepository, times(1)).save(any(Car.class));
         verify(rentalRepository, times(1)).save(any(Rental.class));
+        verify(eventPublisher, times(1)).publishEvent(RentalChangedEvent.saved(rental));
     }
 
     @Test
@@ -1227,4 +1352,51 @@ class RentalServiceTests {
         verify(carService, never()).getEntity(any());
         verify(pricingStrategyFactory, never()).get(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testOverdueAccrualComputesProjectedLateFeesInSinglePass() {
+        //given
+        LocalDateTime now = LocalDateTime.now();
+        RentalRepository.OverdueRentalRow row1 = overdueRow(1L, "ABC123", now.minusHours(3).minusMinutes(10), new BigDecimal("10.00"));
+        RentalRepository.OverdueRentalRow row2 = overdueRow(2L, "XYZ789", now.minusMinutes(30), new BigDecimal("20.00"));
+        when(rentalRepository.streamOverdueForAccrual(eq(RentalStatus.ACTIVE), any(LocalDateTime.class)))
+                .thenReturn(Stream.of(row1, row2));
+        //when
+        RentalDtos.OverdueAccrualReportDto result = rentalService.overdueAccrual();
+        //then
+        assertEquals(2, result.overdueRentals());
+        assertEquals(4, result.rentals().getFirst().hoursLate());
+        assertEquals(new BigDecimal("20.00"), result.rentals().getFirst().projectedLateFee());
+        assertEquals(1, result.rentals().get(1).hoursLate());
+        assertEquals(new BigDecimal("10.00"), result.rentals().get(1).projectedLateFee());
+        assertEquals(new BigDecimal("30.00"), result.totalProjectedLateFee());
+        assertEquals("John Doe", result.rentals().getFirst().customerName());
+        verify(rentalRepository, never()).findOverdue(any(), any());
+    }
+
+    @Test
+    void testOverdueAccrualReturnsZeroTotalWhenNothingOverdue() {
+        //given
+        when(rentalRepository.streamOverdueForAccrual(eq(RentalStatus.ACTIVE), any(LocalDateTime.class)))
+                .thenReturn(Stream.empty());
+        //when
+        RentalDtos.OverdueAccrualReportDto result = rentalService.overdueAccrual();
+        //then
+        assertEquals(0, result.overdueRentals());
+        assertTrue(result.rentals().isEmpty());
+        assertEquals(new BigDecimal("0.00"), result.totalProjectedLateFee());
+    }
+
+    private static RentalRepository.OverdueRentalRow overdueRow(Long id, String plate, LocalDateTime plannedEndAt, BigDecimal hourlyRate) {
+        RentalRepository.OverdueRentalRow row = mock(RentalRepository.OverdueRentalRow.class);
+        lenient().when(row.getRentalId()).thenReturn(id);
+        lenient().when(row.getCarId()).thenReturn(id);
+        lenient().when(row.getLicensePlate()).thenReturn(plate);
+        lenient().when(row.getCustomerId()).thenReturn(id);
+        lenient().when(row.getCustomerFirstName()).thenReturn("John");
+        lenient().when(row.getCustomerLastName()).thenReturn("Doe");
+        lenient().when(row.getPlannedEndAt()).thenReturn(plannedEndAt);
+        lenient().when(row.getHourlyRate()).thenReturn(hourlyRate);
+        return row;
+    }
+}
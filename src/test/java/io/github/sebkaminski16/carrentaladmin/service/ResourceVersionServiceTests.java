@@ -0,0 +1,121 @@
+package io.github.sebkaminski16.carrentaladmin.service;
+
+import io.github.sebkaminski16.carrentaladmin.cache.ReferenceDataCache;
+import io.github.sebkaminski16.carrentaladmin.entity.Brand;
+import io.github.sebkaminski16.carrentaladmin.entity.Car;
+import io.github.sebkaminski16.carrentaladmin.entity.CarModel;
+import io.github.sebkaminski16.carrentaladmin.entity.Category;
+import io.github.sebkaminski16.carrentaladmin.entity.Customer;
+import io.github.sebkaminski16.carrentaladmin.entity.Rental;
+import io.github.sebkaminski16.carrentaladmin.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import java.math.BigDecimal;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ResourceVersionService.class, ReferenceDataCache.class})
+class ResourceVersionServiceTests {
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Brand toyota;
+    private Car car;
+    private Customer jan;
+    private Customer anna;
+
+    @BeforeEach
+    void setUp() {
+        toyota = em.persist(TestDataFactory.brand("Toyota"));
+        CarModel corolla = em.persist(TestDataFactory.model("Corolla", toyota));
+        Category economy = em.persist(TestDataFactory.category("Economy", BigDecimal.valueOf(5.0), BigDecimal.valueOf(15.0)));
+        car = em.persist(TestDataFactory.car("JTDBR32E720012345", "WX 12345", corolla, economy,
+                BigDecimal.valueOf(10.0), BigDecimal.valueOf(50.0), BigDecimal.valueOf(300.0)));
+        jan = em.persist(TestDataFactory.customer("jan@example.com"));
+        anna = em.persist(TestDataFactory.customer("anna@example.com"));
+        em.flush();
+    }
+
+    @Test
+    void testTableVersionIsStableUntilSomethingChanges() {
+        //given
+        ResourceVersionService.Version before = resourceVersionService.table(Customer.class);
+        //when
+        ResourceVersionService.Version again = resourceVersionService.table(Customer.class);
+        jan.setLastName("Kowalski-Nowak");
+        em.flush();
+        ResourceVersionService.Version afterUpdate = resourceVersionService.table(Customer.class);
+        //then
+        assertThat(again).isEqualTo(before);
+        assertThat(afterUpdate.etag()).isNotEqualTo(before.etag());
+        assertThat(before.etag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void testDeleteChangesETagThroughTheCount() {
+        //given
+        ResourceVersionService.Version before = resourceVersionService.table(Customer.class);
+        //when
+        em.remove(anna);
+        em.flush();
+        //then
+        assertThat(resourceVersionService.table(Customer.class).etag()).isNotEqualTo(before.etag());
+    }
+
+    @Test
+    void testCarVersionsFollowTheirBrand() {
+        //given
+        ResourceVersionService.Version list = resourceVersionService.cars();
+        ResourceVersionService.Version detail = resourceVersionService.car(car.getId());
+        //when
+        toyota.setName("Toyota Motor");
+        em.flush();
+        //then
+        assertThat(resourceVersionService.cars().etag()).isNotEqualTo(list.etag());
+        assertThat(resourceVersionService.car(car.getId()).etag()).isNotEqualTo(detail.etag());
+    }
+
+    @Test
+    void testVersioningBringsReferenceSnapshotUpToTheVersion() {
+        //given - the snapshot is loaded, then the brand changes without an event (as on another replica)
+        referenceDataCache.reload();
+        ResourceVersionService.Version list = resourceVersionService.cars();
+        toyota.setName("Toyota Motor");
+        em.flush();
+        //when
+        ResourceVersionService.Version cars = resourceVersionService.cars();
+        //then - the body built after the new ETag already has the new name
+        assertThat(cars.etag()).isNotEqualTo(list.etag());
+        assertThat(referenceDataCache.get().brand(toyota.getId()).name()).isEqualTo("Toyota Motor");
+        assertThat(resourceVersionService.table(Brand.class).etag()).isEqualTo(resourceVersionService.table(Brand.class).etag());
+    }
+
+    @Test
+    void testMissingRowHasNoVersion() {
+        //when / then
+        assertThat(resourceVersionService.row(Brand.class, -1L)).isNull();
+        assertThat(resourceVersionService.car(-1L)).isNull();
+        assertThat(resourceVersionService.row(Brand.class, toyota.getId())).isNotNull();
+    }
+
+    @Test
+    void testListsHaveOnlyETagAndDetailsAlsoLastModified() {
+        //when / then - a delete doesn't move max(updatedAt), so a list can't be dated
+        assertThat(resourceVersionService.table(Category.class).lastModified()).isEqualTo(-1);
+        assertThat(resourceVersionService.table(Rental.class).lastModified()).isEqualTo(-1);
+        assertThat(resourceVersionService.cars().lastModified()).isEqualTo(-1);
+        assertThat(resourceVersionService.row(Brand.class, toyota.getId()).lastModified()).isPositive();
+        assertThat(resourceVersionService.car(car.getId()).lastModified()).isPositive();
+    }
+}
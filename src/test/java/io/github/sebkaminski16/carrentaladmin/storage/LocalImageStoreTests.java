@@ -0,0 +1,84 @@
+package io.github.sebkaminski16.carrentaladmin.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalImageStoreTests {
+
+    private static final String UNKNOWN_HASH = "2fc5e4f1b1d4b2e25d0ae3c0fb4d1b3ae4ee8e3ba0b7fbd7dcbde3e1f2e2c3f0";
+
+    @TempDir
+    private Path tempDir;
+
+    private Path storeDir;
+    private LocalImageStore store;
+
+    @BeforeEach
+    void setUp() {
+        storeDir = tempDir.resolve("images");
+        store = new LocalImageStore();
+        ReflectionTestUtils.setField(store, "directory", storeDir);
+        ReflectionTestUtils.setField(store, "baseUrl", "/api/images/");
+    }
+
+    @Test
+    void testStoreIsContentAddressed() throws IOException {
+        //given
+        Path upload = Files.write(tempDir.resolve("image-1.jpg"), "full".getBytes());
+        //when
+        String url = store.store(upload);
+        //then
+        String hash = url.substring("/api/images/".length());
+        assertTrue(hash.matches("[0-9a-f]{64}"));
+        Path stored = storeDir.resolve(hash.substring(0, 2)).resolve(hash + ".jpg");
+        assertArrayEquals("full".getBytes(), Files.readAllBytes(stored));
+        assertTrue(Files.exists(upload), "the caller owns the source file");
+    }
+
+    @Test
+    void testStoringSameContentTwiceKeepsOneFile() throws IOException {
+        //given
+        Path first = Files.write(tempDir.resolve("image-1.png"), "same".getBytes());
+        Path second = Files.write(tempDir.resolve("image-2.png"), "same".getBytes());
+        //when
+        String firstUrl = store.store(first);
+        String secondUrl = store.store(second);
+        //then
+        assertEquals(firstUrl, secondUrl);
+        try (Stream<Path> files = Files.walk(storeDir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count(), "no temp files left behind either");
+        }
+    }
+
+    @Test
+    void testLoadReturnsStoredFileWithItsExtension() throws IOException {
+        //given
+        Path upload = Files.write(tempDir.resolve("image-1.png"), "png bytes".getBytes());
+        String hash = store.store(upload).substring("/api/images/".length());
+        //when
+        Optional<Resource> loaded = store.load(hash);
+        //then
+        assertTrue(loaded.isPresent());
+        assertEquals(hash + ".png", loaded.get().getFilename());
+        assertArrayEquals("png bytes".getBytes(), loaded.get().getContentAsByteArray());
+    }
+
+    @Test
+    void testLoadUnknownOrMalformedHashReturnsEmpty() {
+        //when & then
+        assertTrue(store.load(UNKNOWN_HASH).isEmpty());
+        assertTrue(store.load("../../etc/passwd").isEmpty());
+        assertTrue(store.load(null).isEmpty());
+    }
+}
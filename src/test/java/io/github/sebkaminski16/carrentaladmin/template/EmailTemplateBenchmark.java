@@ -0,0 +1,90 @@
+package io.github.sebkaminski16.carrentaladmin.template;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//Per-message cost of rendering 100k inactive-customer reminders (subject + text + html).
+//Not part of the test suite - run main() after `mvn test-compile`, e.g. from the IDE.
+//The GC profiler reports allocated bytes per message next to the timing.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(EmailTemplateBenchmark.MESSAGES)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailTemplateBenchmark {
+
+    static final int MESSAGES = 100_000;
+
+    private EmailTemplateEngine engine;
+    private String[] firstNames;
+    private Locale english;
+    private Locale polish;
+
+    @Setup
+    public void setUp() throws Exception {
+        engine = new EmailTemplateEngine();
+        ReflectionTestUtils.setField(engine, "location", "classpath*:email-templates/*");
+        ReflectionTestUtils.setField(engine, "defaultLocale", "en");
+        engine.load();
+
+        firstNames = new String[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            firstNames[i] = "Customer" + i;
+        }
+        english = Locale.ENGLISH;
+        polish = Locale.forLanguageTag("pl-PL");
+    }
+
+    @Benchmark
+    public void renderTemplate(Blackhole bh) {
+        for (int i = 0; i < MESSAGES; i++) {
+            bh.consume(engine.render("inactive-customer", english, Map.of("firstName", firstNames[i], "inactiveDays", 30)));
+        }
+    }
+
+    @Benchmark
+    public void renderTemplateWithLocaleFallback(Blackhole bh) {
+        for (int i = 0; i < MESSAGES; i++) {
+            bh.consume(engine.render("inactive-customer", polish, Map.of("firstName", firstNames[i], "inactiveDays", 30)));
+        }
+    }
+
+    @Benchmark
+    public void renderTemplateIntoSharedBuffer(Blackhole bh) {
+        StringBuilder buffer = new StringBuilder(1024);
+        for (int i = 0; i < MESSAGES; i++) {
+            bh.consume(engine.render("inactive-customer", english, Map.of("firstName", firstNames[i], "inactiveDays", 30), buffer));
+        }
+    }
+
+    //what EmailService did before: text body only, built by concatenation
+    @Benchmark
+    public void concatenationBaseline(Blackhole bh) {
+        for (int i = 0; i < MESSAGES; i++) {
+            String subject = "Are you there? You haven't rented anything for long time!";
+            String text = "Hey " + firstNames[i] + ",\n\n"
+                    + "You haven't rented any car for at least " + 30 + " days. Consider coming back!\n\n"
+                    + "Cheers,\nCar Rental Team";
+            bh.consume(subject);
+            bh.consume(text);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
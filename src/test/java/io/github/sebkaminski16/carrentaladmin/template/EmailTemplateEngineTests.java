@@ -0,0 +1,139 @@
+package io.github.sebkaminski16.carrentaladmin.template;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateEngineTests {
+
+    private EmailTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new EmailTemplateEngine();
+        ReflectionTestUtils.setField(engine, "location", "classpath*:email-templates/*");
+        ReflectionTestUtils.setField(engine, "defaultLocale", "en");
+        engine.load();
+    }
+
+    @Test
+    void testRenderUsesDefaultLocale() {
+        //when
+        RenderedEmail email = engine.render("inactive-customer", Map.of("firstName", "John", "inactiveDays", 30));
+        //then
+        assertEquals("Are you there? You haven't rented anything for long time!", email.subject());
+        assertEquals("Hey John,\n\nYou haven't rented any car for at least 30 days. Consider coming back!\n\n"
+                + "Cheers,\nCar Rental Team", email.text());
+        assertTrue(email.html().contains("<strong>30</strong>"));
+    }
+
+    @Test
+    void testRenderFallsBackFromCountryToLanguageVariant() {
+        //when
+        RenderedEmail email = engine.render("inactive-customer", Locale.forLanguageTag("pl-PL"),
+                Map.of("firstName", "Jan", "inactiveDays", 30));
+        //then
+        assertTrue(email.text().startsWith("Cześć Jan,"));
+        assertTrue(email.html().startsWith("<p>Cześć Jan,</p>"));
+    }
+
+    @Test
+    void testRenderTakesEveryPartFromTheSameLocale() {
+        //when
+        RenderedEmail email = engine.render("pickup-reminder", Locale.forLanguageTag("pl"),
+                Map.of("firstName", "Jan", "licensePlate", "WA12345", "startAt", "2026-03-01 10:00"));
+        //then
+        assertEquals("Twoje wypożyczenie niedługo się zaczyna!", email.subject());
+        assertTrue(email.text().startsWith("Cześć Jan,"));
+        assertTrue(email.html().startsWith("<p>Cześć Jan,</p>"));
+    }
+
+    @Test
+    void testVariantWithoutHtmlDoesNotBorrowAnotherLocalesHtml(@TempDir Path dir) throws Exception {
+        //given
+        Files.writeString(dir.resolve("welcome.subject.txt"), "Welcome");
+        Files.writeString(dir.resolve("welcome.txt"), "Hey {{firstName}}");
+        Files.writeString(dir.resolve("welcome.html"), "<p>Hey {{firstName}}</p>");
+        Files.writeString(dir.resolve("welcome_pl.subject.txt"), "Witamy");
+        Files.writeString(dir.resolve("welcome_pl.txt"), "Cześć {{firstName}}");
+        ReflectionTestUtils.setField(engine, "location", dir.toUri() + "*");
+        engine.load();
+        //when
+        RenderedEmail email = engine.render("welcome", Locale.forLanguageTag("pl"), Map.of("firstName", "Jan"));
+        //then
+        assertEquals("Witamy", email.subject());
+        assertEquals("Cześć Jan", email.text());
+        assertNull(email.html());
+    }
+
+    @Test
+    void testLoadRejectsVariantWithoutText(@TempDir Path dir) throws Exception {
+        //given
+        Files.writeString(dir.resolve("welcome.subject.txt"), "Welcome");
+        Files.writeString(dir.resolve("welcome.txt"), "Hey");
+        Files.writeString(dir.resolve("welcome_pl.subject.txt"), "Witamy");
+        ReflectionTestUtils.setField(engine, "location", dir.toUri() + "*");
+        //when / then
+        assertThrows(IllegalStateException.class, () -> engine.load());
+    }
+
+    @Test
+    void testRenderUnknownLocaleUsesDefault() {
+        //when
+        RenderedEmail email = engine.render("inactive-customer", Locale.GERMAN, Map.of("firstName", "Hans", "inactiveDays", 30));
+        //then
+        assertTrue(email.text().startsWith("Hey Hans,"));
+    }
+
+    @Test
+    void testHtmlValuesAreEscapedButTextValuesAreNot() {
+        //when
+        RenderedEmail email = engine.render("inactive-customer", Map.of("firstName", "<b>Tom & Jerry</b>", "inactiveDays", 30));
+        //then
+        assertTrue(email.text().startsWith("Hey <b>Tom & Jerry</b>,"));
+        assertTrue(email.html().startsWith("<p>Hey &lt;b&gt;Tom &amp; Jerry&lt;/b&gt;,</p>"));
+    }
+
+    @Test
+    void testRenderReusesBufferWithoutLeakingPreviousOutput() {
+        //given
+        StringBuilder buffer = new StringBuilder();
+        //when
+        RenderedEmail first = engine.render("inactive-customer", Locale.ENGLISH, Map.of("firstName", "Alexander", "inactiveDays", 30), buffer);
+        RenderedEmail second = engine.render("inactive-customer", Locale.ENGLISH, Map.of("firstName", "Al", "inactiveDays", 30), buffer);
+        //then
+        assertTrue(first.text().startsWith("Hey Alexander,"));
+        assertTrue(second.text().startsWith("Hey Al,"));
+        assertEquals(first.text().length() - 7, second.text().length());
+    }
+
+    @Test
+    void testRenderMissingValueThrows() {
+        //when / then
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.render("inactive-customer", Map.of("firstName", "John")));
+    }
+
+    @Test
+    void testRenderUnknownTemplateThrows() {
+        //when / then
+        assertThrows(IllegalArgumentException.class, () -> engine.render("no-such-template", Map.of()));
+        assertFalse(engine.hasTemplate("no-such-template"));
+        assertTrue(engine.hasTemplate("return-reminder"));
+    }
+
+    @Test
+    void testCompileRejectsUnterminatedPlaceholder() {
+        //when / then
+        assertThrows(IllegalStateException.class, () -> CompiledTemplate.compile("broken.txt", "Hey {{firstName", false));
+        assertThrows(IllegalStateException.class, () -> CompiledTemplate.compile("broken.txt", "Hey {{ }}", false));
+    }
+}